@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l1;
+
+import com.huawei.vectorblas.BLAS;
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.F2jBLAS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DsdotTest extends L1Benchmark {
+    @Param({"100", "10000", "1000000", "100000000"})
+    public int n;
+    public float[] x;
+    public float[] y;
+
+    private final BLAS f2jBlas = new F2jBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        x = BenchmarkUtils.randomFloatArray(n);
+        y = BenchmarkUtils.randomFloatArray(n);
+    }
+
+    @Benchmark
+    public void vecBlasDsdot(Blackhole bh) {
+        bh.consume(vBlas.dsdot(n, x, 0, 1, y, 0, 1));
+    }
+
+    @Benchmark
+    public void f2jBlasDsdot(Blackhole bh) {
+        bh.consume(f2jBlas.dsdot(n, x, 0, 1, y, 0, 1));
+    }
+
+    @Benchmark
+    public void vecBlasSdot(Blackhole bh) {
+        bh.consume(vBlas.sdot(n, x, 0, 1, y, 0, 1));
+    }
+}
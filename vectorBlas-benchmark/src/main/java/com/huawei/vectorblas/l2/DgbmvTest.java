@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BLAS;
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.F2jBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgbmvTest extends L2Benchmark {
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"100000"})
+    public int n;
+
+    // kl = ku = k, the narrow bands of finite-difference and filter matrices.
+    @Param({"8", "32", "64"})
+    public int k;
+    public int lda;
+
+    public double alpha;
+    public double[] a;
+    public double[] x;
+    public double beta;
+    public double[] y;
+
+    private final BLAS f2jBlas = new F2jBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        lda = 2 * k + 1;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(lda * n);
+        x = BenchmarkUtils.randomDoubleArray(n);
+        beta = BenchmarkUtils.randomDouble();
+        y = BenchmarkUtils.randomDoubleArray(n);
+    }
+
+    @Benchmark
+    public void vecBlasDgbmv(Blackhole bh) {
+        vBlas.dgbmv(trans, n, n, k, k, alpha, a, 0, lda, x, 0, 1, beta, y, 0, 1);
+        bh.consume(y);
+    }
+
+    @Benchmark
+    public void f2jBlasDgbmv(Blackhole bh) {
+        f2jBlas.dgbmv(trans, n, n, k, k, alpha, a, 0, lda, x, 0, 1, beta, y, 0, 1);
+        bh.consume(y);
+    }
+}
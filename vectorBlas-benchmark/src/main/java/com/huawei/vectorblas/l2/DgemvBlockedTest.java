@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.blas2.doubleprecision.Dgemv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemvBlockedTest extends L2Benchmark {
+    private static final int DEFAULT_BLOCK_ROWS = Dgemv.getBlockRows();
+
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int m;
+
+    @Param({"64"})
+    public int n;
+
+    // Without blocking every group of columns streams the whole of y (trans N) or x (trans T).
+    @Param({"true", "false"})
+    public boolean blocked;
+
+    public double alpha;
+    public double[] a;
+    public double[] x;
+    public double beta;
+    public double[] y;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Dgemv.setBlockRows(blocked ? DEFAULT_BLOCK_ROWS : Integer.MAX_VALUE);
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(m * n);
+        x = BenchmarkUtils.randomDoubleArray(trans.equals("T") ? m : n);
+        beta = BenchmarkUtils.randomDouble();
+        y = BenchmarkUtils.randomDoubleArray(trans.equals("T") ? n : m);
+    }
+
+    @Benchmark
+    public void vecBlasDgemv(Blackhole bh) {
+        vBlas.dgemv(trans, m, n, alpha, a, 0, m, x, 0, 1, beta, y, 0, 1);
+        bh.consume(y);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.LayoutBLAS;
+import com.huawei.vectorblas.utils.Layout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemvLayoutTest extends L2Benchmark {
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"500", "4000"})
+    public int m;
+    public int n;
+
+    public double alpha;
+    public double[] a;
+    public double[] x;
+    public double beta;
+    public double[] y;
+
+    private LayoutBLAS layoutBlas;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        n = m;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(m * n);
+        x = BenchmarkUtils.randomDoubleArray(trans.equals("T") ? m : n);
+        beta = BenchmarkUtils.randomDouble();
+        y = BenchmarkUtils.randomDoubleArray(trans.equals("T") ? n : m);
+        layoutBlas = new LayoutBLAS(vBlas);
+    }
+
+    @Benchmark
+    public void rowMajorDgemv(Blackhole bh) {
+        layoutBlas.dgemv(Layout.ROW_MAJOR, trans, m, n, alpha, a, 0, n, x, 0, 1, beta, y, 0, 1);
+        bh.consume(y);
+    }
+
+    // The column-major call that rowMajorDgemv maps to, on the same data.
+    @Benchmark
+    public void colMajorDgemv(Blackhole bh) {
+        vBlas.dgemv(trans.equals("N") ? "T" : "N", n, m, alpha, a, 0, n, x, 0, 1, beta, y, 0, 1);
+        bh.consume(y);
+    }
+}
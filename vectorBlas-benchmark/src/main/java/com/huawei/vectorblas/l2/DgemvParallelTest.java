@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.utils.BlasParallel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemvParallelTest extends L2Benchmark {
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"2000", "8000"})
+    public int m;
+    public int n;
+
+    public double alpha;
+    public double[] a;
+    public double[] x;
+    public double beta;
+    public double[] y, yclone;
+
+    private int defaultThreads;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        defaultThreads = BlasParallel.getNumThreads();
+        BlasParallel.setNumThreads(threads); // 1 runs the sequential kernels.
+        n = m;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(m * n);
+        x = BenchmarkUtils.randomDoubleArray(n);
+        beta = BenchmarkUtils.randomDouble();
+        y = BenchmarkUtils.randomDoubleArray(m);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BlasParallel.setNumThreads(defaultThreads);
+    }
+
+    @Benchmark
+    public void vecBlasDgemv(Blackhole bh) {
+        vBlas.dgemv(trans, m, n, alpha, a, 0, m, x, 0, 1, beta, yclone = y.clone(), 0, 1);
+        bh.consume(yclone);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.utils.BlasParallel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DsymvParallelTest extends L2Benchmark {
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    @Param({"U", "L"})
+    public String uplo;
+
+    @Param({"2000", "8000"})
+    public int n;
+
+    public double alpha;
+    public double[] a;
+    public double[] x;
+    public double beta;
+    public double[] y, yclone;
+
+    private int defaultThreads;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        defaultThreads = BlasParallel.getNumThreads();
+        BlasParallel.setNumThreads(threads); // 1 runs the sequential kernels.
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(n * n);
+        x = BenchmarkUtils.randomDoubleArray(n);
+        beta = BenchmarkUtils.randomDouble();
+        y = BenchmarkUtils.randomDoubleArray(n);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BlasParallel.setNumThreads(defaultThreads);
+    }
+
+    @Benchmark
+    public void vecBlasDsymv(Blackhole bh) {
+        vBlas.dsymv(uplo, n, alpha, a, 0, n, x, 0, 1, beta, yclone = y.clone(), 0, 1);
+        bh.consume(yclone);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BLAS;
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.F2jBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DsyrTest extends L2Benchmark {
+    @Param({"U", "L"})
+    public String uplo;
+
+    @Param({"100", "1000"})
+    public int n;
+
+    public double alpha;
+    public double[] a, aclone;
+    public double[] ap, apclone;
+    public double[] x;
+    public double[] y;
+
+    private final BLAS f2jBlas = new F2jBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(n * n);
+        ap = BenchmarkUtils.randomDoubleArray(n * (n + 1) / 2);
+        x = BenchmarkUtils.randomDoubleArray(n);
+        y = BenchmarkUtils.randomDoubleArray(n);
+    }
+
+    @Benchmark
+    public void vecBlasDsyr(Blackhole bh) {
+        vBlas.dsyr(uplo, n, alpha, x, 1, aclone = a.clone(), n);
+        bh.consume(aclone);
+    }
+
+    @Benchmark
+    public void f2jBlasDsyr(Blackhole bh) {
+        f2jBlas.dsyr(uplo, n, alpha, x, 1, aclone = a.clone(), n);
+        bh.consume(aclone);
+    }
+
+    @Benchmark
+    public void vecBlasDsyr2(Blackhole bh) {
+        vBlas.dsyr2(uplo, n, alpha, x, 1, y, 1, aclone = a.clone(), n);
+        bh.consume(aclone);
+    }
+
+    @Benchmark
+    public void f2jBlasDsyr2(Blackhole bh) {
+        f2jBlas.dsyr2(uplo, n, alpha, x, 1, y, 1, aclone = a.clone(), n);
+        bh.consume(aclone);
+    }
+
+    @Benchmark
+    public void vecBlasDspr2(Blackhole bh) {
+        vBlas.dspr2(uplo, n, alpha, x, 1, y, 1, apclone = ap.clone());
+        bh.consume(apclone);
+    }
+
+    @Benchmark
+    public void f2jBlasDspr2(Blackhole bh) {
+        f2jBlas.dspr2(uplo, n, alpha, x, 1, y, 1, apclone = ap.clone());
+        bh.consume(apclone);
+    }
+}
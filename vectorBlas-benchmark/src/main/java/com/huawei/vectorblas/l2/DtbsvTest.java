@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BLAS;
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.F2jBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DtbsvTest extends L2Benchmark {
+    @Param({"U", "L"})
+    public String uplo;
+
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"100000"})
+    public int n;
+
+    @Param({"8", "64"})
+    public int k;
+
+    public double[] a;
+    public double[] x;
+    public double[] xclone;
+
+    private final BLAS f2jBlas = new F2jBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = BenchmarkUtils.randomDoubleArray((k + 1) * n);
+        int diagRow = uplo.equals("U") ? k : 0;
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i <= k; i++) {
+                a[i + j * (k + 1)] /= k + 1;
+            }
+            a[diagRow + j * (k + 1)] = 2.0;
+        }
+        x = BenchmarkUtils.randomDoubleArray(n);
+    }
+
+    @Benchmark
+    public void vecBlasDtbsv(Blackhole bh) {
+        vBlas.dtbsv(uplo, trans, "N", n, k, a, 0, k + 1, xclone = x.clone(), 0, 1);
+        bh.consume(xclone);
+    }
+
+    @Benchmark
+    public void f2jBlasDtbsv(Blackhole bh) {
+        f2jBlas.dtbsv(uplo, trans, "N", n, k, a, 0, k + 1, xclone = x.clone(), 0, 1);
+        bh.consume(xclone);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BLAS;
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.F2jBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DtrsvTest extends L2Benchmark {
+    @Param({"U", "L"})
+    public String uplo;
+
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"100", "1000", "4000"})
+    public int n;
+
+    public double[] a;
+    public double[] x;
+    public double[] xclone;
+
+    private final BLAS f2jBlas = new F2jBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = BenchmarkUtils.randomDoubleArray(n * n);
+        for (int i = 0; i < n * n; i++) {
+            a[i] /= n;
+        }
+        for (int j = 0; j < n; j++) {
+            a[j + j * n] = 2.0;
+        }
+        x = BenchmarkUtils.randomDoubleArray(n);
+    }
+
+    @Benchmark
+    public void vecBlasDtrsv(Blackhole bh) {
+        vBlas.dtrsv(uplo, trans, "N", n, a, 0, n, xclone = x.clone(), 0, 1);
+        bh.consume(xclone);
+    }
+
+    @Benchmark
+    public void f2jBlasDtrsv(Blackhole bh) {
+        f2jBlas.dtrsv(uplo, trans, "N", n, a, 0, n, xclone = x.clone(), 0, 1);
+        bh.consume(xclone);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.blas2.singleprecision.Sgemv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class SgemvBlockedTest extends L2Benchmark {
+    private static final int DEFAULT_BLOCK_ROWS = Sgemv.getBlockRows();
+
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int m;
+
+    @Param({"64"})
+    public int n;
+
+    // Without blocking every group of columns streams the whole of y (trans N) or x (trans T).
+    @Param({"true", "false"})
+    public boolean blocked;
+
+    public float alpha;
+    public float[] a;
+    public float[] x;
+    public float beta;
+    public float[] y;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Sgemv.setBlockRows(blocked ? DEFAULT_BLOCK_ROWS : Integer.MAX_VALUE);
+        alpha = BenchmarkUtils.randomFloat();
+        a = BenchmarkUtils.randomFloatArray(m * n);
+        x = BenchmarkUtils.randomFloatArray(trans.equals("T") ? m : n);
+        beta = BenchmarkUtils.randomFloat();
+        y = BenchmarkUtils.randomFloatArray(trans.equals("T") ? n : m);
+    }
+
+    @Benchmark
+    public void vecBlasSgemv(Blackhole bh) {
+        vBlas.sgemv(trans, m, n, alpha, a, 0, m, x, 0, 1, beta, y, 0, 1);
+        bh.consume(y);
+    }
+}
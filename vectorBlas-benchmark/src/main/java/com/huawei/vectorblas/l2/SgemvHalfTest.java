@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l2;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.VectorBLAS;
+import com.huawei.vectorblas.utils.HalfPrecision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class SgemvHalfTest extends L2Benchmark {
+    @Param({"FP16", "BF16"})
+    public HalfPrecision format;
+
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"1000", "4000"})
+    public int m;
+    public int n;
+
+    public float alpha;
+    public float[] a;
+    public short[] ha;
+    public float[] x;
+    public float[] y;
+
+    private final VectorBLAS vectorBlas = new VectorBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        n = m;
+        alpha = BenchmarkUtils.randomFloat();
+        a = BenchmarkUtils.randomFloatArray(m * n);
+        ha = new short[m * n];
+        for (int i = 0; i < m * n; i++) {
+            ha[i] = format.fromFloat(a[i]);
+        }
+        x = BenchmarkUtils.randomFloatArray(trans.equals("N") ? n : m);
+        y = new float[trans.equals("N") ? m : n];
+    }
+
+    @Benchmark
+    public void vecBlasSgemvHalf(Blackhole bh) {
+        vectorBlas.sgemv(trans, m, n, alpha, format, ha, 0, m, x, 0, 1, 0.0f, y, 0, 1);
+        bh.consume(y);
+    }
+
+    @Benchmark
+    public void vecBlasSgemv(Blackhole bh) {
+        vBlas.sgemv(trans, m, n, alpha, a, 0, m, x, 0, 1, 0.0f, y, 0, 1);
+        bh.consume(y);
+    }
+}
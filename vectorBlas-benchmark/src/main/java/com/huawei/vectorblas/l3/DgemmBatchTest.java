@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BLAS;
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.F2jBLAS;
+import com.huawei.vectorblas.VectorBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 3, time = 5)
+public class DgemmBatchTest extends L3Benchmark {
+    @Param({"8", "16", "32", "64"})
+    public int m;
+
+    @Param({"1000"})
+    public int batchSize;
+
+    public int stride;
+    public double alpha;
+    public double[] a;
+    public double[] b;
+    public double[] c;
+
+    private final VectorBLAS vectorBlas = new VectorBLAS();
+    private final BLAS f2jBlas = new F2jBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        stride = m * m;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(stride * batchSize);
+        b = BenchmarkUtils.randomDoubleArray(stride * batchSize);
+        c = new double[stride * batchSize];
+    }
+
+    @Benchmark
+    public void vecBlasDgemmBatchStrided(Blackhole bh) {
+        vectorBlas.dgemmBatchStrided("N", "N", m, m, m, alpha, a, 0, m, stride, b, 0, m, stride, 0.0d, c, 0, m,
+            stride, batchSize);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasDgemm(Blackhole bh) {
+        for (int i = 0; i < batchSize; i++) {
+            vBlas.dgemm("N", "N", m, m, m, alpha, a, i * stride, m, b, i * stride, m, 0.0d, c, i * stride, m);
+        }
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void f2jBlasDgemm(Blackhole bh) {
+        for (int i = 0; i < batchSize; i++) {
+            f2jBlas.dgemm("N", "N", m, m, m, alpha, a, i * stride, m, b, i * stride, m, 0.0d, c, i * stride, m);
+        }
+        bh.consume(c);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.VectorBLAS;
+import com.huawei.vectorblas.utils.GemmEpilogue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemmEpilogueTest extends L3Benchmark {
+    private static final double GELU_SCALE = Math.sqrt(2.0d / Math.PI);
+
+    @Param({"RELU", "GELU"})
+    public GemmEpilogue.Activation activation;
+
+    @Param({"64", "256", "1000"})
+    public int m;
+
+    public double alpha;
+    public double[] a;
+    public double[] b;
+    public double[] bias;
+    public double[] c;
+    public GemmEpilogue epilogue;
+
+    private final VectorBLAS vectorBlas = new VectorBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(m * m);
+        b = BenchmarkUtils.randomDoubleArray(m * m);
+        bias = BenchmarkUtils.randomDoubleArray(m);
+        c = new double[m * m];
+        epilogue = new GemmEpilogue(GemmEpilogue.Bias.ROW, bias, 0, activation);
+    }
+
+    @Benchmark
+    public void vecBlasDgemmEpilogue(Blackhole bh) {
+        vectorBlas.dgemmEpilogue("N", "N", m, m, m, alpha, a, 0, m, b, 0, m, 0.0d, c, 0, m, epilogue);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasDgemmUnfused(Blackhole bh) {
+        vBlas.dgemm("N", "N", m, m, m, alpha, a, 0, m, b, 0, m, 0.0d, c, 0, m);
+        for (int j = 0; j < m; j++) {
+            for (int i = 0; i < m; i++) {
+                c[i + j * m] += bias[i];
+            }
+        }
+        for (int i = 0; i < m * m; i++) {
+            double x = c[i];
+            c[i] = activation == GemmEpilogue.Activation.RELU ? Math.max(x, 0.0d)
+                : 0.5d * x * (1.0d + Math.tanh(GELU_SCALE * (x + 0.044715d * x * x * x)));
+        }
+        bh.consume(c);
+    }
+}
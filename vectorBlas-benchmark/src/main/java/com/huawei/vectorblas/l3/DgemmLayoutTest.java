@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.LayoutBLAS;
+import com.huawei.vectorblas.utils.Layout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemmLayoutTest extends L3Benchmark {
+    @Param({"N", "T"})
+    public String transa;
+    @Param({"N", "T"})
+    public String transb;
+
+    @Param({"256", "1000", "2000"})
+    public int m;
+    public int n;
+    public int k;
+
+    public double alpha;
+    public double[] a;
+    public double[] b;
+    public double beta;
+    public double[] c;
+
+    private LayoutBLAS layoutBlas;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        n = m / 2;
+        k = m;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(k * m);
+        b = BenchmarkUtils.randomDoubleArray(k * n);
+        beta = BenchmarkUtils.randomDouble();
+        c = BenchmarkUtils.randomDoubleArray(m * n);
+        layoutBlas = new LayoutBLAS(vBlas);
+    }
+
+    @Benchmark
+    public void rowMajorDgemm(Blackhole bh) {
+        layoutBlas.dgemm(Layout.ROW_MAJOR, transa, transb, m, n, k, alpha, a, 0, transa.equals("N") ? k : m, b, 0,
+            transb.equals("N") ? n : k, beta, c, 0, n);
+        bh.consume(c);
+    }
+
+    // The column-major call that rowMajorDgemm maps to, on the same data.
+    @Benchmark
+    public void colMajorDgemm(Blackhole bh) {
+        vBlas.dgemm(transb, transa, n, m, k, alpha, b, 0, transb.equals("N") ? n : k, a, 0,
+            transa.equals("N") ? k : m, beta, c, 0, n);
+        bh.consume(c);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.VectorBLAS;
+import com.huawei.vectorblas.utils.PackedMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemmPackedTest extends L3Benchmark {
+    @Param({"N", "T"})
+    public String transa;
+
+    @Param({"16", "64", "256"})
+    public int m;
+
+    @Param({"512", "2000"})
+    public int n;
+    public int k;
+
+    public double alpha;
+    public double[] a;
+    public double[] b;
+    public double[] c;
+    public PackedMatrix packedB;
+
+    private final VectorBLAS vectorBlas = new VectorBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        k = n;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(m * k);
+        b = BenchmarkUtils.randomDoubleArray(k * n);
+        c = new double[m * n];
+        packedB = vectorBlas.dgemmPack("B", "N", m, n, k, b, 0, k);
+    }
+
+    @Benchmark
+    public void vecBlasDgemm(Blackhole bh) {
+        vBlas.dgemm(transa, "N", m, n, k, alpha, a, 0, transa.equals("N") ? m : k, b, 0, k, 0.0d, c, 0, m);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasDgemmCompute(Blackhole bh) {
+        vectorBlas.dgemmCompute(transa, m, alpha, a, 0, transa.equals("N") ? m : k, packedB, 0.0d, c, 0, m);
+        bh.consume(c);
+    }
+}
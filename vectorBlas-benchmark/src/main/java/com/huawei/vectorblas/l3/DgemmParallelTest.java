@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.utils.BlasParallel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemmParallelTest extends L3Benchmark {
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    @Param({"1000", "3000"})
+    public int m;
+
+    public double alpha;
+    public double[] a;
+    public double[] b;
+    public double beta;
+    public double[] c, cclone;
+    public float[] sa;
+    public float[] sb;
+    public float[] sc, scclone;
+
+    private int defaultThreads;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        defaultThreads = BlasParallel.getNumThreads();
+        BlasParallel.setNumThreads(threads); // 1 runs the serial blocked loops.
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(m * m);
+        b = BenchmarkUtils.randomDoubleArray(m * m);
+        beta = BenchmarkUtils.randomDouble();
+        c = BenchmarkUtils.randomDoubleArray(m * m);
+        sa = BenchmarkUtils.randomFloatArray(m * m);
+        sb = BenchmarkUtils.randomFloatArray(m * m);
+        sc = BenchmarkUtils.randomFloatArray(m * m);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BlasParallel.setNumThreads(defaultThreads);
+    }
+
+    @Benchmark
+    public void vecBlasDgemm(Blackhole bh) {
+        vBlas.dgemm("N", "N", m, m, m, alpha, a, 0, m, b, 0, m, beta, cclone = c.clone(), 0, m);
+        bh.consume(cclone);
+    }
+
+    @Benchmark
+    public void vecBlasSgemm(Blackhole bh) {
+        vBlas.sgemm("N", "N", m, m, m, (float) alpha, sa, 0, m, sb, 0, m, (float) beta, scclone = sc.clone(), 0, m);
+        bh.consume(scclone);
+    }
+}
@@ -0,0 +1,48 @@
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 3, time = 5)
+public class DgemmSmallTest extends L3Benchmark {
+    @Param({"N", "T"})
+    public String transa;
+    @Param({"N", "T"})
+    public String transb;
+
+    @Param({"2", "4", "8", "12", "16", "24", "32", "48", "64"})
+    public int m;
+    public int n;
+    public int k;
+
+    public double alpha;
+    public double[] a;
+    public double[] b;
+    public double beta;
+    public double[] c;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        n = m;
+        k = m;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(k * m);
+        b = BenchmarkUtils.randomDoubleArray(k * n);
+        beta = BenchmarkUtils.randomDouble();
+        c = BenchmarkUtils.randomDoubleArray(m * n);
+    }
+
+    @Benchmark
+    public void vecBlasDgemm(Blackhole bh) {
+        // c is updated in place, a clone would cost as much as the multiplication at these sizes.
+        vBlas.dgemm(transa, transb, m, n, k, alpha, a, 0, transa.equals("N") ? m : k, b, 0, transb.equals("N") ? k : n, beta, c, 0, m);
+        bh.consume(c);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.utils.BlasParallel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemmSplitKTest extends L3Benchmark {
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    @Param({"false", "true"})
+    public boolean deterministic;
+
+    @Param({"64"})
+    public int m;
+
+    @Param({"100000", "1000000"})
+    public int k;
+
+    public double alpha;
+    public double[] a;
+    public double[] b;
+    public double[] c;
+
+    private int defaultThreads;
+    private boolean defaultDeterministic;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        defaultThreads = BlasParallel.getNumThreads();
+        defaultDeterministic = BlasParallel.isDeterministicSplitK();
+        BlasParallel.setNumThreads(threads); // 1 without deterministic mode runs the serial k loop.
+        BlasParallel.setDeterministicSplitK(deterministic);
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(k * m);
+        b = BenchmarkUtils.randomDoubleArray(k * m);
+        c = new double[m * m];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BlasParallel.setNumThreads(defaultThreads);
+        BlasParallel.setDeterministicSplitK(defaultDeterministic);
+    }
+
+    @Benchmark
+    public void vecBlasDgemm(Blackhole bh) {
+        // Gram matrix of a wide feature set: C = A^T * A shaped, m = n = 64 and a long k.
+        vBlas.dgemm("T", "N", m, m, k, alpha, a, 0, k, b, 0, k, 0.0d, c, 0, m);
+        bh.consume(c);
+    }
+}
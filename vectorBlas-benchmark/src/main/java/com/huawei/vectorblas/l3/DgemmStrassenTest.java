@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.VectorBLAS;
+import com.huawei.vectorblas.blas3.doubleprecision.DgemmStrassen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DgemmStrassenTest extends L3Benchmark {
+    @Param({"1024", "2048", "4096"})
+    public int cutoff;
+
+    @Param({"2048", "4096"})
+    public int m;
+
+    public double alpha;
+    public double[] a;
+    public double[] b;
+    public double[] c;
+
+    private final VectorBLAS vectorBlas = new VectorBLAS();
+    private int defaultCutoff;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        defaultCutoff = DgemmStrassen.getCutoff();
+        DgemmStrassen.setCutoff(cutoff);
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(m * m);
+        b = BenchmarkUtils.randomDoubleArray(m * m);
+        c = new double[m * m];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DgemmStrassen.setCutoff(defaultCutoff);
+    }
+
+    @Benchmark
+    public void vecBlasDgemmStrassen(Blackhole bh) {
+        vectorBlas.dgemmStrassen("N", "N", m, m, m, alpha, a, 0, m, b, 0, m, 0.0d, c, 0, m);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasDgemm(Blackhole bh) {
+        vBlas.dgemm("N", "N", m, m, m, alpha, a, 0, m, b, 0, m, 0.0d, c, 0, m);
+        bh.consume(c);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BLAS;
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.F2jBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DsyrkTest extends L3Benchmark {
+    @Param({"U", "L"})
+    public String uplo;
+    @Param({"N", "T"})
+    public String trans;
+
+    @Param({"256", "1000"})
+    public int n;
+    public int k;
+
+    public double alpha;
+    public double[] a;
+    public double beta;
+    public double[] c, cclone;
+
+    private final BLAS f2jBlas = new F2jBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        k = n;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(n * k);
+        beta = BenchmarkUtils.randomDouble();
+        c = BenchmarkUtils.randomDoubleArray(n * n);
+    }
+
+    @Benchmark
+    public void vecBlasDsyrk(Blackhole bh) {
+        vBlas.dsyrk(uplo, trans, n, k, alpha, a, 0, trans.equals("N") ? n : k, beta, cclone = c.clone(), 0, n);
+        bh.consume(cclone);
+    }
+
+    @Benchmark
+    public void f2jBlasDsyrk(Blackhole bh) {
+        f2jBlas.dsyrk(uplo, trans, n, k, alpha, a, 0, trans.equals("N") ? n : k, beta, cclone = c.clone(), 0, n);
+        bh.consume(cclone);
+    }
+
+    @Benchmark
+    public void vecBlasDgemm(Blackhole bh) {
+        // The full product that dsyrk computes half of.
+        String transb = trans.equals("N") ? "T" : "N";
+        int lda = trans.equals("N") ? n : k;
+        vBlas.dgemm(trans, transb, n, n, k, alpha, a, 0, lda, a, 0, lda, beta, cclone = c.clone(), 0, n);
+        bh.consume(cclone);
+    }
+}
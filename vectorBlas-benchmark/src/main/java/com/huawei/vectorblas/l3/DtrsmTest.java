@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BLAS;
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.F2jBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class DtrsmTest extends L3Benchmark {
+    @Param({"L", "R"})
+    public String side;
+    @Param({"U", "L"})
+    public String uplo;
+    @Param({"N", "T"})
+    public String transa;
+
+    @Param({"256", "1000"})
+    public int m;
+    public int n;
+
+    public double alpha;
+    public double[] a;
+    public double[] b, bclone;
+
+    private final BLAS f2jBlas = new F2jBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        n = m;
+        alpha = BenchmarkUtils.randomDouble();
+        a = BenchmarkUtils.randomDoubleArray(m * m);
+        for (int i = 0; i < m * m; i++) {
+            a[i] /= m;
+        }
+        for (int j = 0; j < m; j++) {
+            a[j + j * m] = 2.0;
+        }
+        b = BenchmarkUtils.randomDoubleArray(m * n);
+    }
+
+    @Benchmark
+    public void vecBlasDtrsm(Blackhole bh) {
+        vBlas.dtrsm(side, uplo, transa, "N", m, n, alpha, a, 0, m, bclone = b.clone(), 0, m);
+        bh.consume(bclone);
+    }
+
+    @Benchmark
+    public void f2jBlasDtrsm(Blackhole bh) {
+        f2jBlas.dtrsm(side, uplo, transa, "N", m, n, alpha, a, 0, m, bclone = b.clone(), 0, m);
+        bh.consume(bclone);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.VectorBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+public class I8gemmTest extends L3Benchmark {
+    @Param({"N", "T"})
+    public String transa;
+
+    @Param({"256", "1000"})
+    public int m;
+
+    public byte[] a;
+    public byte[] b;
+    public int[] c;
+    public float[] fa;
+    public float[] fb;
+    public float[] fc;
+
+    private final VectorBLAS vectorBlas = new VectorBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(1);
+        a = new byte[m * m];
+        b = new byte[m * m];
+        random.nextBytes(a);
+        random.nextBytes(b);
+        c = new int[m * m];
+        fa = new float[m * m];
+        fb = new float[m * m];
+        fc = BenchmarkUtils.randomFloatArray(m * m);
+        for (int i = 0; i < m * m; i++) {
+            fa[i] = a[i];
+            fb[i] = b[i];
+        }
+    }
+
+    @Benchmark
+    public void vecBlasI8gemm(Blackhole bh) {
+        vectorBlas.i8gemm(transa, "N", m, m, m, a, 0, m, b, 0, m, 0, c, 0, m);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasSgemm(Blackhole bh) {
+        vBlas.sgemm(transa, "N", m, m, m, 1.0f, fa, 0, m, fb, 0, m, 0.0f, fc, 0, m);
+        bh.consume(fc);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.VectorBLAS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class SdgemmTest extends L3Benchmark {
+    @Param({"N", "T"})
+    public String transa;
+
+    @Param({"256", "1000"})
+    public int m;
+
+    public float alpha;
+    public float[] a;
+    public float[] b;
+    public float[] c;
+    public double[] dc;
+
+    private final VectorBLAS vectorBlas = new VectorBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        alpha = BenchmarkUtils.randomFloat();
+        a = BenchmarkUtils.randomFloatArray(m * m);
+        b = BenchmarkUtils.randomFloatArray(m * m);
+        c = new float[m * m];
+        dc = new double[m * m];
+    }
+
+    @Benchmark
+    public void vecBlasSdgemm(Blackhole bh) {
+        vectorBlas.sdgemm(transa, "N", m, m, m, alpha, a, 0, m, b, 0, m, 0.0f, c, 0, m);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasSgemm(Blackhole bh) {
+        vBlas.sgemm(transa, "N", m, m, m, alpha, a, 0, m, b, 0, m, 0.0f, c, 0, m);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasDgemmConverted(Blackhole bh) {
+        // The workaround sdgemm replaces: widen the whole matrices to double and call dgemm.
+        double[] da = new double[m * m];
+        double[] db = new double[m * m];
+        for (int i = 0; i < m * m; i++) {
+            da[i] = a[i];
+            db[i] = b[i];
+        }
+        vBlas.dgemm(transa, "N", m, m, m, alpha, da, 0, m, db, 0, m, 0.0d, dc, 0, m);
+        for (int i = 0; i < m * m; i++) {
+            c[i] = (float) dc[i];
+        }
+        bh.consume(c);
+    }
+}
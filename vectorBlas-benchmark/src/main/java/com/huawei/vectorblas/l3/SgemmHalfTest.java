@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Huawei Technologies Co., Ltd. 2022-2022. All rights reserved.
+ */
+
+package com.huawei.vectorblas.l3;
+
+import com.huawei.vectorblas.BenchmarkUtils;
+import com.huawei.vectorblas.VectorBLAS;
+import com.huawei.vectorblas.utils.HalfPrecision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class SgemmHalfTest extends L3Benchmark {
+    @Param({"FP16", "BF16"})
+    public HalfPrecision format;
+
+    @Param({"N", "T"})
+    public String transa;
+
+    @Param({"256", "1000"})
+    public int m;
+
+    public float alpha;
+    public float[] a;
+    public float[] b;
+    public short[] ha;
+    public short[] hb;
+    public float[] c;
+
+    private final VectorBLAS vectorBlas = new VectorBLAS();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        alpha = BenchmarkUtils.randomFloat();
+        a = BenchmarkUtils.randomFloatArray(m * m);
+        b = BenchmarkUtils.randomFloatArray(m * m);
+        ha = new short[m * m];
+        hb = new short[m * m];
+        for (int i = 0; i < m * m; i++) {
+            ha[i] = format.fromFloat(a[i]);
+            hb[i] = format.fromFloat(b[i]);
+        }
+        c = new float[m * m];
+    }
+
+    @Benchmark
+    public void vecBlasSgemmHalf(Blackhole bh) {
+        vectorBlas.sgemm(transa, "N", m, m, m, alpha, format, ha, 0, m, hb, 0, m, 0.0f, c, 0, m);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasSgemmHalfA(Blackhole bh) {
+        vectorBlas.sgemm(transa, "N", m, m, m, alpha, format, ha, 0, m, b, 0, m, 0.0f, c, 0, m);
+        bh.consume(c);
+    }
+
+    @Benchmark
+    public void vecBlasSgemm(Blackhole bh) {
+        vBlas.sgemm(transa, "N", m, m, m, alpha, a, 0, m, b, 0, m, 0.0f, c, 0, m);
+        bh.consume(c);
+    }
+}
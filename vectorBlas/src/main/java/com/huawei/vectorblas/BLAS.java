@@ -56,6 +56,14 @@ public interface BLAS {
 
     float sdot(int n, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy);
 
+    double dsdot(int n, float[] x, int incx, float[] y, int incy);
+
+    double dsdot(int n, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy);
+
+    float sdsdot(int n, float sb, float[] x, int incx, float[] y, int incy);
+
+    float sdsdot(int n, float sb, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy);
+
     float snrm2(int n, float[] x, int incx);
 
     float snrm2(int n, float[] x, int xOffset, int incx);
@@ -187,6 +187,40 @@ public class F2jBLAS implements BLAS {
         return org.netlib.blas.Sdot.sdot(n, x, xOffset, incx, y, yOffset, incy);
     }
 
+    @Override
+    public double dsdot(int n, float[] x, int incx, float[] y, int incy) {
+        return dsdot(n, x, 0, incx, y, 0, incy);
+    }
+
+    /**
+     * F2jblas has no dsdot, reference loop with every product and sum in double.
+     */
+    @Override
+    public double dsdot(int n, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        double sum = 0.0D;
+        if (n <= 0) {
+            return sum;
+        }
+        int ix = incx >= 0 ? 0 : (n - 1) * -incx;
+        int iy = incy >= 0 ? 0 : (n - 1) * -incy;
+        for (int i = 0; i < n; i++) {
+            sum += (double) x[xOffset + ix] * (double) y[yOffset + iy];
+            ix += incx;
+            iy += incy;
+        }
+        return sum;
+    }
+
+    @Override
+    public float sdsdot(int n, float sb, float[] x, int incx, float[] y, int incy) {
+        return org.netlib.blas.Sdsdot.sdsdot(n, sb, x, 0, incx, y, 0, incy);
+    }
+
+    @Override
+    public float sdsdot(int n, float sb, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        return org.netlib.blas.Sdsdot.sdsdot(n, sb, x, xOffset, incx, y, yOffset, incy);
+    }
+
     @Override
     public double dnrm2(int n, double[] x, int incx) {
         return dnrm2(n, x, 0, incx);
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Layout;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * CBLAS style entry points that take the storage order of the matrices as their first argument. A row-major
+ * matrix is the column-major transpose of itself with the same leading dimension, so every ROW_MAJOR call is
+ * answered by one call of the wrapped column-major BLAS on the transposed problem: the operands of GEMM and GER
+ * are swapped, and side, uplo and trans flags and the m, n dimensions are exchanged where the transpose moves
+ * them. Nothing is copied. The arguments are checked here first and numbered as CBLAS does, with layout as
+ * argument 1 and the offsets not counted, so that an error names the argument as it was passed to this class
+ * rather than its position in the transposed call.
+ */
+public class LayoutBLAS {
+    private final BLAS blas;
+
+    public LayoutBLAS() {
+        this(new VectorBLAS());
+    }
+
+    public LayoutBLAS(BLAS blas) {
+        this.blas = blas;
+    }
+
+    /**
+     * C := alpha * op(A) * op(B) + beta * C; row-major, this is C^T := alpha * op(B)^T * op(A)^T + beta * C^T.
+     */
+    public void dgemm(Layout layout, String transa, String transb, int m, int n, int k, double alpha, double[] a,
+        int aOffset, int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc) {
+        checkGemm("DGEMM_LAYOUT", layout, transa, transb, m, n, k, lda, ldb, ldc);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.dgemm(transb, transa, n, m, k, alpha, b, bOffset, ldb, a, aOffset, lda, beta, c, cOffset, ldc);
+        } else {
+            blas.dgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+        }
+    }
+
+    public void sgemm(Layout layout, String transa, String transb, int m, int n, int k, float alpha, float[] a,
+        int aOffset, int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        checkGemm("SGEMM_LAYOUT", layout, transa, transb, m, n, k, lda, ldb, ldc);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.sgemm(transb, transa, n, m, k, alpha, b, bOffset, ldb, a, aOffset, lda, beta, c, cOffset, ldc);
+        } else {
+            blas.sgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+        }
+    }
+
+    /**
+     * y := alpha * op(A) * x + beta * y for the m x n matrix A; row-major A is the column-major n x m A^T.
+     */
+    public void dgemv(Layout layout, String trans, int m, int n, double alpha, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx, double beta, double[] y, int yOffset, int incy) {
+        checkGemv("DGEMV_LAYOUT", layout, trans, m, n, lda, incx, incy);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.dgemv(transpose(trans), n, m, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+        } else {
+            blas.dgemv(trans, m, n, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+        }
+    }
+
+    public void sgemv(Layout layout, String trans, int m, int n, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx, float beta, float[] y, int yOffset, int incy) {
+        checkGemv("SGEMV_LAYOUT", layout, trans, m, n, lda, incx, incy);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.sgemv(transpose(trans), n, m, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+        } else {
+            blas.sgemv(trans, m, n, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+        }
+    }
+
+    /**
+     * A := alpha * x * y^T + A; row-major, this is A^T := alpha * y * x^T + A^T.
+     */
+    public void dger(Layout layout, int m, int n, double alpha, double[] x, int xOffset, int incx, double[] y,
+        int yOffset, int incy, double[] a, int aOffset, int lda) {
+        checkGer("DGER_LAYOUT", layout, m, n, incx, incy, lda);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.dger(n, m, alpha, y, yOffset, incy, x, xOffset, incx, a, aOffset, lda);
+        } else {
+            blas.dger(m, n, alpha, x, xOffset, incx, y, yOffset, incy, a, aOffset, lda);
+        }
+    }
+
+    public void sger(Layout layout, int m, int n, float alpha, float[] x, int xOffset, int incx, float[] y,
+        int yOffset, int incy, float[] a, int aOffset, int lda) {
+        checkGer("SGER_LAYOUT", layout, m, n, incx, incy, lda);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.sger(n, m, alpha, y, yOffset, incy, x, xOffset, incx, a, aOffset, lda);
+        } else {
+            blas.sger(m, n, alpha, x, xOffset, incx, y, yOffset, incy, a, aOffset, lda);
+        }
+    }
+
+    /**
+     * y := alpha * A * x + beta * y for symmetric A; the upper triangle of a row-major A is the lower one of the
+     * column-major A^T = A.
+     */
+    public void dsymv(Layout layout, String uplo, int n, double alpha, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx, double beta, double[] y, int yOffset, int incy) {
+        checkSymv("DSYMV_LAYOUT", layout, uplo, n, lda, incx, incy);
+        String colUplo = layout == Layout.ROW_MAJOR ? flipUplo(uplo) : uplo;
+        blas.dsymv(colUplo, n, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+    }
+
+    public void ssymv(Layout layout, String uplo, int n, float alpha, float[] a, int aOffset, int lda, float[] x,
+        int xOffset, int incx, float beta, float[] y, int yOffset, int incy) {
+        checkSymv("SSYMV_LAYOUT", layout, uplo, n, lda, incx, incy);
+        String colUplo = layout == Layout.ROW_MAJOR ? flipUplo(uplo) : uplo;
+        blas.ssymv(colUplo, n, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+    }
+
+    /**
+     * C := alpha * A * B + beta * C (side L) or alpha * B * A + beta * C (side R) for symmetric A; row-major,
+     * this is C^T := alpha * B^T * A + beta * C^T for side L, so side and uplo flip and m, n swap.
+     */
+    public void dsymm(Layout layout, String side, String uplo, int m, int n, double alpha, double[] a, int aOffset,
+        int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc) {
+        checkSymm("DSYMM_LAYOUT", layout, side, uplo, m, n, lda, ldb, ldc);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.dsymm(flipSide(side), flipUplo(uplo), n, m, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c,
+                cOffset, ldc);
+        } else {
+            blas.dsymm(side, uplo, m, n, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+        }
+    }
+
+    public void ssymm(Layout layout, String side, String uplo, int m, int n, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        checkSymm("SSYMM_LAYOUT", layout, side, uplo, m, n, lda, ldb, ldc);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.ssymm(flipSide(side), flipUplo(uplo), n, m, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c,
+                cOffset, ldc);
+        } else {
+            blas.ssymm(side, uplo, m, n, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+        }
+    }
+
+    /**
+     * C := alpha * op(A) * op(A)^T + beta * C for the triangle uplo of C; row-major A is the column-major A^T,
+     * so trans and uplo flip.
+     */
+    public void dsyrk(Layout layout, String uplo, String trans, int n, int k, double alpha, double[] a,
+        int aOffset, int lda, double beta, double[] c, int cOffset, int ldc) {
+        checkSyrk("DSYRK_LAYOUT", layout, uplo, trans, n, k, lda, ldc);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.dsyrk(flipUplo(uplo), transpose(trans), n, k, alpha, a, aOffset, lda, beta, c, cOffset, ldc);
+        } else {
+            blas.dsyrk(uplo, trans, n, k, alpha, a, aOffset, lda, beta, c, cOffset, ldc);
+        }
+    }
+
+    public void ssyrk(Layout layout, String uplo, String trans, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float beta, float[] c, int cOffset, int ldc) {
+        checkSyrk("SSYRK_LAYOUT", layout, uplo, trans, n, k, lda, ldc);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.ssyrk(flipUplo(uplo), transpose(trans), n, k, alpha, a, aOffset, lda, beta, c, cOffset, ldc);
+        } else {
+            blas.ssyrk(uplo, trans, n, k, alpha, a, aOffset, lda, beta, c, cOffset, ldc);
+        }
+    }
+
+    /**
+     * Solve op(A) * X = alpha * B (side L) or X * op(A) = alpha * B (side R) in place of B; row-major, this is
+     * X^T * op(A)^T = alpha * B^T for side L, where op(A)^T is op applied to the column-major A^T. So side and
+     * uplo flip, m, n swap and transa stays.
+     */
+    public void dtrsm(Layout layout, String side, String uplo, String transa, String diag, int m, int n,
+        double alpha, double[] a, int aOffset, int lda, double[] b, int bOffset, int ldb) {
+        checkTriangular("DTRSM_LAYOUT", layout, side, uplo, transa, diag, m, n, lda, ldb);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.dtrsm(flipSide(side), flipUplo(uplo), transa, diag, n, m, alpha, a, aOffset, lda, b, bOffset, ldb);
+        } else {
+            blas.dtrsm(side, uplo, transa, diag, m, n, alpha, a, aOffset, lda, b, bOffset, ldb);
+        }
+    }
+
+    public void strsm(Layout layout, String side, String uplo, String transa, String diag, int m, int n,
+        float alpha, float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb) {
+        checkTriangular("STRSM_LAYOUT", layout, side, uplo, transa, diag, m, n, lda, ldb);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.strsm(flipSide(side), flipUplo(uplo), transa, diag, n, m, alpha, a, aOffset, lda, b, bOffset, ldb);
+        } else {
+            blas.strsm(side, uplo, transa, diag, m, n, alpha, a, aOffset, lda, b, bOffset, ldb);
+        }
+    }
+
+    /**
+     * B := alpha * op(A) * B (side L) or alpha * B * op(A) (side R), mapped as dtrsm.
+     */
+    public void dtrmm(Layout layout, String side, String uplo, String transa, String diag, int m, int n,
+        double alpha, double[] a, int aOffset, int lda, double[] b, int bOffset, int ldb) {
+        checkTriangular("DTRMM_LAYOUT", layout, side, uplo, transa, diag, m, n, lda, ldb);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.dtrmm(flipSide(side), flipUplo(uplo), transa, diag, n, m, alpha, a, aOffset, lda, b, bOffset, ldb);
+        } else {
+            blas.dtrmm(side, uplo, transa, diag, m, n, alpha, a, aOffset, lda, b, bOffset, ldb);
+        }
+    }
+
+    public void strmm(Layout layout, String side, String uplo, String transa, String diag, int m, int n,
+        float alpha, float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb) {
+        checkTriangular("STRMM_LAYOUT", layout, side, uplo, transa, diag, m, n, lda, ldb);
+        if (layout == Layout.ROW_MAJOR) {
+            blas.strmm(flipSide(side), flipUplo(uplo), transa, diag, n, m, alpha, a, aOffset, lda, b, bOffset, ldb);
+        } else {
+            blas.strmm(side, uplo, transa, diag, m, n, alpha, a, aOffset, lda, b, bOffset, ldb);
+        }
+    }
+
+    private static void checkGemm(String name, Layout layout, String transa, String transb, int m, int n, int k,
+        int lda, int ldb, int ldc) {
+        BlasUtils.checkParameter(name, 1, layout != null);
+        BlasUtils.checkParameter(name, 2, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        BlasUtils.checkParameter(name, 3, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        BlasUtils.checkParameter(name, 4, m >= 0);
+        BlasUtils.checkParameter(name, 5, n >= 0);
+        BlasUtils.checkParameter(name, 6, k >= 0);
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter(name, 9, lda >= minLd(layout, transaFlag ? m : k, transaFlag ? k : m));
+        BlasUtils.checkParameter(name, 11, ldb >= minLd(layout, transbFlag ? k : n, transbFlag ? n : k));
+        BlasUtils.checkParameter(name, 14, ldc >= minLd(layout, m, n));
+    }
+
+    private static void checkGemv(String name, Layout layout, String trans, int m, int n, int lda, int incx,
+        int incy) {
+        BlasUtils.checkParameter(name, 1, layout != null);
+        BlasUtils.checkParameter(name, 2, Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T"));
+        BlasUtils.checkParameter(name, 3, m >= 0);
+        BlasUtils.checkParameter(name, 4, n >= 0);
+        BlasUtils.checkParameter(name, 7, lda >= minLd(layout, m, n));
+        BlasUtils.checkParameter(name, 9, incx != 0);
+        BlasUtils.checkParameter(name, 12, incy != 0);
+    }
+
+    private static void checkGer(String name, Layout layout, int m, int n, int incx, int incy, int lda) {
+        BlasUtils.checkParameter(name, 1, layout != null);
+        BlasUtils.checkParameter(name, 2, m >= 0);
+        BlasUtils.checkParameter(name, 3, n >= 0);
+        BlasUtils.checkParameter(name, 6, incx != 0);
+        BlasUtils.checkParameter(name, 8, incy != 0);
+        BlasUtils.checkParameter(name, 10, lda >= minLd(layout, m, n));
+    }
+
+    private static void checkSymv(String name, Layout layout, String uplo, int n, int lda, int incx, int incy) {
+        BlasUtils.checkParameter(name, 1, layout != null);
+        BlasUtils.checkParameter(name, 2, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter(name, 3, n >= 0);
+        BlasUtils.checkParameter(name, 6, lda >= Math.max(1, n));
+        BlasUtils.checkParameter(name, 8, incx != 0);
+        BlasUtils.checkParameter(name, 11, incy != 0);
+    }
+
+    private static void checkSymm(String name, Layout layout, String side, String uplo, int m, int n, int lda,
+        int ldb, int ldc) {
+        BlasUtils.checkParameter(name, 1, layout != null);
+        BlasUtils.checkParameter(name, 2, Lsame.lsame(side, "L") || Lsame.lsame(side, "R"));
+        BlasUtils.checkParameter(name, 3, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter(name, 4, m >= 0);
+        BlasUtils.checkParameter(name, 5, n >= 0);
+        BlasUtils.checkParameter(name, 8, lda >= Math.max(1, Lsame.lsame(side, "L") ? m : n));
+        BlasUtils.checkParameter(name, 10, ldb >= minLd(layout, m, n));
+        BlasUtils.checkParameter(name, 13, ldc >= minLd(layout, m, n));
+    }
+
+    private static void checkSyrk(String name, Layout layout, String uplo, String trans, int n, int k, int lda,
+        int ldc) {
+        BlasUtils.checkParameter(name, 1, layout != null);
+        BlasUtils.checkParameter(name, 2, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter(name, 3,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        BlasUtils.checkParameter(name, 4, n >= 0);
+        BlasUtils.checkParameter(name, 5, k >= 0);
+        boolean transFlag = Lsame.lsame(trans, "N");
+        BlasUtils.checkParameter(name, 8, lda >= minLd(layout, transFlag ? n : k, transFlag ? k : n));
+        BlasUtils.checkParameter(name, 11, ldc >= Math.max(1, n));
+    }
+
+    /**
+     * The checks of TRSM and TRMM, which take the same arguments.
+     */
+    private static void checkTriangular(String name, Layout layout, String side, String uplo, String transa,
+        String diag, int m, int n, int lda, int ldb) {
+        BlasUtils.checkParameter(name, 1, layout != null);
+        BlasUtils.checkParameter(name, 2, Lsame.lsame(side, "L") || Lsame.lsame(side, "R"));
+        BlasUtils.checkParameter(name, 3, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter(name, 4,
+            Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T") || Lsame.lsame(transa, "C"));
+        BlasUtils.checkParameter(name, 5, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        BlasUtils.checkParameter(name, 6, m >= 0);
+        BlasUtils.checkParameter(name, 7, n >= 0);
+        BlasUtils.checkParameter(name, 10, lda >= Math.max(1, Lsame.lsame(side, "L") ? m : n));
+        BlasUtils.checkParameter(name, 12, ldb >= minLd(layout, m, n));
+    }
+
+    /**
+     * Smallest leading dimension of an m x n matrix in the given layout: its rows are n long when row-major.
+     */
+    private static int minLd(Layout layout, int m, int n) {
+        return Math.max(1, layout == Layout.ROW_MAJOR ? n : m);
+    }
+
+    private static String transpose(String trans) {
+        return Lsame.lsame(trans, "N") ? "T" : "N";
+    }
+
+    private static String flipUplo(String uplo) {
+        return Lsame.lsame(uplo, "U") ? "L" : "U";
+    }
+
+    private static String flipSide(String side) {
+        return Lsame.lsame(side, "L") ? "R" : "L";
+    }
+}
@@ -32,30 +32,74 @@ import com.huawei.vectorblas.blas1.doubleprecision.Drotm;
 import com.huawei.vectorblas.blas1.doubleprecision.Dscal;
 import com.huawei.vectorblas.blas1.doubleprecision.Dswap;
 import com.huawei.vectorblas.blas1.doubleprecision.Idamax;
+import com.huawei.vectorblas.blas1.singleprecision.Dsdot;
 import com.huawei.vectorblas.blas1.singleprecision.Isamax;
 import com.huawei.vectorblas.blas1.singleprecision.Sasum;
 import com.huawei.vectorblas.blas1.singleprecision.Saxpy;
 import com.huawei.vectorblas.blas1.singleprecision.Scopy;
 import com.huawei.vectorblas.blas1.singleprecision.Sdot;
+import com.huawei.vectorblas.blas1.singleprecision.Sdsdot;
 import com.huawei.vectorblas.blas1.singleprecision.Snrm2;
 import com.huawei.vectorblas.blas1.singleprecision.Srot;
 import com.huawei.vectorblas.blas1.singleprecision.Srotm;
 import com.huawei.vectorblas.blas1.singleprecision.Sscal;
 import com.huawei.vectorblas.blas1.singleprecision.Sswap;
+import com.huawei.vectorblas.blas2.doubleprecision.Dgbmv;
 import com.huawei.vectorblas.blas2.doubleprecision.Dgemv;
 import com.huawei.vectorblas.blas2.doubleprecision.Dger;
+import com.huawei.vectorblas.blas2.doubleprecision.Dsbmv;
 import com.huawei.vectorblas.blas2.doubleprecision.Dspmv;
 import com.huawei.vectorblas.blas2.doubleprecision.Dspr;
+import com.huawei.vectorblas.blas2.doubleprecision.Dspr2;
 import com.huawei.vectorblas.blas2.doubleprecision.Dsymv;
+import com.huawei.vectorblas.blas2.doubleprecision.Dsyr;
+import com.huawei.vectorblas.blas2.doubleprecision.Dsyr2;
+import com.huawei.vectorblas.blas2.doubleprecision.Dtbmv;
+import com.huawei.vectorblas.blas2.doubleprecision.Dtbsv;
+import com.huawei.vectorblas.blas2.doubleprecision.Dtpmv;
+import com.huawei.vectorblas.blas2.doubleprecision.Dtpsv;
+import com.huawei.vectorblas.blas2.doubleprecision.Dtrmv;
+import com.huawei.vectorblas.blas2.doubleprecision.Dtrsv;
+import com.huawei.vectorblas.blas2.int8.I8gemv;
+import com.huawei.vectorblas.blas2.singleprecision.Sgbmv;
 import com.huawei.vectorblas.blas2.singleprecision.Sgemv;
 import com.huawei.vectorblas.blas2.singleprecision.Sger;
+import com.huawei.vectorblas.blas2.singleprecision.Ssbmv;
 import com.huawei.vectorblas.blas2.singleprecision.Sspmv;
 import com.huawei.vectorblas.blas2.singleprecision.Sspr;
+import com.huawei.vectorblas.blas2.singleprecision.Sspr2;
 import com.huawei.vectorblas.blas2.singleprecision.Ssymv;
+import com.huawei.vectorblas.blas2.singleprecision.Ssyr;
+import com.huawei.vectorblas.blas2.singleprecision.Ssyr2;
+import com.huawei.vectorblas.blas2.singleprecision.Stbmv;
+import com.huawei.vectorblas.blas2.singleprecision.Stbsv;
+import com.huawei.vectorblas.blas2.singleprecision.Stpmv;
+import com.huawei.vectorblas.blas2.singleprecision.Stpsv;
+import com.huawei.vectorblas.blas2.singleprecision.Strmv;
+import com.huawei.vectorblas.blas2.singleprecision.Strsv;
 import com.huawei.vectorblas.blas3.doubleprecision.Dgemm;
+import com.huawei.vectorblas.blas3.doubleprecision.DgemmBatch;
+import com.huawei.vectorblas.blas3.doubleprecision.DgemmStrassen;
+import com.huawei.vectorblas.blas3.doubleprecision.DgemmTuner;
 import com.huawei.vectorblas.blas3.doubleprecision.Dsymm;
+import com.huawei.vectorblas.blas3.doubleprecision.Dsyr2k;
+import com.huawei.vectorblas.blas3.doubleprecision.Dsyrk;
+import com.huawei.vectorblas.blas3.doubleprecision.Dtrmm;
+import com.huawei.vectorblas.blas3.doubleprecision.Dtrsm;
+import com.huawei.vectorblas.blas3.int8.I8gemm;
+import com.huawei.vectorblas.blas3.singleprecision.Sdgemm;
 import com.huawei.vectorblas.blas3.singleprecision.Sgemm;
+import com.huawei.vectorblas.blas3.singleprecision.SgemmBatch;
+import com.huawei.vectorblas.blas3.singleprecision.SgemmStrassen;
+import com.huawei.vectorblas.blas3.singleprecision.SgemmTuner;
 import com.huawei.vectorblas.blas3.singleprecision.Ssymm;
+import com.huawei.vectorblas.blas3.singleprecision.Ssyr2k;
+import com.huawei.vectorblas.blas3.singleprecision.Ssyrk;
+import com.huawei.vectorblas.blas3.singleprecision.Strmm;
+import com.huawei.vectorblas.blas3.singleprecision.Strsm;
+import com.huawei.vectorblas.utils.GemmEpilogue;
+import com.huawei.vectorblas.utils.HalfPrecision;
+import com.huawei.vectorblas.utils.PackedMatrix;
 
 public class VectorBLAS extends F2jBLAS {
     @Override
@@ -138,6 +182,26 @@ public class VectorBLAS extends F2jBLAS {
         return Sdot.sdot(n, x, xOffset, incx, y, yOffset, incy);
     }
 
+    @Override
+    public double dsdot(int n, float[] x, int incx, float[] y, int incy) {
+        return Dsdot.dsdot(n, x, 0, incx, y, 0, incy);
+    }
+
+    @Override
+    public double dsdot(int n, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        return Dsdot.dsdot(n, x, xOffset, incx, y, yOffset, incy);
+    }
+
+    @Override
+    public float sdsdot(int n, float sb, float[] x, int incx, float[] y, int incy) {
+        return Sdsdot.sdsdot(n, sb, x, 0, incx, y, 0, incy);
+    }
+
+    @Override
+    public float sdsdot(int n, float sb, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        return Sdsdot.sdsdot(n, sb, x, xOffset, incx, y, yOffset, incy);
+    }
+
     @Override
     public float snrm2(int n, float[] x, int incx) {
         return Snrm2.snrm2(n, x, 0, incx);
@@ -260,6 +324,30 @@ public class VectorBLAS extends F2jBLAS {
         return Idamax.idamax(n, x, xOffset, incx);
     }
 
+    @Override
+    public void dgbmv(String trans, int m, int n, int kl, int ku, double alpha, double[] a, int lda, double[] x,
+        int incx, double beta, double[] y, int incy) {
+        Dgbmv.dgbmv(trans, m, n, kl, ku, alpha, a, 0, lda, x, 0, incx, beta, y, 0, incy);
+    }
+
+    @Override
+    public void dgbmv(String trans, int m, int n, int kl, int ku, double alpha, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx, double beta, double[] y, int yOffset, int incy) {
+        Dgbmv.dgbmv(trans, m, n, kl, ku, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+    }
+
+    @Override
+    public void sgbmv(String trans, int m, int n, int kl, int ku, float alpha, float[] a, int lda, float[] x,
+        int incx, float beta, float[] y, int incy) {
+        Sgbmv.sgbmv(trans, m, n, kl, ku, alpha, a, 0, lda, x, 0, incx, beta, y, 0, incy);
+    }
+
+    @Override
+    public void sgbmv(String trans, int m, int n, int kl, int ku, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx, float beta, float[] y, int yOffset, int incy) {
+        Sgbmv.sgbmv(trans, m, n, kl, ku, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+    }
+
     @Override
     public void dgemv(String trans, int m, int n, double alpha, double[] a, int lda, double[] x, int incx, double beta,
         double[] y, int incy) {
@@ -284,6 +372,14 @@ public class VectorBLAS extends F2jBLAS {
         Sgemv.sgemv(trans, m, n, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
     }
 
+    /**
+     * sgemv with a stored in the half precision format, widened to float as it is loaded.
+     */
+    public void sgemv(String trans, int m, int n, float alpha, HalfPrecision format, short[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx, float beta, float[] y, int yOffset, int incy) {
+        Sgemv.sgemv(trans, m, n, alpha, format, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+    }
+
     @Override
     public void dger(int m, int n, double alpha, double[] x, int incx, double[] y, int incy, double[] a, int lda) {
         Dger.dger(m, n, alpha, x, 0, incx, y, 0, incy, a, 0, lda);
@@ -306,6 +402,30 @@ public class VectorBLAS extends F2jBLAS {
         Sger.sger(m, n, alpha, x, xOffset, incx, y, yOffset, incy, a, aOffset, lda);
     }
 
+    @Override
+    public void dsbmv(String uplo, int n, int k, double alpha, double[] a, int lda, double[] x, int incx,
+        double beta, double[] y, int incy) {
+        Dsbmv.dsbmv(uplo, n, k, alpha, a, 0, lda, x, 0, incx, beta, y, 0, incy);
+    }
+
+    @Override
+    public void dsbmv(String uplo, int n, int k, double alpha, double[] a, int aOffset, int lda, double[] x,
+        int xOffset, int incx, double beta, double[] y, int yOffset, int incy) {
+        Dsbmv.dsbmv(uplo, n, k, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+    }
+
+    @Override
+    public void ssbmv(String uplo, int n, int k, float alpha, float[] a, int lda, float[] x, int incx,
+        float beta, float[] y, int incy) {
+        Ssbmv.ssbmv(uplo, n, k, alpha, a, 0, lda, x, 0, incx, beta, y, 0, incy);
+    }
+
+    @Override
+    public void ssbmv(String uplo, int n, int k, float alpha, float[] a, int aOffset, int lda, float[] x,
+        int xOffset, int incx, float beta, float[] y, int yOffset, int incy) {
+        Ssbmv.ssbmv(uplo, n, k, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+    }
+
     @Override
     public void dspmv(String uplo, int n, double alpha, double[] a, double[] x, int incx, double beta,
         double[] y, int incy) {
@@ -350,6 +470,73 @@ public class VectorBLAS extends F2jBLAS {
         Sspr.sspr(uplo, n, alpha, x, xOffset, incx, ap, aOffset);
     }
 
+    @Override
+    public void dspr2(String uplo, int n, double alpha, double[] x, int incx, double[] y, int incy, double[] a) {
+        Dspr2.dspr2(uplo, n, alpha, x, 0, incx, y, 0, incy, a, 0);
+    }
+
+    @Override
+    public void dspr2(String uplo, int n, double alpha, double[] x, int xOffset, int incx, double[] y, int yOffset,
+        int incy, double[] a, int aOffset) {
+        Dspr2.dspr2(uplo, n, alpha, x, xOffset, incx, y, yOffset, incy, a, aOffset);
+    }
+
+    @Override
+    public void sspr2(String uplo, int n, float alpha, float[] x, int incx, float[] y, int incy, float[] a) {
+        Sspr2.sspr2(uplo, n, alpha, x, 0, incx, y, 0, incy, a, 0);
+    }
+
+    @Override
+    public void sspr2(String uplo, int n, float alpha, float[] x, int xOffset, int incx, float[] y, int yOffset,
+        int incy, float[] a, int aOffset) {
+        Sspr2.sspr2(uplo, n, alpha, x, xOffset, incx, y, yOffset, incy, a, aOffset);
+    }
+
+    @Override
+    public void dsyr(String uplo, int n, double alpha, double[] x, int incx, double[] a, int lda) {
+        Dsyr.dsyr(uplo, n, alpha, x, 0, incx, a, 0, lda);
+    }
+
+    @Override
+    public void dsyr(String uplo, int n, double alpha, double[] x, int xOffset, int incx, double[] a, int aOffset,
+        int lda) {
+        Dsyr.dsyr(uplo, n, alpha, x, xOffset, incx, a, aOffset, lda);
+    }
+
+    @Override
+    public void ssyr(String uplo, int n, float alpha, float[] x, int incx, float[] a, int lda) {
+        Ssyr.ssyr(uplo, n, alpha, x, 0, incx, a, 0, lda);
+    }
+
+    @Override
+    public void ssyr(String uplo, int n, float alpha, float[] x, int xOffset, int incx, float[] a, int aOffset,
+        int lda) {
+        Ssyr.ssyr(uplo, n, alpha, x, xOffset, incx, a, aOffset, lda);
+    }
+
+    @Override
+    public void dsyr2(String uplo, int n, double alpha, double[] x, int incx, double[] y, int incy, double[] a,
+        int lda) {
+        Dsyr2.dsyr2(uplo, n, alpha, x, 0, incx, y, 0, incy, a, 0, lda);
+    }
+
+    @Override
+    public void dsyr2(String uplo, int n, double alpha, double[] x, int xOffset, int incx, double[] y, int yOffset,
+        int incy, double[] a, int aOffset, int lda) {
+        Dsyr2.dsyr2(uplo, n, alpha, x, xOffset, incx, y, yOffset, incy, a, aOffset, lda);
+    }
+
+    @Override
+    public void ssyr2(String uplo, int n, float alpha, float[] x, int incx, float[] y, int incy, float[] a, int lda) {
+        Ssyr2.ssyr2(uplo, n, alpha, x, 0, incx, y, 0, incy, a, 0, lda);
+    }
+
+    @Override
+    public void ssyr2(String uplo, int n, float alpha, float[] x, int xOffset, int incx, float[] y, int yOffset,
+        int incy, float[] a, int aOffset, int lda) {
+        Ssyr2.ssyr2(uplo, n, alpha, x, xOffset, incx, y, yOffset, incy, a, aOffset, lda);
+    }
+
     @Override
     public void dsymv(String uplo, int n, double alpha, double[] a, int lda, double[] x, int incx, double beta,
         double[] y, int incy) {
@@ -374,6 +561,138 @@ public class VectorBLAS extends F2jBLAS {
         Ssymv.ssymv(uplo, n, alpha, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
     }
 
+    @Override
+    public void dtbmv(String uplo, String trans, String diag, int n, int k, double[] a, int lda, double[] x, int incx) {
+        Dtbmv.dtbmv(uplo, trans, diag, n, k, a, 0, lda, x, 0, incx);
+    }
+
+    @Override
+    public void dtbmv(String uplo, String trans, String diag, int n, int k, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx) {
+        Dtbmv.dtbmv(uplo, trans, diag, n, k, a, aOffset, lda, x, xOffset, incx);
+    }
+
+    @Override
+    public void stbmv(String uplo, String trans, String diag, int n, int k, float[] a, int lda, float[] x, int incx) {
+        Stbmv.stbmv(uplo, trans, diag, n, k, a, 0, lda, x, 0, incx);
+    }
+
+    @Override
+    public void stbmv(String uplo, String trans, String diag, int n, int k, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        Stbmv.stbmv(uplo, trans, diag, n, k, a, aOffset, lda, x, xOffset, incx);
+    }
+
+    @Override
+    public void dtbsv(String uplo, String trans, String diag, int n, int k, double[] a, int lda, double[] x, int incx) {
+        Dtbsv.dtbsv(uplo, trans, diag, n, k, a, 0, lda, x, 0, incx);
+    }
+
+    @Override
+    public void dtbsv(String uplo, String trans, String diag, int n, int k, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx) {
+        Dtbsv.dtbsv(uplo, trans, diag, n, k, a, aOffset, lda, x, xOffset, incx);
+    }
+
+    @Override
+    public void stbsv(String uplo, String trans, String diag, int n, int k, float[] a, int lda, float[] x, int incx) {
+        Stbsv.stbsv(uplo, trans, diag, n, k, a, 0, lda, x, 0, incx);
+    }
+
+    @Override
+    public void stbsv(String uplo, String trans, String diag, int n, int k, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        Stbsv.stbsv(uplo, trans, diag, n, k, a, aOffset, lda, x, xOffset, incx);
+    }
+
+    @Override
+    public void dtpmv(String uplo, String transa, String diag, int n, double[] a, double[] x, int incx) {
+        Dtpmv.dtpmv(uplo, transa, diag, n, a, 0, x, 0, incx);
+    }
+
+    @Override
+    public void dtpmv(String uplo, String transa, String diag, int n, double[] a, int aOffset, double[] x,
+        int xOffset, int incx) {
+        Dtpmv.dtpmv(uplo, transa, diag, n, a, aOffset, x, xOffset, incx);
+    }
+
+    @Override
+    public void stpmv(String uplo, String transa, String diag, int n, float[] a, float[] x, int incx) {
+        Stpmv.stpmv(uplo, transa, diag, n, a, 0, x, 0, incx);
+    }
+
+    @Override
+    public void stpmv(String uplo, String transa, String diag, int n, float[] a, int aOffset, float[] x,
+        int xOffset, int incx) {
+        Stpmv.stpmv(uplo, transa, diag, n, a, aOffset, x, xOffset, incx);
+    }
+
+    @Override
+    public void dtpsv(String uplo, String transa, String diag, int n, double[] a, double[] x, int incx) {
+        Dtpsv.dtpsv(uplo, transa, diag, n, a, 0, x, 0, incx);
+    }
+
+    @Override
+    public void dtpsv(String uplo, String transa, String diag, int n, double[] a, int aOffset, double[] x,
+        int xOffset, int incx) {
+        Dtpsv.dtpsv(uplo, transa, diag, n, a, aOffset, x, xOffset, incx);
+    }
+
+    @Override
+    public void stpsv(String uplo, String transa, String diag, int n, float[] a, float[] x, int incx) {
+        Stpsv.stpsv(uplo, transa, diag, n, a, 0, x, 0, incx);
+    }
+
+    @Override
+    public void stpsv(String uplo, String transa, String diag, int n, float[] a, int aOffset, float[] x,
+        int xOffset, int incx) {
+        Stpsv.stpsv(uplo, transa, diag, n, a, aOffset, x, xOffset, incx);
+    }
+
+    @Override
+    public void dtrmv(String uplo, String trans, String diag, int n, double[] a, int lda, double[] x, int incx) {
+        Dtrmv.dtrmv(uplo, trans, diag, n, a, 0, lda, x, 0, incx);
+    }
+
+    @Override
+    public void dtrmv(String uplo, String trans, String diag, int n, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx) {
+        Dtrmv.dtrmv(uplo, trans, diag, n, a, aOffset, lda, x, xOffset, incx);
+    }
+
+    @Override
+    public void strmv(String uplo, String trans, String diag, int n, float[] a, int lda, float[] x, int incx) {
+        Strmv.strmv(uplo, trans, diag, n, a, 0, lda, x, 0, incx);
+    }
+
+    @Override
+    public void strmv(String uplo, String trans, String diag, int n, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        Strmv.strmv(uplo, trans, diag, n, a, aOffset, lda, x, xOffset, incx);
+    }
+
+    @Override
+    public void dtrsv(String uplo, String trans, String diag, int n, double[] a, int lda, double[] x, int incx) {
+        Dtrsv.dtrsv(uplo, trans, diag, n, a, 0, lda, x, 0, incx);
+    }
+
+    @Override
+    public void dtrsv(String uplo, String trans, String diag, int n, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx) {
+        Dtrsv.dtrsv(uplo, trans, diag, n, a, aOffset, lda, x, xOffset, incx);
+    }
+
+    @Override
+    public void strsv(String uplo, String trans, String diag, int n, float[] a, int lda, float[] x, int incx) {
+        Strsv.strsv(uplo, trans, diag, n, a, 0, lda, x, 0, incx);
+    }
+
+    @Override
+    public void strsv(String uplo, String trans, String diag, int n, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        Strsv.strsv(uplo, trans, diag, n, a, aOffset, lda, x, xOffset, incx);
+    }
+
     @Override
     public void dgemm(String transa, String transb, int m, int n, int k, double alpha, double[] a, int lda,
         double[] b, int ldb, double beta, double[] c, int ldc) {
@@ -386,6 +705,80 @@ public class VectorBLAS extends F2jBLAS {
         Dgemm.dgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
     }
 
+    /**
+     * dgemm with a caller supplied packing workspace, lwork = -1 returns the required size in work[workOffset].
+     */
+    public void dgemm(String transa, String transb, int m, int n, int k, double alpha, double[] a, int aOffset,
+        int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc, double[] work,
+        int workOffset, int lwork) {
+        Dgemm.dgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc,
+            work, workOffset, lwork);
+    }
+
+    /**
+     * dgemm with Strassen-Winograd recursion down to DgemmStrassen.getCutoff(), for very large problems that can
+     * accept a slightly larger error bound.
+     */
+    public void dgemmStrassen(String transa, String transb, int m, int n, int k, double alpha, double[] a, int aOffset,
+        int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc) {
+        DgemmStrassen.dgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset,
+            ldc);
+    }
+
+    /**
+     * Pack op(A) (identifier "A") or op(B) (identifier "B") once for repeated dgemmCompute calls.
+     */
+    public PackedMatrix dgemmPack(String identifier, String trans, int m, int n, int k, double[] src, int srcOffset,
+        int ld) {
+        return Dgemm.dgemmPack(identifier, trans, m, n, k, src, srcOffset, ld);
+    }
+
+    /**
+     * dgemm against a b packed by dgemmPack("B", ...).
+     */
+    public void dgemmCompute(String transa, int m, double alpha, double[] a, int aOffset, int lda, PackedMatrix b,
+        double beta, double[] c, int cOffset, int ldc) {
+        Dgemm.dgemmCompute(transa, m, alpha, a, aOffset, lda, b, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * dgemm against an a packed by dgemmPack("A", ...).
+     */
+    public void dgemmCompute(PackedMatrix a, String transb, int n, double alpha, double[] b, int bOffset, int ldb,
+        double beta, double[] c, int cOffset, int ldc) {
+        Dgemm.dgemmCompute(a, transb, n, alpha, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * dgemm over batchSize members spaced strideA, strideB and strideC apart in a, b and c.
+     */
+    public void dgemmBatchStrided(String transa, String transb, int m, int n, int k, double alpha, double[] a,
+        int aOffset, int lda, int strideA, double[] b, int bOffset, int ldb, int strideB, double beta, double[] c,
+        int cOffset, int ldc, int strideC, int batchSize) {
+        DgemmBatch.dgemmBatchStrided(transa, transb, m, n, k, alpha, a, aOffset, lda, strideA, b, bOffset, ldb,
+            strideB, beta, c, cOffset, ldc, strideC, batchSize);
+    }
+
+    /**
+     * Grouped dgemm batch, the members of group g share the parameters at index g.
+     */
+    public void dgemmBatch(String[] transa, String[] transb, int[] m, int[] n, int[] k, double[] alpha,
+        double[][] a, int[] aOffset, int[] lda, double[][] b, int[] bOffset, int[] ldb, double[] beta, double[][] c,
+        int[] cOffset, int[] ldc, int groupCount, int[] groupSize) {
+        DgemmBatch.dgemmBatch(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset,
+            ldc, groupCount, groupSize);
+    }
+
+    /**
+     * dgemm with a bias add and an activation fused into the store of C, see GemmEpilogue.
+     */
+    public void dgemmEpilogue(String transa, String transb, int m, int n, int k, double alpha, double[] a, int aOffset,
+        int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc,
+        GemmEpilogue epilogue) {
+        Dgemm.dgemmEpilogue(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset,
+            ldc, epilogue);
+    }
+
     @Override
     public void sgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a, int lda,
         float[] b, int ldb, float beta, float[] c, int ldc) {
@@ -398,6 +791,106 @@ public class VectorBLAS extends F2jBLAS {
         Sgemm.sgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
     }
 
+    /**
+     * sgemm with a caller supplied packing workspace, lwork = -1 returns the required size in work[workOffset].
+     */
+    public void sgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc, float[] work,
+        int workOffset, int lwork) {
+        Sgemm.sgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc,
+            work, workOffset, lwork);
+    }
+
+    /**
+     * sgemm with Strassen-Winograd recursion down to SgemmStrassen.getCutoff(), for very large problems that can
+     * accept a slightly larger error bound.
+     */
+    public void sgemmStrassen(String transa, String transb, int m, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        SgemmStrassen.sgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset,
+            ldc);
+    }
+
+    /**
+     * sgemm with a and b stored in the half precision format, widened to float as they are packed.
+     */
+    public void sgemm(String transa, String transb, int m, int n, int k, float alpha, HalfPrecision format,
+        short[] a, int aOffset, int lda, short[] b, int bOffset, int ldb, float beta, float[] c, int cOffset,
+        int ldc) {
+        Sgemm.sgemm(transa, transb, m, n, k, alpha, format, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * sgemm with a stored in the half precision format and a float b.
+     */
+    public void sgemm(String transa, String transb, int m, int n, int k, float alpha, HalfPrecision format,
+        short[] a, int aOffset, int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset,
+        int ldc) {
+        Sgemm.sgemm(transa, transb, m, n, k, alpha, format, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * sgemm with double accumulation, c is rounded to float once.
+     */
+    public void sdgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        Sdgemm.sdgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * Pack op(A) (identifier "A") or op(B) (identifier "B") once for repeated sgemmCompute calls.
+     */
+    public PackedMatrix sgemmPack(String identifier, String trans, int m, int n, int k, float[] src, int srcOffset,
+        int ld) {
+        return Sgemm.sgemmPack(identifier, trans, m, n, k, src, srcOffset, ld);
+    }
+
+    /**
+     * sgemm against a b packed by sgemmPack("B", ...).
+     */
+    public void sgemmCompute(String transa, int m, float alpha, float[] a, int aOffset, int lda, PackedMatrix b,
+        float beta, float[] c, int cOffset, int ldc) {
+        Sgemm.sgemmCompute(transa, m, alpha, a, aOffset, lda, b, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * sgemm against an a packed by sgemmPack("A", ...).
+     */
+    public void sgemmCompute(PackedMatrix a, String transb, int n, float alpha, float[] b, int bOffset, int ldb,
+        float beta, float[] c, int cOffset, int ldc) {
+        Sgemm.sgemmCompute(a, transb, n, alpha, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * sgemm over batchSize members spaced strideA, strideB and strideC apart in a, b and c.
+     */
+    public void sgemmBatchStrided(String transa, String transb, int m, int n, int k, float alpha, float[] a,
+        int aOffset, int lda, int strideA, float[] b, int bOffset, int ldb, int strideB, float beta, float[] c,
+        int cOffset, int ldc, int strideC, int batchSize) {
+        SgemmBatch.sgemmBatchStrided(transa, transb, m, n, k, alpha, a, aOffset, lda, strideA, b, bOffset, ldb,
+            strideB, beta, c, cOffset, ldc, strideC, batchSize);
+    }
+
+    /**
+     * Grouped sgemm batch, the members of group g share the parameters at index g.
+     */
+    public void sgemmBatch(String[] transa, String[] transb, int[] m, int[] n, int[] k, float[] alpha,
+        float[][] a, int[] aOffset, int[] lda, float[][] b, int[] bOffset, int[] ldb, float[] beta, float[][] c,
+        int[] cOffset, int[] ldc, int groupCount, int[] groupSize) {
+        SgemmBatch.sgemmBatch(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset,
+            ldc, groupCount, groupSize);
+    }
+
+    /**
+     * sgemm with a bias add and an activation fused into the store of C, see GemmEpilogue.
+     */
+    public void sgemmEpilogue(String transa, String transb, int m, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc,
+        GemmEpilogue epilogue) {
+        Sgemm.sgemmEpilogue(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc,
+            epilogue);
+    }
+
     @Override
     public void dsymm(String side, String uplo, int m, int n, double alpha, double[] a, int lda,
         double[] b, int ldb, double beta, double[] c, int ldc) {
@@ -410,6 +903,16 @@ public class VectorBLAS extends F2jBLAS {
         Dsymm.dsymm(side, uplo, m, n, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
     }
 
+    /**
+     * dsymm with a caller supplied packing workspace, lwork = -1 returns the required size in work[workOffset].
+     */
+    public void dsymm(String side, String uplo, int m, int n, double alpha, double[] a, int aOffset, int lda,
+        double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc, double[] work, int workOffset,
+        int lwork) {
+        Dsymm.dsymm(side, uplo, m, n, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc,
+            work, workOffset, lwork);
+    }
+
     @Override
     public void ssymm(String side, String uplo, int m, int n, float alpha, float[] a, int lda,
         float[] b, int ldb, float beta, float[] c, int ldc) {
@@ -421,4 +924,152 @@ public class VectorBLAS extends F2jBLAS {
         float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
         Ssymm.ssymm(side, uplo, m, n, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
     }
+
+    /**
+     * ssymm with a caller supplied packing workspace, lwork = -1 returns the required size in work[workOffset].
+     */
+    public void ssymm(String side, String uplo, int m, int n, float alpha, float[] a, int aOffset, int lda,
+        float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc, float[] work, int workOffset,
+        int lwork) {
+        Ssymm.ssymm(side, uplo, m, n, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc,
+            work, workOffset, lwork);
+    }
+
+    @Override
+    public void dsyrk(String uplo, String trans, int n, int k, double alpha, double[] a, int lda, double beta,
+        double[] c, int ldc) {
+        Dsyrk.dsyrk(uplo, trans, n, k, alpha, a, 0, lda, beta, c, 0, ldc);
+    }
+
+    @Override
+    public void dsyrk(String uplo, String trans, int n, int k, double alpha, double[] a, int aOffset, int lda,
+        double beta, double[] c, int cOffset, int ldc) {
+        Dsyrk.dsyrk(uplo, trans, n, k, alpha, a, aOffset, lda, beta, c, cOffset, ldc);
+    }
+
+    @Override
+    public void ssyrk(String uplo, String trans, int n, int k, float alpha, float[] a, int lda, float beta,
+        float[] c, int ldc) {
+        Ssyrk.ssyrk(uplo, trans, n, k, alpha, a, 0, lda, beta, c, 0, ldc);
+    }
+
+    @Override
+    public void ssyrk(String uplo, String trans, int n, int k, float alpha, float[] a, int aOffset, int lda,
+        float beta, float[] c, int cOffset, int ldc) {
+        Ssyrk.ssyrk(uplo, trans, n, k, alpha, a, aOffset, lda, beta, c, cOffset, ldc);
+    }
+
+    @Override
+    public void dsyr2k(String uplo, String trans, int n, int k, double alpha, double[] a, int lda,
+        double[] b, int ldb, double beta, double[] c, int ldc) {
+        Dsyr2k.dsyr2k(uplo, trans, n, k, alpha, a, 0, lda, b, 0, ldb, beta, c, 0, ldc);
+    }
+
+    @Override
+    public void dsyr2k(String uplo, String trans, int n, int k, double alpha, double[] a, int aOffset, int lda,
+        double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc) {
+        Dsyr2k.dsyr2k(uplo, trans, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    @Override
+    public void ssyr2k(String uplo, String trans, int n, int k, float alpha, float[] a, int lda,
+        float[] b, int ldb, float beta, float[] c, int ldc) {
+        Ssyr2k.ssyr2k(uplo, trans, n, k, alpha, a, 0, lda, b, 0, ldb, beta, c, 0, ldc);
+    }
+
+    @Override
+    public void ssyr2k(String uplo, String trans, int n, int k, float alpha, float[] a, int aOffset, int lda,
+        float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        Ssyr2k.ssyr2k(uplo, trans, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    @Override
+    public void dtrsm(String side, String uplo, String transa, String diag, int m, int n, double alpha,
+        double[] a, int lda, double[] b, int ldb) {
+        Dtrsm.dtrsm(side, uplo, transa, diag, m, n, alpha, a, 0, lda, b, 0, ldb);
+    }
+
+    @Override
+    public void dtrsm(String side, String uplo, String transa, String diag, int m, int n, double alpha, double[] a,
+        int aOffset, int lda, double[] b, int bOffset, int ldb) {
+        Dtrsm.dtrsm(side, uplo, transa, diag, m, n, alpha, a, aOffset, lda, b, bOffset, ldb);
+    }
+
+    @Override
+    public void strsm(String side, String uplo, String transa, String diag, int m, int n, float alpha,
+        float[] a, int lda, float[] b, int ldb) {
+        Strsm.strsm(side, uplo, transa, diag, m, n, alpha, a, 0, lda, b, 0, ldb);
+    }
+
+    @Override
+    public void strsm(String side, String uplo, String transa, String diag, int m, int n, float alpha, float[] a,
+        int aOffset, int lda, float[] b, int bOffset, int ldb) {
+        Strsm.strsm(side, uplo, transa, diag, m, n, alpha, a, aOffset, lda, b, bOffset, ldb);
+    }
+
+    @Override
+    public void dtrmm(String side, String uplo, String transa, String diag, int m, int n, double alpha,
+        double[] a, int lda, double[] b, int ldb) {
+        Dtrmm.dtrmm(side, uplo, transa, diag, m, n, alpha, a, 0, lda, b, 0, ldb);
+    }
+
+    @Override
+    public void dtrmm(String side, String uplo, String transa, String diag, int m, int n, double alpha, double[] a,
+        int aOffset, int lda, double[] b, int bOffset, int ldb) {
+        Dtrmm.dtrmm(side, uplo, transa, diag, m, n, alpha, a, aOffset, lda, b, bOffset, ldb);
+    }
+
+    @Override
+    public void strmm(String side, String uplo, String transa, String diag, int m, int n, float alpha,
+        float[] a, int lda, float[] b, int ldb) {
+        Strmm.strmm(side, uplo, transa, diag, m, n, alpha, a, 0, lda, b, 0, ldb);
+    }
+
+    @Override
+    public void strmm(String side, String uplo, String transa, String diag, int m, int n, float alpha, float[] a,
+        int aOffset, int lda, float[] b, int bOffset, int ldb) {
+        Strmm.strmm(side, uplo, transa, diag, m, n, alpha, a, aOffset, lda, b, bOffset, ldb);
+    }
+
+    /**
+     * int8 gemm with int32 accumulation, C := op(A) * op(B) + beta * C in int32.
+     */
+    public void i8gemm(String transa, String transb, int m, int n, int k, byte[] a, int aOffset, int lda, byte[] b,
+        int bOffset, int ldb, int beta, int[] c, int cOffset, int ldc) {
+        I8gemm.i8gemm(transa, transb, m, n, k, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * int8 gemm with per-row scales of op(A) and per-column scales of op(B) applied to a float C.
+     */
+    public void i8gemm(String transa, String transb, int m, int n, int k, byte[] a, int aOffset, int lda,
+        float[] scaleA, int scaleAOffset, byte[] b, int bOffset, int ldb, float[] scaleB, int scaleBOffset,
+        float beta, float[] c, int cOffset, int ldc) {
+        I8gemm.i8gemm(transa, transb, m, n, k, a, aOffset, lda, scaleA, scaleAOffset, b, bOffset, ldb, scaleB,
+            scaleBOffset, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * int8 gemv with int32 accumulation, y := op(A) * x + beta * y in int32.
+     */
+    public void i8gemv(String trans, int m, int n, byte[] a, int aOffset, int lda, byte[] x, int xOffset, int incx,
+        int beta, int[] y, int yOffset, int incy) {
+        I8gemv.i8gemv(trans, m, n, a, aOffset, lda, x, xOffset, incx, beta, y, yOffset, incy);
+    }
+
+    /**
+     * int8 gemv with one scale per element of y applied to a float y.
+     */
+    public void i8gemv(String trans, int m, int n, byte[] a, int aOffset, int lda, byte[] x, int xOffset, int incx,
+        float[] scale, int scaleOffset, float beta, float[] y, int yOffset, int incy) {
+        I8gemv.i8gemv(trans, m, n, a, aOffset, lda, x, xOffset, incx, scale, scaleOffset, beta, y, yOffset, incy);
+    }
+
+    /**
+     * Run the DGEMM and SGEMM blocking calibration sweep and store the result for later runs on this machine.
+     */
+    public void tune() {
+        DgemmTuner.tune();
+        SgemmTuner.tune();
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas1.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Dot product of float vectors accumulated in double. Products of two floats are exact in double, so only the
+ * additions round, at double precision. Each float vector is widened as two halves of double lanes.
+ */
+public class Dsdot {
+    private static final VectorSpecies<Float> SSPECIES = FloatVector.SPECIES_MAX;
+    private static final VectorSpecies<Double> DSPECIES = VectorSpecies.of(double.class, SSPECIES.vectorShape());
+
+    public static double dsdot(int n, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        if (n < 1) {
+            return 0.0d;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("y", yOffset, Math.abs(incy) * (n - 1), y.length);
+        if (incx == 1 && incy == 1) {
+            return vecDsdot(n, x, xOffset, y, yOffset);
+        }
+        return norDsdot(n, x, xOffset, incx, y, yOffset, incy);
+    }
+
+    private static double vecDsdot(int n, float[] x, int xOffset, float[] y, int yOffset) {
+        DoubleVector sumLow = DoubleVector.zero(DSPECIES);
+        DoubleVector sumHigh = DoubleVector.zero(DSPECIES);
+        int index = 0;
+        int idxLoopBound = SSPECIES.loopBound(n);
+        for (; index < idxLoopBound; index += SSPECIES.length()) {
+            FloatVector xv = FloatVector.fromArray(SSPECIES, x, index + xOffset);
+            FloatVector yv = FloatVector.fromArray(SSPECIES, y, index + yOffset);
+            sumLow = widen(xv, 0).fma(widen(yv, 0), sumLow);
+            sumHigh = widen(xv, 1).fma(widen(yv, 1), sumHigh);
+        }
+        double sum = sumLow.add(sumHigh).reduceLanes(VectorOperators.ADD);
+        for (; index < n; index++) {
+            sum += (double) x[index + xOffset] * y[index + yOffset];
+        }
+        return sum;
+    }
+
+    private static DoubleVector widen(FloatVector v, int part) {
+        return (DoubleVector) v.convertShape(VectorOperators.F2D, DSPECIES, part);
+    }
+
+    private static double norDsdot(int n, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        int xIndex = incx >= 0 ? 0 : (n - 1) * -incx;
+        int yIndex = incy >= 0 ? 0 : (n - 1) * -incy;
+        double sum = 0.0d;
+        for (int count = 0; count < n; count++) {
+            sum += (double) y[yIndex + yOffset] * x[xIndex + xOffset];
+            xIndex += incx;
+            yIndex += incy;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas1.singleprecision;
+
+public class Sdsdot {
+    /**
+     * sb + x * y accumulated in double, rounded to float once at the end.
+     */
+    public static float sdsdot(int n, float sb, float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        return (float) (sb + Dsdot.dsdot(n, x, xOffset, incx, y, yOffset, incy));
+    }
+}
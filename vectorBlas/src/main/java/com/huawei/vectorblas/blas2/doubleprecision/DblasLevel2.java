@@ -22,9 +22,12 @@
 
 package com.huawei.vectorblas.blas2.doubleprecision;
 
+import static com.huawei.vectorblas.utils.ArrayUtil.loopBound;
+
 import com.huawei.vectorblas.utils.BlasUtils;
 
 import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 
 public class DblasLevel2 {
@@ -55,4 +58,267 @@ public class DblasLevel2 {
             }
         }
     }
+
+    /**
+     * Offset of column col in a packed triangular matrix of order n, such that A(row, col) of the stored triangle is
+     * at that offset plus row.
+     */
+    protected static int packedColumn(boolean uploFlag, int n, int col) {
+        return (int) (uploFlag ? (long) col * (col + 1) / 2 : (long) col * (2L * n - col - 1) / 2);
+    }
+
+    /**
+     * y[0, len) += alpha * a[0, len) on contiguous segments, such as the stored part of one column of a band matrix.
+     */
+    protected static void dAxpySegment(int len, double alpha, double[] a, int aOffset, double[] y, int yOffset) {
+        DoubleVector alphaV = DoubleVector.broadcast(DSPECIES, alpha);
+        int idx = 0;
+        int idxUnrollLoopBound = loopBound(len, DSPECIES.length() * 4);
+        int idxLoopBound = loopBound(len, DSPECIES.length());
+        for (; idx < idxUnrollLoopBound; idx += DSPECIES.length() * 4) {
+            DoubleVector yv0 = DoubleVector.fromArray(DSPECIES, y, idx + yOffset);
+            DoubleVector yv1 = DoubleVector.fromArray(DSPECIES, y, idx + DSPECIES.length() + yOffset);
+            DoubleVector yv2 = DoubleVector.fromArray(DSPECIES, y, idx + DSPECIES.length() * 2 + yOffset);
+            DoubleVector yv3 = DoubleVector.fromArray(DSPECIES, y, idx + DSPECIES.length() * 3 + yOffset);
+            DoubleVector av0 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset);
+            DoubleVector av1 = DoubleVector.fromArray(DSPECIES, a, idx + DSPECIES.length() + aOffset);
+            DoubleVector av2 = DoubleVector.fromArray(DSPECIES, a, idx + DSPECIES.length() * 2 + aOffset);
+            DoubleVector av3 = DoubleVector.fromArray(DSPECIES, a, idx + DSPECIES.length() * 3 + aOffset);
+            av0.fma(alphaV, yv0).intoArray(y, idx + yOffset);
+            av1.fma(alphaV, yv1).intoArray(y, idx + DSPECIES.length() + yOffset);
+            av2.fma(alphaV, yv2).intoArray(y, idx + DSPECIES.length() * 2 + yOffset);
+            av3.fma(alphaV, yv3).intoArray(y, idx + DSPECIES.length() * 3 + yOffset);
+        }
+        for (; idx < idxLoopBound; idx += DSPECIES.length()) {
+            DoubleVector yv = DoubleVector.fromArray(DSPECIES, y, idx + yOffset);
+            DoubleVector av = DoubleVector.fromArray(DSPECIES, a, idx + aOffset);
+            av.fma(alphaV, yv).intoArray(y, idx + yOffset);
+        }
+        for (; idx < len; idx++) {
+            y[idx + yOffset] += alpha * a[idx + aOffset];
+        }
+    }
+
+    /**
+     * Dot product of the contiguous segments a[0, len) and x[0, len).
+     */
+    protected static double dDotSegment(int len, double[] a, int aOffset, double[] x, int xOffset) {
+        DoubleVector sumv = DoubleVector.zero(DSPECIES);
+        int idx = 0;
+        int idxUnrollLoopBound = loopBound(len, DSPECIES.length() * 4);
+        int idxLoopBound = loopBound(len, DSPECIES.length());
+        for (; idx < idxUnrollLoopBound; idx += DSPECIES.length() * 4) {
+            DoubleVector xv0 = DoubleVector.fromArray(DSPECIES, x, idx + xOffset);
+            DoubleVector xv1 = DoubleVector.fromArray(DSPECIES, x, idx + DSPECIES.length() + xOffset);
+            DoubleVector xv2 = DoubleVector.fromArray(DSPECIES, x, idx + DSPECIES.length() * 2 + xOffset);
+            DoubleVector xv3 = DoubleVector.fromArray(DSPECIES, x, idx + DSPECIES.length() * 3 + xOffset);
+            DoubleVector av0 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset);
+            DoubleVector av1 = DoubleVector.fromArray(DSPECIES, a, idx + DSPECIES.length() + aOffset);
+            DoubleVector av2 = DoubleVector.fromArray(DSPECIES, a, idx + DSPECIES.length() * 2 + aOffset);
+            DoubleVector av3 = DoubleVector.fromArray(DSPECIES, a, idx + DSPECIES.length() * 3 + aOffset);
+            sumv = av0.fma(xv0, av1.fma(xv1, av2.fma(xv2, av3.fma(xv3, sumv))));
+        }
+        for (; idx < idxLoopBound; idx += DSPECIES.length()) {
+            DoubleVector xv = DoubleVector.fromArray(DSPECIES, x, idx + xOffset);
+            DoubleVector av = DoubleVector.fromArray(DSPECIES, a, idx + aOffset);
+            sumv = av.fma(xv, sumv);
+        }
+        double sum = sumv.reduceLanes(VectorOperators.ADD);
+        for (; idx < len; idx++) {
+            sum += a[idx + aOffset] * x[idx + xOffset];
+        }
+        return sum;
+    }
+
+    /**
+     * y[0, len) += alpha * a[0, len) and returns the dot product of a[0, len) with x[0, len), reading the column
+     * segment of a symmetric matrix once for both of its uses.
+     */
+    protected static double dAxpyDotSegment(int len, double alpha, double[] a, int aOffset, double[] x, int xOffset,
+        double[] y, int yOffset) {
+        DoubleVector alphaV = DoubleVector.broadcast(DSPECIES, alpha);
+        DoubleVector sumv = DoubleVector.zero(DSPECIES);
+        int idx = 0;
+        int idxLoopBound = loopBound(len, DSPECIES.length());
+        for (; idx < idxLoopBound; idx += DSPECIES.length()) {
+            DoubleVector av = DoubleVector.fromArray(DSPECIES, a, idx + aOffset);
+            DoubleVector xv = DoubleVector.fromArray(DSPECIES, x, idx + xOffset);
+            DoubleVector yv = DoubleVector.fromArray(DSPECIES, y, idx + yOffset);
+            av.fma(alphaV, yv).intoArray(y, idx + yOffset);
+            sumv = av.fma(xv, sumv);
+        }
+        double sum = sumv.reduceLanes(VectorOperators.ADD);
+        for (; idx < len; idx++) {
+            y[idx + yOffset] += alpha * a[idx + aOffset];
+            sum += a[idx + aOffset] * x[idx + xOffset];
+        }
+        return sum;
+    }
+
+    /**
+     * Address of A(0, col) in full storage with leading dimension lda, or in packed storage, such that A(row, col) of
+     * the referenced triangle is at that address plus row.
+     */
+    private static int symColumn(boolean uploFlag, boolean packed, int n, int col, int aOffset, int lda) {
+        return packed ? aOffset + packedColumn(uploFlag, n, col) : aOffset + col * lda;
+    }
+
+    /**
+     * A := alpha * x * x**T + A on the referenced triangle, in full or packed storage, with unit stride x. Columns are
+     * updated in groups of four sharing each loaded vector of x, as in DGER, and the small triangle at the diagonal
+     * of each group by scalar loops. Leftover columns are the shortest ones, first for upper and last for lower.
+     */
+    protected static void dSyrUnitStride(boolean uploFlag, boolean packed, int n, double alpha, double[] x,
+        int xOffset, double[] a, int aOffset, int lda) {
+        int rest = n % 4;
+        int groupStart = uploFlag ? rest : 0;
+        int groupEnd = uploFlag ? n : n - rest;
+        for (int col = uploFlag ? 0 : groupEnd; col < (uploFlag ? rest : n); col++) {
+            int base = symColumn(uploFlag, packed, n, col, aOffset, lda);
+            dSyrColumn(uploFlag ? 0 : col, uploFlag ? col + 1 : n, alpha * x[col + xOffset], x, xOffset, a, base);
+        }
+        for (int col = groupStart; col < groupEnd; col += 4) {
+            int base0 = symColumn(uploFlag, packed, n, col, aOffset, lda);
+            int base1 = symColumn(uploFlag, packed, n, col + 1, aOffset, lda);
+            int base2 = symColumn(uploFlag, packed, n, col + 2, aOffset, lda);
+            int base3 = symColumn(uploFlag, packed, n, col + 3, aOffset, lda);
+            double temp0 = alpha * x[col + xOffset];
+            double temp1 = alpha * x[col + 1 + xOffset];
+            double temp2 = alpha * x[col + 2 + xOffset];
+            double temp3 = alpha * x[col + 3 + xOffset];
+            int rowStart = uploFlag ? 0 : col + 4;
+            int rowEnd = uploFlag ? col : n;
+            dRank1Columns(rowEnd - rowStart, temp0, temp1, temp2, temp3, x, xOffset + rowStart, a,
+                base0 + rowStart, base1 + rowStart, base2 + rowStart, base3 + rowStart);
+            dSyrColumn(col, uploFlag ? col + 1 : col + 4, temp0, x, xOffset, a, base0);
+            dSyrColumn(uploFlag ? col : col + 1, uploFlag ? col + 2 : col + 4, temp1, x, xOffset, a, base1);
+            dSyrColumn(uploFlag ? col : col + 2, uploFlag ? col + 3 : col + 4, temp2, x, xOffset, a, base2);
+            dSyrColumn(uploFlag ? col : col + 3, col + 4, temp3, x, xOffset, a, base3);
+        }
+    }
+
+    /**
+     * A := alpha * x * y**T + alpha * y * x**T + A on the referenced triangle, in full or packed storage, with unit
+     * stride x and y, in the column groups of dSyrUnitStride.
+     */
+    protected static void dSyr2UnitStride(boolean uploFlag, boolean packed, int n, double alpha, double[] x,
+        int xOffset, double[] y, int yOffset, double[] a, int aOffset, int lda) {
+        int rest = n % 4;
+        int groupStart = uploFlag ? rest : 0;
+        int groupEnd = uploFlag ? n : n - rest;
+        for (int col = uploFlag ? 0 : groupEnd; col < (uploFlag ? rest : n); col++) {
+            int base = symColumn(uploFlag, packed, n, col, aOffset, lda);
+            dSyr2Column(uploFlag ? 0 : col, uploFlag ? col + 1 : n, alpha * y[col + yOffset],
+                alpha * x[col + xOffset], x, xOffset, y, yOffset, a, base);
+        }
+        for (int col = groupStart; col < groupEnd; col += 4) {
+            int base0 = symColumn(uploFlag, packed, n, col, aOffset, lda);
+            int base1 = symColumn(uploFlag, packed, n, col + 1, aOffset, lda);
+            int base2 = symColumn(uploFlag, packed, n, col + 2, aOffset, lda);
+            int base3 = symColumn(uploFlag, packed, n, col + 3, aOffset, lda);
+            double xTemp0 = alpha * y[col + yOffset];
+            double xTemp1 = alpha * y[col + 1 + yOffset];
+            double xTemp2 = alpha * y[col + 2 + yOffset];
+            double xTemp3 = alpha * y[col + 3 + yOffset];
+            double yTemp0 = alpha * x[col + xOffset];
+            double yTemp1 = alpha * x[col + 1 + xOffset];
+            double yTemp2 = alpha * x[col + 2 + xOffset];
+            double yTemp3 = alpha * x[col + 3 + xOffset];
+            int rowStart = uploFlag ? 0 : col + 4;
+            int rowEnd = uploFlag ? col : n;
+            dRank2Columns(rowEnd - rowStart, xTemp0, xTemp1, xTemp2, xTemp3, x, xOffset + rowStart,
+                yTemp0, yTemp1, yTemp2, yTemp3, y, yOffset + rowStart, a,
+                base0 + rowStart, base1 + rowStart, base2 + rowStart, base3 + rowStart);
+            dSyr2Column(col, uploFlag ? col + 1 : col + 4, xTemp0, yTemp0, x, xOffset, y, yOffset, a, base0);
+            dSyr2Column(uploFlag ? col : col + 1, uploFlag ? col + 2 : col + 4, xTemp1, yTemp1, x, xOffset,
+                y, yOffset, a, base1);
+            dSyr2Column(uploFlag ? col : col + 2, uploFlag ? col + 3 : col + 4, xTemp2, yTemp2, x, xOffset,
+                y, yOffset, a, base2);
+            dSyr2Column(uploFlag ? col : col + 3, col + 4, xTemp3, yTemp3, x, xOffset, y, yOffset, a, base3);
+        }
+    }
+
+    private static void dSyrColumn(int rowStart, int rowEnd, double temp, double[] x, int xOffset, double[] a,
+        int base) {
+        for (int row = rowStart; row < rowEnd; row++) {
+            a[row + base] += x[row + xOffset] * temp;
+        }
+    }
+
+    private static void dSyr2Column(int rowStart, int rowEnd, double xTemp, double yTemp, double[] x, int xOffset,
+        double[] y, int yOffset, double[] a, int base) {
+        for (int row = rowStart; row < rowEnd; row++) {
+            a[row + base] += x[row + xOffset] * xTemp + y[row + yOffset] * yTemp;
+        }
+    }
+
+    /**
+     * a[aOffsetJ + i] += tempJ * x[i] for i in [0, len) and four columns J, loading each vector of x once.
+     */
+    private static void dRank1Columns(int len, double temp0, double temp1, double temp2, double temp3, double[] x,
+        int xOffset, double[] a, int aOffset0, int aOffset1, int aOffset2, int aOffset3) {
+        DoubleVector tempv0 = DoubleVector.broadcast(DSPECIES, temp0);
+        DoubleVector tempv1 = DoubleVector.broadcast(DSPECIES, temp1);
+        DoubleVector tempv2 = DoubleVector.broadcast(DSPECIES, temp2);
+        DoubleVector tempv3 = DoubleVector.broadcast(DSPECIES, temp3);
+        int idx = 0;
+        int idxLoopBound = loopBound(len, DSPECIES.length());
+        for (; idx < idxLoopBound; idx += DSPECIES.length()) {
+            DoubleVector xv = DoubleVector.fromArray(DSPECIES, x, idx + xOffset);
+            DoubleVector av0 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset0);
+            DoubleVector av1 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset1);
+            DoubleVector av2 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset2);
+            DoubleVector av3 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset3);
+            xv.fma(tempv0, av0).intoArray(a, idx + aOffset0);
+            xv.fma(tempv1, av1).intoArray(a, idx + aOffset1);
+            xv.fma(tempv2, av2).intoArray(a, idx + aOffset2);
+            xv.fma(tempv3, av3).intoArray(a, idx + aOffset3);
+        }
+        for (; idx < len; idx++) {
+            double xi = x[idx + xOffset];
+            a[idx + aOffset0] += xi * temp0;
+            a[idx + aOffset1] += xi * temp1;
+            a[idx + aOffset2] += xi * temp2;
+            a[idx + aOffset3] += xi * temp3;
+        }
+    }
+
+    /**
+     * a[aOffsetJ + i] += xTempJ * x[i] + yTempJ * y[i] for i in [0, len) and four columns J, loading each vector of
+     * x and y once.
+     */
+    private static void dRank2Columns(int len, double xTemp0, double xTemp1, double xTemp2, double xTemp3,
+        double[] x, int xOffset, double yTemp0, double yTemp1, double yTemp2, double yTemp3, double[] y,
+        int yOffset, double[] a, int aOffset0, int aOffset1, int aOffset2, int aOffset3) {
+        DoubleVector xTempv0 = DoubleVector.broadcast(DSPECIES, xTemp0);
+        DoubleVector xTempv1 = DoubleVector.broadcast(DSPECIES, xTemp1);
+        DoubleVector xTempv2 = DoubleVector.broadcast(DSPECIES, xTemp2);
+        DoubleVector xTempv3 = DoubleVector.broadcast(DSPECIES, xTemp3);
+        DoubleVector yTempv0 = DoubleVector.broadcast(DSPECIES, yTemp0);
+        DoubleVector yTempv1 = DoubleVector.broadcast(DSPECIES, yTemp1);
+        DoubleVector yTempv2 = DoubleVector.broadcast(DSPECIES, yTemp2);
+        DoubleVector yTempv3 = DoubleVector.broadcast(DSPECIES, yTemp3);
+        int idx = 0;
+        int idxLoopBound = loopBound(len, DSPECIES.length());
+        for (; idx < idxLoopBound; idx += DSPECIES.length()) {
+            DoubleVector xv = DoubleVector.fromArray(DSPECIES, x, idx + xOffset);
+            DoubleVector yv = DoubleVector.fromArray(DSPECIES, y, idx + yOffset);
+            DoubleVector av0 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset0);
+            DoubleVector av1 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset1);
+            DoubleVector av2 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset2);
+            DoubleVector av3 = DoubleVector.fromArray(DSPECIES, a, idx + aOffset3);
+            yv.fma(yTempv0, xv.fma(xTempv0, av0)).intoArray(a, idx + aOffset0);
+            yv.fma(yTempv1, xv.fma(xTempv1, av1)).intoArray(a, idx + aOffset1);
+            yv.fma(yTempv2, xv.fma(xTempv2, av2)).intoArray(a, idx + aOffset2);
+            yv.fma(yTempv3, xv.fma(xTempv3, av3)).intoArray(a, idx + aOffset3);
+        }
+        for (; idx < len; idx++) {
+            double xi = x[idx + xOffset];
+            double yi = y[idx + yOffset];
+            a[idx + aOffset0] += xi * xTemp0 + yi * yTemp0;
+            a[idx + aOffset1] += xi * xTemp1 + yi * yTemp1;
+            a[idx + aOffset2] += xi * xTemp2 + yi * yTemp2;
+            a[idx + aOffset3] += xi * xTemp3 + yi * yTemp3;
+        }
+    }
 }
@@ -22,8 +22,10 @@
 
 package com.huawei.vectorblas.blas2.doubleprecision;
 
+import static com.huawei.vectorblas.utils.ArrayUtil.ceilDiv;
 import static com.huawei.vectorblas.utils.ArrayUtil.loopBound;
 
+import com.huawei.vectorblas.utils.BlasParallel;
 import com.huawei.vectorblas.utils.BlasUtils;
 import com.huawei.vectorblas.utils.Lsame;
 
@@ -32,8 +34,25 @@ import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 
 public class Dgemv {
+    private static final String BLOCK_ROWS_PROPERTY = "vectorblas.dgemv.blockrows";
+    private static final int DEFAULT_BLOCK_ROWS = 16384; // 128 KB of y (trans N) or x (trans T), stays in L2.
     private static final VectorSpecies<Double> DSPECIES = DoubleVector.SPECIES_MAX;
 
+    private static volatile int blockRows = Math.max(1, Integer.getInteger(BLOCK_ROWS_PROPERTY, DEFAULT_BLOCK_ROWS));
+
+    /**
+     * Set the number of rows of A in a row panel. Every panel applies all columns of A while its part of y (trans N)
+     * or x (trans T) stays in cache, instead of streaming the whole vector once per group of columns.
+     */
+    public static void setBlockRows(int rows) {
+        BlasUtils.checkParameter("SETDGEMVBLOCKROWS", 1, rows >= 1);
+        blockRows = rows;
+    }
+
+    public static int getBlockRows() {
+        return blockRows;
+    }
+
     public static void dgemv(String trans, int m, int n, double alpha, double[] a, int aOffset, int lda, double[] x,
         int xOffset, int incx, double beta, double[] y, int yOffset, int incy) {
         BlasUtils.checkParameter("DGEMV", 1, Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T"));
@@ -56,6 +75,61 @@ public class Dgemv {
         if (BlasUtils.isZero(alpha)) {
             return;
         }
+        if (BlasParallel.isLevel2Parallel((long) m * n)) {
+            dgemvParallel(transFlag, m, n, alpha, a, aOffset, lda, x, xOffset, incx, y, yOffset, incy);
+        } else {
+            dgemvKernel(transFlag, m, n, alpha, a, aOffset, lda, x, xOffset, incx, y, yOffset, incy);
+        }
+    }
+
+    /**
+     * Split y across the workers: by rows of A for trans N, where every piece reads all of x, and by columns of A
+     * for trans T, where every piece reads its own columns and all of x. The pieces write disjoint parts of y, so
+     * no reduction is needed and the result does not depend on the thread count.
+     */
+    private static void dgemvParallel(boolean transFlag, int m, int n, double alpha, double[] a, int aOffset,
+        int lda, double[] x, int xOffset, int incx, double[] y, int yOffset, int incy) {
+        int len = transFlag ? m : n;
+        int chunk = BlasParallel.level2Chunk(len, transFlag ? DSPECIES.length() * 4 : 4);
+        BlasParallel.parallelFor(ceilDiv(len, chunk), task -> {
+            int start = task * chunk;
+            int count = Math.min(chunk, len - start);
+            int yStart = segmentOffset(len, incy, start, count);
+            if (transFlag) {
+                dgemvKernel(true, count, n, alpha, a, aOffset + start, lda, x, xOffset, incx, y, yOffset + yStart,
+                    incy);
+            } else {
+                dgemvKernel(false, m, count, alpha, a, aOffset + start * lda, lda, x, xOffset, incx, y,
+                    yOffset + yStart, incy);
+            }
+        });
+    }
+
+    /**
+     * Offset, relative to the vector's own offset, at which the count elements from element start of a length
+     * len vector with increment inc begin when they are passed as a vector of their own.
+     */
+    private static int segmentOffset(int len, int inc, int start, int count) {
+        return inc > 0 ? start * inc : (len - start - count) * (-inc);
+    }
+
+    private static void dgemvKernel(boolean transFlag, int m, int n, double alpha, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx, double[] y, int yOffset, int incy) {
+        int panel = blockRows;
+        for (int row = 0; row < m; row += panel) {
+            int rows = Math.min(panel, m - row);
+            if (transFlag) {
+                dgemvPanel(true, rows, n, alpha, a, aOffset + row, lda, x, xOffset, incx, y,
+                    yOffset + segmentOffset(m, incy, row, rows), incy);
+            } else {
+                dgemvPanel(false, rows, n, alpha, a, aOffset + row, lda, x, xOffset + segmentOffset(m, incx, row, rows),
+                    incx, y, yOffset, incy);
+            }
+        }
+    }
+
+    private static void dgemvPanel(boolean transFlag, int m, int n, double alpha, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx, double[] y, int yOffset, int incy) {
         if (transFlag) {
             if (incy == 1) {
                 if (incx == 1) {
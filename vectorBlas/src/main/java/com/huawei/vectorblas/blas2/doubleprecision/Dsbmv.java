@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.doubleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * DSYMV on a symmetric band matrix with k off-diagonals, stored by columns in band form: A(i, j) at row k + i - j
+ * (upper) or i - j (lower) of column j. The off-diagonal part of each column is read once, as one vector segment
+ * that updates y and contributes a dot product to y(j).
+ */
+public class Dsbmv {
+    public static void dsbmv(String uplo, int n, int k, double alpha, double[] a, int aOffset, int lda, double[] x,
+        int xOffset, int incx, double beta, double[] y, int yOffset, int incy) {
+        BlasUtils.checkParameter("DSBMV", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("DSBMV", 2, n >= 0);
+        BlasUtils.checkParameter("DSBMV", 3, k >= 0);
+        BlasUtils.checkParameter("DSBMV", 6, lda >= k + 1);
+        BlasUtils.checkParameter("DSBMV", 8, incx != 0);
+        BlasUtils.checkParameter("DSBMV", 11, incy != 0);
+        if (n == 0 || (BlasUtils.isZero(alpha) && Double.compare(beta, 1.0) == 0)) {
+            return;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("y", yOffset, Math.abs(incy) * (n - 1), y.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) * lda + k, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        int xStartIndex = incx > 0 ? 0 : (n - 1) * (-incx);
+        int yStartIndex = incy > 0 ? 0 : (n - 1) * (-incy);
+        if (Double.compare(beta, 1.0d) != 0) {
+            DblasLevel2.dMulBeta(n, beta, y, yOffset, incy);
+        }
+        if (BlasUtils.isZero(alpha)) {
+            return;
+        }
+        if (uploFlag) {
+            if (incx == 1 && incy == 1) {
+                vecDsbmvU(n, k, alpha, a, aOffset, lda, x, xOffset, y, yOffset);
+            } else {
+                norDsbmvU(n, k, alpha, a, aOffset, lda, x, xOffset, incx, y, yOffset, incy, xStartIndex,
+                    yStartIndex);
+            }
+        } else if (incx == 1 && incy == 1) {
+            vecDsbmvL(n, k, alpha, a, aOffset, lda, x, xOffset, y, yOffset);
+        } else {
+            norDsbmvL(n, k, alpha, a, aOffset, lda, x, xOffset, incx, y, yOffset, incy, xStartIndex, yStartIndex);
+        }
+    }
+
+    private static void vecDsbmvU(int n, int k, double alpha, double[] a, int aOffset, int lda, double[] x,
+        int xOffset, double[] y, int yOffset) {
+        for (int col = 0; col < n; col++) {
+            double alphaMulX = alpha * x[col + xOffset];
+            int rowStart = Math.max(0, col - k);
+            int aIndex = aOffset + k - col + col * lda;
+            double accum = DblasLevel2.dAxpyDotSegment(col - rowStart, alphaMulX, a, aIndex + rowStart, x,
+                xOffset + rowStart, y, yOffset + rowStart);
+            y[col + yOffset] += alphaMulX * a[aIndex + col] + alpha * accum;
+        }
+    }
+
+    private static void norDsbmvU(int n, int k, double alpha, double[] a, int aOffset, int lda, double[] x,
+        int xOffset, int incx, double[] y, int yOffset, int incy, int xStartIndex, int yStartIndex) {
+        for (int col = 0, xj = xStartIndex, yj = yStartIndex; col < n; col++, xj += incx, yj += incy) {
+            double alphaMulX = alpha * x[xj + xOffset];
+            int rowStart = Math.max(0, col - k);
+            int aIndex = aOffset + k - col + col * lda;
+            double accum = 0.0d;
+            for (int row = rowStart, xIndx = xStartIndex + rowStart * incx, yIndx = yStartIndex + rowStart * incy;
+                row < col; row++, xIndx += incx, yIndx += incy) {
+                y[yIndx + yOffset] += alphaMulX * a[row + aIndex];
+                accum += a[row + aIndex] * x[xIndx + xOffset];
+            }
+            y[yj + yOffset] += alphaMulX * a[col + aIndex] + alpha * accum;
+        }
+    }
+
+    private static void vecDsbmvL(int n, int k, double alpha, double[] a, int aOffset, int lda, double[] x,
+        int xOffset, double[] y, int yOffset) {
+        for (int col = 0; col < n; col++) {
+            double alphaMulX = alpha * x[col + xOffset];
+            int rowEnd = Math.min(n, col + k + 1);
+            int aIndex = aOffset - col + col * lda;
+            double accum = DblasLevel2.dAxpyDotSegment(rowEnd - col - 1, alphaMulX, a, aIndex + col + 1, x,
+                xOffset + col + 1, y, yOffset + col + 1);
+            y[col + yOffset] += alphaMulX * a[aIndex + col] + alpha * accum;
+        }
+    }
+
+    private static void norDsbmvL(int n, int k, double alpha, double[] a, int aOffset, int lda, double[] x,
+        int xOffset, int incx, double[] y, int yOffset, int incy, int xStartIndex, int yStartIndex) {
+        for (int col = 0, xj = xStartIndex, yj = yStartIndex; col < n; col++, xj += incx, yj += incy) {
+            double alphaMulX = alpha * x[xj + xOffset];
+            int rowEnd = Math.min(n, col + k + 1);
+            int aIndex = aOffset - col + col * lda;
+            double accum = 0.0d;
+            for (int row = col + 1, xIndx = xj + incx, yIndx = yj + incy; row < rowEnd; row++, xIndx += incx,
+                yIndx += incy) {
+                y[yIndx + yOffset] += alphaMulX * a[row + aIndex];
+                accum += a[row + aIndex] * x[xIndx + xOffset];
+            }
+            y[yj + yOffset] += alphaMulX * a[col + aIndex] + alpha * accum;
+        }
+    }
+}
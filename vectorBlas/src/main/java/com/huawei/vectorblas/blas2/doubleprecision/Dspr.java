@@ -22,10 +22,13 @@
 
 package com.huawei.vectorblas.blas2.doubleprecision;
 
-import com.huawei.vectorblas.blas1.doubleprecision.Daxpy;
 import com.huawei.vectorblas.utils.BlasUtils;
 import com.huawei.vectorblas.utils.Lsame;
 
+/**
+ * DSPR. With unit stride the packed columns are updated in groups of four sharing each loaded vector of x, see
+ * DblasLevel2.dSyrUnitStride.
+ */
 public class Dspr {
     public static void dspr(String uplo, int n, double alpha, double[] x, int xOffset, int incx, double[] ap,
             int aOffset) {
@@ -41,26 +44,25 @@ public class Dspr {
         BlasUtils.checkBlasArray("a", aOffset, (1 + n) * n / 2 - 1, ap.length);
 
         boolean uploFlag = Lsame.lsame(uplo, "U");
-        int xStartIndx = incx >= 0 ? 0 : (1 - n) * incx;
-
-        int cnt = 0;
-        if (incx >= 0) {
-            for (int j = 0, xIndx = xStartIndx; j < n; j++, xIndx += incx) {
-                int colCnt = uploFlag ? j + 1 : n - j;
-                if (!BlasUtils.isZero(x[xIndx + xOffset])) {
-                    int kIndx = uploFlag ? 0 : xIndx;
-                    Daxpy.daxpy(colCnt, alpha * x[xIndx + xOffset], x, xOffset + kIndx, incx, ap, aOffset + cnt, 1);
-                }
-                cnt += colCnt;
-            }
+        if (incx == 1) {
+            DblasLevel2.dSyrUnitStride(uploFlag, true, n, alpha, x, xOffset, ap, aOffset, 0);
         } else {
-            for (int j = 0, xIndx = xStartIndx; j < n; j++, xIndx += incx) {
-                int colCnt = uploFlag ? j + 1 : n - j;
-                if (!BlasUtils.isZero(x[xIndx + xOffset])) {
-                    int kIndx = uploFlag ? xIndx : 0;
-                    Daxpy.daxpy(colCnt, alpha * x[xIndx + xOffset], x, xOffset + kIndx, incx, ap, aOffset + cnt, 1);
+            normalDspr(uploFlag, n, alpha, x, xOffset, incx, ap, aOffset);
+        }
+    }
+
+    private static void normalDspr(boolean uploFlag, int n, double alpha, double[] x, int xOffset, int incx,
+        double[] ap, int aOffset) {
+        int xStartIndx = xOffset + (incx > 0 ? 0 : (1 - n) * incx);
+        for (int j = 0, jx = xStartIndx; j < n; j++, jx += incx) {
+            if (!BlasUtils.isZero(x[jx])) {
+                double temp = alpha * x[jx];
+                int base = aOffset + DblasLevel2.packedColumn(uploFlag, n, j);
+                int rowStart = uploFlag ? 0 : j;
+                int rowEnd = uploFlag ? j + 1 : n;
+                for (int i = rowStart, ix = xStartIndx + rowStart * incx; i < rowEnd; i++, ix += incx) {
+                    ap[i + base] += x[ix] * temp;
                 }
-                cnt += colCnt;
             }
         }
     }
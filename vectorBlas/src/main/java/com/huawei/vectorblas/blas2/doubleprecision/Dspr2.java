@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.doubleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * DSPR2. With unit strides the packed columns are updated in groups of four sharing each loaded vector of x and y,
+ * see DblasLevel2.dSyr2UnitStride.
+ */
+public class Dspr2 {
+    public static void dspr2(String uplo, int n, double alpha, double[] x, int xOffset, int incx, double[] y,
+        int yOffset, int incy, double[] ap, int aOffset) {
+        BlasUtils.checkParameter("DSPR2", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("DSPR2", 2, n >= 0);
+        BlasUtils.checkParameter("DSPR2", 5, incx != 0);
+        BlasUtils.checkParameter("DSPR2", 7, incy != 0);
+
+        if (n == 0 || BlasUtils.isZero(alpha)) {
+            return;
+        }
+
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("y", yOffset, Math.abs(incy) * (n - 1), y.length);
+        BlasUtils.checkBlasArray("a", aOffset, (1 + n) * n / 2 - 1, ap.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        if (incx == 1 && incy == 1) {
+            DblasLevel2.dSyr2UnitStride(uploFlag, true, n, alpha, x, xOffset, y, yOffset, ap, aOffset, 0);
+        } else {
+            normalDspr2(uploFlag, n, alpha, x, xOffset, incx, y, yOffset, incy, ap, aOffset);
+        }
+    }
+
+    private static void normalDspr2(boolean uploFlag, int n, double alpha, double[] x, int xOffset, int incx,
+        double[] y, int yOffset, int incy, double[] ap, int aOffset) {
+        int xStartIndx = xOffset + (incx > 0 ? 0 : (1 - n) * incx);
+        int yStartIndx = yOffset + (incy > 0 ? 0 : (1 - n) * incy);
+        for (int j = 0, jx = xStartIndx, jy = yStartIndx; j < n; j++, jx += incx, jy += incy) {
+            if (!BlasUtils.isZero(x[jx]) || !BlasUtils.isZero(y[jy])) {
+                double xTemp = alpha * y[jy];
+                double yTemp = alpha * x[jx];
+                int base = aOffset + DblasLevel2.packedColumn(uploFlag, n, j);
+                int rowStart = uploFlag ? 0 : j;
+                int rowEnd = uploFlag ? j + 1 : n;
+                for (int i = rowStart, ix = xStartIndx + rowStart * incx, iy = yStartIndx + rowStart * incy;
+                    i < rowEnd; i++, ix += incx, iy += incy) {
+                    ap[i + base] += x[ix] * xTemp + y[iy] * yTemp;
+                }
+            }
+        }
+    }
+}
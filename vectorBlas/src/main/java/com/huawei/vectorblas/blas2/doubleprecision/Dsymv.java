@@ -22,11 +22,18 @@
 
 package com.huawei.vectorblas.blas2.doubleprecision;
 
+import static com.huawei.vectorblas.utils.ArrayUtil.ceilDiv;
 import static com.huawei.vectorblas.utils.ArrayUtil.loopBound;
+import static com.huawei.vectorblas.utils.ArrayUtil.roundUp;
 
+import com.huawei.vectorblas.blas1.doubleprecision.Daxpy;
+import com.huawei.vectorblas.utils.BlasParallel;
 import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
 import com.huawei.vectorblas.utils.Lsame;
 
+import java.util.Arrays;
+
 import jdk.incubator.vector.DoubleVector;
 import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
@@ -59,23 +66,58 @@ public class Dsymv {
         if (BlasUtils.isZero(alpha)) {
             return;
         }
-        if (uploFlag) {
+        if (incx == 1 && incy == 1 && BlasParallel.isLevel2Parallel((long) n * (n + 1) / 2)) {
+            dsymvParallel(uploFlag, n, x, xOffset, alpha, y, yOffset, a, aOffset, lda);
+        } else if (uploFlag) {
             if (incx == 1 && incy == 1) {
-                vecDsymvU(n, x, xOffset, alpha, y, yOffset, a, aOffset, lda);
+                vecDsymvU(0, n, x, xOffset, alpha, y, yOffset, a, aOffset, lda);
             } else {
                 norDsymvU(n, x, xOffset, incx, alpha, y, yOffset, incy, a, aOffset, lda, xStartIndex, yStartIndex);
             }
         } else if (incx == 1 && incy == 1) {
-            vecDsymvL(n, x, xOffset, alpha, y, yOffset, a, aOffset, lda);
+            vecDsymvL(n, 0, n, x, xOffset, alpha, y, yOffset, a, aOffset, lda);
         } else {
             norDsymvL(n, x, xOffset, incx, alpha, y, yOffset, incy, a, aOffset, lda, xStartIndex, yStartIndex);
         }
     }
 
-    private static void vecDsymvU(int n, double[] x, int xOffset, double alpha, double[] y, int yOffset, double[] a,
-        int aOffset, int lda) {
-        int col = 0;
-        int colLoopBound = loopBound(n, 4);
+    /**
+     * Each piece of columns also updates, through the other triangle, the rows above (upper) or below (lower) it,
+     * so the pieces accumulate into private partial y vectors that are added to y in task order afterwards. The
+     * column boundaries give every piece about the same share of the triangle.
+     */
+    private static void dsymvParallel(boolean uploFlag, int n, double[] x, int xOffset, double alpha, double[] y,
+        int yOffset, double[] a, int aOffset, int lda) {
+        int tasks = Math.min(BlasParallel.getNumThreads(), ceilDiv(n, 4));
+        int[] bounds = new int[tasks + 1];
+        for (int task = 1; task < tasks; task++) {
+            double share = uploFlag ? Math.sqrt((double) task / tasks)
+                : 1.0d - Math.sqrt((double) (tasks - task) / tasks);
+            bounds[task] = Math.max(bounds[task - 1], Math.min(n, roundUp((int) (n * share), 4)));
+        }
+        bounds[tasks] = n;
+        double[] partial = BlasWorkspace.doubleSplitK(tasks * n);
+        BlasParallel.parallelFor(tasks, task -> {
+            int start = uploFlag ? 0 : bounds[task];
+            int end = uploFlag ? bounds[task + 1] : n;
+            Arrays.fill(partial, task * n + start, task * n + end, 0.0d);
+            if (uploFlag) {
+                vecDsymvU(bounds[task], bounds[task + 1], x, xOffset, alpha, partial, task * n, a, aOffset, lda);
+            } else {
+                vecDsymvL(n, bounds[task], bounds[task + 1], x, xOffset, alpha, partial, task * n, a, aOffset, lda);
+            }
+        });
+        for (int task = 0; task < tasks; task++) {
+            int start = uploFlag ? 0 : bounds[task];
+            int end = uploFlag ? bounds[task + 1] : n;
+            Daxpy.daxpy(end - start, 1.0d, partial, task * n + start, 1, y, yOffset + start, 1);
+        }
+    }
+
+    private static void vecDsymvU(int colStart, int colEnd, double[] x, int xOffset, double alpha, double[] y,
+        int yOffset, double[] a, int aOffset, int lda) {
+        int col = colStart;
+        int colLoopBound = colStart + loopBound(colEnd - colStart, 4);
         for (; col < colLoopBound; col += 4) { // 4 is unroll size for column
             double alphaMulX0 = alpha * x[col + xOffset];
             double alphaMulX1 = alpha * x[(col + 1) + xOffset];
@@ -141,7 +183,7 @@ public class Dsymv {
             y[(col + 3) + yOffset] += a03 * alphaMulX0 + a13 * alphaMulX1 + a23 * alphaMulX2 + a33 * alphaMulX3
                     + accum3;
         }
-        for (; col < n; col++) {
+        for (; col < colEnd; col++) {
             double alphaMulX0 = alpha * x[col + xOffset];
             DoubleVector alphaXv0 = DoubleVector.broadcast(DSPECIES, alphaMulX0);
             DoubleVector accumv0 = DoubleVector.zero(DSPECIES);
@@ -178,10 +220,10 @@ public class Dsymv {
         }
     }
 
-    private static void vecDsymvL(int n, double[] x, int xOffset, double alpha, double[] y, int yOffset, double[] a,
-        int aOffset, int lda) {
-        int col = 0;
-        int colLoopBound = loopBound(n, 4);
+    private static void vecDsymvL(int n, int colStart, int colEnd, double[] x, int xOffset, double alpha, double[] y,
+        int yOffset, double[] a, int aOffset, int lda) {
+        int col = colStart;
+        int colLoopBound = colStart + loopBound(colEnd - colStart, 4);
         for (; col < colLoopBound; col += 4) { // 4 is unroll size for column
             int row = col;
             double a00 = a[aOffset + row + col * lda];
@@ -247,7 +289,7 @@ public class Dsymv {
             y[yOffset + (col + 2)] += accum2;
             y[yOffset + (col + 3)] += accum3;
         }
-        for (; col < n; col += 1) {
+        for (; col < colEnd; col += 1) {
             double alphaMulX0 = alpha * x[xOffset + col];
             y[yOffset + col] += a[aOffset + col + col * lda] * alphaMulX0;
             int row = col + 1;
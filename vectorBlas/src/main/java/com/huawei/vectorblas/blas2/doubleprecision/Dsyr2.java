@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.doubleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * DSYR2. With unit strides the columns are updated in groups of four sharing each loaded vector of x and y, see
+ * DblasLevel2.dSyr2UnitStride.
+ */
+public class Dsyr2 {
+    public static void dsyr2(String uplo, int n, double alpha, double[] x, int xOffset, int incx, double[] y,
+        int yOffset, int incy, double[] a, int aOffset, int lda) {
+        BlasUtils.checkParameter("DSYR2", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("DSYR2", 2, n >= 0);
+        BlasUtils.checkParameter("DSYR2", 5, incx != 0);
+        BlasUtils.checkParameter("DSYR2", 7, incy != 0);
+        BlasUtils.checkParameter("DSYR2", 9, lda >= Math.max(1, n));
+
+        if (n == 0 || BlasUtils.isZero(alpha)) {
+            return;
+        }
+
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("y", yOffset, Math.abs(incy) * (n - 1), y.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) + (n - 1) * lda, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        if (incx == 1 && incy == 1) {
+            DblasLevel2.dSyr2UnitStride(uploFlag, false, n, alpha, x, xOffset, y, yOffset, a, aOffset, lda);
+        } else {
+            normalDsyr2(uploFlag, n, alpha, x, xOffset, incx, y, yOffset, incy, a, aOffset, lda);
+        }
+    }
+
+    private static void normalDsyr2(boolean uploFlag, int n, double alpha, double[] x, int xOffset, int incx,
+        double[] y, int yOffset, int incy, double[] a, int aOffset, int lda) {
+        int xStartIndx = xOffset + (incx > 0 ? 0 : (1 - n) * incx);
+        int yStartIndx = yOffset + (incy > 0 ? 0 : (1 - n) * incy);
+        for (int j = 0, jx = xStartIndx, jy = yStartIndx; j < n; j++, jx += incx, jy += incy) {
+            if (!BlasUtils.isZero(x[jx]) || !BlasUtils.isZero(y[jy])) {
+                double xTemp = alpha * y[jy];
+                double yTemp = alpha * x[jx];
+                int rowStart = uploFlag ? 0 : j;
+                int rowEnd = uploFlag ? j + 1 : n;
+                for (int i = rowStart, ix = xStartIndx + rowStart * incx, iy = yStartIndx + rowStart * incy;
+                    i < rowEnd; i++, ix += incx, iy += incy) {
+                    a[i + j * lda + aOffset] += x[ix] * xTemp + y[iy] * yTemp;
+                }
+            }
+        }
+    }
+}
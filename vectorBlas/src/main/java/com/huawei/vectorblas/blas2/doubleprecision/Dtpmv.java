@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.doubleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * DTRMV for a triangular matrix in packed storage. With unit stride the diagonal blocks of order DIAG_BLOCK are
+ * multiplied by scalar loops in the block order of DTRMV, and the panel beside each block is added column by
+ * column, each contiguous packed column segment as one vector axpy (trans N) or dot (trans T).
+ */
+public class Dtpmv {
+    private static final int DIAG_BLOCK = 32;
+
+    public static void dtpmv(String uplo, String trans, String diag, int n, double[] a, int aOffset, double[] x,
+        int xOffset, int incx) {
+        BlasUtils.checkParameter("DTPMV", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("DTPMV", 2,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        BlasUtils.checkParameter("DTPMV", 3, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        BlasUtils.checkParameter("DTPMV", 4, n >= 0);
+        BlasUtils.checkParameter("DTPMV", 7, incx != 0);
+        if (n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("a", aOffset, (1 + n) * n / 2 - 1, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        boolean nounit = Lsame.lsame(diag, "N");
+        if (incx != 1) {
+            int xBase = xOffset + (incx > 0 ? 0 : (n - 1) * (-incx));
+            multiplyBlock(uploFlag, transFlag, nounit, n, 0, n, a, aOffset, x, xBase, incx);
+            return;
+        }
+        if (transFlag == uploFlag) {
+            // N upper or T lower: from the first block to the last, reading the blocks after the current one.
+            for (int start = 0; start < n; start += DIAG_BLOCK) {
+                int end = Math.min(n, start + DIAG_BLOCK);
+                multiplyBlock(uploFlag, transFlag, nounit, n, start, end, a, aOffset, x, xOffset, 1);
+                if (transFlag) {
+                    for (int col = end; col < n; col++) {
+                        if (!BlasUtils.isZero(x[col + xOffset])) {
+                            DblasLevel2.dAxpySegment(end - start, x[col + xOffset], a,
+                                aOffset + DblasLevel2.packedColumn(true, n, col) + start, x, xOffset + start);
+                        }
+                    }
+                } else {
+                    if (end < n) {
+                        for (int col = start; col < end; col++) {
+                            x[col + xOffset] += DblasLevel2.dDotSegment(n - end, a,
+                                aOffset + DblasLevel2.packedColumn(false, n, col) + end, x, xOffset + end);
+                        }
+                    }
+                }
+            }
+        } else {
+            // N lower or T upper: from the last block to the first, reading the blocks before the current one.
+            for (int end = n; end > 0; end -= DIAG_BLOCK) {
+                int start = Math.max(0, end - DIAG_BLOCK);
+                multiplyBlock(uploFlag, transFlag, nounit, n, start, end, a, aOffset, x, xOffset, 1);
+                if (transFlag) {
+                    for (int col = 0; col < start; col++) {
+                        if (!BlasUtils.isZero(x[col + xOffset])) {
+                            DblasLevel2.dAxpySegment(end - start, x[col + xOffset], a,
+                                aOffset + DblasLevel2.packedColumn(false, n, col) + start, x, xOffset + start);
+                        }
+                    }
+                } else {
+                    if (start > 0) {
+                        for (int col = start; col < end; col++) {
+                            x[col + xOffset] += DblasLevel2.dDotSegment(start, a,
+                                aOffset + DblasLevel2.packedColumn(true, n, col), x, xOffset);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Product with the diagonal block [start, end), in place; x[xBase + i * incx] is element i of x.
+    private static void multiplyBlock(boolean uploFlag, boolean transFlag, boolean nounit, int n, int start,
+        int end, double[] a, int aOffset, double[] x, int xBase, int incx) {
+        if (transFlag) {
+            for (int step = 0; step < end - start; step++) {
+                int col = uploFlag ? start + step : end - 1 - step;
+                double xj = x[xBase + col * incx];
+                if (!BlasUtils.isZero(xj)) {
+                    int aIndex = aOffset + DblasLevel2.packedColumn(uploFlag, n, col);
+                    int rowStart = uploFlag ? start : col + 1;
+                    int rowEnd = uploFlag ? col : end;
+                    for (int row = rowStart; row < rowEnd; row++) {
+                        x[xBase + row * incx] += xj * a[aIndex + row];
+                    }
+                    if (nounit) {
+                        x[xBase + col * incx] = xj * a[aIndex + col];
+                    }
+                }
+            }
+        } else {
+            for (int step = 0; step < end - start; step++) {
+                int col = uploFlag ? end - 1 - step : start + step;
+                int aIndex = aOffset + DblasLevel2.packedColumn(uploFlag, n, col);
+                int rowStart = uploFlag ? start : col + 1;
+                int rowEnd = uploFlag ? col : end;
+                double temp = nounit ? x[xBase + col * incx] * a[aIndex + col] : x[xBase + col * incx];
+                for (int row = rowStart; row < rowEnd; row++) {
+                    temp += a[aIndex + row] * x[xBase + row * incx];
+                }
+                x[xBase + col * incx] = temp;
+            }
+        }
+    }
+}
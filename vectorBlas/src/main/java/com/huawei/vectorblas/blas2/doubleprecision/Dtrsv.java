@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.doubleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * Solve A * x = b or A' * x = b in place for a triangular matrix A. The solve walks the diagonal blocks of order
+ * DIAG_BLOCK in dependency order: each block is solved by scalar substitution, and its contribution to the rest of
+ * x (trans N), or the contribution of the already solved part of x to it (trans T), is one DGEMV on the
+ * rectangular panel beside it.
+ */
+public class Dtrsv {
+    private static final int DIAG_BLOCK = 32;
+
+    public static void dtrsv(String uplo, String trans, String diag, int n, double[] a, int aOffset, int lda,
+        double[] x, int xOffset, int incx) {
+        BlasUtils.checkParameter("DTRSV", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("DTRSV", 2,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        BlasUtils.checkParameter("DTRSV", 3, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        BlasUtils.checkParameter("DTRSV", 4, n >= 0);
+        BlasUtils.checkParameter("DTRSV", 6, lda >= Math.max(1, n));
+        BlasUtils.checkParameter("DTRSV", 8, incx != 0);
+        if (n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) * lda + n - 1, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        boolean nounit = Lsame.lsame(diag, "N");
+        int xBase = xOffset + (incx > 0 ? 0 : (n - 1) * (-incx));
+        if (transFlag != uploFlag) {
+            // N lower or T upper: from the first block to the last.
+            for (int start = 0; start < n; start += DIAG_BLOCK) {
+                int end = Math.min(n, start + DIAG_BLOCK);
+                if (transFlag) {
+                    solveBlock(uploFlag, true, nounit, start, end, a, aOffset, lda, x, xBase, incx);
+                    if (end < n) {
+                        Dgemv.dgemv("N", n - end, end - start, -1.0d, a, aOffset + end + start * lda, lda, x,
+                            segment(n, xOffset, incx, start, end - start), incx, 1.0d, x,
+                            segment(n, xOffset, incx, end, n - end), incx);
+                    }
+                } else {
+                    if (start > 0) {
+                        Dgemv.dgemv("T", start, end - start, -1.0d, a, aOffset + start * lda, lda, x,
+                            segment(n, xOffset, incx, 0, start), incx, 1.0d, x,
+                            segment(n, xOffset, incx, start, end - start), incx);
+                    }
+                    solveBlock(uploFlag, false, nounit, start, end, a, aOffset, lda, x, xBase, incx);
+                }
+            }
+        } else {
+            // N upper or T lower: from the last block to the first.
+            for (int end = n; end > 0; end -= DIAG_BLOCK) {
+                int start = Math.max(0, end - DIAG_BLOCK);
+                if (transFlag) {
+                    solveBlock(uploFlag, true, nounit, start, end, a, aOffset, lda, x, xBase, incx);
+                    if (start > 0) {
+                        Dgemv.dgemv("N", start, end - start, -1.0d, a, aOffset + start * lda, lda, x,
+                            segment(n, xOffset, incx, start, end - start), incx, 1.0d, x,
+                            segment(n, xOffset, incx, 0, start), incx);
+                    }
+                } else {
+                    if (end < n) {
+                        Dgemv.dgemv("T", n - end, end - start, -1.0d, a, aOffset + end + start * lda, lda, x,
+                            segment(n, xOffset, incx, end, n - end), incx, 1.0d, x,
+                            segment(n, xOffset, incx, start, end - start), incx);
+                    }
+                    solveBlock(uploFlag, false, nounit, start, end, a, aOffset, lda, x, xBase, incx);
+                }
+            }
+        }
+    }
+
+    /**
+     * Offset at which the count elements from element start of the length n vector x begin, when passed to a
+     * BLAS routine as a vector of their own with the same increment.
+     */
+    private static int segment(int n, int xOffset, int incx, int start, int count) {
+        return xOffset + (incx > 0 ? start * incx : (n - start - count) * (-incx));
+    }
+
+    // Substitution within the diagonal block [start, end); x[xBase + i * incx] is element i of x.
+    private static void solveBlock(boolean uploFlag, boolean transFlag, boolean nounit, int start, int end,
+        double[] a, int aOffset, int lda, double[] x, int xBase, int incx) {
+        if (transFlag) {
+            for (int step = 0; step < end - start; step++) {
+                int col = uploFlag ? end - 1 - step : start + step;
+                if (!BlasUtils.isZero(x[xBase + col * incx])) {
+                    int aIndex = aOffset + col * lda;
+                    if (nounit) {
+                        x[xBase + col * incx] /= a[aIndex + col];
+                    }
+                    double xj = x[xBase + col * incx];
+                    int rowStart = uploFlag ? start : col + 1;
+                    int rowEnd = uploFlag ? col : end;
+                    for (int row = rowStart; row < rowEnd; row++) {
+                        x[xBase + row * incx] -= xj * a[aIndex + row];
+                    }
+                }
+            }
+        } else {
+            for (int step = 0; step < end - start; step++) {
+                int col = uploFlag ? start + step : end - 1 - step;
+                int aIndex = aOffset + col * lda;
+                int rowStart = uploFlag ? start : col + 1;
+                int rowEnd = uploFlag ? col : end;
+                double temp = x[xBase + col * incx];
+                for (int row = rowStart; row < rowEnd; row++) {
+                    temp -= a[aIndex + row] * x[xBase + row * incx];
+                }
+                x[xBase + col * incx] = nounit ? temp / a[aIndex + col] : temp;
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas2.int8;
+
+import static com.huawei.vectorblas.utils.ArrayUtil.loopBound;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.Int8Widening;
+import com.huawei.vectorblas.utils.Lsame;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * GEMV on int8 A and x with int32 accumulation. The int8 values are widened to int32 lanes as they are loaded,
+ * so A is read at one byte per element (see Int8Widening). The sums of op(A) * x are collected in the thread's int sum buffer and
+ * then written to y, as int32 or scaled to float.
+ */
+public class I8gemv {
+    private static final VectorSpecies<Integer> ISPECIES = Int8Widening.INT_SPECIES;
+    private static final VectorSpecies<Byte> BSPECIES = Int8Widening.BYTE_SPECIES;
+    private static final int WIDEN_LENGTH = Int8Widening.LENGTH;
+
+    /**
+     * y := op(A) * x + beta * y in int32, with int32 wraparound on overflow.
+     */
+    public static void i8gemv(String trans, int m, int n, byte[] a, int aOffset, int lda, byte[] x, int xOffset,
+        int incx, int beta, int[] y, int yOffset, int incy) {
+        BlasUtils.checkParameter("I8GEMV", 1, Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T"));
+        BlasUtils.checkParameter("I8GEMV", 2, m >= 0);
+        BlasUtils.checkParameter("I8GEMV", 3, n >= 0);
+        BlasUtils.checkParameter("I8GEMV", 5, lda >= Math.max(1, m));
+        BlasUtils.checkParameter("I8GEMV", 7, incx != 0);
+        BlasUtils.checkParameter("I8GEMV", 10, incy != 0);
+        boolean transFlag = Lsame.lsame(trans, "N");
+        int lenY = transFlag ? m : n;
+        if (lenY == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("y", yOffset, Math.abs(incy) * (lenY - 1), y.length);
+        int[] sums = i8gemvSums(transFlag, m, n, a, aOffset, lda, x, xOffset, incx);
+        int yIndex = yOffset + (incy > 0 ? 0 : (lenY - 1) * (-incy));
+        for (int index = 0; index < lenY; index++, yIndex += incy) {
+            y[yIndex] = beta == 0 ? sums[index] : sums[index] + beta * y[yIndex];
+        }
+    }
+
+    /**
+     * y := diag(scale) * (op(A) * x) + beta * y in float, for quantized A and x with one combined scale per
+     * element of y (from scaleOffset). A null scale array stands for scales of 1.
+     */
+    public static void i8gemv(String trans, int m, int n, byte[] a, int aOffset, int lda, byte[] x, int xOffset,
+        int incx, float[] scale, int scaleOffset, float beta, float[] y, int yOffset, int incy) {
+        BlasUtils.checkParameter("I8GEMV_SCALED", 1, Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T"));
+        BlasUtils.checkParameter("I8GEMV_SCALED", 2, m >= 0);
+        BlasUtils.checkParameter("I8GEMV_SCALED", 3, n >= 0);
+        BlasUtils.checkParameter("I8GEMV_SCALED", 5, lda >= Math.max(1, m));
+        BlasUtils.checkParameter("I8GEMV_SCALED", 7, incx != 0);
+        BlasUtils.checkParameter("I8GEMV_SCALED", 11, incy != 0);
+        boolean transFlag = Lsame.lsame(trans, "N");
+        int lenY = transFlag ? m : n;
+        if (lenY == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("y", yOffset, Math.abs(incy) * (lenY - 1), y.length);
+        if (scale != null) {
+            BlasUtils.checkBlasArray("scale", scaleOffset, lenY - 1, scale.length);
+        }
+        int[] sums = i8gemvSums(transFlag, m, n, a, aOffset, lda, x, xOffset, incx);
+        int yIndex = yOffset + (incy > 0 ? 0 : (lenY - 1) * (-incy));
+        for (int index = 0; index < lenY; index++, yIndex += incy) {
+            float sum = scale == null ? sums[index] : scale[scaleOffset + index] * sums[index];
+            y[yIndex] = BlasUtils.isZero(beta) ? sum : sum + beta * y[yIndex];
+        }
+    }
+
+    /**
+     * op(A) * x into the first elements of the thread's int sum buffer.
+     */
+    private static int[] i8gemvSums(boolean transFlag, int m, int n, byte[] a, int aOffset, int lda, byte[] x,
+        int xOffset, int incx) {
+        int lenX = transFlag ? n : m;
+        int lenY = transFlag ? m : n;
+        int[] sums = BlasWorkspace.intSums(lenY);
+        if (lenX == 0) {
+            Arrays.fill(sums, 0, lenY, 0);
+            return sums;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (lenX - 1), x.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) * lda + m - 1, a.length);
+        if (transFlag) {
+            i8gemvN(m, n, a, aOffset, lda, x, xOffset, incx, sums);
+        } else {
+            i8gemvT(m, n, a, aOffset, lda, x, xOffset, incx, sums);
+        }
+        return sums;
+    }
+
+    /**
+     * sums = A * x, accumulated in sums over four columns of A at a time so that A is streamed column by column.
+     * Where a load is widened in four parts (see Int8Widening), the columns are taken one at a time instead, which
+     * keeps the compiled loop small enough for its vector operations to be inlined.
+     */
+    private static void i8gemvN(int m, int n, byte[] a, int aOffset, int lda, byte[] x, int xOffset, int incx,
+        int[] sums) {
+        Arrays.fill(sums, 0, m, 0);
+        int xIndex = xOffset + (incx > 0 ? 0 : (n - 1) * (-incx));
+        int vectorLength = ISPECIES.length();
+        int colLoopBound = Int8Widening.PARTS == 1 ? loopBound(n, 4) : 0;
+        int rowLoopBound = loopBound(m, WIDEN_LENGTH);
+        int col = 0;
+        for (; col < colLoopBound; col += 4, xIndex += 4 * incx) {
+            int x0 = x[xIndex];
+            int x1 = x[xIndex + incx];
+            int x2 = x[xIndex + 2 * incx];
+            int x3 = x[xIndex + 3 * incx];
+            int aIndex = aOffset + col * lda;
+            int row = 0;
+            for (; row < rowLoopBound; row += WIDEN_LENGTH) {
+                IntVector sum = load(a, aIndex + row).mul(x0).add(load(a, aIndex + lda + row).mul(x1))
+                    .add(load(a, aIndex + 2 * lda + row).mul(x2)).add(load(a, aIndex + 3 * lda + row).mul(x3));
+                sum.add(IntVector.fromArray(ISPECIES, sums, row)).intoArray(sums, row);
+            }
+            for (; row < m; row++) {
+                sums[row] += a[aIndex + row] * x0 + a[aIndex + lda + row] * x1 + a[aIndex + 2 * lda + row] * x2
+                    + a[aIndex + 3 * lda + row] * x3;
+            }
+        }
+        for (; col < n; col++, xIndex += incx) {
+            int xValue = x[xIndex];
+            int aIndex = aOffset + col * lda;
+            int row = 0;
+            for (; row < rowLoopBound; row += WIDEN_LENGTH) {
+                ByteVector a0 = ByteVector.fromArray(BSPECIES, a, aIndex + row);
+                addColumn(a0, 0, xValue, sums, row);
+                if (Int8Widening.PARTS > 1) {
+                    addColumn(a0, 1, xValue, sums, row + vectorLength);
+                    addColumn(a0, 2, xValue, sums, row + 2 * vectorLength);
+                    addColumn(a0, 3, xValue, sums, row + 3 * vectorLength);
+                }
+            }
+            for (; row < m; row++) {
+                sums[row] += a[aIndex + row] * xValue;
+            }
+        }
+    }
+
+    /**
+     * sums = A^T * x, one dot product per column of A with four vector accumulators when x is contiguous, or one
+     * where a load is widened in four parts (see i8gemvN).
+     */
+    private static void i8gemvT(int m, int n, byte[] a, int aOffset, int lda, byte[] x, int xOffset, int incx,
+        int[] sums) {
+        int xStart = xOffset + (incx > 0 ? 0 : (m - 1) * (-incx));
+        int rowUnrollLoopBound = incx == 1 && Int8Widening.PARTS == 1 ? loopBound(m, WIDEN_LENGTH * 4) : 0;
+        int rowLoopBound = incx == 1 ? loopBound(m, WIDEN_LENGTH) : 0;
+        for (int col = 0; col < n; col++) {
+            int aIndex = aOffset + col * lda;
+            IntVector sum0 = IntVector.zero(ISPECIES);
+            IntVector sum1 = IntVector.zero(ISPECIES);
+            IntVector sum2 = IntVector.zero(ISPECIES);
+            IntVector sum3 = IntVector.zero(ISPECIES);
+            int row = 0;
+            for (; row < rowUnrollLoopBound; row += WIDEN_LENGTH * 4) {
+                sum0 = dot(a, aIndex + row, x, xStart + row, sum0);
+                sum1 = dot(a, aIndex + row + WIDEN_LENGTH, x, xStart + row + WIDEN_LENGTH, sum1);
+                sum2 = dot(a, aIndex + row + WIDEN_LENGTH * 2, x, xStart + row + WIDEN_LENGTH * 2, sum2);
+                sum3 = dot(a, aIndex + row + WIDEN_LENGTH * 3, x, xStart + row + WIDEN_LENGTH * 3, sum3);
+            }
+            for (; row < rowLoopBound; row += WIDEN_LENGTH) {
+                sum0 = dot(a, aIndex + row, x, xStart + row, sum0);
+            }
+            int sum = sum0.add(sum1).add(sum2.add(sum3)).reduceLanes(VectorOperators.ADD);
+            int xIndex = xStart + row * incx;
+            for (; row < m; row++, xIndex += incx) {
+                sum += a[aIndex + row] * x[xIndex];
+            }
+            sums[col] = sum;
+        }
+    }
+
+    /**
+     * sum + the lane products of the WIDEN_LENGTH int8 values of a and x, widened part by part.
+     */
+    private static IntVector dot(byte[] a, int aIndex, byte[] x, int xIndex, IntVector sum) {
+        ByteVector av = ByteVector.fromArray(BSPECIES, a, aIndex);
+        ByteVector xv = ByteVector.fromArray(BSPECIES, x, xIndex);
+        IntVector result = widen(av, 0).mul(widen(xv, 0)).add(sum);
+        if (Int8Widening.PARTS > 1) {
+            result = widen(av, 1).mul(widen(xv, 1)).add(result);
+            result = widen(av, 2).mul(widen(xv, 2)).add(result);
+            result = widen(av, 3).mul(widen(xv, 3)).add(result);
+        }
+        return result;
+    }
+
+    /**
+     * sums[index..] += the given part of one A column times its x value.
+     */
+    private static void addColumn(ByteVector a0, int part, int xValue, int[] sums, int index) {
+        widen(a0, part).mul(xValue).add(IntVector.fromArray(ISPECIES, sums, index)).intoArray(sums, index);
+    }
+
+    /**
+     * The int8 values from index widened to int32 lanes, where a load takes a single part.
+     */
+    private static IntVector load(byte[] src, int index) {
+        return widen(ByteVector.fromArray(BSPECIES, src, index), 0);
+    }
+
+    private static IntVector widen(ByteVector bytes, int part) {
+        return Int8Widening.widen(bytes, part);
+    }
+}
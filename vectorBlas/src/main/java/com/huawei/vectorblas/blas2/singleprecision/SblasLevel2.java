@@ -22,9 +22,12 @@
 
 package com.huawei.vectorblas.blas2.singleprecision;
 
+import static com.huawei.vectorblas.utils.ArrayUtil.loopBound;
+
 import com.huawei.vectorblas.utils.BlasUtils;
 
 import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 
 public class SblasLevel2 {
@@ -54,4 +57,267 @@ public class SblasLevel2 {
             }
         }
     }
+
+    /**
+     * Offset of column col in a packed triangular matrix of order n, such that A(row, col) of the stored triangle is
+     * at that offset plus row.
+     */
+    protected static int packedColumn(boolean uploFlag, int n, int col) {
+        return (int) (uploFlag ? (long) col * (col + 1) / 2 : (long) col * (2L * n - col - 1) / 2);
+    }
+
+    /**
+     * y[0, len) += alpha * a[0, len) on contiguous segments, such as the stored part of one column of a band matrix.
+     */
+    protected static void sAxpySegment(int len, float alpha, float[] a, int aOffset, float[] y, int yOffset) {
+        FloatVector alphaV = FloatVector.broadcast(SSPECIES, alpha);
+        int idx = 0;
+        int idxUnrollLoopBound = loopBound(len, SSPECIES.length() * 4);
+        int idxLoopBound = loopBound(len, SSPECIES.length());
+        for (; idx < idxUnrollLoopBound; idx += SSPECIES.length() * 4) {
+            FloatVector yv0 = FloatVector.fromArray(SSPECIES, y, idx + yOffset);
+            FloatVector yv1 = FloatVector.fromArray(SSPECIES, y, idx + SSPECIES.length() + yOffset);
+            FloatVector yv2 = FloatVector.fromArray(SSPECIES, y, idx + SSPECIES.length() * 2 + yOffset);
+            FloatVector yv3 = FloatVector.fromArray(SSPECIES, y, idx + SSPECIES.length() * 3 + yOffset);
+            FloatVector av0 = FloatVector.fromArray(SSPECIES, a, idx + aOffset);
+            FloatVector av1 = FloatVector.fromArray(SSPECIES, a, idx + SSPECIES.length() + aOffset);
+            FloatVector av2 = FloatVector.fromArray(SSPECIES, a, idx + SSPECIES.length() * 2 + aOffset);
+            FloatVector av3 = FloatVector.fromArray(SSPECIES, a, idx + SSPECIES.length() * 3 + aOffset);
+            av0.fma(alphaV, yv0).intoArray(y, idx + yOffset);
+            av1.fma(alphaV, yv1).intoArray(y, idx + SSPECIES.length() + yOffset);
+            av2.fma(alphaV, yv2).intoArray(y, idx + SSPECIES.length() * 2 + yOffset);
+            av3.fma(alphaV, yv3).intoArray(y, idx + SSPECIES.length() * 3 + yOffset);
+        }
+        for (; idx < idxLoopBound; idx += SSPECIES.length()) {
+            FloatVector yv = FloatVector.fromArray(SSPECIES, y, idx + yOffset);
+            FloatVector av = FloatVector.fromArray(SSPECIES, a, idx + aOffset);
+            av.fma(alphaV, yv).intoArray(y, idx + yOffset);
+        }
+        for (; idx < len; idx++) {
+            y[idx + yOffset] += alpha * a[idx + aOffset];
+        }
+    }
+
+    /**
+     * Dot product of the contiguous segments a[0, len) and x[0, len).
+     */
+    protected static float sDotSegment(int len, float[] a, int aOffset, float[] x, int xOffset) {
+        FloatVector sumv = FloatVector.zero(SSPECIES);
+        int idx = 0;
+        int idxUnrollLoopBound = loopBound(len, SSPECIES.length() * 4);
+        int idxLoopBound = loopBound(len, SSPECIES.length());
+        for (; idx < idxUnrollLoopBound; idx += SSPECIES.length() * 4) {
+            FloatVector xv0 = FloatVector.fromArray(SSPECIES, x, idx + xOffset);
+            FloatVector xv1 = FloatVector.fromArray(SSPECIES, x, idx + SSPECIES.length() + xOffset);
+            FloatVector xv2 = FloatVector.fromArray(SSPECIES, x, idx + SSPECIES.length() * 2 + xOffset);
+            FloatVector xv3 = FloatVector.fromArray(SSPECIES, x, idx + SSPECIES.length() * 3 + xOffset);
+            FloatVector av0 = FloatVector.fromArray(SSPECIES, a, idx + aOffset);
+            FloatVector av1 = FloatVector.fromArray(SSPECIES, a, idx + SSPECIES.length() + aOffset);
+            FloatVector av2 = FloatVector.fromArray(SSPECIES, a, idx + SSPECIES.length() * 2 + aOffset);
+            FloatVector av3 = FloatVector.fromArray(SSPECIES, a, idx + SSPECIES.length() * 3 + aOffset);
+            sumv = av0.fma(xv0, av1.fma(xv1, av2.fma(xv2, av3.fma(xv3, sumv))));
+        }
+        for (; idx < idxLoopBound; idx += SSPECIES.length()) {
+            FloatVector xv = FloatVector.fromArray(SSPECIES, x, idx + xOffset);
+            FloatVector av = FloatVector.fromArray(SSPECIES, a, idx + aOffset);
+            sumv = av.fma(xv, sumv);
+        }
+        float sum = sumv.reduceLanes(VectorOperators.ADD);
+        for (; idx < len; idx++) {
+            sum += a[idx + aOffset] * x[idx + xOffset];
+        }
+        return sum;
+    }
+
+    /**
+     * y[0, len) += alpha * a[0, len) and returns the dot product of a[0, len) with x[0, len), reading the column
+     * segment of a symmetric matrix once for both of its uses.
+     */
+    protected static float sAxpyDotSegment(int len, float alpha, float[] a, int aOffset, float[] x, int xOffset,
+        float[] y, int yOffset) {
+        FloatVector alphaV = FloatVector.broadcast(SSPECIES, alpha);
+        FloatVector sumv = FloatVector.zero(SSPECIES);
+        int idx = 0;
+        int idxLoopBound = loopBound(len, SSPECIES.length());
+        for (; idx < idxLoopBound; idx += SSPECIES.length()) {
+            FloatVector av = FloatVector.fromArray(SSPECIES, a, idx + aOffset);
+            FloatVector xv = FloatVector.fromArray(SSPECIES, x, idx + xOffset);
+            FloatVector yv = FloatVector.fromArray(SSPECIES, y, idx + yOffset);
+            av.fma(alphaV, yv).intoArray(y, idx + yOffset);
+            sumv = av.fma(xv, sumv);
+        }
+        float sum = sumv.reduceLanes(VectorOperators.ADD);
+        for (; idx < len; idx++) {
+            y[idx + yOffset] += alpha * a[idx + aOffset];
+            sum += a[idx + aOffset] * x[idx + xOffset];
+        }
+        return sum;
+    }
+
+    /**
+     * Address of A(0, col) in full storage with leading dimension lda, or in packed storage, such that A(row, col) of
+     * the referenced triangle is at that address plus row.
+     */
+    private static int symColumn(boolean uploFlag, boolean packed, int n, int col, int aOffset, int lda) {
+        return packed ? aOffset + packedColumn(uploFlag, n, col) : aOffset + col * lda;
+    }
+
+    /**
+     * A := alpha * x * x**T + A on the referenced triangle, in full or packed storage, with unit stride x. Columns are
+     * updated in groups of four sharing each loaded vector of x, as in SGER, and the small triangle at the diagonal
+     * of each group by scalar loops. Leftover columns are the shortest ones, first for upper and last for lower.
+     */
+    protected static void sSyrUnitStride(boolean uploFlag, boolean packed, int n, float alpha, float[] x,
+        int xOffset, float[] a, int aOffset, int lda) {
+        int rest = n % 4;
+        int groupStart = uploFlag ? rest : 0;
+        int groupEnd = uploFlag ? n : n - rest;
+        for (int col = uploFlag ? 0 : groupEnd; col < (uploFlag ? rest : n); col++) {
+            int base = symColumn(uploFlag, packed, n, col, aOffset, lda);
+            sSyrColumn(uploFlag ? 0 : col, uploFlag ? col + 1 : n, alpha * x[col + xOffset], x, xOffset, a, base);
+        }
+        for (int col = groupStart; col < groupEnd; col += 4) {
+            int base0 = symColumn(uploFlag, packed, n, col, aOffset, lda);
+            int base1 = symColumn(uploFlag, packed, n, col + 1, aOffset, lda);
+            int base2 = symColumn(uploFlag, packed, n, col + 2, aOffset, lda);
+            int base3 = symColumn(uploFlag, packed, n, col + 3, aOffset, lda);
+            float temp0 = alpha * x[col + xOffset];
+            float temp1 = alpha * x[col + 1 + xOffset];
+            float temp2 = alpha * x[col + 2 + xOffset];
+            float temp3 = alpha * x[col + 3 + xOffset];
+            int rowStart = uploFlag ? 0 : col + 4;
+            int rowEnd = uploFlag ? col : n;
+            sRank1Columns(rowEnd - rowStart, temp0, temp1, temp2, temp3, x, xOffset + rowStart, a,
+                base0 + rowStart, base1 + rowStart, base2 + rowStart, base3 + rowStart);
+            sSyrColumn(col, uploFlag ? col + 1 : col + 4, temp0, x, xOffset, a, base0);
+            sSyrColumn(uploFlag ? col : col + 1, uploFlag ? col + 2 : col + 4, temp1, x, xOffset, a, base1);
+            sSyrColumn(uploFlag ? col : col + 2, uploFlag ? col + 3 : col + 4, temp2, x, xOffset, a, base2);
+            sSyrColumn(uploFlag ? col : col + 3, col + 4, temp3, x, xOffset, a, base3);
+        }
+    }
+
+    /**
+     * A := alpha * x * y**T + alpha * y * x**T + A on the referenced triangle, in full or packed storage, with unit
+     * stride x and y, in the column groups of sSyrUnitStride.
+     */
+    protected static void sSyr2UnitStride(boolean uploFlag, boolean packed, int n, float alpha, float[] x,
+        int xOffset, float[] y, int yOffset, float[] a, int aOffset, int lda) {
+        int rest = n % 4;
+        int groupStart = uploFlag ? rest : 0;
+        int groupEnd = uploFlag ? n : n - rest;
+        for (int col = uploFlag ? 0 : groupEnd; col < (uploFlag ? rest : n); col++) {
+            int base = symColumn(uploFlag, packed, n, col, aOffset, lda);
+            sSyr2Column(uploFlag ? 0 : col, uploFlag ? col + 1 : n, alpha * y[col + yOffset],
+                alpha * x[col + xOffset], x, xOffset, y, yOffset, a, base);
+        }
+        for (int col = groupStart; col < groupEnd; col += 4) {
+            int base0 = symColumn(uploFlag, packed, n, col, aOffset, lda);
+            int base1 = symColumn(uploFlag, packed, n, col + 1, aOffset, lda);
+            int base2 = symColumn(uploFlag, packed, n, col + 2, aOffset, lda);
+            int base3 = symColumn(uploFlag, packed, n, col + 3, aOffset, lda);
+            float xTemp0 = alpha * y[col + yOffset];
+            float xTemp1 = alpha * y[col + 1 + yOffset];
+            float xTemp2 = alpha * y[col + 2 + yOffset];
+            float xTemp3 = alpha * y[col + 3 + yOffset];
+            float yTemp0 = alpha * x[col + xOffset];
+            float yTemp1 = alpha * x[col + 1 + xOffset];
+            float yTemp2 = alpha * x[col + 2 + xOffset];
+            float yTemp3 = alpha * x[col + 3 + xOffset];
+            int rowStart = uploFlag ? 0 : col + 4;
+            int rowEnd = uploFlag ? col : n;
+            sRank2Columns(rowEnd - rowStart, xTemp0, xTemp1, xTemp2, xTemp3, x, xOffset + rowStart,
+                yTemp0, yTemp1, yTemp2, yTemp3, y, yOffset + rowStart, a,
+                base0 + rowStart, base1 + rowStart, base2 + rowStart, base3 + rowStart);
+            sSyr2Column(col, uploFlag ? col + 1 : col + 4, xTemp0, yTemp0, x, xOffset, y, yOffset, a, base0);
+            sSyr2Column(uploFlag ? col : col + 1, uploFlag ? col + 2 : col + 4, xTemp1, yTemp1, x, xOffset,
+                y, yOffset, a, base1);
+            sSyr2Column(uploFlag ? col : col + 2, uploFlag ? col + 3 : col + 4, xTemp2, yTemp2, x, xOffset,
+                y, yOffset, a, base2);
+            sSyr2Column(uploFlag ? col : col + 3, col + 4, xTemp3, yTemp3, x, xOffset, y, yOffset, a, base3);
+        }
+    }
+
+    private static void sSyrColumn(int rowStart, int rowEnd, float temp, float[] x, int xOffset, float[] a,
+        int base) {
+        for (int row = rowStart; row < rowEnd; row++) {
+            a[row + base] += x[row + xOffset] * temp;
+        }
+    }
+
+    private static void sSyr2Column(int rowStart, int rowEnd, float xTemp, float yTemp, float[] x, int xOffset,
+        float[] y, int yOffset, float[] a, int base) {
+        for (int row = rowStart; row < rowEnd; row++) {
+            a[row + base] += x[row + xOffset] * xTemp + y[row + yOffset] * yTemp;
+        }
+    }
+
+    /**
+     * a[aOffsetJ + i] += tempJ * x[i] for i in [0, len) and four columns J, loading each vector of x once.
+     */
+    private static void sRank1Columns(int len, float temp0, float temp1, float temp2, float temp3, float[] x,
+        int xOffset, float[] a, int aOffset0, int aOffset1, int aOffset2, int aOffset3) {
+        FloatVector tempv0 = FloatVector.broadcast(SSPECIES, temp0);
+        FloatVector tempv1 = FloatVector.broadcast(SSPECIES, temp1);
+        FloatVector tempv2 = FloatVector.broadcast(SSPECIES, temp2);
+        FloatVector tempv3 = FloatVector.broadcast(SSPECIES, temp3);
+        int idx = 0;
+        int idxLoopBound = loopBound(len, SSPECIES.length());
+        for (; idx < idxLoopBound; idx += SSPECIES.length()) {
+            FloatVector xv = FloatVector.fromArray(SSPECIES, x, idx + xOffset);
+            FloatVector av0 = FloatVector.fromArray(SSPECIES, a, idx + aOffset0);
+            FloatVector av1 = FloatVector.fromArray(SSPECIES, a, idx + aOffset1);
+            FloatVector av2 = FloatVector.fromArray(SSPECIES, a, idx + aOffset2);
+            FloatVector av3 = FloatVector.fromArray(SSPECIES, a, idx + aOffset3);
+            xv.fma(tempv0, av0).intoArray(a, idx + aOffset0);
+            xv.fma(tempv1, av1).intoArray(a, idx + aOffset1);
+            xv.fma(tempv2, av2).intoArray(a, idx + aOffset2);
+            xv.fma(tempv3, av3).intoArray(a, idx + aOffset3);
+        }
+        for (; idx < len; idx++) {
+            float xi = x[idx + xOffset];
+            a[idx + aOffset0] += xi * temp0;
+            a[idx + aOffset1] += xi * temp1;
+            a[idx + aOffset2] += xi * temp2;
+            a[idx + aOffset3] += xi * temp3;
+        }
+    }
+
+    /**
+     * a[aOffsetJ + i] += xTempJ * x[i] + yTempJ * y[i] for i in [0, len) and four columns J, loading each vector of
+     * x and y once.
+     */
+    private static void sRank2Columns(int len, float xTemp0, float xTemp1, float xTemp2, float xTemp3,
+        float[] x, int xOffset, float yTemp0, float yTemp1, float yTemp2, float yTemp3, float[] y,
+        int yOffset, float[] a, int aOffset0, int aOffset1, int aOffset2, int aOffset3) {
+        FloatVector xTempv0 = FloatVector.broadcast(SSPECIES, xTemp0);
+        FloatVector xTempv1 = FloatVector.broadcast(SSPECIES, xTemp1);
+        FloatVector xTempv2 = FloatVector.broadcast(SSPECIES, xTemp2);
+        FloatVector xTempv3 = FloatVector.broadcast(SSPECIES, xTemp3);
+        FloatVector yTempv0 = FloatVector.broadcast(SSPECIES, yTemp0);
+        FloatVector yTempv1 = FloatVector.broadcast(SSPECIES, yTemp1);
+        FloatVector yTempv2 = FloatVector.broadcast(SSPECIES, yTemp2);
+        FloatVector yTempv3 = FloatVector.broadcast(SSPECIES, yTemp3);
+        int idx = 0;
+        int idxLoopBound = loopBound(len, SSPECIES.length());
+        for (; idx < idxLoopBound; idx += SSPECIES.length()) {
+            FloatVector xv = FloatVector.fromArray(SSPECIES, x, idx + xOffset);
+            FloatVector yv = FloatVector.fromArray(SSPECIES, y, idx + yOffset);
+            FloatVector av0 = FloatVector.fromArray(SSPECIES, a, idx + aOffset0);
+            FloatVector av1 = FloatVector.fromArray(SSPECIES, a, idx + aOffset1);
+            FloatVector av2 = FloatVector.fromArray(SSPECIES, a, idx + aOffset2);
+            FloatVector av3 = FloatVector.fromArray(SSPECIES, a, idx + aOffset3);
+            yv.fma(yTempv0, xv.fma(xTempv0, av0)).intoArray(a, idx + aOffset0);
+            yv.fma(yTempv1, xv.fma(xTempv1, av1)).intoArray(a, idx + aOffset1);
+            yv.fma(yTempv2, xv.fma(xTempv2, av2)).intoArray(a, idx + aOffset2);
+            yv.fma(yTempv3, xv.fma(xTempv3, av3)).intoArray(a, idx + aOffset3);
+        }
+        for (; idx < len; idx++) {
+            float xi = x[idx + xOffset];
+            float yi = y[idx + yOffset];
+            a[idx + aOffset0] += xi * xTemp0 + yi * yTemp0;
+            a[idx + aOffset1] += xi * xTemp1 + yi * yTemp1;
+            a[idx + aOffset2] += xi * xTemp2 + yi * yTemp2;
+            a[idx + aOffset3] += xi * xTemp3 + yi * yTemp3;
+        }
+    }
 }
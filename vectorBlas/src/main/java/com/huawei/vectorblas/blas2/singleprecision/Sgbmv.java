@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * SGEMV on a band matrix with kl sub-diagonals and ku super-diagonals. Column j of A is stored in column j of the
+ * band array with A(i, j) at row ku + i - j, so the part of the column inside the band is contiguous in the band
+ * array as well as in y (trans N) or x (trans T), and is applied as one vector axpy or dot.
+ */
+public class Sgbmv {
+    public static void sgbmv(String trans, int m, int n, int kl, int ku, float alpha, float[] a, int aOffset,
+        int lda, float[] x, int xOffset, int incx, float beta, float[] y, int yOffset, int incy) {
+        BlasUtils.checkParameter("SGBMV", 1,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        BlasUtils.checkParameter("SGBMV", 2, m >= 0);
+        BlasUtils.checkParameter("SGBMV", 3, n >= 0);
+        BlasUtils.checkParameter("SGBMV", 4, kl >= 0);
+        BlasUtils.checkParameter("SGBMV", 5, ku >= 0);
+        BlasUtils.checkParameter("SGBMV", 8, lda >= kl + ku + 1);
+        BlasUtils.checkParameter("SGBMV", 10, incx != 0);
+        BlasUtils.checkParameter("SGBMV", 13, incy != 0);
+        if (m == 0 || n == 0 || (BlasUtils.isZero(alpha) && Float.compare(beta, 1.0f) == 0)) {
+            return;
+        }
+        boolean transFlag = Lsame.lsame(trans, "N");
+        int lenx = transFlag ? n : m;
+        int leny = transFlag ? m : n;
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (lenx - 1), x.length);
+        BlasUtils.checkBlasArray("y", yOffset, Math.abs(incy) * (leny - 1), y.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) * lda + kl + ku, a.length);
+
+        if (Float.compare(beta, 1.0f) != 0) {
+            SblasLevel2.sMulBeta(leny, beta, y, yOffset, incy);
+        }
+        if (BlasUtils.isZero(alpha)) {
+            return;
+        }
+        if (incx == 1 && incy == 1) {
+            if (transFlag) {
+                vecSgbmvN(m, n, kl, ku, alpha, a, aOffset, lda, x, xOffset, y, yOffset);
+            } else {
+                vecSgbmvT(m, n, kl, ku, alpha, a, aOffset, lda, x, xOffset, y, yOffset);
+            }
+        } else {
+            int xStartIndex = incx > 0 ? 0 : (lenx - 1) * (-incx);
+            int yStartIndex = incy > 0 ? 0 : (leny - 1) * (-incy);
+            if (transFlag) {
+                norSgbmvN(m, n, kl, ku, alpha, a, aOffset, lda, x, xOffset, incx, y, yOffset, incy, xStartIndex,
+                    yStartIndex);
+            } else {
+                norSgbmvT(m, n, kl, ku, alpha, a, aOffset, lda, x, xOffset, incx, y, yOffset, incy, xStartIndex,
+                    yStartIndex);
+            }
+        }
+    }
+
+    private static void vecSgbmvN(int m, int n, int kl, int ku, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, float[] y, int yOffset) {
+        int colEnd = Math.min(n, m + ku);
+        for (int col = 0; col < colEnd; col++) {
+            if (!BlasUtils.isZero(x[col + xOffset])) {
+                int rowStart = Math.max(0, col - ku);
+                int rowEnd = Math.min(m, col + kl + 1);
+                SblasLevel2.sAxpySegment(rowEnd - rowStart, alpha * x[col + xOffset], a,
+                    aOffset + ku - col + rowStart + col * lda, y, yOffset + rowStart);
+            }
+        }
+    }
+
+    private static void vecSgbmvT(int m, int n, int kl, int ku, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, float[] y, int yOffset) {
+        int colEnd = Math.min(n, m + ku);
+        for (int col = 0; col < colEnd; col++) {
+            int rowStart = Math.max(0, col - ku);
+            int rowEnd = Math.min(m, col + kl + 1);
+            y[col + yOffset] += alpha * SblasLevel2.sDotSegment(rowEnd - rowStart, a,
+                aOffset + ku - col + rowStart + col * lda, x, xOffset + rowStart);
+        }
+    }
+
+    private static void norSgbmvN(int m, int n, int kl, int ku, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx, float[] y, int yOffset, int incy, int xStartIndex, int yStartIndex) {
+        int colEnd = Math.min(n, m + ku);
+        for (int col = 0, xIndex = xStartIndex; col < colEnd; col++, xIndex += incx) {
+            if (!BlasUtils.isZero(x[xIndex + xOffset])) {
+                float alphaX = alpha * x[xIndex + xOffset];
+                int rowStart = Math.max(0, col - ku);
+                int rowEnd = Math.min(m, col + kl + 1);
+                int aIndex = aOffset + ku - col + col * lda;
+                for (int row = rowStart, yIndex = yStartIndex + rowStart * incy; row < rowEnd; row++,
+                    yIndex += incy) {
+                    y[yIndex + yOffset] += alphaX * a[row + aIndex];
+                }
+            }
+        }
+    }
+
+    private static void norSgbmvT(int m, int n, int kl, int ku, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx, float[] y, int yOffset, int incy, int xStartIndex, int yStartIndex) {
+        int colEnd = Math.min(n, m + ku);
+        for (int col = 0, yIndex = yStartIndex; col < colEnd; col++, yIndex += incy) {
+            int rowStart = Math.max(0, col - ku);
+            int rowEnd = Math.min(m, col + kl + 1);
+            int aIndex = aOffset + ku - col + col * lda;
+            float accum = 0.0f;
+            for (int row = rowStart, xIndex = xStartIndex + rowStart * incx; row < rowEnd; row++,
+                xIndex += incx) {
+                accum += a[row + aIndex] * x[xIndex + xOffset];
+            }
+            y[yIndex + yOffset] += alpha * accum;
+        }
+    }
+}
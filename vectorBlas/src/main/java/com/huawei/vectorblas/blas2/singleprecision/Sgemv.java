@@ -22,9 +22,13 @@
 
 package com.huawei.vectorblas.blas2.singleprecision;
 
+import static com.huawei.vectorblas.utils.ArrayUtil.ceilDiv;
 import static com.huawei.vectorblas.utils.ArrayUtil.loopBound;
 
+import com.huawei.vectorblas.utils.BlasParallel;
 import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.HalfPrecision;
 import com.huawei.vectorblas.utils.Lsame;
 
 import jdk.incubator.vector.FloatVector;
@@ -32,7 +36,26 @@ import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 
 public class Sgemv {
+    private static final String BLOCK_ROWS_PROPERTY = "vectorblas.sgemv.blockrows";
+    private static final int DEFAULT_BLOCK_ROWS = 32768; // 128 KB of y (trans N) or x (trans T), stays in L2.
     private static final VectorSpecies<Float> SSPECIES = FloatVector.SPECIES_MAX;
+    private static final int HALF_BLOCK_ROWS = 1024; // rows of A widened at a time by the half precision SGEMV
+    private static final int HALF_BLOCK_COLS = 32; // columns of A widened at a time by the half precision SGEMV
+
+    private static volatile int blockRows = Math.max(1, Integer.getInteger(BLOCK_ROWS_PROPERTY, DEFAULT_BLOCK_ROWS));
+
+    /**
+     * Set the number of rows of A in a row panel. Every panel applies all columns of A while its part of y (trans N)
+     * or x (trans T) stays in cache, instead of streaming the whole vector once per group of columns.
+     */
+    public static void setBlockRows(int rows) {
+        BlasUtils.checkParameter("SETSGEMVBLOCKROWS", 1, rows >= 1);
+        blockRows = rows;
+    }
+
+    public static int getBlockRows() {
+        return blockRows;
+    }
 
     public static void sgemv(String trans, int m, int n, float alpha, float[] a, int aOffset, int lda, float[] x,
         int xOffset, int incx, float beta, float[] y, int yOffset, int incy) {
@@ -56,6 +79,102 @@ public class Sgemv {
         if (BlasUtils.isZero(alpha)) {
             return;
         }
+        if (BlasParallel.isLevel2Parallel((long) m * n)) {
+            sgemvParallel(transFlag, m, n, alpha, a, aOffset, lda, x, xOffset, incx, y, yOffset, incy);
+        } else {
+            sgemvKernel(transFlag, m, n, alpha, a, aOffset, lda, x, xOffset, incx, y, yOffset, incy);
+        }
+    }
+
+    /**
+     * SGEMV with A stored in the half precision format, see HalfPrecision. A is widened block by block into the
+     * thread's float block buffer, which stays in cache while the float kernels apply it to x and y.
+     */
+    public static void sgemv(String trans, int m, int n, float alpha, HalfPrecision format, short[] a, int aOffset,
+        int lda, float[] x, int xOffset, int incx, float beta, float[] y, int yOffset, int incy) {
+        BlasUtils.checkParameter("SGEMV_HALF", 1, Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T"));
+        BlasUtils.checkParameter("SGEMV_HALF", 2, m >= 0);
+        BlasUtils.checkParameter("SGEMV_HALF", 3, n >= 0);
+        BlasUtils.checkParameter("SGEMV_HALF", 5, format != null);
+        BlasUtils.checkParameter("SGEMV_HALF", 7, lda >= Math.max(1, m));
+        BlasUtils.checkParameter("SGEMV_HALF", 9, incx != 0);
+        BlasUtils.checkParameter("SGEMV_HALF", 12, incy != 0);
+        if (m == 0 || n == 0 || (BlasUtils.isZero(alpha) && Float.compare(beta, 1.0f) == 0)) {
+            return;
+        }
+        boolean transFlag = Lsame.lsame(trans, "N");
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * ((transFlag ? n : m) - 1), x.length);
+        BlasUtils.checkBlasArray("y", yOffset, Math.abs(incy) * ((transFlag ? m : n) - 1), y.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) * lda + m - 1, a.length);
+
+        if (Float.compare(beta, 1.0f) != 0) {
+            SblasLevel2.sMulBeta(transFlag ? m : n, beta, y, yOffset, incy);
+        }
+        if (BlasUtils.isZero(alpha)) {
+            return;
+        }
+        float[] block = BlasWorkspace.floatWide(Math.min(m, HALF_BLOCK_ROWS) * Math.min(n, HALF_BLOCK_COLS));
+        for (int col = 0; col < n; col += HALF_BLOCK_COLS) {
+            int cols = Math.min(HALF_BLOCK_COLS, n - col);
+            for (int row = 0; row < m; row += HALF_BLOCK_ROWS) {
+                int rows = Math.min(HALF_BLOCK_ROWS, m - row);
+                format.toFloat(rows, cols, a, aOffset + row + col * lda, lda, block, 0);
+                int xStart = transFlag ? segmentOffset(n, incx, col, cols) : segmentOffset(m, incx, row, rows);
+                int yStart = transFlag ? segmentOffset(m, incy, row, rows) : segmentOffset(n, incy, col, cols);
+                sgemvKernel(transFlag, rows, cols, alpha, block, 0, rows, x, xOffset + xStart, incx, y,
+                    yOffset + yStart, incy);
+            }
+        }
+    }
+
+    /**
+     * Split y across the workers: by rows of A for trans N, where every piece reads all of x, and by columns of A
+     * for trans T, where every piece reads its own columns and all of x. The pieces write disjoint parts of y, so
+     * no reduction is needed and the result does not depend on the thread count.
+     */
+    private static void sgemvParallel(boolean transFlag, int m, int n, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        int len = transFlag ? m : n;
+        int chunk = BlasParallel.level2Chunk(len, transFlag ? SSPECIES.length() * 4 : 4);
+        BlasParallel.parallelFor(ceilDiv(len, chunk), task -> {
+            int start = task * chunk;
+            int count = Math.min(chunk, len - start);
+            int yStart = segmentOffset(len, incy, start, count);
+            if (transFlag) {
+                sgemvKernel(true, count, n, alpha, a, aOffset + start, lda, x, xOffset, incx, y, yOffset + yStart,
+                    incy);
+            } else {
+                sgemvKernel(false, m, count, alpha, a, aOffset + start * lda, lda, x, xOffset, incx, y,
+                    yOffset + yStart, incy);
+            }
+        });
+    }
+
+    /**
+     * Offset, relative to the vector's own offset, at which the count elements from element start of a length
+     * len vector with increment inc begin when they are passed as a vector of their own.
+     */
+    private static int segmentOffset(int len, int inc, int start, int count) {
+        return inc > 0 ? start * inc : (len - start - count) * (-inc);
+    }
+
+    private static void sgemvKernel(boolean transFlag, int m, int n, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
+        int panel = blockRows;
+        for (int row = 0; row < m; row += panel) {
+            int rows = Math.min(panel, m - row);
+            if (transFlag) {
+                sgemvPanel(true, rows, n, alpha, a, aOffset + row, lda, x, xOffset, incx, y,
+                    yOffset + segmentOffset(m, incy, row, rows), incy);
+            } else {
+                sgemvPanel(false, rows, n, alpha, a, aOffset + row, lda, x, xOffset + segmentOffset(m, incx, row, rows),
+                    incx, y, yOffset, incy);
+            }
+        }
+    }
+
+    private static void sgemvPanel(boolean transFlag, int m, int n, float alpha, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx, float[] y, int yOffset, int incy) {
         if (transFlag) {
             if (incy == 1) {
                 if (incx == 1) {
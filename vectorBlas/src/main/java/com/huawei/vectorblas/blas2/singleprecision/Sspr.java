@@ -22,10 +22,13 @@
 
 package com.huawei.vectorblas.blas2.singleprecision;
 
-import com.huawei.vectorblas.blas1.singleprecision.Saxpy;
 import com.huawei.vectorblas.utils.BlasUtils;
 import com.huawei.vectorblas.utils.Lsame;
 
+/**
+ * SSPR. With unit stride the packed columns are updated in groups of four sharing each loaded vector of x, see
+ * SblasLevel2.sSyrUnitStride.
+ */
 public class Sspr {
     public static void sspr(String uplo, int n, float alpha, float[] x, int xOffset, int incx, float[] ap,
             int aOffset) {
@@ -41,29 +44,25 @@ public class Sspr {
         BlasUtils.checkBlasArray("a", aOffset, (1 + n) * n / 2 - 1, ap.length);
 
         boolean uploFlag = Lsame.lsame(uplo, "U");
-        int xStartIndx = 0;
-        if (incx <= 0) {
-            xStartIndx = -(n - 1) * incx;
+        if (incx == 1) {
+            SblasLevel2.sSyrUnitStride(uploFlag, true, n, alpha, x, xOffset, ap, aOffset, 0);
+        } else {
+            normalSspr(uploFlag, n, alpha, x, xOffset, incx, ap, aOffset);
         }
+    }
 
-        int cnt = 0;
-        if (incx >= 0) {
-            for (int j = 0, xIndx = xStartIndx; j < n; j++, xIndx += incx) {
-                int colCnt = uploFlag ? j + 1 : n - j;
-                if (!BlasUtils.isZero(x[xIndx + xOffset])) {
-                    int kIndx = uploFlag ? 0 : xIndx;
-                    Saxpy.saxpy(colCnt, alpha * x[xIndx + xOffset], x, xOffset + kIndx, incx, ap, aOffset + cnt, 1);
-                }
-                cnt += colCnt;
-            }
-        } else {
-            for (int j = 0, xIndx = xStartIndx; j < n; j++, xIndx += incx) {
-                int colCnt = uploFlag ? j + 1 : n - j;
-                if (!BlasUtils.isZero(x[xIndx + xOffset])) {
-                    int kIndx = uploFlag ? xIndx : 0;
-                    Saxpy.saxpy(colCnt, alpha * x[xIndx + xOffset], x, xOffset + kIndx, incx, ap, aOffset + cnt, 1);
+    private static void normalSspr(boolean uploFlag, int n, float alpha, float[] x, int xOffset, int incx,
+        float[] ap, int aOffset) {
+        int xStartIndx = xOffset + (incx > 0 ? 0 : (1 - n) * incx);
+        for (int j = 0, jx = xStartIndx; j < n; j++, jx += incx) {
+            if (!BlasUtils.isZero(x[jx])) {
+                float temp = alpha * x[jx];
+                int base = aOffset + SblasLevel2.packedColumn(uploFlag, n, j);
+                int rowStart = uploFlag ? 0 : j;
+                int rowEnd = uploFlag ? j + 1 : n;
+                for (int i = rowStart, ix = xStartIndx + rowStart * incx; i < rowEnd; i++, ix += incx) {
+                    ap[i + base] += x[ix] * temp;
                 }
-                cnt += colCnt;
             }
         }
     }
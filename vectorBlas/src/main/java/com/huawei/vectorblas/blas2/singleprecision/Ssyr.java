@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * SSYR. With unit stride the columns are updated in groups of four sharing each loaded vector of x, see
+ * SblasLevel2.sSyrUnitStride.
+ */
+public class Ssyr {
+    public static void ssyr(String uplo, int n, float alpha, float[] x, int xOffset, int incx, float[] a,
+        int aOffset, int lda) {
+        BlasUtils.checkParameter("SSYR", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("SSYR", 2, n >= 0);
+        BlasUtils.checkParameter("SSYR", 5, incx != 0);
+        BlasUtils.checkParameter("SSYR", 7, lda >= Math.max(1, n));
+
+        if (n == 0 || BlasUtils.isZero(alpha)) {
+            return;
+        }
+
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) + (n - 1) * lda, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        if (incx == 1) {
+            SblasLevel2.sSyrUnitStride(uploFlag, false, n, alpha, x, xOffset, a, aOffset, lda);
+        } else {
+            normalSsyr(uploFlag, n, alpha, x, xOffset, incx, a, aOffset, lda);
+        }
+    }
+
+    private static void normalSsyr(boolean uploFlag, int n, float alpha, float[] x, int xOffset, int incx,
+        float[] a, int aOffset, int lda) {
+        int xStartIndx = xOffset + (incx > 0 ? 0 : (1 - n) * incx);
+        for (int j = 0, jx = xStartIndx; j < n; j++, jx += incx) {
+            if (!BlasUtils.isZero(x[jx])) {
+                float temp = alpha * x[jx];
+                int rowStart = uploFlag ? 0 : j;
+                int rowEnd = uploFlag ? j + 1 : n;
+                for (int i = rowStart, ix = xStartIndx + rowStart * incx; i < rowEnd; i++, ix += incx) {
+                    a[i + j * lda + aOffset] += x[ix] * temp;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * x := A * x or x := A' * x for a triangular band matrix with k off-diagonals, stored by columns in band form:
+ * A(i, j) at row k + i - j (upper) or i - j (lower) of column j. Trans N adds each column to x as one vector axpy,
+ * trans T forms each element as one vector dot, in the column order that leaves the unread part of x unchanged.
+ */
+public class Stbmv {
+    public static void stbmv(String uplo, String trans, String diag, int n, int k, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        BlasUtils.checkParameter("STBMV", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("STBMV", 2,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        BlasUtils.checkParameter("STBMV", 3, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        BlasUtils.checkParameter("STBMV", 4, n >= 0);
+        BlasUtils.checkParameter("STBMV", 5, k >= 0);
+        BlasUtils.checkParameter("STBMV", 7, lda >= k + 1);
+        BlasUtils.checkParameter("STBMV", 9, incx != 0);
+        if (n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) * lda + k, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        boolean nounit = Lsame.lsame(diag, "N");
+        if (incx == 1) {
+            if (transFlag) {
+                if (uploFlag) {
+                    vecStbmvNU(n, k, nounit, a, aOffset, lda, x, xOffset);
+                } else {
+                    vecStbmvNL(n, k, nounit, a, aOffset, lda, x, xOffset);
+                }
+            } else if (uploFlag) {
+                vecStbmvTU(n, k, nounit, a, aOffset, lda, x, xOffset);
+            } else {
+                vecStbmvTL(n, k, nounit, a, aOffset, lda, x, xOffset);
+            }
+        } else {
+            int xStartIndex = incx > 0 ? 0 : (n - 1) * (-incx);
+            if (transFlag) {
+                norStbmvN(uploFlag, n, k, nounit, a, aOffset, lda, x, xOffset + xStartIndex, incx);
+            } else {
+                norStbmvT(uploFlag, n, k, nounit, a, aOffset, lda, x, xOffset + xStartIndex, incx);
+            }
+        }
+    }
+
+    private static void vecStbmvNU(int n, int k, boolean nounit, float[] a, int aOffset, int lda, float[] x,
+        int xOffset) {
+        for (int col = 0; col < n; col++) {
+            float xj = x[col + xOffset];
+            if (!BlasUtils.isZero(xj)) {
+                int rowStart = Math.max(0, col - k);
+                int aIndex = aOffset + k - col + col * lda;
+                SblasLevel2.sAxpySegment(col - rowStart, xj, a, aIndex + rowStart, x, xOffset + rowStart);
+                if (nounit) {
+                    x[col + xOffset] = xj * a[aIndex + col];
+                }
+            }
+        }
+    }
+
+    private static void vecStbmvNL(int n, int k, boolean nounit, float[] a, int aOffset, int lda, float[] x,
+        int xOffset) {
+        for (int col = n - 1; col >= 0; col--) {
+            float xj = x[col + xOffset];
+            if (!BlasUtils.isZero(xj)) {
+                int rowEnd = Math.min(n, col + k + 1);
+                int aIndex = aOffset - col + col * lda;
+                SblasLevel2.sAxpySegment(rowEnd - col - 1, xj, a, aIndex + col + 1, x, xOffset + col + 1);
+                if (nounit) {
+                    x[col + xOffset] = xj * a[aIndex + col];
+                }
+            }
+        }
+    }
+
+    private static void vecStbmvTU(int n, int k, boolean nounit, float[] a, int aOffset, int lda, float[] x,
+        int xOffset) {
+        for (int col = n - 1; col >= 0; col--) {
+            int rowStart = Math.max(0, col - k);
+            int aIndex = aOffset + k - col + col * lda;
+            float temp = nounit ? x[col + xOffset] * a[aIndex + col] : x[col + xOffset];
+            x[col + xOffset] = temp
+                + SblasLevel2.sDotSegment(col - rowStart, a, aIndex + rowStart, x, xOffset + rowStart);
+        }
+    }
+
+    private static void vecStbmvTL(int n, int k, boolean nounit, float[] a, int aOffset, int lda, float[] x,
+        int xOffset) {
+        for (int col = 0; col < n; col++) {
+            int rowEnd = Math.min(n, col + k + 1);
+            int aIndex = aOffset - col + col * lda;
+            float temp = nounit ? x[col + xOffset] * a[aIndex + col] : x[col + xOffset];
+            x[col + xOffset] = temp
+                + SblasLevel2.sDotSegment(rowEnd - col - 1, a, aIndex + col + 1, x, xOffset + col + 1);
+        }
+    }
+
+    // x[xOffset + i * incx] is element i of x, for either sign of incx.
+    private static void norStbmvN(boolean uploFlag, int n, int k, boolean nounit, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        for (int step = 0; step < n; step++) {
+            int col = uploFlag ? step : n - 1 - step;
+            float xj = x[xOffset + col * incx];
+            if (!BlasUtils.isZero(xj)) {
+                int rowStart = uploFlag ? Math.max(0, col - k) : col + 1;
+                int rowEnd = uploFlag ? col : Math.min(n, col + k + 1);
+                int aIndex = aOffset + (uploFlag ? k : 0) - col + col * lda;
+                for (int row = rowStart; row < rowEnd; row++) {
+                    x[xOffset + row * incx] += xj * a[aIndex + row];
+                }
+                if (nounit) {
+                    x[xOffset + col * incx] = xj * a[aIndex + col];
+                }
+            }
+        }
+    }
+
+    private static void norStbmvT(boolean uploFlag, int n, int k, boolean nounit, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        for (int step = 0; step < n; step++) {
+            int col = uploFlag ? n - 1 - step : step;
+            int rowStart = uploFlag ? Math.max(0, col - k) : col + 1;
+            int rowEnd = uploFlag ? col : Math.min(n, col + k + 1);
+            int aIndex = aOffset + (uploFlag ? k : 0) - col + col * lda;
+            float temp = nounit ? x[xOffset + col * incx] * a[aIndex + col] : x[xOffset + col * incx];
+            for (int row = rowStart; row < rowEnd; row++) {
+                temp += a[aIndex + row] * x[xOffset + row * incx];
+            }
+            x[xOffset + col * incx] = temp;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * Solve A * x = b or A' * x = b in place for a triangular band matrix with k off-diagonals, stored by columns in
+ * band form as for STBMV. Trans N eliminates each solved element from the rest of its column with one vector axpy,
+ * trans T subtracts one vector dot of the already solved elements before dividing by the diagonal.
+ */
+public class Stbsv {
+    // Trans T reads the most recently solved elements of x one by one: a vector load right after their scalar
+    // stores cannot be forwarded from the store buffer and would stall every step of the solve.
+    private static final int NEAR_DIAGONAL = 8;
+
+    public static void stbsv(String uplo, String trans, String diag, int n, int k, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        BlasUtils.checkParameter("STBSV", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("STBSV", 2,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        BlasUtils.checkParameter("STBSV", 3, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        BlasUtils.checkParameter("STBSV", 4, n >= 0);
+        BlasUtils.checkParameter("STBSV", 5, k >= 0);
+        BlasUtils.checkParameter("STBSV", 7, lda >= k + 1);
+        BlasUtils.checkParameter("STBSV", 9, incx != 0);
+        if (n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) * lda + k, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        boolean nounit = Lsame.lsame(diag, "N");
+        if (incx == 1) {
+            if (transFlag) {
+                if (uploFlag) {
+                    vecStbsvNU(n, k, nounit, a, aOffset, lda, x, xOffset);
+                } else {
+                    vecStbsvNL(n, k, nounit, a, aOffset, lda, x, xOffset);
+                }
+            } else if (uploFlag) {
+                vecStbsvTU(n, k, nounit, a, aOffset, lda, x, xOffset);
+            } else {
+                vecStbsvTL(n, k, nounit, a, aOffset, lda, x, xOffset);
+            }
+        } else {
+            int xStartIndex = incx > 0 ? 0 : (n - 1) * (-incx);
+            if (transFlag) {
+                norStbsvN(uploFlag, n, k, nounit, a, aOffset, lda, x, xOffset + xStartIndex, incx);
+            } else {
+                norStbsvT(uploFlag, n, k, nounit, a, aOffset, lda, x, xOffset + xStartIndex, incx);
+            }
+        }
+    }
+
+    private static void vecStbsvNU(int n, int k, boolean nounit, float[] a, int aOffset, int lda, float[] x,
+        int xOffset) {
+        for (int col = n - 1; col >= 0; col--) {
+            if (!BlasUtils.isZero(x[col + xOffset])) {
+                int rowStart = Math.max(0, col - k);
+                int aIndex = aOffset + k - col + col * lda;
+                if (nounit) {
+                    x[col + xOffset] /= a[aIndex + col];
+                }
+                SblasLevel2.sAxpySegment(col - rowStart, -x[col + xOffset], a, aIndex + rowStart, x,
+                    xOffset + rowStart);
+            }
+        }
+    }
+
+    private static void vecStbsvNL(int n, int k, boolean nounit, float[] a, int aOffset, int lda, float[] x,
+        int xOffset) {
+        for (int col = 0; col < n; col++) {
+            if (!BlasUtils.isZero(x[col + xOffset])) {
+                int rowEnd = Math.min(n, col + k + 1);
+                int aIndex = aOffset - col + col * lda;
+                if (nounit) {
+                    x[col + xOffset] /= a[aIndex + col];
+                }
+                SblasLevel2.sAxpySegment(rowEnd - col - 1, -x[col + xOffset], a, aIndex + col + 1, x,
+                    xOffset + col + 1);
+            }
+        }
+    }
+
+    private static void vecStbsvTU(int n, int k, boolean nounit, float[] a, int aOffset, int lda, float[] x,
+        int xOffset) {
+        for (int col = 0; col < n; col++) {
+            int rowStart = Math.max(0, col - k);
+            int nearStart = Math.max(rowStart, col - NEAR_DIAGONAL);
+            int aIndex = aOffset + k - col + col * lda;
+            float temp = x[col + xOffset];
+            if (nearStart > rowStart) {
+                temp -= SblasLevel2.sDotSegment(nearStart - rowStart, a, aIndex + rowStart, x, xOffset + rowStart);
+            }
+            for (int row = nearStart; row < col; row++) {
+                temp -= a[aIndex + row] * x[row + xOffset];
+            }
+            x[col + xOffset] = nounit ? temp / a[aIndex + col] : temp;
+        }
+    }
+
+    private static void vecStbsvTL(int n, int k, boolean nounit, float[] a, int aOffset, int lda, float[] x,
+        int xOffset) {
+        for (int col = n - 1; col >= 0; col--) {
+            int rowEnd = Math.min(n, col + k + 1);
+            int nearEnd = Math.min(rowEnd, col + 1 + NEAR_DIAGONAL);
+            int aIndex = aOffset - col + col * lda;
+            float temp = x[col + xOffset];
+            if (rowEnd > nearEnd) {
+                temp -= SblasLevel2.sDotSegment(rowEnd - nearEnd, a, aIndex + nearEnd, x, xOffset + nearEnd);
+            }
+            for (int row = col + 1; row < nearEnd; row++) {
+                temp -= a[aIndex + row] * x[row + xOffset];
+            }
+            x[col + xOffset] = nounit ? temp / a[aIndex + col] : temp;
+        }
+    }
+
+    // x[xOffset + i * incx] is element i of x, for either sign of incx.
+    private static void norStbsvN(boolean uploFlag, int n, int k, boolean nounit, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        for (int step = 0; step < n; step++) {
+            int col = uploFlag ? n - 1 - step : step;
+            if (!BlasUtils.isZero(x[xOffset + col * incx])) {
+                int rowStart = uploFlag ? Math.max(0, col - k) : col + 1;
+                int rowEnd = uploFlag ? col : Math.min(n, col + k + 1);
+                int aIndex = aOffset + (uploFlag ? k : 0) - col + col * lda;
+                if (nounit) {
+                    x[xOffset + col * incx] /= a[aIndex + col];
+                }
+                float xj = x[xOffset + col * incx];
+                for (int row = rowStart; row < rowEnd; row++) {
+                    x[xOffset + row * incx] -= xj * a[aIndex + row];
+                }
+            }
+        }
+    }
+
+    private static void norStbsvT(boolean uploFlag, int n, int k, boolean nounit, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        for (int step = 0; step < n; step++) {
+            int col = uploFlag ? step : n - 1 - step;
+            int rowStart = uploFlag ? Math.max(0, col - k) : col + 1;
+            int rowEnd = uploFlag ? col : Math.min(n, col + k + 1);
+            int aIndex = aOffset + (uploFlag ? k : 0) - col + col * lda;
+            float temp = x[xOffset + col * incx];
+            for (int row = rowStart; row < rowEnd; row++) {
+                temp -= a[aIndex + row] * x[xOffset + row * incx];
+            }
+            x[xOffset + col * incx] = nounit ? temp / a[aIndex + col] : temp;
+        }
+    }
+}
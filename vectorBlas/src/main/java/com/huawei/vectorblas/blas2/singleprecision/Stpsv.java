@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * STRSV for a triangular matrix in packed storage. With unit stride the diagonal blocks of order DIAG_BLOCK are
+ * solved by scalar substitution as in STRSV, and the panel beside each block is applied column by column: the part
+ * of a packed column inside the panel is contiguous, so each column is one vector axpy (trans N) or dot (trans T).
+ */
+public class Stpsv {
+    private static final int DIAG_BLOCK = 32;
+
+    public static void stpsv(String uplo, String trans, String diag, int n, float[] a, int aOffset, float[] x,
+        int xOffset, int incx) {
+        BlasUtils.checkParameter("STPSV", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("STPSV", 2,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        BlasUtils.checkParameter("STPSV", 3, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        BlasUtils.checkParameter("STPSV", 4, n >= 0);
+        BlasUtils.checkParameter("STPSV", 7, incx != 0);
+        if (n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("a", aOffset, (1 + n) * n / 2 - 1, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        boolean nounit = Lsame.lsame(diag, "N");
+        if (incx != 1) {
+            int xBase = xOffset + (incx > 0 ? 0 : (n - 1) * (-incx));
+            solveBlock(uploFlag, transFlag, nounit, n, 0, n, a, aOffset, x, xBase, incx);
+            return;
+        }
+        if (transFlag != uploFlag) {
+            // N lower or T upper: from the first block to the last.
+            for (int start = 0; start < n; start += DIAG_BLOCK) {
+                int end = Math.min(n, start + DIAG_BLOCK);
+                if (transFlag) {
+                    solveBlock(false, true, nounit, n, start, end, a, aOffset, x, xOffset, 1);
+                    if (end < n) {
+                        for (int col = start; col < end; col++) {
+                            SblasLevel2.sAxpySegment(n - end, -x[col + xOffset], a,
+                                aOffset + SblasLevel2.packedColumn(false, n, col) + end, x, xOffset + end);
+                        }
+                    }
+                } else {
+                    if (start > 0) {
+                        for (int col = start; col < end; col++) {
+                            x[col + xOffset] -= SblasLevel2.sDotSegment(start, a,
+                                aOffset + SblasLevel2.packedColumn(true, n, col), x, xOffset);
+                        }
+                    }
+                    solveBlock(true, false, nounit, n, start, end, a, aOffset, x, xOffset, 1);
+                }
+            }
+        } else {
+            // N upper or T lower: from the last block to the first.
+            for (int end = n; end > 0; end -= DIAG_BLOCK) {
+                int start = Math.max(0, end - DIAG_BLOCK);
+                if (transFlag) {
+                    solveBlock(true, true, nounit, n, start, end, a, aOffset, x, xOffset, 1);
+                    if (start > 0) {
+                        for (int col = start; col < end; col++) {
+                            SblasLevel2.sAxpySegment(start, -x[col + xOffset], a,
+                                aOffset + SblasLevel2.packedColumn(true, n, col), x, xOffset);
+                        }
+                    }
+                } else {
+                    if (end < n) {
+                        for (int col = start; col < end; col++) {
+                            x[col + xOffset] -= SblasLevel2.sDotSegment(n - end, a,
+                                aOffset + SblasLevel2.packedColumn(false, n, col) + end, x, xOffset + end);
+                        }
+                    }
+                    solveBlock(false, false, nounit, n, start, end, a, aOffset, x, xOffset, 1);
+                }
+            }
+        }
+    }
+
+    // Substitution within the diagonal block [start, end); x[xBase + i * incx] is element i of x.
+    private static void solveBlock(boolean uploFlag, boolean transFlag, boolean nounit, int n, int start, int end,
+        float[] a, int aOffset, float[] x, int xBase, int incx) {
+        if (transFlag) {
+            for (int step = 0; step < end - start; step++) {
+                int col = uploFlag ? end - 1 - step : start + step;
+                if (!BlasUtils.isZero(x[xBase + col * incx])) {
+                    int aIndex = aOffset + SblasLevel2.packedColumn(uploFlag, n, col);
+                    if (nounit) {
+                        x[xBase + col * incx] /= a[aIndex + col];
+                    }
+                    float xj = x[xBase + col * incx];
+                    int rowStart = uploFlag ? start : col + 1;
+                    int rowEnd = uploFlag ? col : end;
+                    for (int row = rowStart; row < rowEnd; row++) {
+                        x[xBase + row * incx] -= xj * a[aIndex + row];
+                    }
+                }
+            }
+        } else {
+            for (int step = 0; step < end - start; step++) {
+                int col = uploFlag ? start + step : end - 1 - step;
+                int aIndex = aOffset + SblasLevel2.packedColumn(uploFlag, n, col);
+                int rowStart = uploFlag ? start : col + 1;
+                int rowEnd = uploFlag ? col : end;
+                float temp = x[xBase + col * incx];
+                for (int row = rowStart; row < rowEnd; row++) {
+                    temp -= a[aIndex + row] * x[xBase + row * incx];
+                }
+                x[xBase + col * incx] = nounit ? temp / a[aIndex + col] : temp;
+            }
+        }
+    }
+}
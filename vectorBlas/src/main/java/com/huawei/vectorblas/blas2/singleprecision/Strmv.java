@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas2.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * x := A * x or x := A' * x for a triangular matrix A. The diagonal blocks of order DIAG_BLOCK are visited in the
+ * order that leaves the part of x the remaining blocks read unchanged: each block is multiplied by scalar loops,
+ * and the rectangular panel beside it is added by one SGEMV with beta = 1.
+ */
+public class Strmv {
+    private static final int DIAG_BLOCK = 32;
+
+    public static void strmv(String uplo, String trans, String diag, int n, float[] a, int aOffset, int lda,
+        float[] x, int xOffset, int incx) {
+        BlasUtils.checkParameter("STRMV", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("STRMV", 2,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        BlasUtils.checkParameter("STRMV", 3, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        BlasUtils.checkParameter("STRMV", 4, n >= 0);
+        BlasUtils.checkParameter("STRMV", 6, lda >= Math.max(1, n));
+        BlasUtils.checkParameter("STRMV", 8, incx != 0);
+        if (n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("x", xOffset, Math.abs(incx) * (n - 1), x.length);
+        BlasUtils.checkBlasArray("a", aOffset, (n - 1) * lda + n - 1, a.length);
+
+        boolean uploFlag = Lsame.lsame(uplo, "U");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        boolean nounit = Lsame.lsame(diag, "N");
+        int xBase = xOffset + (incx > 0 ? 0 : (n - 1) * (-incx));
+        if (transFlag == uploFlag) {
+            // N upper or T lower: from the first block to the last, reading the blocks after the current one.
+            for (int start = 0; start < n; start += DIAG_BLOCK) {
+                int end = Math.min(n, start + DIAG_BLOCK);
+                multiplyBlock(uploFlag, transFlag, nounit, start, end, a, aOffset, lda, x, xBase, incx);
+                if (end < n) {
+                    if (transFlag) {
+                        Sgemv.sgemv("N", end - start, n - end, 1.0f, a, aOffset + start + end * lda, lda, x,
+                            segment(n, xOffset, incx, end, n - end), incx, 1.0f, x,
+                            segment(n, xOffset, incx, start, end - start), incx);
+                    } else {
+                        Sgemv.sgemv("T", n - end, end - start, 1.0f, a, aOffset + end + start * lda, lda, x,
+                            segment(n, xOffset, incx, end, n - end), incx, 1.0f, x,
+                            segment(n, xOffset, incx, start, end - start), incx);
+                    }
+                }
+            }
+        } else {
+            // N lower or T upper: from the last block to the first, reading the blocks before the current one.
+            for (int end = n; end > 0; end -= DIAG_BLOCK) {
+                int start = Math.max(0, end - DIAG_BLOCK);
+                multiplyBlock(uploFlag, transFlag, nounit, start, end, a, aOffset, lda, x, xBase, incx);
+                if (start > 0) {
+                    if (transFlag) {
+                        Sgemv.sgemv("N", end - start, start, 1.0f, a, aOffset + start, lda, x,
+                            segment(n, xOffset, incx, 0, start), incx, 1.0f, x,
+                            segment(n, xOffset, incx, start, end - start), incx);
+                    } else {
+                        Sgemv.sgemv("T", start, end - start, 1.0f, a, aOffset + start * lda, lda, x,
+                            segment(n, xOffset, incx, 0, start), incx, 1.0f, x,
+                            segment(n, xOffset, incx, start, end - start), incx);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Offset at which the count elements from element start of the length n vector x begin, when passed to a
+     * BLAS routine as a vector of their own with the same increment.
+     */
+    private static int segment(int n, int xOffset, int incx, int start, int count) {
+        return xOffset + (incx > 0 ? start * incx : (n - start - count) * (-incx));
+    }
+
+    // Product with the diagonal block [start, end), in place; x[xBase + i * incx] is element i of x.
+    private static void multiplyBlock(boolean uploFlag, boolean transFlag, boolean nounit, int start, int end,
+        float[] a, int aOffset, int lda, float[] x, int xBase, int incx) {
+        if (transFlag) {
+            for (int step = 0; step < end - start; step++) {
+                int col = uploFlag ? start + step : end - 1 - step;
+                float xj = x[xBase + col * incx];
+                if (!BlasUtils.isZero(xj)) {
+                    int aIndex = aOffset + col * lda;
+                    int rowStart = uploFlag ? start : col + 1;
+                    int rowEnd = uploFlag ? col : end;
+                    for (int row = rowStart; row < rowEnd; row++) {
+                        x[xBase + row * incx] += xj * a[aIndex + row];
+                    }
+                    if (nounit) {
+                        x[xBase + col * incx] = xj * a[aIndex + col];
+                    }
+                }
+            }
+        } else {
+            for (int step = 0; step < end - start; step++) {
+                int col = uploFlag ? end - 1 - step : start + step;
+                int aIndex = aOffset + col * lda;
+                int rowStart = uploFlag ? start : col + 1;
+                int rowEnd = uploFlag ? col : end;
+                float temp = nounit ? x[xBase + col * incx] * a[aIndex + col] : x[xBase + col * incx];
+                for (int row = rowStart; row < rowEnd; row++) {
+                    temp += a[aIndex + row] * x[xBase + row * incx];
+                }
+                x[xBase + col * incx] = temp;
+            }
+        }
+    }
+}
@@ -22,22 +22,127 @@
 
 package com.huawei.vectorblas.blas3.doubleprecision;
 
+import com.huawei.vectorblas.utils.ArrayUtil;
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.GemmEpilogue;
+import com.huawei.vectorblas.utils.TuningProfile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
 import jdk.incubator.vector.VectorSpecies;
 
 public class DblasLevel3 {
+    private static final Logger LOG = LoggerFactory.getLogger(DblasLevel3.class);
     private static final VectorSpecies<Double> DSPECIES = DoubleVector.SPECIES_MAX;
-    protected static final int DGEMM_P = 256; // Blocking size for m direction.
-    protected static final int DGEMM_Q = 240; // Blocking size for k direction.
-    protected static final int DGEMM_R = 8192; // Blocking size for n direction.
+    protected static final int DGEMM_P = 256; // Default blocking size for m direction.
+    protected static final int DGEMM_Q = 240; // Default blocking size for k direction.
+    protected static final int DGEMM_R = 8192; // Default blocking size for n direction.
     protected static final int VECTOR_LENGTH = DSPECIES.length();
     protected static final int VECTOR_LENGTH2 = 2 * VECTOR_LENGTH; // 2 times vector length
     protected static final int VECTOR_LENGTH3 = 3 * VECTOR_LENGTH; // 3 times vector length
     protected static final int VECTOR_LENGTH4 = 4 * VECTOR_LENGTH; // 4 times vector length
-    protected static final int DGEMM_UNROLL_M = 4 * VECTOR_LENGTH; // Kernel size for m is 4 * DSPECIES.length().
-    protected static final int DGEMM_UNROLL_N = 4; // Kernel size for n direction is 4.
+    // Register tiles of the microkernel as {vectors in m direction, columns in n direction}.
+    private static final int[][] TILES = {{4, 4}, {3, 8}, {2, 6}};
+    private static final int[] TILE = selectTile();
+    protected static final int DGEMM_UNROLL_M = TILE[0] * VECTOR_LENGTH; // Kernel size for m direction.
+    protected static final int DGEMM_UNROLL_N = TILE[1]; // Kernel size for n direction.
+    // gelu(x) = x / (1 + exp(x * (GELU_C1 + GELU_C2 * x * x))), the tanh approximation of GELU.
+    private static final double GELU_C1 = -1.5957691216057308d; // -2 * sqrt(2 / pi)
+    private static final double GELU_C2 = -0.07135481627260025d; // -2 * sqrt(2 / pi) * 0.044715
+    // Row chunks of packed a and column chunks of packed b, the kernel walks both in this order (see packChunk).
+    protected static final int[] M_PACK_SIZES = DGEMM_UNROLL_M > VECTOR_LENGTH2
+        ? new int[] {DGEMM_UNROLL_M, VECTOR_LENGTH2, VECTOR_LENGTH} : new int[] {DGEMM_UNROLL_M, VECTOR_LENGTH};
+    protected static final int[] N_PACK_SIZES = DGEMM_UNROLL_N > 4 ? new int[] {DGEMM_UNROLL_N, 4, 1}
+        : new int[] {DGEMM_UNROLL_N, 1};
+    // In-register 8 x 8 and 4 x 4 transposes of the transposing packs, used when the hardware vector holds them.
+    private static final VectorSpecies<Double> T8SPECIES = DoubleVector.SPECIES_512;
+    private static final VectorSpecies<Double> T4SPECIES = DoubleVector.SPECIES_256;
+    private static final boolean TRANSPOSE8 = DSPECIES.vectorBitSize() >= T8SPECIES.vectorBitSize();
+    private static final boolean TRANSPOSE4 = DSPECIES.vectorBitSize() >= T4SPECIES.vectorBitSize();
+    private static final VectorShuffle<Double> T8_ROT1 = VectorShuffle.iota(T8SPECIES, 1, 1, true);
+    private static final VectorShuffle<Double> T8_ROT2 = VectorShuffle.iota(T8SPECIES, 2, 1, true);
+    private static final VectorShuffle<Double> T8_ROT4 = VectorShuffle.iota(T8SPECIES, 4, 1, true);
+    private static final VectorShuffle<Double> T8_ROT6 = VectorShuffle.iota(T8SPECIES, 6, 1, true);
+    private static final VectorShuffle<Double> T8_ROT7 = VectorShuffle.iota(T8SPECIES, 7, 1, true);
+    private static final VectorMask<Double> T8_MASK1 = VectorMask.fromLong(T8SPECIES, 0xAAL); // lanes with bit 0 set
+    private static final VectorMask<Double> T8_MASK2 = VectorMask.fromLong(T8SPECIES, 0xCCL); // lanes with bit 1 set
+    private static final VectorMask<Double> T8_MASK4 = VectorMask.fromLong(T8SPECIES, 0xF0L); // lanes with bit 2 set
+    private static final VectorShuffle<Double> T4_ROT1 = VectorShuffle.iota(T4SPECIES, 1, 1, true);
+    private static final VectorShuffle<Double> T4_ROT2 = VectorShuffle.iota(T4SPECIES, 2, 1, true);
+    private static final VectorShuffle<Double> T4_ROT3 = VectorShuffle.iota(T4SPECIES, 3, 1, true);
+    private static final VectorMask<Double> T4_MASK1 = VectorMask.fromLong(T4SPECIES, 0xAL); // lanes with bit 0 set
+    private static final VectorMask<Double> T4_MASK2 = VectorMask.fromLong(T4SPECIES, 0xCL); // lanes with bit 1 set
+    private static final AtomicBoolean TUNE_PENDING = new AtomicBoolean();
+    private static volatile GemmBlocking blocking;
+
+    /**
+     * Blocking sizes of the double Level-3 routines: the stored tuning profile of this machine if there is one,
+     * DGEMM_P / DGEMM_Q / DGEMM_R otherwise. Without a stored profile and with -Dvectorblas.autotune=true, the first
+     * call runs DgemmTuner.tune().
+     */
+    public static GemmBlocking getBlocking() {
+        if (blocking == null) {
+            initBlocking();
+        }
+        if (TUNE_PENDING.get() && TUNE_PENDING.compareAndSet(true, false)) {
+            DgemmTuner.tune();
+        }
+        return blocking;
+    }
+
+    public static synchronized void setBlocking(GemmBlocking newBlocking) {
+        blocking = Objects.requireNonNull(newBlocking, "blocking");
+    }
+
+    /**
+     * Read the tuning profile on the first call rather than in the class initializer, so that loading the class
+     * does not touch the file system.
+     */
+    private static synchronized void initBlocking() {
+        if (blocking != null) {
+            return;
+        }
+        GemmBlocking stored = TuningProfile.load("dgemm", DGEMM_UNROLL_M, DGEMM_UNROLL_N);
+        TUNE_PENDING.set(stored == null && TuningProfile.isAutotuneEnabled());
+        blocking = stored != null ? stored : new GemmBlocking(DGEMM_P, DGEMM_Q, DGEMM_R);
+    }
+
+    /**
+     * Pick the register tile: with 32 vector registers (aarch64, AVX-512) the 24 accumulators of a 3V x 8 tile,
+     * otherwise the 4V x 4 tile. The system property vectorblas.gemm.tile (4x4, 3x8 or 2x6) overrides the choice.
+     */
+    private static int[] selectTile() {
+        String tile = System.getProperty("vectorblas.gemm.tile");
+        if (tile != null) {
+            for (int[] candidate : TILES) {
+                if (tile.equals(candidate[0] + "x" + candidate[1])) {
+                    return candidate;
+                }
+            }
+            LOG.warn("Unknown register tile vectorblas.gemm.tile={}, using the default.", tile);
+        }
+        boolean manyRegisters = "aarch64".equals(System.getProperty("os.arch")) || DSPECIES.vectorBitSize() >= 512;
+        return manyRegisters ? TILES[1] : TILES[0];
+    }
 
     protected static void betaMulC(int sizeM, int sizeN, double beta, double[] dc, int cOffset, int ldc) {
+        if (BlasUtils.isZero(beta)) {
+            for (int col = 0; col < sizeN; col++) {
+                Arrays.fill(dc, cOffset + col * ldc, cOffset + col * ldc + sizeM, 0.0d); // c is not read.
+            }
+            return;
+        }
         DoubleVector betav = DoubleVector.broadcast(DSPECIES, beta);
         for (int col = 0; col < sizeN; col++) {
             int row = 0;
@@ -51,364 +156,654 @@ public class DblasLevel3 {
         }
     }
 
-    protected static void kernelOperation8x4(int mc, int nc, int kc, double alpha, double[] da, double[] db,
-        int bOffset, double[] dc, int ldc, int cOffset, int csRow, int csCol) {
-        kernelOperation8x4Main(mc, nc, kc, alpha, da, db, bOffset, dc, ldc, cOffset, csRow, csCol);
-        kernelOperation8x4NBorder(mc, nc, kc, alpha, da, db, bOffset, dc, ldc, cOffset, csRow, csCol);
+    /**
+     * Add the bias of epilogue to the rows x cols tile of c at cIndx, whose first element is (row, col) of C,
+     * and apply its activation.
+     */
+    protected static void epilogueTile(int rows, int cols, double[] dc, int cIndx, int ldc, GemmEpilogue epilogue,
+        int row, int col) {
+        GemmEpilogue.Bias bias = epilogue.getBias();
+        GemmEpilogue.Activation activation = epilogue.getActivation();
+        double[] biasData = epilogue.getDoubleData();
+        int biasOffset = epilogue.getOffset();
+        int rowsVec = ArrayUtil.loopBound(rows, VECTOR_LENGTH);
+        for (int j = 0; j < cols; j++) {
+            int cCol = cIndx + j * ldc;
+            double colBias = bias == GemmEpilogue.Bias.COLUMN ? biasData[biasOffset + col + j] : 0.0d;
+            for (int i = 0; i < rowsVec; i += VECTOR_LENGTH) {
+                DoubleVector cv = DoubleVector.fromArray(DSPECIES, dc, cCol + i);
+                if (bias == GemmEpilogue.Bias.ROW) {
+                    cv = cv.add(DoubleVector.fromArray(DSPECIES, biasData, biasOffset + row + i));
+                } else if (bias == GemmEpilogue.Bias.COLUMN) {
+                    cv = cv.add(colBias);
+                }
+                if (activation == GemmEpilogue.Activation.RELU) {
+                    cv = cv.max(0.0d);
+                } else if (activation == GemmEpilogue.Activation.GELU) {
+                    cv = gelu(cv);
+                }
+                cv.intoArray(dc, cCol + i);
+            }
+            for (int i = rowsVec; i < rows; i++) {
+                double value = dc[cCol + i];
+                if (bias == GemmEpilogue.Bias.ROW) {
+                    value += biasData[biasOffset + row + i];
+                } else if (bias == GemmEpilogue.Bias.COLUMN) {
+                    value += colBias;
+                }
+                if (activation == GemmEpilogue.Activation.RELU) {
+                    value = Math.max(value, 0.0d);
+                } else if (activation == GemmEpilogue.Activation.GELU) {
+                    value = gelu(value);
+                }
+                dc[cCol + i] = value;
+            }
+        }
     }
 
-    private static void kernelOperation8x4NBorder(int mc, int nc, int kc, double alpha, double[] da, double[] db,
-        int bOffset, double[] dc, int ldc, int cOffset, int csRow, int csCol) {
-        DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
-        int cCol = csCol + (nc / DGEMM_UNROLL_N) * DGEMM_UNROLL_N;
-        int countJ = nc % DGEMM_UNROLL_N;
-        for (; countJ > 0; countJ--) {
-            int cRow = csRow;
-            int aIndx = 0;
-            int countI = mc / DGEMM_UNROLL_M;
-            for (; countI > 0; countI--) {
-                int bIndx = (nc - countJ) * kc;
-                DoubleVector c00 = DoubleVector.zero(DSPECIES);
-                DoubleVector c10 = DoubleVector.zero(DSPECIES);
-                DoubleVector c20 = DoubleVector.zero(DSPECIES);
-                DoubleVector c30 = DoubleVector.zero(DSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
-                    DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
-                    DoubleVector a2 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH2);
-                    DoubleVector a3 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH3);
-
-                    DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx]);
-
-                    c00 = a0.fma(b0, c00);
-                    c10 = a1.fma(b0, c10);
-                    c20 = a2.fma(b0, c20);
-                    c30 = a3.fma(b0, c30);
-
-                    aIndx += DGEMM_UNROLL_M;
-                    bIndx += 1;
+    private static DoubleVector gelu(DoubleVector x) {
+        DoubleVector exponent = x.mul(x).mul(GELU_C2).add(GELU_C1).mul(x);
+        return x.div(exponent.lanewise(VectorOperators.EXP).add(1.0d));
+    }
+
+    private static double gelu(double x) {
+        return x / (Math.exp(x * (GELU_C1 + GELU_C2 * x * x)) + 1.0d);
+    }
+
+    /**
+     * kernelOperation that adds alpha times the product to the upper or lower triangle of c only, for SYRK-like
+     * updates whose block starts at (csRow, csCol) of c. Tiles inside the triangle run the register tiles, tiles
+     * outside it are skipped, and tiles crossing the diagonal are computed into the thread's tile buffer, of which
+     * only the triangular part is added to c.
+     */
+    protected static void syrkKernel(boolean upper, int mc, int nc, int kc, double alpha, double[] da, int aOffset,
+        double[] db, int bOffset, double[] dc, int ldc, int cOffset, int csRow, int csCol) {
+        double[] tile = BlasWorkspace.doubleTile(VECTOR_LENGTH4 + DGEMM_UNROLL_M * DGEMM_UNROLL_N);
+        int col = 0;
+        int bIndx = bOffset;
+        for (int colPack : N_PACK_SIZES) {
+            for (; col + colPack <= nc; col += colPack) {
+                int aIndx = aOffset;
+                for (int row = 0; row < mc; ) {
+                    int rowPack = packChunk(M_PACK_SIZES, mc - row);
+                    int cIndx = cOffset + (csRow + row) + (csCol + col) * ldc;
+                    int diagonal = (csCol + col) - (csRow + row); // column minus row of the tile's first element
+                    if (upper ? diagonal >= rowPack - 1 : diagonal + colPack <= 1) {
+                        kernelTile(rowPack, colPack, kc, alpha, da, aIndx, db, bIndx, 1.0d, dc, cIndx, ldc, tile);
+                    } else if (upper ? diagonal + colPack >= 1 : diagonal <= rowPack - 1) {
+                        kernelTile(rowPack, colPack, kc, alpha, da, aIndx, db, bIndx, 0.0d, tile, VECTOR_LENGTH4,
+                            rowPack, tile);
+                        addTriangle(upper, rowPack, colPack, diagonal, tile, VECTOR_LENGTH4, dc, cIndx, ldc);
+                    }
+                    aIndx += rowPack * kc;
+                    row += rowPack;
                 }
-                alphaVec.fma(c00, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + cCol * ldc)).intoArray(dc,
-                    cOffset + cRow + cCol * ldc);
-                alphaVec.fma(c10, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + cCol * ldc)).intoArray(dc, cOffset + cRow + VECTOR_LENGTH + cCol * ldc);
-                alphaVec.fma(c20, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH2
-                    + cCol * ldc)).intoArray(dc, cOffset + cRow + VECTOR_LENGTH2 + cCol * ldc);
-                alphaVec.fma(c30, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH3
-                    + cCol * ldc)).intoArray(dc, cOffset + cRow + VECTOR_LENGTH3 + cCol * ldc);
-
-                cRow += DGEMM_UNROLL_M;
+                bIndx += colPack * kc;
             }
-            countI = mc % DGEMM_UNROLL_M;
-            if (countI >= VECTOR_LENGTH2) {
-                int bIndx = (nc - countJ) * kc;
-                DoubleVector c00 = DoubleVector.zero(DSPECIES);
-                DoubleVector c10 = DoubleVector.zero(DSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
-                    DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
-                    DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx]);
-
-                    c00 = a0.fma(b0, c00);
-                    c10 = a1.fma(b0, c10);
-
-                    aIndx += VECTOR_LENGTH2;
-                    bIndx += 1;
-                }
-                alphaVec.fma(c00, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + cCol * ldc)).intoArray(dc,
-                    cOffset + cRow + cCol * ldc);
-                alphaVec.fma(c10, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + cCol * ldc)).intoArray(dc, cOffset + cRow + VECTOR_LENGTH + cCol * ldc);
+        }
+    }
 
-                cRow += VECTOR_LENGTH2;
-                countI -= VECTOR_LENGTH2;
+    private static void addTriangle(boolean upper, int rows, int cols, int diagonal, double[] tile, int tileIndx,
+        double[] dc, int cIndx, int ldc) {
+        for (int col = 0; col < cols; col++) {
+            int start = upper ? 0 : Math.max(0, diagonal + col);
+            int end = upper ? Math.min(rows, diagonal + col + 1) : rows;
+            for (int row = start; row < end; row++) {
+                dc[cIndx + row + col * ldc] += tile[tileIndx + row + col * rows];
             }
-            if (countI >= VECTOR_LENGTH) {
-                int bIndx = (nc - countJ) * kc;
-                DoubleVector c00 = DoubleVector.zero(DSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
-                    DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx]);
-                    c00 = a0.fma(b0, c00);
-                    aIndx += VECTOR_LENGTH;
-                    bIndx += 1;
+        }
+    }
+
+    /**
+     * kernelOperation that adds to c: beta = 1 and no epilogue.
+     */
+    protected static void kernelOperation(int mc, int nc, int kc, double alpha, double[] da, int aOffset, double[] db,
+        int bOffset, double[] dc, int ldc, int cOffset, int csRow, int csCol) {
+        kernelOperation(mc, nc, kc, alpha, da, aOffset, db, bOffset, 1.0d, dc, ldc, cOffset, csRow, csCol, null);
+    }
+
+    /**
+     * Multiply the packed mc x kc block of a with the packed kc x nc panel of b and store alpha times the
+     * product plus beta times c to c at (csRow, csCol); with beta = 0, c is not read. Both operands are walked
+     * in the chunks of M_PACK_SIZES and N_PACK_SIZES. Full DGEMM_UNROLL_M x DGEMM_UNROLL_N chunks go to the
+     * register tile chosen at class init. Smaller chunks are split into 4-column and single column tiles of 4V,
+     * 2V or V rows, and the last chunk of fewer than V rows into masked tiles, which store through the thread's
+     * tile buffer. A non-null epilogue is applied to every tile right after its store, while it is in L1.
+     */
+    protected static void kernelOperation(int mc, int nc, int kc, double alpha, double[] da, int aOffset, double[] db,
+        int bOffset, double beta, double[] dc, int ldc, int cOffset, int csRow, int csCol, GemmEpilogue epilogue) {
+        double[] tile = mc % VECTOR_LENGTH == 0 ? null : BlasWorkspace.doubleTile(VECTOR_LENGTH4);
+        int col = 0;
+        int bIndx = bOffset;
+        for (int colPack : N_PACK_SIZES) {
+            for (; col + colPack <= nc; col += colPack) {
+                int aIndx = aOffset;
+                for (int row = 0; row < mc; ) {
+                    int rowPack = packChunk(M_PACK_SIZES, mc - row);
+                    int cIndx = cOffset + (csRow + row) + (csCol + col) * ldc;
+                    kernelTile(rowPack, colPack, kc, alpha, da, aIndx, db, bIndx, beta, dc, cIndx, ldc, tile);
+                    if (epilogue != null) {
+                        epilogueTile(rowPack, colPack, dc, cIndx, ldc, epilogue, csRow + row, csCol + col);
+                    }
+                    aIndx += rowPack * kc;
+                    row += rowPack;
                 }
-                alphaVec.fma(c00, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + cCol * ldc)).intoArray(dc,
-                    cOffset + cRow + cCol * ldc);
+                bIndx += colPack * kc;
+            }
+        }
+    }
 
-                cRow += VECTOR_LENGTH;
-                countI -= VECTOR_LENGTH;
+    private static void kernelTile(int rows, int cols, int kc, double alpha, double[] da, int aIndx, double[] db,
+        int bIndx, double beta, double[] dc, int cIndx, int ldc, double[] tile) {
+        if (rows == DGEMM_UNROLL_M && cols == DGEMM_UNROLL_N) {
+            if (DGEMM_UNROLL_N == 8) {
+                tile3Vx8(kc, alpha, da, aIndx, rows, db, bIndx, cols, beta, dc, cIndx, ldc);
+            } else if (DGEMM_UNROLL_N == 6) {
+                tile2Vx6(kc, alpha, da, aIndx, rows, db, bIndx, cols, beta, dc, cIndx, ldc);
+            } else {
+                tile4Vx4(kc, alpha, da, aIndx, rows, db, bIndx, cols, beta, dc, cIndx, ldc);
             }
-            while (countI > 0) {
-                int bIndx = (nc - countJ) * kc;
-                double[] cTmp = new double[1];
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    cTmp[0] += da[aIndx] * db[bIndx];
-                    aIndx += 1;
-                    bIndx += 1;
+            return;
+        }
+        for (int col = 0; col < cols; ) {
+            int colPack = cols - col >= 4 ? 4 : 1;
+            for (int row = 0; row < rows; ) {
+                int rowPack = edgeRows(rows - row);
+                if (rowPack < VECTOR_LENGTH) {
+                    maskTile(rowPack, colPack, kc, alpha, da, aIndx + row, rows, db, bIndx + col, cols, beta, dc,
+                        cIndx + row + col * ldc, ldc, tile);
+                } else {
+                    edgeTile(rowPack, colPack, kc, alpha, da, aIndx + row, rows, db, bIndx + col, cols, beta, dc,
+                        cIndx + row + col * ldc, ldc);
                 }
-                dc[cOffset + cRow + cCol * ldc] += alpha * cTmp[0];
+                row += rowPack;
+            }
+            col += colPack;
+        }
+    }
 
-                cRow += 1;
-                countI -= 1;
+    /**
+     * Store one vector of a register tile: c := alpha * acc + beta * c, without reading c when beta is zero.
+     */
+    private static void storeC(DoubleVector acc, DoubleVector alphaVec, double beta, double[] dc, int cIndx) {
+        if (BlasUtils.isZero(beta)) {
+            acc.mul(alphaVec).intoArray(dc, cIndx);
+        } else {
+            alphaVec.fma(acc, DoubleVector.fromArray(DSPECIES, dc, cIndx).mul(beta)).intoArray(dc, cIndx);
+        }
+    }
+
+    private static int edgeRows(int rows) {
+        if (rows >= VECTOR_LENGTH4) {
+            return VECTOR_LENGTH4;
+        }
+        if (rows >= VECTOR_LENGTH2) {
+            return VECTOR_LENGTH2;
+        }
+        return rows >= VECTOR_LENGTH ? VECTOR_LENGTH : rows;
+    }
+
+    private static void edgeTile(int rows, int cols, int kc, double alpha, double[] da, int aIndx, int aStride,
+        double[] db, int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        if (cols == 4) {
+            if (rows == VECTOR_LENGTH4) {
+                tile4Vx4(kc, alpha, da, aIndx, aStride, db, bIndx, bStride, beta, dc, cIndx, ldc);
+            } else if (rows == VECTOR_LENGTH2) {
+                tile2Vx4(kc, alpha, da, aIndx, aStride, db, bIndx, bStride, beta, dc, cIndx, ldc);
+            } else {
+                tile1Vx4(kc, alpha, da, aIndx, aStride, db, bIndx, bStride, beta, dc, cIndx, ldc);
+            }
+        } else {
+            if (rows == VECTOR_LENGTH4) {
+                tile4Vx1(kc, alpha, da, aIndx, aStride, db, bIndx, bStride, beta, dc, cIndx, ldc);
+            } else if (rows == VECTOR_LENGTH2) {
+                tile2Vx1(kc, alpha, da, aIndx, aStride, db, bIndx, bStride, beta, dc, cIndx, ldc);
+            } else {
+                tile1Vx1(kc, alpha, da, aIndx, aStride, db, bIndx, bStride, beta, dc, cIndx, ldc);
             }
-            cCol += 1;
         }
     }
 
-    private static void kernelOperation8x4Main(int mc, int nc, int kc, double alpha, double[] da, double[] db,
-        int bOffset, double[] dc, int ldc, int cOffset, int csRow, int csCol) {
+    private static void tile3Vx8(int kc, double alpha, double[] da, int aIndx, int aStride, double[] db,
+        int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        DoubleVector c10 = DoubleVector.zero(DSPECIES);
+        DoubleVector c20 = DoubleVector.zero(DSPECIES);
+        DoubleVector c01 = DoubleVector.zero(DSPECIES);
+        DoubleVector c11 = DoubleVector.zero(DSPECIES);
+        DoubleVector c21 = DoubleVector.zero(DSPECIES);
+        DoubleVector c02 = DoubleVector.zero(DSPECIES);
+        DoubleVector c12 = DoubleVector.zero(DSPECIES);
+        DoubleVector c22 = DoubleVector.zero(DSPECIES);
+        DoubleVector c03 = DoubleVector.zero(DSPECIES);
+        DoubleVector c13 = DoubleVector.zero(DSPECIES);
+        DoubleVector c23 = DoubleVector.zero(DSPECIES);
+        DoubleVector c04 = DoubleVector.zero(DSPECIES);
+        DoubleVector c14 = DoubleVector.zero(DSPECIES);
+        DoubleVector c24 = DoubleVector.zero(DSPECIES);
+        DoubleVector c05 = DoubleVector.zero(DSPECIES);
+        DoubleVector c15 = DoubleVector.zero(DSPECIES);
+        DoubleVector c25 = DoubleVector.zero(DSPECIES);
+        DoubleVector c06 = DoubleVector.zero(DSPECIES);
+        DoubleVector c16 = DoubleVector.zero(DSPECIES);
+        DoubleVector c26 = DoubleVector.zero(DSPECIES);
+        DoubleVector c07 = DoubleVector.zero(DSPECIES);
+        DoubleVector c17 = DoubleVector.zero(DSPECIES);
+        DoubleVector c27 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
+            DoubleVector a2 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH2);
+            DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            c20 = a2.fma(b0, c20);
+            DoubleVector b1 = DoubleVector.broadcast(DSPECIES, db[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            c21 = a2.fma(b1, c21);
+            DoubleVector b2 = DoubleVector.broadcast(DSPECIES, db[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            c22 = a2.fma(b2, c22);
+            DoubleVector b3 = DoubleVector.broadcast(DSPECIES, db[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            c23 = a2.fma(b3, c23);
+            DoubleVector b4 = DoubleVector.broadcast(DSPECIES, db[bIndx + 4]);
+            c04 = a0.fma(b4, c04);
+            c14 = a1.fma(b4, c14);
+            c24 = a2.fma(b4, c24);
+            DoubleVector b5 = DoubleVector.broadcast(DSPECIES, db[bIndx + 5]);
+            c05 = a0.fma(b5, c05);
+            c15 = a1.fma(b5, c15);
+            c25 = a2.fma(b5, c25);
+            DoubleVector b6 = DoubleVector.broadcast(DSPECIES, db[bIndx + 6]);
+            c06 = a0.fma(b6, c06);
+            c16 = a1.fma(b6, c16);
+            c26 = a2.fma(b6, c26);
+            DoubleVector b7 = DoubleVector.broadcast(DSPECIES, db[bIndx + 7]);
+            c07 = a0.fma(b7, c07);
+            c17 = a1.fma(b7, c17);
+            c27 = a2.fma(b7, c27);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, dc, cCol);
+        storeC(c10, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c20, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, dc, cCol);
+        storeC(c11, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c21, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, dc, cCol);
+        storeC(c12, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c22, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, dc, cCol);
+        storeC(c13, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c23, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c04, alphaVec, beta, dc, cCol);
+        storeC(c14, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c24, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c05, alphaVec, beta, dc, cCol);
+        storeC(c15, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c25, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c06, alphaVec, beta, dc, cCol);
+        storeC(c16, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c26, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c07, alphaVec, beta, dc, cCol);
+        storeC(c17, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c27, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+    }
+
+    private static void tile2Vx6(int kc, double alpha, double[] da, int aIndx, int aStride, double[] db,
+        int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        DoubleVector c10 = DoubleVector.zero(DSPECIES);
+        DoubleVector c01 = DoubleVector.zero(DSPECIES);
+        DoubleVector c11 = DoubleVector.zero(DSPECIES);
+        DoubleVector c02 = DoubleVector.zero(DSPECIES);
+        DoubleVector c12 = DoubleVector.zero(DSPECIES);
+        DoubleVector c03 = DoubleVector.zero(DSPECIES);
+        DoubleVector c13 = DoubleVector.zero(DSPECIES);
+        DoubleVector c04 = DoubleVector.zero(DSPECIES);
+        DoubleVector c14 = DoubleVector.zero(DSPECIES);
+        DoubleVector c05 = DoubleVector.zero(DSPECIES);
+        DoubleVector c15 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
+            DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            DoubleVector b1 = DoubleVector.broadcast(DSPECIES, db[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            DoubleVector b2 = DoubleVector.broadcast(DSPECIES, db[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            DoubleVector b3 = DoubleVector.broadcast(DSPECIES, db[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            DoubleVector b4 = DoubleVector.broadcast(DSPECIES, db[bIndx + 4]);
+            c04 = a0.fma(b4, c04);
+            c14 = a1.fma(b4, c14);
+            DoubleVector b5 = DoubleVector.broadcast(DSPECIES, db[bIndx + 5]);
+            c05 = a0.fma(b5, c05);
+            c15 = a1.fma(b5, c15);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, dc, cCol);
+        storeC(c10, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, dc, cCol);
+        storeC(c11, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, dc, cCol);
+        storeC(c12, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, dc, cCol);
+        storeC(c13, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c04, alphaVec, beta, dc, cCol);
+        storeC(c14, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c05, alphaVec, beta, dc, cCol);
+        storeC(c15, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+    }
+
+    private static void tile4Vx4(int kc, double alpha, double[] da, int aIndx, int aStride, double[] db,
+        int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        DoubleVector c10 = DoubleVector.zero(DSPECIES);
+        DoubleVector c20 = DoubleVector.zero(DSPECIES);
+        DoubleVector c30 = DoubleVector.zero(DSPECIES);
+        DoubleVector c01 = DoubleVector.zero(DSPECIES);
+        DoubleVector c11 = DoubleVector.zero(DSPECIES);
+        DoubleVector c21 = DoubleVector.zero(DSPECIES);
+        DoubleVector c31 = DoubleVector.zero(DSPECIES);
+        DoubleVector c02 = DoubleVector.zero(DSPECIES);
+        DoubleVector c12 = DoubleVector.zero(DSPECIES);
+        DoubleVector c22 = DoubleVector.zero(DSPECIES);
+        DoubleVector c32 = DoubleVector.zero(DSPECIES);
+        DoubleVector c03 = DoubleVector.zero(DSPECIES);
+        DoubleVector c13 = DoubleVector.zero(DSPECIES);
+        DoubleVector c23 = DoubleVector.zero(DSPECIES);
+        DoubleVector c33 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
+            DoubleVector a2 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH2);
+            DoubleVector a3 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH3);
+            DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            c20 = a2.fma(b0, c20);
+            c30 = a3.fma(b0, c30);
+            DoubleVector b1 = DoubleVector.broadcast(DSPECIES, db[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            c21 = a2.fma(b1, c21);
+            c31 = a3.fma(b1, c31);
+            DoubleVector b2 = DoubleVector.broadcast(DSPECIES, db[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            c22 = a2.fma(b2, c22);
+            c32 = a3.fma(b2, c32);
+            DoubleVector b3 = DoubleVector.broadcast(DSPECIES, db[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            c23 = a2.fma(b3, c23);
+            c33 = a3.fma(b3, c33);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, dc, cCol);
+        storeC(c10, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c20, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        storeC(c30, alphaVec, beta, dc, cCol + VECTOR_LENGTH3);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, dc, cCol);
+        storeC(c11, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c21, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        storeC(c31, alphaVec, beta, dc, cCol + VECTOR_LENGTH3);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, dc, cCol);
+        storeC(c12, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c22, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        storeC(c32, alphaVec, beta, dc, cCol + VECTOR_LENGTH3);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, dc, cCol);
+        storeC(c13, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c23, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        storeC(c33, alphaVec, beta, dc, cCol + VECTOR_LENGTH3);
+    }
+
+    private static void tile2Vx4(int kc, double alpha, double[] da, int aIndx, int aStride, double[] db,
+        int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        DoubleVector c10 = DoubleVector.zero(DSPECIES);
+        DoubleVector c01 = DoubleVector.zero(DSPECIES);
+        DoubleVector c11 = DoubleVector.zero(DSPECIES);
+        DoubleVector c02 = DoubleVector.zero(DSPECIES);
+        DoubleVector c12 = DoubleVector.zero(DSPECIES);
+        DoubleVector c03 = DoubleVector.zero(DSPECIES);
+        DoubleVector c13 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
+            DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            DoubleVector b1 = DoubleVector.broadcast(DSPECIES, db[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            DoubleVector b2 = DoubleVector.broadcast(DSPECIES, db[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            DoubleVector b3 = DoubleVector.broadcast(DSPECIES, db[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, dc, cCol);
+        storeC(c10, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, dc, cCol);
+        storeC(c11, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, dc, cCol);
+        storeC(c12, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, dc, cCol);
+        storeC(c13, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+    }
+
+    private static void tile1Vx4(int kc, double alpha, double[] da, int aIndx, int aStride, double[] db,
+        int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        DoubleVector c01 = DoubleVector.zero(DSPECIES);
+        DoubleVector c02 = DoubleVector.zero(DSPECIES);
+        DoubleVector c03 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bIndx]);
+            c00 = a0.fma(b0, c00);
+            DoubleVector b1 = DoubleVector.broadcast(DSPECIES, db[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            DoubleVector b2 = DoubleVector.broadcast(DSPECIES, db[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            DoubleVector b3 = DoubleVector.broadcast(DSPECIES, db[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, dc, cCol);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, dc, cCol);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, dc, cCol);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, dc, cCol);
+    }
+
+    private static void tile4Vx1(int kc, double alpha, double[] da, int aIndx, int aStride, double[] db,
+        int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        DoubleVector c10 = DoubleVector.zero(DSPECIES);
+        DoubleVector c20 = DoubleVector.zero(DSPECIES);
+        DoubleVector c30 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
+            DoubleVector a2 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH2);
+            DoubleVector a3 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH3);
+            DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            c20 = a2.fma(b0, c20);
+            c30 = a3.fma(b0, c30);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, dc, cCol);
+        storeC(c10, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+        storeC(c20, alphaVec, beta, dc, cCol + VECTOR_LENGTH2);
+        storeC(c30, alphaVec, beta, dc, cCol + VECTOR_LENGTH3);
+    }
+
+    private static void tile2Vx1(int kc, double alpha, double[] da, int aIndx, int aStride, double[] db,
+        int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        DoubleVector c10 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
+            DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, dc, cCol);
+        storeC(c10, alphaVec, beta, dc, cCol + VECTOR_LENGTH);
+    }
+
+    private static void tile1Vx1(int kc, double alpha, double[] da, int aIndx, int aStride, double[] db,
+        int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bIndx]);
+            c00 = a0.fma(b0, c00);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
         DoubleVector alphaVec = DoubleVector.broadcast(DSPECIES, alpha);
-        int countJ = nc / DGEMM_UNROLL_N;
-        int cCol = csCol;
-        for (; countJ > 0; countJ--) {
-            int cRow = csRow;
-            int aIndx = 0;
-            int countI = mc / DGEMM_UNROLL_M;
-            for (; countI > 0; countI--) {
-                DoubleVector c00 = DoubleVector.zero(DSPECIES);
-                DoubleVector c10 = DoubleVector.zero(DSPECIES);
-                DoubleVector c20 = DoubleVector.zero(DSPECIES);
-                DoubleVector c30 = DoubleVector.zero(DSPECIES);
-                DoubleVector c01 = DoubleVector.zero(DSPECIES);
-                DoubleVector c11 = DoubleVector.zero(DSPECIES);
-                DoubleVector c21 = DoubleVector.zero(DSPECIES);
-                DoubleVector c31 = DoubleVector.zero(DSPECIES);
-                DoubleVector c02 = DoubleVector.zero(DSPECIES);
-                DoubleVector c12 = DoubleVector.zero(DSPECIES);
-                DoubleVector c22 = DoubleVector.zero(DSPECIES);
-                DoubleVector c32 = DoubleVector.zero(DSPECIES);
-                DoubleVector c03 = DoubleVector.zero(DSPECIES);
-                DoubleVector c13 = DoubleVector.zero(DSPECIES);
-                DoubleVector c23 = DoubleVector.zero(DSPECIES);
-                DoubleVector c33 = DoubleVector.zero(DSPECIES);
-                int bIndx = (nc / DGEMM_UNROLL_N - countJ) * DGEMM_UNROLL_N * kc;
-
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx]);
-                    DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
-                    DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
-                    DoubleVector a2 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH2);
-                    DoubleVector a3 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH3);
-
-                    c00 = a0.fma(b0, c00);
-                    c10 = a1.fma(b0, c10);
-                    c20 = a2.fma(b0, c20);
-                    c30 = a3.fma(b0, c30);
-
-                    DoubleVector b1 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 1]);
-                    c01 = a0.fma(b1, c01);
-                    c11 = a1.fma(b1, c11);
-                    c21 = a2.fma(b1, c21);
-                    c31 = a3.fma(b1, c31);
-
-                    DoubleVector b2 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 2]);
-                    c02 = a0.fma(b2, c02);
-                    c12 = a1.fma(b2, c12);
-                    c22 = a2.fma(b2, c22);
-                    c32 = a3.fma(b2, c32);
-
-                    DoubleVector b3 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 3]);
-                    c03 = a0.fma(b3, c03);
-                    c13 = a1.fma(b3, c13);
-                    c23 = a2.fma(b3, c23);
-                    c33 = a3.fma(b3, c33);
-                    aIndx += DGEMM_UNROLL_M;
-                    bIndx += DGEMM_UNROLL_N;
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, dc, cCol);
+    }
+
+    /**
+     * Tile of the last chunk of a block, rows < VECTOR_LENGTH wide. Each step loads a full vector from the packed
+     * chunk, so its lanes at or past rows hold the next step's elements; they only reach accumulator lanes that are
+     * masked out when the tile is stored. Masked stores are not intrinsified on every JDK, so the accumulators go
+     * through the tile buffer and the first rows lanes of each column are copied to c. Steps whose load would run
+     * past the end of a are added by maskStore.
+     */
+    private static void maskTile(int rows, int cols, int kc, double alpha, double[] da, int aIndx, int aStride,
+        double[] db, int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc, double[] tile) {
+        int room = da.length - VECTOR_LENGTH - aIndx;
+        int steps = room < 0 ? 0 : Math.min(kc, room / aStride + 1);
+        if (cols == 4) {
+            tileMaskx4(steps, da, aIndx, aStride, db, bIndx, bStride, tile);
+        } else {
+            tileMaskx1(steps, da, aIndx, aStride, db, bIndx, bStride, tile);
+        }
+        maskStore(rows, cols, kc - steps, alpha, da, aIndx + steps * aStride, aStride, db, bIndx + steps * bStride,
+            bStride, beta, dc, cIndx, ldc, tile);
+    }
+
+    private static void maskStore(int rows, int cols, int kc, double alpha, double[] da, int aIndx, int aStride,
+        double[] db, int bIndx, int bStride, double beta, double[] dc, int cIndx, int ldc, double[] tile) {
+        for (int countL = kc; countL > 0; countL--) {
+            for (int col = 0; col < cols; col++) {
+                double b0 = db[bIndx + col];
+                for (int row = 0; row < rows; row++) {
+                    tile[col * VECTOR_LENGTH + row] += da[aIndx + row] * b0;
                 }
-                DoubleVector cOri00 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + cCol * ldc);
-                DoubleVector cOri10 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + cCol * ldc);
-                DoubleVector cOri20 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH2
-                    + cCol * ldc);
-                DoubleVector cOri30 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH3
-                    + cCol * ldc);
-
-                cOri00 = alphaVec.fma(c00, cOri00);
-                cOri10 = alphaVec.fma(c10, cOri10);
-                cOri20 = alphaVec.fma(c20, cOri20);
-                cOri30 = alphaVec.fma(c30, cOri30);
-
-                cOri00.intoArray(dc, cOffset + cRow + cCol * ldc);
-                cOri10.intoArray(dc, cOffset + cRow + VECTOR_LENGTH + cCol * ldc);
-                cOri20.intoArray(dc, cOffset + cRow + VECTOR_LENGTH2 + cCol * ldc);
-                cOri30.intoArray(dc, cOffset + cRow + VECTOR_LENGTH3 + cCol * ldc);
-
-                DoubleVector cOri01 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 1) * ldc);
-                DoubleVector cOri11 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 1) * ldc);
-                DoubleVector cOri21 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH2
-                    + (cCol + 1) * ldc);
-                DoubleVector cOri31 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH3
-                    + (cCol + 1) * ldc);
-
-                cOri01 = alphaVec.fma(c01, cOri01);
-                cOri11 = alphaVec.fma(c11, cOri11);
-                cOri21 = alphaVec.fma(c21, cOri21);
-                cOri31 = alphaVec.fma(c31, cOri31);
-
-                cOri01.intoArray(dc, cOffset + cRow + (cCol + 1) * ldc);
-                cOri11.intoArray(dc, cOffset + cRow + VECTOR_LENGTH + (cCol + 1) * ldc);
-                cOri21.intoArray(dc, cOffset + cRow + VECTOR_LENGTH2 + (cCol + 1) * ldc);
-                cOri31.intoArray(dc, cOffset + cRow + VECTOR_LENGTH3 + (cCol + 1) * ldc);
-
-                DoubleVector cOri02 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 2) * ldc);
-                DoubleVector cOri12 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 2) * ldc);
-                DoubleVector cOri22 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH2
-                    + (cCol + 2) * ldc);
-                DoubleVector cOri32 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH3
-                    + (cCol + 2) * ldc);
-
-                cOri02 = alphaVec.fma(c02, cOri02);
-                cOri12 = alphaVec.fma(c12, cOri12);
-                cOri22 = alphaVec.fma(c22, cOri22);
-                cOri32 = alphaVec.fma(c32, cOri32);
-
-                cOri02.intoArray(dc, cOffset + cRow + (cCol + 2) * ldc);
-                cOri12.intoArray(dc, cOffset + cRow + VECTOR_LENGTH + (cCol + 2) * ldc);
-                cOri22.intoArray(dc, cOffset + cRow + VECTOR_LENGTH2 + (cCol + 2) * ldc);
-                cOri32.intoArray(dc, cOffset + cRow + VECTOR_LENGTH3 + (cCol + 2) * ldc);
-
-                DoubleVector cOri03 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 3) * ldc);
-                DoubleVector cOri13 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 3) * ldc);
-                DoubleVector cOri23 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH2
-                    + (cCol + 3) * ldc);
-                DoubleVector cOri33 = DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH3
-                    + (cCol + 3) * ldc);
-
-                cOri03 = alphaVec.fma(c03, cOri03);
-                cOri13 = alphaVec.fma(c13, cOri13);
-                cOri23 = alphaVec.fma(c23, cOri23);
-                cOri33 = alphaVec.fma(c33, cOri33);
-
-                cOri03.intoArray(dc, cOffset + cRow + (cCol + 3) * ldc);
-                cOri13.intoArray(dc, cOffset + cRow + VECTOR_LENGTH + (cCol + 3) * ldc);
-                cOri23.intoArray(dc, cOffset + cRow + VECTOR_LENGTH2 + (cCol + 3) * ldc);
-                cOri33.intoArray(dc, cOffset + cRow + VECTOR_LENGTH3 + (cCol + 3) * ldc);
-
-                cRow += DGEMM_UNROLL_M;
             }
-            countI = mc % DGEMM_UNROLL_M;
-            if (countI >= VECTOR_LENGTH2) {
-                int bIndx = (nc / DGEMM_UNROLL_N - countJ) * DGEMM_UNROLL_N * kc;
-                DoubleVector c00 = DoubleVector.zero(DSPECIES);
-                DoubleVector c01 = DoubleVector.zero(DSPECIES);
-                DoubleVector c02 = DoubleVector.zero(DSPECIES);
-                DoubleVector c03 = DoubleVector.zero(DSPECIES);
-                DoubleVector c10 = DoubleVector.zero(DSPECIES);
-                DoubleVector c11 = DoubleVector.zero(DSPECIES);
-                DoubleVector c12 = DoubleVector.zero(DSPECIES);
-                DoubleVector c13 = DoubleVector.zero(DSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
-                    DoubleVector a1 = DoubleVector.fromArray(DSPECIES, da, aIndx + VECTOR_LENGTH);
-
-                    DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx]);
-                    DoubleVector b1 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 1]);
-                    DoubleVector b2 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 2]);
-                    DoubleVector b3 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 3]);
-
-                    c00 = a0.fma(b0, c00);
-                    c10 = a1.fma(b0, c10);
-                    c01 = a0.fma(b1, c01);
-                    c11 = a1.fma(b1, c11);
-
-                    c02 = a0.fma(b2, c02);
-                    c12 = a1.fma(b2, c12);
-                    c03 = a0.fma(b3, c03);
-                    c13 = a1.fma(b3, c13);
-
-                    aIndx += VECTOR_LENGTH2;
-                    bIndx += DGEMM_UNROLL_N;
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        for (int col = 0; col < cols; col++) {
+            int cCol = cIndx + col * ldc;
+            int tCol = col * VECTOR_LENGTH;
+            if (BlasUtils.isZero(beta)) {
+                for (int row = 0; row < rows; row++) {
+                    dc[cCol + row] = alpha * tile[tCol + row];
                 }
-                alphaVec.fma(c00, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + cCol * ldc)).intoArray(dc,
-                    cOffset + cRow + cCol * ldc);
-                alphaVec.fma(c10, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + cCol * ldc)).intoArray(dc, cOffset + cRow + VECTOR_LENGTH + cCol * ldc);
-
-                alphaVec.fma(c01, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 1) * ldc)).intoArray(dc,
-                    cOffset + cRow + (cCol + 1) * ldc);
-                alphaVec.fma(c11, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 1) * ldc)).intoArray(dc, cOffset + cRow + VECTOR_LENGTH + (cCol + 1) * ldc);
-
-                alphaVec.fma(c02, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 2) * ldc)).intoArray(dc,
-                    cOffset + cRow + (cCol + 2) * ldc);
-                alphaVec.fma(c12, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 2) * ldc)).intoArray(dc, cOffset + cRow + VECTOR_LENGTH + (cCol + 2) * ldc);
-
-                alphaVec.fma(c03, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 3) * ldc)).intoArray(dc,
-                    cOffset + cRow + (cCol + 3) * ldc);
-                alphaVec.fma(c13, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 3) * ldc)).intoArray(dc, cOffset + cRow + VECTOR_LENGTH + (cCol + 3) * ldc);
-
-                cRow += VECTOR_LENGTH2;
-                countI -= VECTOR_LENGTH2;
-            }
-            if (countI >= VECTOR_LENGTH) {
-                int bIndx = (nc / DGEMM_UNROLL_N - countJ) * DGEMM_UNROLL_N * kc;
-                DoubleVector c00 = DoubleVector.zero(DSPECIES);
-                DoubleVector c01 = DoubleVector.zero(DSPECIES);
-                DoubleVector c02 = DoubleVector.zero(DSPECIES);
-                DoubleVector c03 = DoubleVector.zero(DSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
-
-                    DoubleVector b0 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx]);
-                    DoubleVector b1 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 1]);
-                    DoubleVector b2 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 2]);
-                    DoubleVector b3 = DoubleVector.broadcast(DSPECIES, db[bOffset + bIndx + 3]);
-
-                    c00 = a0.fma(b0, c00);
-                    c01 = a0.fma(b1, c01);
-                    c02 = a0.fma(b2, c02);
-                    c03 = a0.fma(b3, c03);
-
-                    aIndx += VECTOR_LENGTH;
-                    bIndx += DGEMM_UNROLL_N;
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    dc[cCol + row] = alpha * tile[tCol + row] + beta * dc[cCol + row];
                 }
-                alphaVec.fma(c00, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + cCol * ldc)).intoArray(dc,
-                    cOffset + cRow + cCol * ldc);
-                alphaVec.fma(c01, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 1) * ldc)).intoArray(dc,
-                    cOffset + cRow + (cCol + 1) * ldc);
-                alphaVec.fma(c02, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 2) * ldc)).intoArray(dc,
-                    cOffset + cRow + (cCol + 2) * ldc);
-                alphaVec.fma(c03, DoubleVector.fromArray(DSPECIES, dc, cOffset + cRow + (cCol + 3) * ldc)).intoArray(dc,
-                    cOffset + cRow + (cCol + 3) * ldc);
-
-                cRow += VECTOR_LENGTH;
-                countI -= VECTOR_LENGTH;
             }
-            while (countI > 0) {
-                int bIndx = (nc / DGEMM_UNROLL_N - countJ) * DGEMM_UNROLL_N * kc;
-                double[] cTmp = new double[DGEMM_UNROLL_N];
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    cTmp[0] += da[aIndx] * db[bOffset + bIndx];
-                    cTmp[1] += da[aIndx] * db[bOffset + bIndx + 1];
-                    cTmp[2] += da[aIndx] * db[bOffset + bIndx + 2];
-                    cTmp[3] += da[aIndx] * db[bOffset + bIndx + 3];
-                    aIndx += 1;
-                    bIndx += DGEMM_UNROLL_N;
-                }
-                dc[cOffset + cRow + cCol * ldc] += alpha * cTmp[0];
-                dc[cOffset + cRow + (cCol + 1) * ldc] += alpha * cTmp[1];
-                dc[cOffset + cRow + (cCol + 2) * ldc] += alpha * cTmp[2];
-                dc[cOffset + cRow + (cCol + 3) * ldc] += alpha * cTmp[3];
+        }
+    }
 
-                cRow += 1;
-                countI -= 1;
-            }
-            cCol += DGEMM_UNROLL_N;
+    private static void tileMaskx4(int kc, double[] da, int aIndx, int aStride, double[] db, int bIndx, int bStride,
+        double[] tile) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        DoubleVector c01 = DoubleVector.zero(DSPECIES);
+        DoubleVector c02 = DoubleVector.zero(DSPECIES);
+        DoubleVector c03 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            c00 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx]), c00);
+            c01 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + 1]), c01);
+            c02 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + 2]), c02);
+            c03 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + 3]), c03);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        c00.intoArray(tile, 0);
+        c01.intoArray(tile, VECTOR_LENGTH);
+        c02.intoArray(tile, VECTOR_LENGTH2);
+        c03.intoArray(tile, VECTOR_LENGTH3);
+    }
+
+    private static void tileMaskx1(int kc, double[] da, int aIndx, int aStride, double[] db, int bIndx, int bStride,
+        double[] tile) {
+        DoubleVector c00 = DoubleVector.zero(DSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+            c00 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx]), c00);
+            aIndx += aStride;
+            bIndx += bStride;
         }
+        c00.intoArray(tile, 0);
     }
 
     /**
@@ -424,23 +819,12 @@ public class DblasLevel3 {
     protected static void onCopy(int sizeM, int sizeN, double[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
         double[] dst, int dstOffset) {
         int col = 0;
-        int colPackSize = DGEMM_UNROLL_N;
         int dstIndex = 0;
-        for (; col < sizeN - sizeN % colPackSize; col += colPackSize) {
-            int row = 0;
-            for (; row < sizeM; row += 1) {
-                dst[dstOffset + dstIndex] = src[(srcRow + row) + (srcCol + col) * srcLd + srcOffset];
-                dst[dstOffset + dstIndex + 1] = src[(srcRow + row) + (srcCol + (col + 1)) * srcLd + srcOffset];
-                dst[dstOffset + dstIndex + 2] = src[(srcRow + row) + (srcCol + (col + 2)) * srcLd + srcOffset];
-                dst[dstOffset + dstIndex + 3] = src[(srcRow + row) + (srcCol + (col + 3)) * srcLd + srcOffset];
-                dstIndex += colPackSize;
-            }
-        }
-        for (; col < sizeN; col += 1) {
-            int row = 0;
-            for (; row < sizeM; row += 1) {
-                dst[dstOffset + dstIndex] = src[(srcRow + row) + (srcCol + col) * srcLd + srcOffset];
-                dstIndex += 1;
+        for (int colPackSize : N_PACK_SIZES) {
+            for (; col + colPackSize <= sizeN; col += colPackSize) {
+                transposeCopy(sizeM, colPackSize, src, srcOffset + srcRow + (srcCol + col) * srcLd, srcLd, dst,
+                    dstOffset + dstIndex);
+                dstIndex += sizeM * colPackSize;
             }
         }
     }
@@ -457,19 +841,134 @@ public class DblasLevel3 {
      */
     protected static void itCopy(int sizeM, int sizeN, double[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
         double[] dst, int dstOffset) {
-        int row = 0;
         int dstIndex = 0;
-        int[] vectorLengthList = {VECTOR_LENGTH4, VECTOR_LENGTH2, VECTOR_LENGTH, 1};
-        for (int vectorLen : vectorLengthList) {
-            while (row + vectorLen <= sizeM) {
-                int col = 0;
-                for (; col < sizeN; col++) {
-                    System.arraycopy(src, srcOffset + (srcRow + row) + (srcCol + col) * srcLd, dst,
-                        dstOffset + dstIndex, vectorLen);
-                    dstIndex += vectorLen;
+        for (int row = 0; row < sizeM; ) {
+            int vectorLen = packChunk(M_PACK_SIZES, sizeM - row);
+            for (int col = 0; col < sizeN; col++) {
+                System.arraycopy(src, srcOffset + (srcRow + row) + (srcCol + col) * srcLd, dst, dstOffset + dstIndex,
+                    vectorLen);
+                dstIndex += vectorLen;
+            }
+            row += vectorLen;
+        }
+    }
+
+    /**
+     * Size of the next chunk when rows rows are left to pack or walk: the largest of packSizes that fits, else all
+     * of them. N_PACK_SIZES ends with 1, while the rows left after the M_PACK_SIZES chunks, fewer than
+     * VECTOR_LENGTH, form one last chunk, so that the kernel keeps them in vectors.
+     */
+    protected static int packChunk(int[] packSizes, int rows) {
+        for (int packSize : packSizes) {
+            if (packSize <= rows) {
+                return packSize;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Transposing copy of a rows x cols block, dst[dstIndx + row * cols + col] = src[srcIndx + row + col * srcLd]:
+     * the cols columns of src are interleaved row by row, which is how the packs lay out operands that are read
+     * across their leading dimension. Groups of 8 or 4 columns are loaded as vectors and transposed in registers
+     * 8 (or 4) rows at a time, the remaining rows and columns are copied element by element.
+     */
+    protected static void transposeCopy(int rows, int cols, double[] src, int srcIndx, int srcLd, double[] dst,
+        int dstIndx) {
+        int col = 0;
+        if (TRANSPOSE8) {
+            int rowsBound = ArrayUtil.loopBound(rows, 8);
+            for (; col + 8 <= cols; col += 8) {
+                for (int row = 0; row < rowsBound; row += 8) {
+                    transpose8x8(src, srcIndx + row + col * srcLd, srcLd, dst, dstIndx + row * cols + col, cols);
                 }
-                row += vectorLen;
+                transposeTail(rowsBound, rows, col, col + 8, cols, src, srcIndx, srcLd, dst, dstIndx);
+            }
+        }
+        if (TRANSPOSE4) {
+            int rowsBound = ArrayUtil.loopBound(rows, 4);
+            for (; col + 4 <= cols; col += 4) {
+                for (int row = 0; row < rowsBound; row += 4) {
+                    transpose4x4(src, srcIndx + row + col * srcLd, srcLd, dst, dstIndx + row * cols + col, cols);
+                }
+                transposeTail(rowsBound, rows, col, col + 4, cols, src, srcIndx, srcLd, dst, dstIndx);
+            }
+        }
+        transposeTail(0, rows, col, cols, cols, src, srcIndx, srcLd, dst, dstIndx);
+    }
+
+    private static void transposeTail(int rowStart, int rowEnd, int colStart, int colEnd, int cols, double[] src,
+        int srcIndx, int srcLd, double[] dst, int dstIndx) {
+        for (int row = rowStart; row < rowEnd; row++) {
+            for (int col = colStart; col < colEnd; col++) {
+                dst[dstIndx + row * cols + col] = src[srcIndx + row + col * srcLd];
             }
         }
     }
+
+    /**
+     * Transpose the 8 x 8 block in three rounds: round b swaps the off-diagonal b x b sub-blocks of every 2b x 2b
+     * diagonal block, by rotating one vector of each pair b lanes and blending it with the other.
+     */
+    private static void transpose8x8(double[] src, int srcIndx, int srcLd, double[] dst, int dstIndx, int dstLd) {
+        DoubleVector c0 = DoubleVector.fromArray(T8SPECIES, src, srcIndx);
+        DoubleVector c1 = DoubleVector.fromArray(T8SPECIES, src, srcIndx + srcLd);
+        DoubleVector c2 = DoubleVector.fromArray(T8SPECIES, src, srcIndx + 2 * srcLd);
+        DoubleVector c3 = DoubleVector.fromArray(T8SPECIES, src, srcIndx + 3 * srcLd);
+        DoubleVector c4 = DoubleVector.fromArray(T8SPECIES, src, srcIndx + 4 * srcLd);
+        DoubleVector c5 = DoubleVector.fromArray(T8SPECIES, src, srcIndx + 5 * srcLd);
+        DoubleVector c6 = DoubleVector.fromArray(T8SPECIES, src, srcIndx + 6 * srcLd);
+        DoubleVector c7 = DoubleVector.fromArray(T8SPECIES, src, srcIndx + 7 * srcLd);
+        DoubleVector u0 = c0.blend(c4.rearrange(T8_ROT4), T8_MASK4);
+        DoubleVector u4 = c0.rearrange(T8_ROT4).blend(c4, T8_MASK4);
+        DoubleVector u1 = c1.blend(c5.rearrange(T8_ROT4), T8_MASK4);
+        DoubleVector u5 = c1.rearrange(T8_ROT4).blend(c5, T8_MASK4);
+        DoubleVector u2 = c2.blend(c6.rearrange(T8_ROT4), T8_MASK4);
+        DoubleVector u6 = c2.rearrange(T8_ROT4).blend(c6, T8_MASK4);
+        DoubleVector u3 = c3.blend(c7.rearrange(T8_ROT4), T8_MASK4);
+        DoubleVector u7 = c3.rearrange(T8_ROT4).blend(c7, T8_MASK4);
+        DoubleVector v0 = u0.blend(u2.rearrange(T8_ROT6), T8_MASK2);
+        DoubleVector v2 = u0.rearrange(T8_ROT2).blend(u2, T8_MASK2);
+        DoubleVector v1 = u1.blend(u3.rearrange(T8_ROT6), T8_MASK2);
+        DoubleVector v3 = u1.rearrange(T8_ROT2).blend(u3, T8_MASK2);
+        DoubleVector v4 = u4.blend(u6.rearrange(T8_ROT6), T8_MASK2);
+        DoubleVector v6 = u4.rearrange(T8_ROT2).blend(u6, T8_MASK2);
+        DoubleVector v5 = u5.blend(u7.rearrange(T8_ROT6), T8_MASK2);
+        DoubleVector v7 = u5.rearrange(T8_ROT2).blend(u7, T8_MASK2);
+        DoubleVector r0 = v0.blend(v1.rearrange(T8_ROT7), T8_MASK1);
+        DoubleVector r1 = v0.rearrange(T8_ROT1).blend(v1, T8_MASK1);
+        DoubleVector r2 = v2.blend(v3.rearrange(T8_ROT7), T8_MASK1);
+        DoubleVector r3 = v2.rearrange(T8_ROT1).blend(v3, T8_MASK1);
+        DoubleVector r4 = v4.blend(v5.rearrange(T8_ROT7), T8_MASK1);
+        DoubleVector r5 = v4.rearrange(T8_ROT1).blend(v5, T8_MASK1);
+        DoubleVector r6 = v6.blend(v7.rearrange(T8_ROT7), T8_MASK1);
+        DoubleVector r7 = v6.rearrange(T8_ROT1).blend(v7, T8_MASK1);
+        r0.intoArray(dst, dstIndx);
+        r1.intoArray(dst, dstIndx + dstLd);
+        r2.intoArray(dst, dstIndx + 2 * dstLd);
+        r3.intoArray(dst, dstIndx + 3 * dstLd);
+        r4.intoArray(dst, dstIndx + 4 * dstLd);
+        r5.intoArray(dst, dstIndx + 5 * dstLd);
+        r6.intoArray(dst, dstIndx + 6 * dstLd);
+        r7.intoArray(dst, dstIndx + 7 * dstLd);
+    }
+
+    private static void transpose4x4(double[] src, int srcIndx, int srcLd, double[] dst, int dstIndx, int dstLd) {
+        DoubleVector c0 = DoubleVector.fromArray(T4SPECIES, src, srcIndx);
+        DoubleVector c1 = DoubleVector.fromArray(T4SPECIES, src, srcIndx + srcLd);
+        DoubleVector c2 = DoubleVector.fromArray(T4SPECIES, src, srcIndx + 2 * srcLd);
+        DoubleVector c3 = DoubleVector.fromArray(T4SPECIES, src, srcIndx + 3 * srcLd);
+        DoubleVector v0 = c0.blend(c2.rearrange(T4_ROT2), T4_MASK2);
+        DoubleVector v2 = c0.rearrange(T4_ROT2).blend(c2, T4_MASK2);
+        DoubleVector v1 = c1.blend(c3.rearrange(T4_ROT2), T4_MASK2);
+        DoubleVector v3 = c1.rearrange(T4_ROT2).blend(c3, T4_MASK2);
+        DoubleVector r0 = v0.blend(v1.rearrange(T4_ROT3), T4_MASK1);
+        DoubleVector r1 = v0.rearrange(T4_ROT1).blend(v1, T4_MASK1);
+        DoubleVector r2 = v2.blend(v3.rearrange(T4_ROT3), T4_MASK1);
+        DoubleVector r3 = v2.rearrange(T4_ROT1).blend(v3, T4_MASK1);
+        r0.intoArray(dst, dstIndx);
+        r1.intoArray(dst, dstIndx + dstLd);
+        r2.intoArray(dst, dstIndx + 2 * dstLd);
+        r3.intoArray(dst, dstIndx + 3 * dstLd);
+    }
 }
@@ -22,20 +22,35 @@
 
 package com.huawei.vectorblas.blas3.doubleprecision;
 
-import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_P;
-import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_Q;
-import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_R;
+import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_UNROLL_M;
 import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_UNROLL_N;
-import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.VECTOR_LENGTH;
-import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.VECTOR_LENGTH2;
-import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.VECTOR_LENGTH4;
+import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.M_PACK_SIZES;
+import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.N_PACK_SIZES;
+import static com.huawei.vectorblas.utils.ArrayUtil.ceilDiv;
+import static com.huawei.vectorblas.utils.ArrayUtil.roundUp;
 
+import com.huawei.vectorblas.blas1.doubleprecision.Daxpy;
+import com.huawei.vectorblas.utils.BlasParallel;
 import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.GemmEpilogue;
 import com.huawei.vectorblas.utils.Lsame;
+import com.huawei.vectorblas.utils.PackedMatrix;
 
 public class Dgemm {
     public static void dgemm(String transa, String transb, int m, int n, int k, double alpha, double[] a, int aOffset,
         int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc) {
+        dgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc, null, 0, 0);
+    }
+
+    /**
+     * DGEMM with a caller supplied packing workspace, in the LAPACK lwork style: with lwork = -1 only the
+     * required workspace size is returned in work[workOffset]. A null work uses the thread-local workspace.
+     */
+    public static void dgemm(String transa, String transb, int m, int n, int k, double alpha, double[] a, int aOffset,
+        int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc, double[] work,
+        int workOffset, int lwork) {
         BlasUtils.checkParameter("DGEMM", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
         BlasUtils.checkParameter("DGEMM", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
         boolean transaFlag = Lsame.lsame(transa, "N");
@@ -46,52 +61,411 @@ public class Dgemm {
         BlasUtils.checkParameter("DGEMM", 8, lda >= Math.max(1, (transaFlag ? m : k)));
         BlasUtils.checkParameter("DGEMM", 10, ldb >= Math.max(1, (transbFlag ? k : n)));
         BlasUtils.checkParameter("DGEMM", 13, ldc >= Math.max(1, m));
+        GemmBlocking blocking = DblasLevel3.getBlocking();
+        if (work != null) {
+            int workSize = workSize(m, n, k, blocking);
+            BlasUtils.checkParameter("DGEMM", 15, lwork == -1 || lwork >= workSize);
+            if (lwork == -1) {
+                BlasUtils.checkBlasArray("work", workOffset, 0, work.length);
+                work[workOffset] = workSize;
+                return;
+            }
+            BlasUtils.checkBlasArray("work", workOffset, workSize - 1, work.length);
+        }
 
         if (m == 0 || n == 0) {
             return;
         }
-        if (Double.compare(beta, 1.0d) != 0) {
+        if (k > 0 && !BlasUtils.isZero(alpha) && DgemmSmall.isSmall(transaFlag, transbFlag, m, n, k)) {
+            BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda,
+                a.length);
+            BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb,
+                b.length);
             BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
-            DblasLevel3.betaMulC(m, n, beta, c, cOffset, ldc);
+            DgemmSmall.dgemmSmall(transaFlag, transbFlag, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c,
+                cOffset, ldc);
+            return;
         }
         if (BlasUtils.isZero(alpha) || k == 0) {
+            if (Double.compare(beta, 1.0d) != 0) {
+                BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+                DblasLevel3.betaMulC(m, n, beta, c, cOffset, ldc);
+            }
             return;
         }
         BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda, a.length);
         BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb, b.length);
         BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
-        dgemmVector(transa, transb, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, c, cOffset, ldc);
+        int kc = Math.min(blocking.getQ(), k);
+        int packaSize = kc * Math.min(blocking.getP(), m);
+        int packbSize = kc * Math.min(blocking.getR(), n);
+        double[] packb = work != null ? work : BlasWorkspace.doublePackB(packbSize);
+        int packbOffset = work != null ? workOffset + packaSize : 0;
+        if (work == null && BlasParallel.isSplitK(m, n, k)) {
+            dgemmSplitK(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, blocking, null);
+        } else if (BlasParallel.isLevel3Parallel(m, n, k)) {
+            dgemmParallel(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, packb, packbOffset, blocking, null, null, null);
+        } else {
+            double[] packa = work != null ? work : BlasWorkspace.doublePackA(packaSize);
+            int packaOffset = work != null ? workOffset : 0;
+            dgemmVector(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, packa, packaOffset, packb, packbOffset, blocking, null, null, null);
+        }
+    }
+
+    /**
+     * Pack op(A) (identifier "A", m x k) or op(B) (identifier "B", k x n) once, for repeated dgemmCompute calls
+     * against the same operand. The unused one of m and n is ignored.
+     */
+    public static PackedMatrix dgemmPack(String identifier, String trans, int m, int n, int k, double[] src,
+        int srcOffset, int ld) {
+        BlasUtils.checkParameter("DGEMM_PACK", 1, Lsame.lsame(identifier, "A") || Lsame.lsame(identifier, "B"));
+        BlasUtils.checkParameter("DGEMM_PACK", 2, Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T"));
+        boolean left = Lsame.lsame(identifier, "A");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        BlasUtils.checkParameter("DGEMM_PACK", 3, m >= 0);
+        BlasUtils.checkParameter("DGEMM_PACK", 4, n >= 0);
+        BlasUtils.checkParameter("DGEMM_PACK", 5, k >= 0);
+        int rows = left ? m : k;
+        int cols = left ? k : n;
+        BlasUtils.checkParameter("DGEMM_PACK", 8, ld >= Math.max(1, (transFlag ? rows : cols)));
+        BlasUtils.checkParameter("DGEMM_PACK", left ? 5 : 4, (long) rows * cols <= Integer.MAX_VALUE);
+        GemmBlocking blocking = DblasLevel3.getBlocking();
+        double[] data = new double[rows * cols];
+        if (rows == 0 || cols == 0) {
+            return new PackedMatrix(left, rows, cols, blocking, data);
+        }
+        BlasUtils.checkBlasArray("src", srcOffset, ((transFlag ? rows : cols) - 1) + ((transFlag ? cols : rows) - 1)
+            * ld, src.length);
+        if (left) {
+            for (int ks = 0; ks < cols; ks += blocking.getQ()) {
+                int kc = Math.min(blocking.getQ(), cols - ks);
+                for (int ms = 0; ms < rows; ms += blocking.getP()) {
+                    int mc = Math.min(blocking.getP(), rows - ms);
+                    if (transFlag) {
+                        DblasLevel3.itCopy(mc, kc, src, ms, ks, srcOffset, ld, data, ks * rows + ms * kc);
+                    } else {
+                        inCopy(kc, mc, src, ks, ms, srcOffset, ld, data, ks * rows + ms * kc);
+                    }
+                }
+            }
+        } else {
+            for (int ns = 0; ns < cols; ns += blocking.getR()) {
+                int nc = Math.min(blocking.getR(), cols - ns);
+                for (int ks = 0; ks < rows; ks += blocking.getQ()) {
+                    int kc = Math.min(blocking.getQ(), rows - ks);
+                    if (transFlag) {
+                        DblasLevel3.onCopy(kc, nc, src, ks, ns, srcOffset, ld, data, ns * rows + ks * nc);
+                    } else {
+                        otCopy(nc, kc, src, ns, ks, srcOffset, ld, data, ns * rows + ks * nc);
+                    }
+                }
+            }
+        }
+        return new PackedMatrix(left, rows, cols, blocking, data);
+    }
+
+    /**
+     * C = alpha * op(A) * B + beta * C with B packed by dgemmPack("B", ...), so only A is packed per call.
+     */
+    public static void dgemmCompute(String transa, int m, double alpha, double[] a, int aOffset, int lda,
+        PackedMatrix b, double beta, double[] c, int cOffset, int ldc) {
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 2, m >= 0);
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 6, !b.isLeft() && b.getDoubleData() != null);
+        int n = b.getCols();
+        int k = b.getRows();
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 5, lda >= Math.max(1, (transaFlag ? m : k)));
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 9, ldc >= Math.max(1, m));
+        if (m > 0 && n > 0 && k > 0 && !BlasUtils.isZero(alpha)) {
+            BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda,
+                a.length);
+        }
+        dgemmChecked(transaFlag, true, m, n, k, alpha, a, aOffset, lda, null, 0, 1, beta, c, cOffset, ldc,
+            b.getBlocking(), null, b, null);
+    }
+
+    /**
+     * C = alpha * A * op(B) + beta * C with A packed by dgemmPack("A", ...), so only B is packed per call.
+     */
+    public static void dgemmCompute(PackedMatrix a, String transb, int n, double alpha, double[] b, int bOffset,
+        int ldb, double beta, double[] c, int cOffset, int ldc) {
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 1, a.isLeft() && a.getDoubleData() != null);
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 3, n >= 0);
+        int m = a.getRows();
+        int k = a.getCols();
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 6, ldb >= Math.max(1, (transbFlag ? k : n)));
+        BlasUtils.checkParameter("DGEMM_COMPUTE", 9, ldc >= Math.max(1, m));
+        if (m > 0 && n > 0 && k > 0 && !BlasUtils.isZero(alpha)) {
+            BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb,
+                b.length);
+        }
+        dgemmChecked(true, transbFlag, m, n, k, alpha, null, 0, 1, b, bOffset, ldb, beta, c, cOffset, ldc,
+            a.getBlocking(), a, null, null);
+    }
+
+    /**
+     * DGEMM followed by an epilogue on every element of C: C = act(alpha * op(A) * op(B) + beta * C + bias).
+     * The bias and the activation are applied by the kernel to each register tile right after it is stored,
+     * and with beta = 0 C is not read. A ROW bias has m entries, a COLUMN bias has n entries.
+     */
+    public static void dgemmEpilogue(String transa, String transb, int m, int n, int k, double alpha, double[] a,
+        int aOffset, int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc,
+        GemmEpilogue epilogue) {
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 3, m >= 0);
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 4, n >= 0);
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 5, k >= 0);
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 8, lda >= Math.max(1, (transaFlag ? m : k)));
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 10, ldb >= Math.max(1, (transbFlag ? k : n)));
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 13, ldc >= Math.max(1, m));
+        BlasUtils.checkParameter("DGEMM_EPILOGUE", 14, epilogue != null
+            && (epilogue.getBias() == GemmEpilogue.Bias.NONE || epilogue.getDoubleData() != null));
+        if (m == 0 || n == 0) {
+            return;
+        }
+        if (k > 0 && !BlasUtils.isZero(alpha)) {
+            BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda,
+                a.length);
+            BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb,
+                b.length);
+        }
+        if (epilogue.getBias() != GemmEpilogue.Bias.NONE) {
+            BlasUtils.checkBlasArray("bias", epilogue.getOffset(), (epilogue.getBias() == GemmEpilogue.Bias.ROW ? m
+                : n) - 1, epilogue.getDoubleData().length);
+        }
+        dgemmChecked(transaFlag, transbFlag, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc,
+            DblasLevel3.getBlocking(), null, null, epilogue);
+    }
+
+    /**
+     * GEMM on validated parameters, used by the compute, batched, epilogue and mixed precision routines. The array
+     * bounds of a and b are checked by the caller, a pre-packed operand replaces the corresponding array.
+     */
+    public static void dgemmChecked(boolean transaFlag, boolean transbFlag, int m, int n, int k, double alpha, double[] a,
+        int aOffset, int lda, double[] b, int bOffset, int ldb, double beta, double[] c, int cOffset, int ldc,
+        GemmBlocking blocking, PackedMatrix packedA, PackedMatrix packedB, GemmEpilogue epilogue) {
+        if (m == 0 || n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+        if (packedA == null && packedB == null && k > 0 && !BlasUtils.isZero(alpha)
+            && DgemmSmall.isSmall(transaFlag, transbFlag, m, n, k)) {
+            DgemmSmall.dgemmSmall(transaFlag, transbFlag, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c,
+                cOffset, ldc);
+            if (epilogue != null) {
+                DblasLevel3.epilogueTile(m, n, c, cOffset, ldc, epilogue, 0, 0);
+            }
+            return;
+        }
+        if (BlasUtils.isZero(alpha) || k == 0) {
+            if (Double.compare(beta, 1.0d) != 0) {
+                DblasLevel3.betaMulC(m, n, beta, c, cOffset, ldc);
+            }
+            if (epilogue != null) {
+                DblasLevel3.epilogueTile(m, n, c, cOffset, ldc, epilogue, 0, 0);
+            }
+            return;
+        }
+        if (packedA == null && packedB == null && BlasParallel.isSplitK(m, n, k)) {
+            dgemmSplitK(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, blocking, epilogue);
+            return;
+        }
+        int kc = Math.min(blocking.getQ(), k);
+        double[] packb = packedB != null ? null : BlasWorkspace.doublePackB(kc * Math.min(blocking.getR(), n));
+        if (BlasParallel.isLevel3Parallel(m, n, k)) {
+            dgemmParallel(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, packb, 0, blocking, packedA, packedB, epilogue);
+        } else {
+            double[] packa = packedA != null ? null : BlasWorkspace.doublePackA(kc * Math.min(blocking.getP(), m));
+            dgemmVector(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, packa, 0, packb, 0, blocking, packedA, packedB, epilogue);
+        }
     }
 
-    private static void dgemmVector(String transa, String transb, int sizeM, int sizeN, int sizeK, double[] da,
-        int aOffset, int lda, double alpha, double[] db, int bOffset, int ldb, double[] dc, int cOffset, int ldc) {
-        int mc = Math.min(DGEMM_P, sizeM);
-        int nc = Math.min(DGEMM_R, sizeN);
-        int kc = Math.min(DGEMM_Q, sizeK);
-        double[] packa = new double[kc * mc];
-        double[] packb = new double[kc * nc];
-        for (int ns = 0; ns < sizeN; ns += nc) {
-            nc = Math.min(nc, sizeN - ns);
-            for (int ks = 0; ks < sizeK; ks += kc) {
-                kc = Math.min(kc, sizeK - ks);
-                if (Lsame.lsame(transb, "N")) {
-                    DblasLevel3.onCopy(kc, nc, db, ks, ns, bOffset, ldb, packb, 0); // packing matrix b
+    /**
+     * Size of the packing workspace: one p x q block of a followed by one q x r panel of b.
+     */
+    private static int workSize(int m, int n, int k, GemmBlocking blocking) {
+        int kc = Math.min(blocking.getQ(), k);
+        return Math.max(1, kc * Math.min(blocking.getP(), m) + kc * Math.min(blocking.getR(), n));
+    }
+
+    /**
+     * Serial driver: the first k block of every C tile is stored with beta, the later ones add to it, and the
+     * epilogue runs with the last k block.
+     */
+    static void dgemmVector(boolean transaFlag, boolean transbFlag, int sizeM, int sizeN, int sizeK, double[] da,
+        int aOffset, int lda, double alpha, double[] db, int bOffset, int ldb, double beta, double[] dc, int cOffset,
+        int ldc, double[] packa, int packaOffset, double[] packb, int packbOffset, GemmBlocking blocking,
+        PackedMatrix packedA, PackedMatrix packedB, GemmEpilogue epilogue) {
+        int mcMax = Math.min(blocking.getP(), sizeM);
+        int ncMax = Math.min(blocking.getR(), sizeN);
+        int kcMax = Math.min(blocking.getQ(), sizeK);
+        for (int ns = 0; ns < sizeN; ns += ncMax) {
+            int nc = Math.min(ncMax, sizeN - ns);
+            for (int ks = 0; ks < sizeK; ks += kcMax) {
+                int kc = Math.min(kcMax, sizeK - ks);
+                double kBeta = ks == 0 ? beta : 1.0d;
+                GemmEpilogue kEpilogue = ks + kc == sizeK ? epilogue : null;
+                double[] panelB = packb;
+                int panelBOffset = packbOffset;
+                if (packedB != null) {
+                    panelB = packedB.getDoubleData();
+                    panelBOffset = ns * sizeK + ks * nc;
+                } else if (transbFlag) {
+                    DblasLevel3.onCopy(kc, nc, db, ks, ns, bOffset, ldb, packb, packbOffset); // packing matrix b
                 } else {
-                    otCopy(nc, kc, db, ns, ks, bOffset, ldb, packb, 0);
+                    otCopy(nc, kc, db, ns, ks, bOffset, ldb, packb, packbOffset);
                 }
-                for (int ms = 0; ms < sizeM; ms += mc) {
-                    mc = Math.min(mc, sizeM - ms);
-                    if (Lsame.lsame(transa, "N")) {
-                        DblasLevel3.itCopy(mc, kc, da, ms, ks, aOffset, lda, packa, 0); // packing matrix a
+                for (int ms = 0; ms < sizeM; ms += mcMax) {
+                    int mc = Math.min(mcMax, sizeM - ms);
+                    double[] blockA = packa;
+                    int blockAOffset = packaOffset;
+                    if (packedA != null) {
+                        blockA = packedA.getDoubleData();
+                        blockAOffset = ks * sizeM + ms * kc;
+                    } else if (transaFlag) {
+                        DblasLevel3.itCopy(mc, kc, da, ms, ks, aOffset, lda, packa, packaOffset); // packing matrix a
                     } else {
-                        inCopy(kc, mc, da, ks, ms, aOffset, lda, packa, 0);
+                        inCopy(kc, mc, da, ks, ms, aOffset, lda, packa, packaOffset);
                     }
-                    DblasLevel3.kernelOperation8x4(mc, nc, kc, alpha, packa, packb, 0, dc, ldc, cOffset, ms, ns);
+                    DblasLevel3.kernelOperation(mc, nc, kc, alpha, blockA, blockAOffset, panelB, panelBOffset, kBeta,
+                        dc, ldc, cOffset, ms, ns, kEpilogue);
                 }
             }
         }
     }
 
+    /**
+     * Multi-threaded driver over the same ns/ks/ms blocking as dgemmVector. For every (ns, ks) panel the
+     * workers first pack slices of B into the shared packb, then each worker packs its own m macro-tile of A
+     * and runs the kernel on it. When there are fewer m tiles than workers, the panel columns are split as well.
+     * A pre-packed operand skips its packing step, a packed A keeps the m tiles it was packed with.
+     */
+    private static void dgemmParallel(boolean transaFlag, boolean transbFlag, int sizeM, int sizeN, int sizeK,
+        double[] da, int aOffset, int lda, double alpha, double[] db, int bOffset, int ldb, double beta, double[] dc,
+        int cOffset, int ldc, double[] packb, int packbOffset, GemmBlocking blocking, PackedMatrix packedA,
+        PackedMatrix packedB, GemmEpilogue epilogue) {
+        int threads = BlasParallel.getNumThreads();
+        int mcMax = packedA != null ? Math.min(blocking.getP(), sizeM)
+            : Math.min(blocking.getP(), roundUp(ceilDiv(sizeM, threads), DGEMM_UNROLL_M));
+        int mTiles = ceilDiv(sizeM, mcMax);
+        int ncMax = Math.min(blocking.getR(), sizeN);
+        int kcMax = Math.min(blocking.getQ(), sizeK);
+        for (int ns = 0; ns < sizeN; ns += ncMax) {
+            final int nsStart = ns;
+            final int nc = Math.min(ncMax, sizeN - ns);
+            int nParts = Math.max(1, Math.min(threads / mTiles, nc / DGEMM_UNROLL_N));
+            final int nStep = roundUp(ceilDiv(nc, nParts), DGEMM_UNROLL_N);
+            final int nTasks = ceilDiv(nc, nStep);
+            final int packStep = roundUp(ceilDiv(nc, Math.min(threads, ceilDiv(nc, DGEMM_UNROLL_N))), DGEMM_UNROLL_N);
+            for (int ks = 0; ks < sizeK; ks += kcMax) {
+                final int ksStart = ks;
+                final int kc = Math.min(kcMax, sizeK - ks);
+                final double kBeta = ks == 0 ? beta : 1.0d;
+                final GemmEpilogue kEpilogue = ks + kc == sizeK ? epilogue : null;
+                final double[] panelB = packedB != null ? packedB.getDoubleData() : packb;
+                final int panelBOffset = packedB != null ? ns * sizeK + ks * nc : packbOffset;
+                if (packedB == null) {
+                    BlasParallel.parallelFor(ceilDiv(nc, packStep), part -> {
+                        int js = part * packStep;
+                        int jc = Math.min(packStep, nc - js);
+                        if (transbFlag) {
+                            DblasLevel3.onCopy(kc, jc, db, ksStart, nsStart + js, bOffset, ldb, packb,
+                                packbOffset + js * kc);
+                        } else {
+                            otCopy(jc, kc, db, nsStart + js, ksStart, bOffset, ldb, packb, packbOffset + js * kc);
+                        }
+                    });
+                }
+                BlasParallel.parallelFor(mTiles * nTasks, task -> {
+                    int ms = (task / nTasks) * mcMax;
+                    int mc = Math.min(mcMax, sizeM - ms);
+                    int js = (task % nTasks) * nStep;
+                    int jc = Math.min(nStep, nc - js);
+                    double[] blockA;
+                    int blockAOffset = 0;
+                    if (packedA != null) {
+                        blockA = packedA.getDoubleData();
+                        blockAOffset = ksStart * sizeM + ms * kc;
+                    } else {
+                        blockA = BlasWorkspace.doublePackA(kc * mc);
+                        if (transaFlag) {
+                            DblasLevel3.itCopy(mc, kc, da, ms, ksStart, aOffset, lda, blockA, 0);
+                        } else {
+                            inCopy(kc, mc, da, ksStart, ms, aOffset, lda, blockA, 0);
+                        }
+                    }
+                    DblasLevel3.kernelOperation(mc, jc, kc, alpha, blockA, blockAOffset, panelB, panelBOffset + js * kc,
+                        kBeta, dc, ldc, cOffset, ms, nsStart + js, kEpilogue);
+                });
+            }
+        }
+    }
+
+    /**
+     * Split-K driver for problems where k dominates m x n. k is cut into slices of whole k blocks and every
+     * slice runs the serial driver on its own worker: the first slice stores into c with beta, the others into
+     * m x n partial buffers with beta = 0. The partials are then added into c in a fixed pairwise tree
+     * (slice s takes s + 1, s + 2 takes s + 3, then s takes s + 2, ...), split over the columns of c.
+     */
+    private static void dgemmSplitK(boolean transaFlag, boolean transbFlag, int sizeM, int sizeN, int sizeK,
+        double[] da, int aOffset, int lda, double alpha, double[] db, int bOffset, int ldb, double beta, double[] dc,
+        int cOffset, int ldc, GemmBlocking blocking, GemmEpilogue epilogue) {
+        int kcMax = Math.min(blocking.getQ(), sizeK);
+        int slices = BlasParallel.splitKSlices(sizeM, sizeN, sizeK, kcMax);
+        int kStep = roundUp(ceilDiv(sizeK, slices), kcMax);
+        int sliceCount = ceilDiv(sizeK, kStep);
+        int sliceSize = sizeM * sizeN;
+        double[] partial = BlasWorkspace.doubleSplitK((sliceCount - 1) * sliceSize);
+        BlasParallel.parallelFor(sliceCount, slice -> {
+            int ks = slice * kStep;
+            int kc = Math.min(kStep, sizeK - ks);
+            int sliceAOffset = aOffset + (transaFlag ? ks * lda : ks);
+            int sliceBOffset = bOffset + (transbFlag ? ks : ks * ldb);
+            double[] packa = BlasWorkspace.doublePackA(Math.min(kcMax, kc) * Math.min(blocking.getP(), sizeM));
+            double[] packb = BlasWorkspace.doublePackB(Math.min(kcMax, kc) * Math.min(blocking.getR(), sizeN));
+            if (slice == 0) {
+                dgemmVector(transaFlag, transbFlag, sizeM, sizeN, kc, da, sliceAOffset, lda, alpha, db, sliceBOffset,
+                    ldb, beta, dc, cOffset, ldc, packa, 0, packb, 0, blocking, null, null, null);
+            } else {
+                dgemmVector(transaFlag, transbFlag, sizeM, sizeN, kc, da, sliceAOffset, lda, alpha, db, sliceBOffset,
+                    ldb, 0.0d, partial, (slice - 1) * sliceSize, sizeM, packa, 0, packb, 0, blocking, null, null, null);
+            }
+        });
+        int threads = BlasParallel.getNumThreads();
+        int colStep = ceilDiv(sizeN, Math.min(threads, sizeN));
+        BlasParallel.parallelFor(ceilDiv(sizeN, colStep), part -> {
+            int colEnd = Math.min(sizeN, (part + 1) * colStep);
+            for (int col = part * colStep; col < colEnd; col++) {
+                for (int stride = 1; stride < sliceCount; stride *= 2) {
+                    for (int slice = 0; slice + stride < sliceCount; slice += 2 * stride) {
+                        int src = (slice + stride - 1) * sliceSize + col * sizeM;
+                        if (slice == 0) {
+                            Daxpy.daxpy(sizeM, 1.0d, partial, src, 1, dc, cOffset + col * ldc, 1);
+                        } else {
+                            Daxpy.daxpy(sizeM, 1.0d, partial, src, 1, partial, (slice - 1) * sliceSize + col * sizeM,
+                                1);
+                        }
+                    }
+                }
+                if (epilogue != null) {
+                    DblasLevel3.epilogueTile(sizeM, 1, dc, cOffset + col * ldc, ldc, epilogue, 0, col);
+                }
+            }
+        });
+    }
+
     /**
      * otCopy method is used for transpose packing matrix in the right.
      * For example, when DGEMM_UNROLL_N = 4,
@@ -102,24 +476,17 @@ public class Dgemm {
      *        4  9  14 19                4  8  12 16
      *        5  10 15 20                17 18 19 20
      */
-    private static void otCopy(int sizeM, int sizeN, double[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
+    protected static void otCopy(int sizeM, int sizeN, double[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
         double[] dst, int dstOffset) {
         int row = 0;
-        int colPackSize = DGEMM_UNROLL_N;
         int dstIndex = 0;
-        for (; row < sizeM - sizeM % colPackSize; row += colPackSize) {
-            int col = 0;
-            for (; col < sizeN; col += 1) {
-                System.arraycopy(src, (srcRow + row) + (srcCol + col) * srcLd + srcOffset, dst,
-                    dstOffset + dstIndex, DGEMM_UNROLL_N);
-                dstIndex += colPackSize;
-            }
-        }
-        for (; row < sizeM; row += 1) {
-            int col = 0;
-            for (; col < sizeN; col += 1) {
-                dst[dstOffset + dstIndex] = src[(srcRow + row) + (srcCol + col) * srcLd + srcOffset];
-                dstIndex += 1;
+        for (int colPackSize : N_PACK_SIZES) {
+            for (; row + colPackSize <= sizeM; row += colPackSize) {
+                for (int col = 0; col < sizeN; col++) {
+                    System.arraycopy(src, (srcRow + row) + (srcCol + col) * srcLd + srcOffset, dst,
+                        dstOffset + dstIndex, colPackSize);
+                    dstIndex += colPackSize;
+                }
             }
         }
     }
@@ -134,23 +501,15 @@ public class Dgemm {
      *        4  9  14 19 24                 13 14 15 16 24
      *        5  10 15 20 25                 17 18 19 20 25
      */
-    private static void inCopy(int sizeM, int sizeN, double[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
+    protected static void inCopy(int sizeM, int sizeN, double[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
         double[] dst, int dstOffset) {
-        int col = 0;
         int dstIndex = 0;
-        int[] vectorLengthList = {VECTOR_LENGTH4, VECTOR_LENGTH2, VECTOR_LENGTH, 1};
-        for (int vectorLen : vectorLengthList) {
-            while (col + vectorLen <= sizeN) {
-                int row = 0;
-                for (; row < sizeM; row++) {
-                    for (int count = 0; count < vectorLen; count++) {
-                        dst[dstOffset + dstIndex + count] = src[srcOffset + (srcRow + row) + (srcCol + (col + count))
-                            * srcLd];
-                    }
-                    dstIndex += vectorLen;
-                }
-                col += vectorLen;
-            }
+        for (int col = 0; col < sizeN; ) {
+            int vectorLen = DblasLevel3.packChunk(M_PACK_SIZES, sizeN - col);
+            DblasLevel3.transposeCopy(sizeM, vectorLen, src, srcOffset + srcRow + (srcCol + col) * srcLd, srcLd, dst,
+                dstOffset + dstIndex);
+            dstIndex += sizeM * vectorLen;
+            col += vectorLen;
         }
     }
 }
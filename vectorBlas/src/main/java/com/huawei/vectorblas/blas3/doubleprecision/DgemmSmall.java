@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.doubleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Packing-free DGEMM for small matrices. The kernels read a and b in place and fold alpha and beta into the
+ * single store of every element of c, so no packing buffer or separate beta pass is involved. With beta = 0,
+ * c is not read. Full vectors use plain loads and stores; the remainder shorter than a vector is read with
+ * masked loads in separate tail methods and stored lane by lane, so that the masked fallback paths never end
+ * up in the profile of the main loops.
+ */
+final class DgemmSmall {
+    private static final VectorSpecies<Double> DSPECIES = DoubleVector.SPECIES_MAX;
+    private static final int VECTOR_LENGTH = DSPECIES.length();
+    private static final int SMALL_SIZE = 32; // m, n and k up to this size take the small path.
+
+    private DgemmSmall() {
+    }
+
+    /**
+     * Whether C = alpha * op(A) * op(B) + beta * C takes the small path. A**T * B is left to the packed path:
+     * in place it only vectorizes as dot products, which lose to packing at every small size.
+     */
+    static boolean isSmall(boolean transaFlag, boolean transbFlag, int m, int n, int k) {
+        return (transaFlag || !transbFlag) && m <= SMALL_SIZE && n <= SMALL_SIZE && k <= SMALL_SIZE;
+    }
+
+    /**
+     * C = alpha * op(A) * op(B) + beta * C for validated parameters with m, n, k > 0 and isSmall.
+     * op(A) = A vectorizes over the rows of c and A**T * B**T over the columns of c.
+     */
+    static void dgemmSmall(boolean transaFlag, boolean transbFlag, int m, int n, int k, double alpha, double[] da,
+        int aOffset, int lda, double[] db, int bOffset, int ldb, double beta, double[] dc, int cOffset, int ldc) {
+        if (transaFlag) {
+            int bRow = transbFlag ? 1 : ldb; // op(B)(l, j) is db[bOffset + l * bRow + j * bCol].
+            int bCol = transbFlag ? ldb : 1;
+            int i = 0;
+            for (; i + VECTOR_LENGTH <= m; i += VECTOR_LENGTH) {
+                normalRows(n, k, alpha, da, aOffset + i, lda, db, bOffset, bRow, bCol, beta, dc, cOffset + i, ldc);
+            }
+            if (i < m) {
+                normalRowsTail(DSPECIES.indexInRange(i, m), m - i, n, k, alpha, da, aOffset + i, lda, db, bOffset,
+                    bRow, bCol, beta, dc, cOffset + i, ldc, new double[4 * VECTOR_LENGTH]);
+            }
+        } else {
+            double[] tmp = new double[4 * VECTOR_LENGTH];
+            int j = 0;
+            for (; j + VECTOR_LENGTH <= n; j += VECTOR_LENGTH) {
+                transBothColumns(m, k, alpha, da, aOffset, lda, db, bOffset + j, ldb, beta, dc, cOffset + j * ldc,
+                    ldc, tmp);
+            }
+            if (j < n) {
+                transBothColumnsTail(DSPECIES.indexInRange(j, n), n - j, m, k, alpha, da, aOffset, lda, db,
+                    bOffset + j, ldb, beta, dc, cOffset + j * ldc, ldc, tmp);
+            }
+        }
+    }
+
+    /**
+     * One vector of rows of c = alpha * A * op(B) + beta * c.
+     */
+    private static void normalRows(int n, int k, double alpha, double[] da, int aOffset, int lda, double[] db,
+        int bOffset, int bRow, int bCol, double beta, double[] dc, int cOffset, int ldc) {
+        int j = 0;
+        for (; j + 4 <= n; j += 4) {
+            DoubleVector c0 = DoubleVector.zero(DSPECIES);
+            DoubleVector c1 = DoubleVector.zero(DSPECIES);
+            DoubleVector c2 = DoubleVector.zero(DSPECIES);
+            DoubleVector c3 = DoubleVector.zero(DSPECIES);
+            int aIndx = aOffset;
+            int bIndx = bOffset + j * bCol;
+            for (int l = 0; l < k; l++) {
+                DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx);
+                c0 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx]), c0);
+                c1 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + bCol]), c1);
+                c2 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + 2 * bCol]), c2);
+                c3 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + 3 * bCol]), c3);
+                aIndx += lda;
+                bIndx += bRow;
+            }
+            int cIndx = cOffset + j * ldc;
+            store(c0, alpha, beta, dc, cIndx);
+            store(c1, alpha, beta, dc, cIndx + ldc);
+            store(c2, alpha, beta, dc, cIndx + 2 * ldc);
+            store(c3, alpha, beta, dc, cIndx + 3 * ldc);
+        }
+        for (; j < n; j++) {
+            DoubleVector c0 = DoubleVector.zero(DSPECIES);
+            int aIndx = aOffset;
+            int bIndx = bOffset + j * bCol;
+            for (int l = 0; l < k; l++) {
+                c0 = DoubleVector.fromArray(DSPECIES, da, aIndx).fma(DoubleVector.broadcast(DSPECIES, db[bIndx]), c0);
+                aIndx += lda;
+                bIndx += bRow;
+            }
+            store(c0, alpha, beta, dc, cOffset + j * ldc);
+        }
+    }
+
+    /**
+     * normalRows for the last lanes rows of c, fewer than a vector, selected by mask.
+     */
+    private static void normalRowsTail(VectorMask<Double> mask, int lanes, int n, int k, double alpha, double[] da,
+        int aOffset, int lda, double[] db, int bOffset, int bRow, int bCol, double beta, double[] dc, int cOffset,
+        int ldc, double[] tmp) {
+        int j = 0;
+        for (; j + 4 <= n; j += 4) {
+            DoubleVector c0 = DoubleVector.zero(DSPECIES);
+            DoubleVector c1 = DoubleVector.zero(DSPECIES);
+            DoubleVector c2 = DoubleVector.zero(DSPECIES);
+            DoubleVector c3 = DoubleVector.zero(DSPECIES);
+            int aIndx = aOffset;
+            int bIndx = bOffset + j * bCol;
+            for (int l = 0; l < k; l++) {
+                DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx, mask);
+                c0 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx]), c0);
+                c1 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + bCol]), c1);
+                c2 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + 2 * bCol]), c2);
+                c3 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx + 3 * bCol]), c3);
+                aIndx += lda;
+                bIndx += bRow;
+            }
+            c0.intoArray(tmp, 0);
+            c1.intoArray(tmp, VECTOR_LENGTH);
+            c2.intoArray(tmp, 2 * VECTOR_LENGTH);
+            c3.intoArray(tmp, 3 * VECTOR_LENGTH);
+            storeLanes(tmp, 4, lanes, alpha, beta, dc, cOffset + j * ldc, ldc, 1);
+        }
+        for (; j < n; j++) {
+            DoubleVector c0 = DoubleVector.zero(DSPECIES);
+            int aIndx = aOffset;
+            int bIndx = bOffset + j * bCol;
+            for (int l = 0; l < k; l++) {
+                DoubleVector a0 = DoubleVector.fromArray(DSPECIES, da, aIndx, mask);
+                c0 = a0.fma(DoubleVector.broadcast(DSPECIES, db[bIndx]), c0);
+                aIndx += lda;
+                bIndx += bRow;
+            }
+            c0.intoArray(tmp, 0);
+            storeLanes(tmp, 1, lanes, alpha, beta, dc, cOffset + j * ldc, ldc, 1);
+        }
+    }
+
+    /**
+     * One vector of columns of c = alpha * A**T * B**T + beta * c, vectorized along the rows of b. A vector
+     * accumulates part of a row of c, so the results go through tmp to be stored along the row.
+     */
+    private static void transBothColumns(int m, int k, double alpha, double[] da, int aOffset, int lda, double[] db,
+        int bOffset, int ldb, double beta, double[] dc, int cOffset, int ldc, double[] tmp) {
+        int i = 0;
+        for (; i + 4 <= m; i += 4) {
+            DoubleVector c0 = DoubleVector.zero(DSPECIES);
+            DoubleVector c1 = DoubleVector.zero(DSPECIES);
+            DoubleVector c2 = DoubleVector.zero(DSPECIES);
+            DoubleVector c3 = DoubleVector.zero(DSPECIES);
+            int aIndx = aOffset + i * lda;
+            int bIndx = bOffset;
+            for (int l = 0; l < k; l++) {
+                DoubleVector b0 = DoubleVector.fromArray(DSPECIES, db, bIndx);
+                c0 = b0.fma(DoubleVector.broadcast(DSPECIES, da[aIndx + l]), c0);
+                c1 = b0.fma(DoubleVector.broadcast(DSPECIES, da[aIndx + lda + l]), c1);
+                c2 = b0.fma(DoubleVector.broadcast(DSPECIES, da[aIndx + 2 * lda + l]), c2);
+                c3 = b0.fma(DoubleVector.broadcast(DSPECIES, da[aIndx + 3 * lda + l]), c3);
+                bIndx += ldb;
+            }
+            c0.intoArray(tmp, 0);
+            c1.intoArray(tmp, VECTOR_LENGTH);
+            c2.intoArray(tmp, 2 * VECTOR_LENGTH);
+            c3.intoArray(tmp, 3 * VECTOR_LENGTH);
+            storeLanes(tmp, 4, VECTOR_LENGTH, alpha, beta, dc, cOffset + i, 1, ldc);
+        }
+        for (; i < m; i++) {
+            DoubleVector c0 = DoubleVector.zero(DSPECIES);
+            int aIndx = aOffset + i * lda;
+            int bIndx = bOffset;
+            for (int l = 0; l < k; l++) {
+                c0 = DoubleVector.fromArray(DSPECIES, db, bIndx).fma(DoubleVector.broadcast(DSPECIES, da[aIndx + l]),
+                    c0);
+                bIndx += ldb;
+            }
+            c0.intoArray(tmp, 0);
+            storeLanes(tmp, 1, VECTOR_LENGTH, alpha, beta, dc, cOffset + i, 1, ldc);
+        }
+    }
+
+    /**
+     * transBothColumns for the last lanes columns of c, fewer than a vector, selected by mask.
+     */
+    private static void transBothColumnsTail(VectorMask<Double> mask, int lanes, int m, int k, double alpha,
+        double[] da, int aOffset, int lda, double[] db, int bOffset, int ldb, double beta, double[] dc, int cOffset,
+        int ldc, double[] tmp) {
+        for (int i = 0; i < m; i++) {
+            DoubleVector c0 = DoubleVector.zero(DSPECIES);
+            int aIndx = aOffset + i * lda;
+            int bIndx = bOffset;
+            for (int l = 0; l < k; l++) {
+                DoubleVector b0 = DoubleVector.fromArray(DSPECIES, db, bIndx, mask);
+                c0 = b0.fma(DoubleVector.broadcast(DSPECIES, da[aIndx + l]), c0);
+                bIndx += ldb;
+            }
+            c0.intoArray(tmp, 0);
+            storeLanes(tmp, 1, lanes, alpha, beta, dc, cOffset + i, 1, ldc);
+        }
+    }
+
+    private static void store(DoubleVector acc, double alpha, double beta, double[] dc, int cIndx) {
+        // Both branches end in a store, so no vector value merges after the branch and C2 keeps it unboxed.
+        if (BlasUtils.isZero(beta)) {
+            acc.mul(alpha).intoArray(dc, cIndx);
+        } else {
+            DoubleVector c0 = DoubleVector.fromArray(DSPECIES, dc, cIndx);
+            c0.fma(DoubleVector.broadcast(DSPECIES, beta), acc.mul(alpha)).intoArray(dc, cIndx);
+        }
+    }
+
+    private static void store(double acc, double alpha, double beta, double[] dc, int cIndx) {
+        dc[cIndx] = BlasUtils.isZero(beta) ? alpha * acc : alpha * acc + beta * dc[cIndx];
+    }
+
+    /**
+     * Store lanes [0, lanes) of the vectors accumulators saved in tmp, one per vector length. Lane t of
+     * vector r goes to dc[cIndx + r * vectorStride + t * laneStride].
+     */
+    private static void storeLanes(double[] tmp, int vectors, int lanes, double alpha, double beta, double[] dc,
+        int cIndx, int vectorStride, int laneStride) {
+        for (int t = 0; t < lanes; t++) {
+            int cIndxT = cIndx + t * laneStride;
+            for (int r = 0; r < vectors; r++) {
+                store(tmp[r * VECTOR_LENGTH + t], alpha, beta, dc, cIndxT + r * vectorStride);
+            }
+        }
+    }
+}
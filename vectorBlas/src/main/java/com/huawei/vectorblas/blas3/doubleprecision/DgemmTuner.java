@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.doubleprecision;
+
+import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_P;
+import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_Q;
+import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_R;
+import static com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3.DGEMM_UNROLL_M;
+import static com.huawei.vectorblas.utils.ArrayUtil.roundUp;
+
+import com.huawei.vectorblas.utils.ArrayUtil;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.TuningProfile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.IntFunction;
+
+/**
+ * Calibration sweep for the DGEMM blocking sizes. The candidates of one dimension at a time (q, then p,
+ * then r) are timed on the serial blocked loops, and the fastest profile is installed in DblasLevel3 and
+ * stored through TuningProfile, so later runs on this machine load it on first use.
+ */
+public final class DgemmTuner {
+    private static final Logger LOG = LoggerFactory.getLogger(DgemmTuner.class);
+    private static final int[] P_CANDIDATES = {64, 128, 192, 256, 384, 512};
+    private static final int[] Q_CANDIDATES = {96, 128, 192, 240, 256, 320, 384, 512};
+    private static final int[] R_CANDIDATES = {1024, 2048, 4096, 8192};
+    private static final int SQUARE_SIZE = 512; // m = n = k of the q and p sweeps.
+    private static final int PANEL_M = 128; // m of the r sweep, which runs with n = 8192.
+    private static final int REPEATS = 3;
+
+    private DgemmTuner() {
+    }
+
+    public static synchronized GemmBlocking tune() {
+        double[] a = new double[SQUARE_SIZE * SQUARE_SIZE];
+        double[] b = new double[SQUARE_SIZE * R_CANDIDATES[R_CANDIDATES.length - 1]];
+        double[] c = new double[PANEL_M * R_CANDIDATES[R_CANDIDATES.length - 1]];
+        ArrayUtil.randomDoubleArray(a);
+        ArrayUtil.randomDoubleArray(b);
+        GemmBlocking best = new GemmBlocking(DGEMM_P, DGEMM_Q, DGEMM_R);
+        time(SQUARE_SIZE, SQUARE_SIZE, SQUARE_SIZE, a, b, c, best); // warm up the kernels before the sweep
+
+        GemmBlocking current = best;
+        best = pick(Q_CANDIDATES, q -> new GemmBlocking(current.getP(), q, current.getR()), SQUARE_SIZE, SQUARE_SIZE,
+            SQUARE_SIZE, a, b, c);
+        GemmBlocking withQ = best;
+        best = pick(P_CANDIDATES, p -> new GemmBlocking(roundUp(p, DGEMM_UNROLL_M), withQ.getQ(), withQ.getR()),
+            SQUARE_SIZE, SQUARE_SIZE, SQUARE_SIZE, a, b, c);
+        GemmBlocking withP = best;
+        int sizeN = R_CANDIDATES[R_CANDIDATES.length - 1];
+        best = pick(R_CANDIDATES, r -> new GemmBlocking(withP.getP(), withP.getQ(), r), PANEL_M, sizeN,
+            Math.min(withP.getQ(), SQUARE_SIZE), a, b, c);
+
+        LOG.info("DGEMM tuned to {}", best);
+        DblasLevel3.setBlocking(best);
+        TuningProfile.store("dgemm", best);
+        return best;
+    }
+
+    private static GemmBlocking pick(int[] candidates, IntFunction<GemmBlocking> blockingOf, int m, int n, int k,
+        double[] a, double[] b, double[] c) {
+        GemmBlocking best = null;
+        long bestTime = Long.MAX_VALUE;
+        for (int candidate : candidates) {
+            GemmBlocking blocking = blockingOf.apply(candidate);
+            long elapsed = time(m, n, k, a, b, c, blocking);
+            if (elapsed < bestTime) {
+                bestTime = elapsed;
+                best = blocking;
+            }
+        }
+        return best;
+    }
+
+    private static long time(int m, int n, int k, double[] a, double[] b, double[] c, GemmBlocking blocking) {
+        int kc = Math.min(blocking.getQ(), k);
+        double[] packa = new double[kc * Math.min(blocking.getP(), m)];
+        double[] packb = new double[kc * Math.min(blocking.getR(), n)];
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i <= REPEATS; i++) { // the first run only warms up
+            long start = System.nanoTime();
+            Dgemm.dgemmVector(true, true, m, n, k, a, 0, m, 1.0d, b, 0, k, 1.0d, c, 0, m, packa, 0, packb, 0, blocking,
+                null, null, null);
+            long elapsed = System.nanoTime() - start;
+            if (i > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.doubleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * DSYRK, C := alpha * A * A**T + beta * C or C := alpha * A**T * A + beta * C for an n x n symmetric C, of which
+ * only the upper or lower triangle is referenced. A is packed like the operands of DGEMM, once as the left and
+ * once as the right operand, and every block is multiplied by syrkKernel, so only the tiles that reach the
+ * triangle are computed: about half the work of the equivalent DGEMM.
+ */
+public class Dsyrk {
+    public static void dsyrk(String uplo, String trans, int n, int k, double alpha, double[] a, int aOffset, int lda,
+        double beta, double[] c, int cOffset, int ldc) {
+        BlasUtils.checkParameter("DSYRK", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("DSYRK", 2,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        boolean upper = Lsame.lsame(uplo, "U");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        BlasUtils.checkParameter("DSYRK", 3, n >= 0);
+        BlasUtils.checkParameter("DSYRK", 4, k >= 0);
+        BlasUtils.checkParameter("DSYRK", 7, lda >= Math.max(1, (transFlag ? n : k)));
+        BlasUtils.checkParameter("DSYRK", 10, ldc >= Math.max(1, n));
+
+        boolean noProduct = BlasUtils.isZero(alpha) || k == 0;
+        if (n == 0 || (noProduct && Double.compare(beta, 1.0d) == 0)) {
+            return;
+        }
+        BlasUtils.checkBlasArray("c", cOffset, (n - 1) + (n - 1) * ldc, c.length);
+        if (Double.compare(beta, 1.0d) != 0) {
+            betaMulTriangle(upper, n, beta, c, cOffset, ldc);
+        }
+        if (noProduct) {
+            return;
+        }
+        BlasUtils.checkBlasArray("a", aOffset, ((transFlag ? n : k) - 1) + ((transFlag ? k : n) - 1) * lda, a.length);
+        GemmBlocking blocking = DblasLevel3.getBlocking();
+        double[] packa = BlasWorkspace.doublePackA(Math.min(blocking.getQ(), k) * Math.min(blocking.getP(), n));
+        double[] packb = BlasWorkspace.doublePackB(Math.min(blocking.getQ(), k) * Math.min(blocking.getR(), n));
+        dsyrkVector(upper, transFlag, n, k, alpha, a, aOffset, lda, c, cOffset, ldc, packa, packb, blocking);
+    }
+
+    /**
+     * Column panels of C are walked like in DGEMM, with a as both the left and the right operand.
+     */
+    private static void dsyrkVector(boolean upper, boolean transFlag, int sizeN, int sizeK, double alpha,
+        double[] da, int aOffset, int lda, double[] dc, int cOffset, int ldc, double[] packa, double[] packb,
+        GemmBlocking blocking) {
+        int mcMax = Math.min(blocking.getP(), sizeN);
+        int ncMax = Math.min(blocking.getR(), sizeN);
+        int kcMax = Math.min(blocking.getQ(), sizeK);
+        for (int ns = 0; ns < sizeN; ns += ncMax) {
+            int nc = Math.min(ncMax, sizeN - ns);
+            for (int ks = 0; ks < sizeK; ks += kcMax) {
+                int kc = Math.min(kcMax, sizeK - ks);
+                syrkPanel(upper, transFlag, sizeN, ns, nc, ks, kc, alpha, da, aOffset, lda, da, aOffset, lda, dc,
+                    cOffset, ldc, packa, packb, mcMax);
+            }
+        }
+    }
+
+    /**
+     * Add alpha * op(A) * op(B)**T over the kc columns of op(A) and op(B) from ks to the nc columns of the
+     * sizeN x sizeN matrix c from ns, within the upper or lower triangle. The panel of b is packed once, and only
+     * the row blocks of a that reach the triangle, rows above the panel's last column for upper and below its
+     * first column for lower, are packed and multiplied.
+     */
+    static void syrkPanel(boolean upper, boolean transFlag, int sizeN, int ns, int nc, int ks, int kc, double alpha,
+        double[] da, int aOffset, int lda, double[] db, int bOffset, int ldb, double[] dc, int cOffset, int ldc,
+        double[] packa, double[] packb, int mcMax) {
+        if (transFlag) {
+            Dgemm.otCopy(nc, kc, db, ns, ks, bOffset, ldb, packb, 0);
+        } else {
+            DblasLevel3.onCopy(kc, nc, db, ks, ns, bOffset, ldb, packb, 0);
+        }
+        int msStart = upper ? 0 : ns;
+        int msEnd = upper ? ns + nc : sizeN;
+        for (int ms = msStart; ms < msEnd; ms += mcMax) {
+            int mc = Math.min(mcMax, msEnd - ms);
+            if (transFlag) {
+                DblasLevel3.itCopy(mc, kc, da, ms, ks, aOffset, lda, packa, 0);
+            } else {
+                Dgemm.inCopy(kc, mc, da, ks, ms, aOffset, lda, packa, 0);
+            }
+            DblasLevel3.syrkKernel(upper, mc, nc, kc, alpha, packa, 0, packb, 0, dc, ldc, cOffset, ms, ns);
+        }
+    }
+
+    /**
+     * Scale the upper or lower triangle of the n x n matrix c by beta; with beta = 0, c is not read.
+     */
+    static void betaMulTriangle(boolean upper, int n, double beta, double[] dc, int cOffset, int ldc) {
+        for (int col = 0; col < n; col++) {
+            int start = upper ? 0 : col;
+            int end = upper ? col + 1 : n;
+            DblasLevel3.betaMulC(end - start, 1, beta, dc, cOffset + start + col * ldc, ldc);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.int8;
+
+import com.huawei.vectorblas.utils.ArrayUtil;
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.Int8Widening;
+import com.huawei.vectorblas.utils.Lsame;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * GEMM on int8 operands with int32 results. The products of int8 values are at most 2^14, so within a k block of
+ * at most 256 steps every partial sum is an integer of at most 2^22 and float FMA computes it exactly. The
+ * micro-kernel is therefore a float kernel like that of SGEMM: blocks of op(A) are widened (see Int8Widening) to
+ * float panels of I8GEMM_UNROLL_M rows while they are packed, blocks of op(B) are packed as int8 and each panel of
+ * I8GEMM_UNROLL_N columns is widened to float just before the kernel uses it. The float sums of every k block
+ * are converted back to int32 and added to the thread's int sum buffer for the C tile, which wraps like int32, so
+ * k is not limited.
+ */
+public class I8gemm {
+    private static final int I8GEMM_BLOCK_M = 256;
+    private static final int I8GEMM_BLOCK_N = 512;
+    private static final int I8GEMM_BLOCK_K = 256; // At most 256 to keep the float sums of a k block within 2^22.
+    private static final int I8GEMM_UNROLL_N = 8;
+    private static final VectorSpecies<Float> FSPECIES = FloatVector.SPECIES_MAX;
+    private static final VectorSpecies<Integer> ISPECIES = Int8Widening.INT_SPECIES;
+    private static final int VECTOR_LENGTH = FSPECIES.length();
+    private static final int I8GEMM_UNROLL_M = 2 * VECTOR_LENGTH; // 16 accumulators, as many as SGEMM's 4V x 4
+    // x + 1.5 * 2^23 holds the integer x of at most 2^22 in its low mantissa bits, read back without a F2I cast.
+    private static final float ROUND_MAGIC = 12582912.0f;
+    private static final int ROUND_MAGIC_BITS = Float.floatToIntBits(ROUND_MAGIC);
+
+    /**
+     * C := op(A) * op(B) + beta * C in int32, with int32 wraparound on overflow.
+     */
+    public static void i8gemm(String transa, String transb, int m, int n, int k, byte[] a, int aOffset, int lda,
+        byte[] b, int bOffset, int ldb, int beta, int[] c, int cOffset, int ldc) {
+        checkI8gemm("I8GEMM", transa, transb, m, n, k, lda, ldb, ldc);
+        if (m == 0 || n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+        if (k == 0) {
+            for (int col = 0; col < n; col++) {
+                for (int row = 0; row < m; row++) {
+                    c[cOffset + row + col * ldc] *= beta;
+                }
+            }
+            return;
+        }
+        i8gemmBlocked(transa, transb, m, n, k, a, aOffset, lda, b, bOffset, ldb, beta, c, null, 0.0f, null, 0, null,
+            0, cOffset, ldc);
+    }
+
+    /**
+     * C := diag(scaleA) * (op(A) * op(B)) * diag(scaleB) + beta * C in float, for quantized operands with one
+     * scale per row of op(A) (m values from scaleAOffset) and one per column of op(B) (n values from
+     * scaleBOffset). A null scale array stands for scales of 1.
+     */
+    public static void i8gemm(String transa, String transb, int m, int n, int k, byte[] a, int aOffset, int lda,
+        float[] scaleA, int scaleAOffset, byte[] b, int bOffset, int ldb, float[] scaleB, int scaleBOffset,
+        float beta, float[] c, int cOffset, int ldc) {
+        checkI8gemm("I8GEMM_SCALED", transa, transb, m, n, k, lda, ldb, ldc);
+        if (m == 0 || n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+        if (scaleA != null) {
+            BlasUtils.checkBlasArray("scaleA", scaleAOffset, m - 1, scaleA.length);
+        }
+        if (scaleB != null) {
+            BlasUtils.checkBlasArray("scaleB", scaleBOffset, n - 1, scaleB.length);
+        }
+        if (k == 0) {
+            for (int col = 0; col < n; col++) {
+                for (int row = 0; row < m; row++) {
+                    int cIndex = cOffset + row + col * ldc;
+                    c[cIndex] = BlasUtils.isZero(beta) ? 0.0f : beta * c[cIndex];
+                }
+            }
+            return;
+        }
+        i8gemmBlocked(transa, transb, m, n, k, a, aOffset, lda, b, bOffset, ldb, 0, null, c, beta, scaleA,
+            scaleAOffset, scaleB, scaleBOffset, cOffset, ldc);
+    }
+
+    private static void checkI8gemm(String name, String transa, String transb, int m, int n, int k, int lda,
+        int ldb, int ldc) {
+        BlasUtils.checkParameter(name, 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        BlasUtils.checkParameter(name, 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        BlasUtils.checkParameter(name, 3, m >= 0);
+        BlasUtils.checkParameter(name, 4, n >= 0);
+        BlasUtils.checkParameter(name, 5, k >= 0);
+        BlasUtils.checkParameter(name, 7, lda >= Math.max(1, (Lsame.lsame(transa, "N") ? m : k)));
+        BlasUtils.checkParameter(name, 9, ldb >= Math.max(1, (Lsame.lsame(transb, "N") ? k : n)));
+        BlasUtils.checkParameter(name, 12, ldc >= Math.max(1, m));
+    }
+
+    /**
+     * Blocked driver of both variants: intC is set for the int32 result, floatC for the scaled float one. For
+     * every C tile the block products of all k blocks are added up in the thread's int sum buffer, which is then
+     * stored into C once. The edge register tiles go through the end of the same buffer.
+     */
+    private static void i8gemmBlocked(String transa, String transb, int m, int n, int k, byte[] a, int aOffset,
+        int lda, byte[] b, int bOffset, int ldb, int intBeta, int[] intC, float[] floatC, float floatBeta,
+        float[] scaleA, int scaleAOffset, float[] scaleB, int scaleBOffset, int cOffset, int ldc) {
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda, a.length);
+        BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb, b.length);
+        int mcMax = Math.min(I8GEMM_BLOCK_M, m);
+        int ncMax = Math.min(I8GEMM_BLOCK_N, n);
+        int kcMax = Math.min(I8GEMM_BLOCK_K, k);
+        float[] packA = BlasWorkspace.floatPackA(ArrayUtil.roundUp(mcMax, I8GEMM_UNROLL_M) * kcMax);
+        byte[] packB = BlasWorkspace.bytePackB(ArrayUtil.roundUp(ncMax, I8GEMM_UNROLL_N) * kcMax);
+        float[] panelB = BlasWorkspace.floatPackB(I8GEMM_UNROLL_N * kcMax);
+        int tileOffset = mcMax * ncMax;
+        int[] sums = BlasWorkspace.intSums(tileOffset + I8GEMM_UNROLL_M * I8GEMM_UNROLL_N);
+        for (int ns = 0; ns < n; ns += ncMax) {
+            int nc = Math.min(ncMax, n - ns);
+            for (int ms = 0; ms < m; ms += mcMax) {
+                int mc = Math.min(mcMax, m - ms);
+                for (int ks = 0; ks < k; ks += kcMax) {
+                    int kc = Math.min(kcMax, k - ks);
+                    packA(transaFlag, mc, kc, a, aOffset + (transaFlag ? ms + ks * lda : ks + ms * lda), lda, packA);
+                    packB(transbFlag, kc, nc, b, bOffset + (transbFlag ? ks + ns * ldb : ns + ks * ldb), ldb, packB);
+                    for (int jr = 0; jr < nc; jr += I8GEMM_UNROLL_N) {
+                        int nr = Math.min(I8GEMM_UNROLL_N, nc - jr);
+                        widen(packB, jr * kc, panelB, 0, kc * I8GEMM_UNROLL_N);
+                        for (int ir = 0; ir < mc; ir += I8GEMM_UNROLL_M) {
+                            int mr = Math.min(I8GEMM_UNROLL_M, mc - ir);
+                            kernel(mr, nr, kc, packA, ir * kc, panelB, sums, ir + jr * mc, mc, ks == 0, tileOffset);
+                        }
+                    }
+                }
+                int cIndex = cOffset + ms + ns * ldc;
+                if (intC != null) {
+                    storeSums(mc, nc, sums, intBeta, intC, cIndex, ldc);
+                } else {
+                    storeScaledSums(mc, nc, sums, scaleA, scaleA == null ? 0 : scaleAOffset + ms, scaleB,
+                        scaleB == null ? 0 : scaleBOffset + ns, floatBeta, floatC, cIndex, ldc);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pack the mc x kc block of op(A) at aIndex into float panels of I8GEMM_UNROLL_M rows, each stored k step by k
+     * step. Without transposition every column of the block is widened with vector loads. The rows missing from the
+     * last panel are zero.
+     */
+    private static void packA(boolean transaFlag, int mc, int kc, byte[] a, int aIndex, int lda, float[] packA) {
+        if (transaFlag) {
+            int rowLoopBound = ArrayUtil.loopBound(mc, Int8Widening.LENGTH);
+            for (int p = 0; p < kc; p++) {
+                int aCol = aIndex + p * lda;
+                int row = 0;
+                for (; row < rowLoopBound; row += Int8Widening.LENGTH) {
+                    ByteVector bytes = ByteVector.fromArray(Int8Widening.BYTE_SPECIES, a, aCol + row);
+                    widen(bytes, 0).intoArray(packA, packIndex(row, p, kc));
+                    if (Int8Widening.PARTS > 1) {
+                        widen(bytes, 1).intoArray(packA, packIndex(row + VECTOR_LENGTH, p, kc));
+                        widen(bytes, 2).intoArray(packA, packIndex(row + 2 * VECTOR_LENGTH, p, kc));
+                        widen(bytes, 3).intoArray(packA, packIndex(row + 3 * VECTOR_LENGTH, p, kc));
+                    }
+                }
+                for (; row < mc; row++) {
+                    packA[packIndex(row, p, kc)] = a[aCol + row];
+                }
+            }
+        } else {
+            for (int row = 0; row < mc; row++) {
+                int aRow = aIndex + row * lda;
+                for (int p = 0; p < kc; p++) {
+                    packA[packIndex(row, p, kc)] = a[aRow + p];
+                }
+            }
+        }
+        for (int row = mc; row < ArrayUtil.roundUp(mc, I8GEMM_UNROLL_M); row++) {
+            for (int p = 0; p < kc; p++) {
+                packA[packIndex(row, p, kc)] = 0.0f;
+            }
+        }
+    }
+
+    /**
+     * Position of row row and k step p in the packed A block with kc k steps. A vector of rows from a multiple of
+     * VECTOR_LENGTH stays in one panel.
+     */
+    private static int packIndex(int row, int p, int kc) {
+        int i = row % I8GEMM_UNROLL_M;
+        return (row - i) * kc + p * I8GEMM_UNROLL_M + i;
+    }
+
+    /**
+     * Pack the kc x nc block of op(B) at bIndex into int8 panels of I8GEMM_UNROLL_N columns, each stored k step by
+     * k step. The columns missing from the last panel are zero.
+     */
+    private static void packB(boolean transbFlag, int kc, int nc, byte[] b, int bIndex, int ldb, byte[] packB) {
+        for (int jr = 0; jr < nc; jr += I8GEMM_UNROLL_N) {
+            int nr = Math.min(I8GEMM_UNROLL_N, nc - jr);
+            int panel = jr * kc;
+            if (transbFlag) {
+                for (int j = 0; j < nr; j++) {
+                    int bCol = bIndex + (jr + j) * ldb;
+                    for (int p = 0; p < kc; p++) {
+                        packB[panel + p * I8GEMM_UNROLL_N + j] = b[bCol + p];
+                    }
+                }
+            } else {
+                for (int p = 0; p < kc; p++) {
+                    System.arraycopy(b, bIndex + jr + p * ldb, packB, panel + p * I8GEMM_UNROLL_N, nr);
+                }
+            }
+            if (nr < I8GEMM_UNROLL_N) {
+                for (int p = 0; p < kc; p++) {
+                    for (int j = nr; j < I8GEMM_UNROLL_N; j++) {
+                        packB[panel + p * I8GEMM_UNROLL_N + j] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * dst[dstIndex, dstIndex + length) := the int8 values from srcIndex as float.
+     */
+    private static void widen(byte[] src, int srcIndex, float[] dst, int dstIndex, int length) {
+        int loopBound = ArrayUtil.loopBound(length, Int8Widening.LENGTH);
+        int i = 0;
+        for (; i < loopBound; i += Int8Widening.LENGTH) {
+            ByteVector bytes = ByteVector.fromArray(Int8Widening.BYTE_SPECIES, src, srcIndex + i);
+            widen(bytes, 0).intoArray(dst, dstIndex + i);
+            if (Int8Widening.PARTS > 1) {
+                widen(bytes, 1).intoArray(dst, dstIndex + i + VECTOR_LENGTH);
+                widen(bytes, 2).intoArray(dst, dstIndex + i + 2 * VECTOR_LENGTH);
+                widen(bytes, 3).intoArray(dst, dstIndex + i + 3 * VECTOR_LENGTH);
+            }
+        }
+        for (; i < length; i++) {
+            dst[dstIndex + i] = src[srcIndex + i];
+        }
+    }
+
+    private static FloatVector widen(ByteVector bytes, int part) {
+        return (FloatVector) Int8Widening.widen(bytes, part).convert(VectorOperators.I2F, 0);
+    }
+
+    /**
+     * sums (+)= the mr x nr product of one packed A panel and the widened B panel, with a 2V x 8 register tile.
+     * Edge tiles are stored in the tile at tileOffset of sums first.
+     */
+    private static void kernel(int mr, int nr, int kc, float[] packA, int aIndex, float[] panelB, int[] sums,
+        int sumIndex, int ldSums, boolean first, int tileOffset) {
+        FloatVector c00 = FloatVector.zero(FSPECIES);
+        FloatVector c01 = FloatVector.zero(FSPECIES);
+        FloatVector c02 = FloatVector.zero(FSPECIES);
+        FloatVector c03 = FloatVector.zero(FSPECIES);
+        FloatVector c04 = FloatVector.zero(FSPECIES);
+        FloatVector c05 = FloatVector.zero(FSPECIES);
+        FloatVector c06 = FloatVector.zero(FSPECIES);
+        FloatVector c07 = FloatVector.zero(FSPECIES);
+        FloatVector c10 = FloatVector.zero(FSPECIES);
+        FloatVector c11 = FloatVector.zero(FSPECIES);
+        FloatVector c12 = FloatVector.zero(FSPECIES);
+        FloatVector c13 = FloatVector.zero(FSPECIES);
+        FloatVector c14 = FloatVector.zero(FSPECIES);
+        FloatVector c15 = FloatVector.zero(FSPECIES);
+        FloatVector c16 = FloatVector.zero(FSPECIES);
+        FloatVector c17 = FloatVector.zero(FSPECIES);
+        for (int p = 0; p < kc; p++) {
+            FloatVector a0 = FloatVector.fromArray(FSPECIES, packA, aIndex + p * I8GEMM_UNROLL_M);
+            FloatVector a1 = FloatVector.fromArray(FSPECIES, packA, aIndex + p * I8GEMM_UNROLL_M + VECTOR_LENGTH);
+            int bRow = p * I8GEMM_UNROLL_N;
+            FloatVector b0 = FloatVector.broadcast(FSPECIES, panelB[bRow]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            FloatVector b1 = FloatVector.broadcast(FSPECIES, panelB[bRow + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            FloatVector b2 = FloatVector.broadcast(FSPECIES, panelB[bRow + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            FloatVector b3 = FloatVector.broadcast(FSPECIES, panelB[bRow + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            FloatVector b4 = FloatVector.broadcast(FSPECIES, panelB[bRow + 4]);
+            c04 = a0.fma(b4, c04);
+            c14 = a1.fma(b4, c14);
+            FloatVector b5 = FloatVector.broadcast(FSPECIES, panelB[bRow + 5]);
+            c05 = a0.fma(b5, c05);
+            c15 = a1.fma(b5, c15);
+            FloatVector b6 = FloatVector.broadcast(FSPECIES, panelB[bRow + 6]);
+            c06 = a0.fma(b6, c06);
+            c16 = a1.fma(b6, c16);
+            FloatVector b7 = FloatVector.broadcast(FSPECIES, panelB[bRow + 7]);
+            c07 = a0.fma(b7, c07);
+            c17 = a1.fma(b7, c17);
+        }
+        boolean full = mr == I8GEMM_UNROLL_M && nr == I8GEMM_UNROLL_N;
+        int index = full ? sumIndex : tileOffset;
+        int ld = full ? ldSums : I8GEMM_UNROLL_M;
+        boolean overwrite = first || !full;
+        storeColumn(c00, sums, index, overwrite);
+        storeColumn(c10, sums, index + VECTOR_LENGTH, overwrite);
+        storeColumn(c01, sums, index + ld, overwrite);
+        storeColumn(c11, sums, index + ld + VECTOR_LENGTH, overwrite);
+        storeColumn(c02, sums, index + 2 * ld, overwrite);
+        storeColumn(c12, sums, index + 2 * ld + VECTOR_LENGTH, overwrite);
+        storeColumn(c03, sums, index + 3 * ld, overwrite);
+        storeColumn(c13, sums, index + 3 * ld + VECTOR_LENGTH, overwrite);
+        storeColumn(c04, sums, index + 4 * ld, overwrite);
+        storeColumn(c14, sums, index + 4 * ld + VECTOR_LENGTH, overwrite);
+        storeColumn(c05, sums, index + 5 * ld, overwrite);
+        storeColumn(c15, sums, index + 5 * ld + VECTOR_LENGTH, overwrite);
+        storeColumn(c06, sums, index + 6 * ld, overwrite);
+        storeColumn(c16, sums, index + 6 * ld + VECTOR_LENGTH, overwrite);
+        storeColumn(c07, sums, index + 7 * ld, overwrite);
+        storeColumn(c17, sums, index + 7 * ld + VECTOR_LENGTH, overwrite);
+        if (!full) {
+            mergeTile(mr, nr, sums, tileOffset, sumIndex, ldSums, first);
+        }
+    }
+
+    /**
+     * sums[index..] (+)= the exact float sums of one vector, converted back to int32 through ROUND_MAGIC.
+     */
+    private static void storeColumn(FloatVector sum, int[] sums, int index, boolean overwrite) {
+        IntVector value = sum.add(ROUND_MAGIC).reinterpretAsInts().sub(ROUND_MAGIC_BITS);
+        (overwrite ? value : value.add(IntVector.fromArray(ISPECIES, sums, index))).intoArray(sums, index);
+    }
+
+    /**
+     * Add the mr x nr corner of the edge tile at tileOffset to the sums at sumIndex.
+     */
+    private static void mergeTile(int mr, int nr, int[] sums, int tileOffset, int sumIndex, int ldSums,
+        boolean first) {
+        for (int j = 0; j < nr; j++) {
+            for (int i = 0; i < mr; i++) {
+                int index = sumIndex + i + j * ldSums;
+                int value = sums[tileOffset + i + j * I8GEMM_UNROLL_M];
+                sums[index] = first ? value : sums[index] + value;
+            }
+        }
+    }
+
+    /**
+     * C := sums + beta * C for the dense mc x nc sums.
+     */
+    private static void storeSums(int mc, int nc, int[] sums, int beta, int[] c, int cIndex, int ldc) {
+        int rowLoopBound = ISPECIES.loopBound(mc);
+        for (int col = 0; col < nc; col++) {
+            int cCol = cIndex + col * ldc;
+            int row = 0;
+            for (; row < rowLoopBound; row += ISPECIES.length()) {
+                IntVector sum = IntVector.fromArray(ISPECIES, sums, row + col * mc);
+                if (beta != 0) {
+                    sum = IntVector.fromArray(ISPECIES, c, cCol + row).mul(beta).add(sum);
+                }
+                sum.intoArray(c, cCol + row);
+            }
+            for (; row < mc; row++) {
+                c[cCol + row] = sums[row + col * mc] + (beta == 0 ? 0 : beta * c[cCol + row]);
+            }
+        }
+    }
+
+    /**
+     * C := scaleA(i) * sums * scaleB(j) + beta * C for the dense mc x nc sums.
+     */
+    private static void storeScaledSums(int mc, int nc, int[] sums, float[] scaleA, int scaleAIndex, float[] scaleB,
+        int scaleBIndex, float beta, float[] c, int cIndex, int ldc) {
+        int rowLoopBound = FSPECIES.loopBound(mc);
+        for (int col = 0; col < nc; col++) {
+            int cCol = cIndex + col * ldc;
+            float colScale = scaleB == null ? 1.0f : scaleB[scaleBIndex + col];
+            int row = 0;
+            for (; row < rowLoopBound; row += FSPECIES.length()) {
+                FloatVector sum = ((FloatVector) IntVector.fromArray(ISPECIES, sums, row + col * mc)
+                    .convertShape(VectorOperators.I2F, FSPECIES, 0)).mul(colScale);
+                if (scaleA != null) {
+                    sum = sum.mul(FloatVector.fromArray(FSPECIES, scaleA, scaleAIndex + row));
+                }
+                if (!BlasUtils.isZero(beta)) {
+                    sum = FloatVector.fromArray(FSPECIES, c, cCol + row).mul(beta).add(sum);
+                }
+                sum.intoArray(c, cCol + row);
+            }
+            for (; row < mc; row++) {
+                float sum = sums[row + col * mc] * colScale * (scaleA == null ? 1.0f : scaleA[scaleAIndex + row]);
+                c[cCol + row] = BlasUtils.isZero(beta) ? sum : sum + beta * c[cCol + row];
+            }
+        }
+    }
+}
@@ -22,22 +22,127 @@
 
 package com.huawei.vectorblas.blas3.singleprecision;
 
+import com.huawei.vectorblas.utils.ArrayUtil;
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.GemmEpilogue;
+import com.huawei.vectorblas.utils.TuningProfile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
 import jdk.incubator.vector.VectorSpecies;
 
 public class SblasLevel3 {
+    private static final Logger LOG = LoggerFactory.getLogger(SblasLevel3.class);
     private static final VectorSpecies<Float> SSPECIES = FloatVector.SPECIES_MAX;
-    protected static final int SGEMM_P = 256; // Blocking size for m direction.
-    protected static final int SGEMM_Q = 256; // Blocking size for k direction.
-    protected static final int SGEMM_R = 8192; // Blocking size for n direction.
+    protected static final int SGEMM_P = 256; // Default blocking size for m direction.
+    protected static final int SGEMM_Q = 256; // Default blocking size for k direction.
+    protected static final int SGEMM_R = 8192; // Default blocking size for n direction.
     protected static final int VECTOR_LENGTH = SSPECIES.length();
     protected static final int VECTOR_LENGTH2 = 2 * VECTOR_LENGTH;
     protected static final int VECTOR_LENGTH3 = 3 * VECTOR_LENGTH;
     protected static final int VECTOR_LENGTH4 = 4 * VECTOR_LENGTH;
-    protected static final int SGEMM_UNROLL_M = 4 * VECTOR_LENGTH;
-    protected static final int SGEMM_UNROLL_N = 4;
+    // Register tiles of the microkernel as {vectors in m direction, columns in n direction}.
+    private static final int[][] TILES = {{4, 4}, {3, 8}, {2, 6}};
+    private static final int[] TILE = selectTile();
+    protected static final int SGEMM_UNROLL_M = TILE[0] * VECTOR_LENGTH; // Kernel size for m direction.
+    protected static final int SGEMM_UNROLL_N = TILE[1]; // Kernel size for n direction.
+    // gelu(x) = x / (1 + exp(x * (GELU_C1 + GELU_C2 * x * x))), the tanh approximation of GELU.
+    private static final float GELU_C1 = -1.5957692f; // -2 * sqrt(2 / pi)
+    private static final float GELU_C2 = -0.071354814f; // -2 * sqrt(2 / pi) * 0.044715
+    // Row chunks of packed a and column chunks of packed b, the kernel walks both in this order (see packChunk).
+    protected static final int[] M_PACK_SIZES = SGEMM_UNROLL_M > VECTOR_LENGTH2
+        ? new int[] {SGEMM_UNROLL_M, VECTOR_LENGTH2, VECTOR_LENGTH} : new int[] {SGEMM_UNROLL_M, VECTOR_LENGTH};
+    protected static final int[] N_PACK_SIZES = SGEMM_UNROLL_N > 4 ? new int[] {SGEMM_UNROLL_N, 4, 1}
+        : new int[] {SGEMM_UNROLL_N, 1};
+    // In-register 8 x 8 and 4 x 4 transposes of the transposing packs, used when the hardware vector holds them.
+    private static final VectorSpecies<Float> T8SPECIES = FloatVector.SPECIES_256;
+    private static final VectorSpecies<Float> T4SPECIES = FloatVector.SPECIES_128;
+    private static final boolean TRANSPOSE8 = SSPECIES.vectorBitSize() >= T8SPECIES.vectorBitSize();
+    private static final boolean TRANSPOSE4 = SSPECIES.vectorBitSize() >= T4SPECIES.vectorBitSize();
+    private static final VectorShuffle<Float> T8_ROT1 = VectorShuffle.iota(T8SPECIES, 1, 1, true);
+    private static final VectorShuffle<Float> T8_ROT2 = VectorShuffle.iota(T8SPECIES, 2, 1, true);
+    private static final VectorShuffle<Float> T8_ROT4 = VectorShuffle.iota(T8SPECIES, 4, 1, true);
+    private static final VectorShuffle<Float> T8_ROT6 = VectorShuffle.iota(T8SPECIES, 6, 1, true);
+    private static final VectorShuffle<Float> T8_ROT7 = VectorShuffle.iota(T8SPECIES, 7, 1, true);
+    private static final VectorMask<Float> T8_MASK1 = VectorMask.fromLong(T8SPECIES, 0xAAL); // lanes with bit 0 set
+    private static final VectorMask<Float> T8_MASK2 = VectorMask.fromLong(T8SPECIES, 0xCCL); // lanes with bit 1 set
+    private static final VectorMask<Float> T8_MASK4 = VectorMask.fromLong(T8SPECIES, 0xF0L); // lanes with bit 2 set
+    private static final VectorShuffle<Float> T4_ROT1 = VectorShuffle.iota(T4SPECIES, 1, 1, true);
+    private static final VectorShuffle<Float> T4_ROT2 = VectorShuffle.iota(T4SPECIES, 2, 1, true);
+    private static final VectorShuffle<Float> T4_ROT3 = VectorShuffle.iota(T4SPECIES, 3, 1, true);
+    private static final VectorMask<Float> T4_MASK1 = VectorMask.fromLong(T4SPECIES, 0xAL); // lanes with bit 0 set
+    private static final VectorMask<Float> T4_MASK2 = VectorMask.fromLong(T4SPECIES, 0xCL); // lanes with bit 1 set
+    private static final AtomicBoolean TUNE_PENDING = new AtomicBoolean();
+    private static volatile GemmBlocking blocking;
+
+    /**
+     * Blocking sizes of the float Level-3 routines: the stored tuning profile of this machine if there is one,
+     * SGEMM_P / SGEMM_Q / SGEMM_R otherwise. Without a stored profile and with -Dvectorblas.autotune=true, the first
+     * call runs SgemmTuner.tune().
+     */
+    public static GemmBlocking getBlocking() {
+        if (blocking == null) {
+            initBlocking();
+        }
+        if (TUNE_PENDING.get() && TUNE_PENDING.compareAndSet(true, false)) {
+            SgemmTuner.tune();
+        }
+        return blocking;
+    }
+
+    public static synchronized void setBlocking(GemmBlocking newBlocking) {
+        blocking = Objects.requireNonNull(newBlocking, "blocking");
+    }
+
+    /**
+     * Read the tuning profile on the first call rather than in the class initializer, so that loading the class
+     * does not touch the file system.
+     */
+    private static synchronized void initBlocking() {
+        if (blocking != null) {
+            return;
+        }
+        GemmBlocking stored = TuningProfile.load("sgemm", SGEMM_UNROLL_M, SGEMM_UNROLL_N);
+        TUNE_PENDING.set(stored == null && TuningProfile.isAutotuneEnabled());
+        blocking = stored != null ? stored : new GemmBlocking(SGEMM_P, SGEMM_Q, SGEMM_R);
+    }
+
+    /**
+     * Pick the register tile: with 32 vector registers (aarch64, AVX-512) the 24 accumulators of a 3V x 8 tile,
+     * otherwise the 4V x 4 tile. The system property vectorblas.gemm.tile (4x4, 3x8 or 2x6) overrides the choice.
+     */
+    private static int[] selectTile() {
+        String tile = System.getProperty("vectorblas.gemm.tile");
+        if (tile != null) {
+            for (int[] candidate : TILES) {
+                if (tile.equals(candidate[0] + "x" + candidate[1])) {
+                    return candidate;
+                }
+            }
+            LOG.warn("Unknown register tile vectorblas.gemm.tile={}, using the default.", tile);
+        }
+        boolean manyRegisters = "aarch64".equals(System.getProperty("os.arch")) || SSPECIES.vectorBitSize() >= 512;
+        return manyRegisters ? TILES[1] : TILES[0];
+    }
 
     protected static void betaMulC(int sizeM, int sizeN, float beta, float[] sc, int cOffset, int ldc) {
+        if (BlasUtils.isZero(beta)) {
+            for (int col = 0; col < sizeN; col++) {
+                Arrays.fill(sc, cOffset + col * ldc, cOffset + col * ldc + sizeM, 0.0f); // c is not read.
+            }
+            return;
+        }
         FloatVector betav = FloatVector.broadcast(SSPECIES, beta);
         for (int col = 0; col < sizeN; col++) {
             int row = 0;
@@ -51,363 +156,654 @@ public class SblasLevel3 {
         }
     }
 
-    protected static void kernelOperation16x4(int mc, int nc, int kc, float alpha, float[] sa, float[] sb, int bOffset,
-        float[] sc, int ldc, int cOffset, int csRow, int csCol) {
-        kernelOperation16x4Main(mc, nc, kc, alpha, sa, sb, bOffset, sc, ldc, cOffset, csRow, csCol);
-        kernelOperation16x4NBorder(mc, nc, kc, alpha, sa, sb, bOffset, sc, ldc, cOffset, csRow, csCol);
+    /**
+     * Add the bias of epilogue to the rows x cols tile of c at cIndx, whose first element is (row, col) of C,
+     * and apply its activation.
+     */
+    protected static void epilogueTile(int rows, int cols, float[] sc, int cIndx, int ldc, GemmEpilogue epilogue,
+        int row, int col) {
+        GemmEpilogue.Bias bias = epilogue.getBias();
+        GemmEpilogue.Activation activation = epilogue.getActivation();
+        float[] biasData = epilogue.getFloatData();
+        int biasOffset = epilogue.getOffset();
+        int rowsVec = ArrayUtil.loopBound(rows, VECTOR_LENGTH);
+        for (int j = 0; j < cols; j++) {
+            int cCol = cIndx + j * ldc;
+            float colBias = bias == GemmEpilogue.Bias.COLUMN ? biasData[biasOffset + col + j] : 0.0f;
+            for (int i = 0; i < rowsVec; i += VECTOR_LENGTH) {
+                FloatVector cv = FloatVector.fromArray(SSPECIES, sc, cCol + i);
+                if (bias == GemmEpilogue.Bias.ROW) {
+                    cv = cv.add(FloatVector.fromArray(SSPECIES, biasData, biasOffset + row + i));
+                } else if (bias == GemmEpilogue.Bias.COLUMN) {
+                    cv = cv.add(colBias);
+                }
+                if (activation == GemmEpilogue.Activation.RELU) {
+                    cv = cv.max(0.0f);
+                } else if (activation == GemmEpilogue.Activation.GELU) {
+                    cv = gelu(cv);
+                }
+                cv.intoArray(sc, cCol + i);
+            }
+            for (int i = rowsVec; i < rows; i++) {
+                float value = sc[cCol + i];
+                if (bias == GemmEpilogue.Bias.ROW) {
+                    value += biasData[biasOffset + row + i];
+                } else if (bias == GemmEpilogue.Bias.COLUMN) {
+                    value += colBias;
+                }
+                if (activation == GemmEpilogue.Activation.RELU) {
+                    value = Math.max(value, 0.0f);
+                } else if (activation == GemmEpilogue.Activation.GELU) {
+                    value = gelu(value);
+                }
+                sc[cCol + i] = value;
+            }
+        }
     }
 
-    private static void kernelOperation16x4NBorder(int mc, int nc, int kc, float alpha, float[] sa, float[] sb,
-        int bOffset, float[] sc, int ldc, int cOffset, int csRow, int csCol) {
-        FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
-        int cCol = csCol + (nc / SGEMM_UNROLL_N) * SGEMM_UNROLL_N;
-        int countJ = nc % SGEMM_UNROLL_N;
-        for (; countJ > 0; countJ--) {
-            int cRow = csRow;
-            int aIndx = 0;
-            int countI = mc / SGEMM_UNROLL_M;
-            for (; countI > 0; countI--) {
-                int bIndx = (nc - countJ) * kc;
-                FloatVector c00 = FloatVector.zero(SSPECIES);
-                FloatVector c10 = FloatVector.zero(SSPECIES);
-                FloatVector c20 = FloatVector.zero(SSPECIES);
-                FloatVector c30 = FloatVector.zero(SSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
-                    FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
-                    FloatVector a2 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH2);
-                    FloatVector a3 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH3);
-                    FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx]);
-
-                    c00 = a0.fma(b0, c00);
-                    c10 = a1.fma(b0, c10);
-                    c20 = a2.fma(b0, c20);
-                    c30 = a3.fma(b0, c30);
-
-                    aIndx += SGEMM_UNROLL_M;
-                    bIndx += 1;
+    private static FloatVector gelu(FloatVector x) {
+        FloatVector exponent = x.mul(x).mul(GELU_C2).add(GELU_C1).mul(x);
+        return x.div(exponent.lanewise(VectorOperators.EXP).add(1.0f));
+    }
+
+    private static float gelu(float x) {
+        return x / ((float) Math.exp(x * (GELU_C1 + GELU_C2 * x * x)) + 1.0f);
+    }
+
+    /**
+     * kernelOperation that adds alpha times the product to the upper or lower triangle of c only, for SYRK-like
+     * updates whose block starts at (csRow, csCol) of c. Tiles inside the triangle run the register tiles, tiles
+     * outside it are skipped, and tiles crossing the diagonal are computed into the thread's tile buffer, of which
+     * only the triangular part is added to c.
+     */
+    protected static void syrkKernel(boolean upper, int mc, int nc, int kc, float alpha, float[] sa, int aOffset,
+        float[] sb, int bOffset, float[] sc, int ldc, int cOffset, int csRow, int csCol) {
+        float[] tile = BlasWorkspace.floatTile(VECTOR_LENGTH4 + SGEMM_UNROLL_M * SGEMM_UNROLL_N);
+        int col = 0;
+        int bIndx = bOffset;
+        for (int colPack : N_PACK_SIZES) {
+            for (; col + colPack <= nc; col += colPack) {
+                int aIndx = aOffset;
+                for (int row = 0; row < mc; ) {
+                    int rowPack = packChunk(M_PACK_SIZES, mc - row);
+                    int cIndx = cOffset + (csRow + row) + (csCol + col) * ldc;
+                    int diagonal = (csCol + col) - (csRow + row); // column minus row of the tile's first element
+                    if (upper ? diagonal >= rowPack - 1 : diagonal + colPack <= 1) {
+                        kernelTile(rowPack, colPack, kc, alpha, sa, aIndx, sb, bIndx, 1.0f, sc, cIndx, ldc, tile);
+                    } else if (upper ? diagonal + colPack >= 1 : diagonal <= rowPack - 1) {
+                        kernelTile(rowPack, colPack, kc, alpha, sa, aIndx, sb, bIndx, 0.0f, tile, VECTOR_LENGTH4,
+                            rowPack, tile);
+                        addTriangle(upper, rowPack, colPack, diagonal, tile, VECTOR_LENGTH4, sc, cIndx, ldc);
+                    }
+                    aIndx += rowPack * kc;
+                    row += rowPack;
                 }
-                alphaVec.fma(c00, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + cCol * ldc)).intoArray(sc,
-                    cOffset + cRow + cCol * ldc);
-                alphaVec.fma(c10, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + cCol * ldc)).intoArray(sc, cOffset + cRow + VECTOR_LENGTH + cCol * ldc);
-                alphaVec.fma(c20, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH2
-                    + cCol * ldc)).intoArray(sc, cOffset + cRow + VECTOR_LENGTH2 + cCol * ldc);
-                alphaVec.fma(c30, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH3
-                    + cCol * ldc)).intoArray(sc, cOffset + cRow + VECTOR_LENGTH3 + cCol * ldc);
-
-                cRow += SGEMM_UNROLL_M;
+                bIndx += colPack * kc;
             }
-            countI = mc % SGEMM_UNROLL_M;
-            if (countI >= VECTOR_LENGTH2) {
-                int bIndx = (nc - countJ) * kc;
-                FloatVector c00 = FloatVector.zero(SSPECIES);
-                FloatVector c10 = FloatVector.zero(SSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
-                    FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
-                    FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx]);
-
-                    c00 = a0.fma(b0, c00);
-                    c10 = a1.fma(b0, c10);
-
-                    aIndx += VECTOR_LENGTH2;
-                    bIndx += 1;
-                }
-                alphaVec.fma(c00, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + cCol * ldc)).intoArray(sc,
-                    cOffset + cRow + cCol * ldc);
-                alphaVec.fma(c10, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + cCol * ldc)).intoArray(sc, cOffset + cRow + VECTOR_LENGTH + cCol * ldc);
+        }
+    }
 
-                cRow += VECTOR_LENGTH2;
-                countI -= VECTOR_LENGTH2;
+    private static void addTriangle(boolean upper, int rows, int cols, int diagonal, float[] tile, int tileIndx,
+        float[] sc, int cIndx, int ldc) {
+        for (int col = 0; col < cols; col++) {
+            int start = upper ? 0 : Math.max(0, diagonal + col);
+            int end = upper ? Math.min(rows, diagonal + col + 1) : rows;
+            for (int row = start; row < end; row++) {
+                sc[cIndx + row + col * ldc] += tile[tileIndx + row + col * rows];
             }
-            if (countI >= VECTOR_LENGTH) {
-                int bIndx = (nc - countJ) * kc;
-                FloatVector c00 = FloatVector.zero(SSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
-                    FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx]);
-                    c00 = a0.fma(b0, c00);
-                    aIndx += VECTOR_LENGTH;
-                    bIndx += 1;
+        }
+    }
+
+    /**
+     * kernelOperation that adds to c: beta = 1 and no epilogue.
+     */
+    protected static void kernelOperation(int mc, int nc, int kc, float alpha, float[] sa, int aOffset, float[] sb,
+        int bOffset, float[] sc, int ldc, int cOffset, int csRow, int csCol) {
+        kernelOperation(mc, nc, kc, alpha, sa, aOffset, sb, bOffset, 1.0f, sc, ldc, cOffset, csRow, csCol, null);
+    }
+
+    /**
+     * Multiply the packed mc x kc block of a with the packed kc x nc panel of b and store alpha times the
+     * product plus beta times c to c at (csRow, csCol); with beta = 0, c is not read. Both operands are walked
+     * in the chunks of M_PACK_SIZES and N_PACK_SIZES. Full SGEMM_UNROLL_M x SGEMM_UNROLL_N chunks go to the
+     * register tile chosen at class init. Smaller chunks are split into 4-column and single column tiles of 4V,
+     * 2V or V rows, and the last chunk of fewer than V rows into masked tiles, which store through the thread's
+     * tile buffer. A non-null epilogue is applied to every tile right after its store, while it is in L1.
+     */
+    protected static void kernelOperation(int mc, int nc, int kc, float alpha, float[] sa, int aOffset, float[] sb,
+        int bOffset, float beta, float[] sc, int ldc, int cOffset, int csRow, int csCol, GemmEpilogue epilogue) {
+        float[] tile = mc % VECTOR_LENGTH == 0 ? null : BlasWorkspace.floatTile(VECTOR_LENGTH4);
+        int col = 0;
+        int bIndx = bOffset;
+        for (int colPack : N_PACK_SIZES) {
+            for (; col + colPack <= nc; col += colPack) {
+                int aIndx = aOffset;
+                for (int row = 0; row < mc; ) {
+                    int rowPack = packChunk(M_PACK_SIZES, mc - row);
+                    int cIndx = cOffset + (csRow + row) + (csCol + col) * ldc;
+                    kernelTile(rowPack, colPack, kc, alpha, sa, aIndx, sb, bIndx, beta, sc, cIndx, ldc, tile);
+                    if (epilogue != null) {
+                        epilogueTile(rowPack, colPack, sc, cIndx, ldc, epilogue, csRow + row, csCol + col);
+                    }
+                    aIndx += rowPack * kc;
+                    row += rowPack;
                 }
-                alphaVec.fma(c00, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + cCol * ldc)).intoArray(sc,
-                    cOffset + cRow + cCol * ldc);
+                bIndx += colPack * kc;
+            }
+        }
+    }
 
-                cRow += VECTOR_LENGTH;
-                countI -= VECTOR_LENGTH;
+    private static void kernelTile(int rows, int cols, int kc, float alpha, float[] sa, int aIndx, float[] sb,
+        int bIndx, float beta, float[] sc, int cIndx, int ldc, float[] tile) {
+        if (rows == SGEMM_UNROLL_M && cols == SGEMM_UNROLL_N) {
+            if (SGEMM_UNROLL_N == 8) {
+                tile3Vx8(kc, alpha, sa, aIndx, rows, sb, bIndx, cols, beta, sc, cIndx, ldc);
+            } else if (SGEMM_UNROLL_N == 6) {
+                tile2Vx6(kc, alpha, sa, aIndx, rows, sb, bIndx, cols, beta, sc, cIndx, ldc);
+            } else {
+                tile4Vx4(kc, alpha, sa, aIndx, rows, sb, bIndx, cols, beta, sc, cIndx, ldc);
             }
-            while (countI > 0) {
-                int bIndx = (nc - countJ) * kc;
-                float[] cTmp = new float[1];
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    cTmp[0] += sa[aIndx] * sb[bIndx];
-                    aIndx += 1;
-                    bIndx += 1;
+            return;
+        }
+        for (int col = 0; col < cols; ) {
+            int colPack = cols - col >= 4 ? 4 : 1;
+            for (int row = 0; row < rows; ) {
+                int rowPack = edgeRows(rows - row);
+                if (rowPack < VECTOR_LENGTH) {
+                    maskTile(rowPack, colPack, kc, alpha, sa, aIndx + row, rows, sb, bIndx + col, cols, beta, sc,
+                        cIndx + row + col * ldc, ldc, tile);
+                } else {
+                    edgeTile(rowPack, colPack, kc, alpha, sa, aIndx + row, rows, sb, bIndx + col, cols, beta, sc,
+                        cIndx + row + col * ldc, ldc);
                 }
-                sc[cOffset + cRow + cCol * ldc] += alpha * cTmp[0];
+                row += rowPack;
+            }
+            col += colPack;
+        }
+    }
+
+    /**
+     * Store one vector of a register tile: c := alpha * acc + beta * c, without reading c when beta is zero.
+     */
+    private static void storeC(FloatVector acc, FloatVector alphaVec, float beta, float[] sc, int cIndx) {
+        if (BlasUtils.isZero(beta)) {
+            acc.mul(alphaVec).intoArray(sc, cIndx);
+        } else {
+            alphaVec.fma(acc, FloatVector.fromArray(SSPECIES, sc, cIndx).mul(beta)).intoArray(sc, cIndx);
+        }
+    }
 
-                cRow += 1;
-                countI -= 1;
+    private static int edgeRows(int rows) {
+        if (rows >= VECTOR_LENGTH4) {
+            return VECTOR_LENGTH4;
+        }
+        if (rows >= VECTOR_LENGTH2) {
+            return VECTOR_LENGTH2;
+        }
+        return rows >= VECTOR_LENGTH ? VECTOR_LENGTH : rows;
+    }
+
+    private static void edgeTile(int rows, int cols, int kc, float alpha, float[] sa, int aIndx, int aStride,
+        float[] sb, int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        if (cols == 4) {
+            if (rows == VECTOR_LENGTH4) {
+                tile4Vx4(kc, alpha, sa, aIndx, aStride, sb, bIndx, bStride, beta, sc, cIndx, ldc);
+            } else if (rows == VECTOR_LENGTH2) {
+                tile2Vx4(kc, alpha, sa, aIndx, aStride, sb, bIndx, bStride, beta, sc, cIndx, ldc);
+            } else {
+                tile1Vx4(kc, alpha, sa, aIndx, aStride, sb, bIndx, bStride, beta, sc, cIndx, ldc);
+            }
+        } else {
+            if (rows == VECTOR_LENGTH4) {
+                tile4Vx1(kc, alpha, sa, aIndx, aStride, sb, bIndx, bStride, beta, sc, cIndx, ldc);
+            } else if (rows == VECTOR_LENGTH2) {
+                tile2Vx1(kc, alpha, sa, aIndx, aStride, sb, bIndx, bStride, beta, sc, cIndx, ldc);
+            } else {
+                tile1Vx1(kc, alpha, sa, aIndx, aStride, sb, bIndx, bStride, beta, sc, cIndx, ldc);
             }
-            cCol += 1;
         }
     }
 
-    private static void kernelOperation16x4Main(int mc, int nc, int kc, float alpha, float[] sa, float[] sb,
-        int bOffset, float[] sc, int ldc, int cOffset, int csRow, int csCol) {
+    private static void tile3Vx8(int kc, float alpha, float[] sa, int aIndx, int aStride, float[] sb,
+        int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        FloatVector c10 = FloatVector.zero(SSPECIES);
+        FloatVector c20 = FloatVector.zero(SSPECIES);
+        FloatVector c01 = FloatVector.zero(SSPECIES);
+        FloatVector c11 = FloatVector.zero(SSPECIES);
+        FloatVector c21 = FloatVector.zero(SSPECIES);
+        FloatVector c02 = FloatVector.zero(SSPECIES);
+        FloatVector c12 = FloatVector.zero(SSPECIES);
+        FloatVector c22 = FloatVector.zero(SSPECIES);
+        FloatVector c03 = FloatVector.zero(SSPECIES);
+        FloatVector c13 = FloatVector.zero(SSPECIES);
+        FloatVector c23 = FloatVector.zero(SSPECIES);
+        FloatVector c04 = FloatVector.zero(SSPECIES);
+        FloatVector c14 = FloatVector.zero(SSPECIES);
+        FloatVector c24 = FloatVector.zero(SSPECIES);
+        FloatVector c05 = FloatVector.zero(SSPECIES);
+        FloatVector c15 = FloatVector.zero(SSPECIES);
+        FloatVector c25 = FloatVector.zero(SSPECIES);
+        FloatVector c06 = FloatVector.zero(SSPECIES);
+        FloatVector c16 = FloatVector.zero(SSPECIES);
+        FloatVector c26 = FloatVector.zero(SSPECIES);
+        FloatVector c07 = FloatVector.zero(SSPECIES);
+        FloatVector c17 = FloatVector.zero(SSPECIES);
+        FloatVector c27 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
+            FloatVector a2 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH2);
+            FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            c20 = a2.fma(b0, c20);
+            FloatVector b1 = FloatVector.broadcast(SSPECIES, sb[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            c21 = a2.fma(b1, c21);
+            FloatVector b2 = FloatVector.broadcast(SSPECIES, sb[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            c22 = a2.fma(b2, c22);
+            FloatVector b3 = FloatVector.broadcast(SSPECIES, sb[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            c23 = a2.fma(b3, c23);
+            FloatVector b4 = FloatVector.broadcast(SSPECIES, sb[bIndx + 4]);
+            c04 = a0.fma(b4, c04);
+            c14 = a1.fma(b4, c14);
+            c24 = a2.fma(b4, c24);
+            FloatVector b5 = FloatVector.broadcast(SSPECIES, sb[bIndx + 5]);
+            c05 = a0.fma(b5, c05);
+            c15 = a1.fma(b5, c15);
+            c25 = a2.fma(b5, c25);
+            FloatVector b6 = FloatVector.broadcast(SSPECIES, sb[bIndx + 6]);
+            c06 = a0.fma(b6, c06);
+            c16 = a1.fma(b6, c16);
+            c26 = a2.fma(b6, c26);
+            FloatVector b7 = FloatVector.broadcast(SSPECIES, sb[bIndx + 7]);
+            c07 = a0.fma(b7, c07);
+            c17 = a1.fma(b7, c17);
+            c27 = a2.fma(b7, c27);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, sc, cCol);
+        storeC(c10, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c20, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, sc, cCol);
+        storeC(c11, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c21, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, sc, cCol);
+        storeC(c12, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c22, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, sc, cCol);
+        storeC(c13, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c23, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c04, alphaVec, beta, sc, cCol);
+        storeC(c14, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c24, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c05, alphaVec, beta, sc, cCol);
+        storeC(c15, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c25, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c06, alphaVec, beta, sc, cCol);
+        storeC(c16, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c26, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        cCol += ldc;
+        storeC(c07, alphaVec, beta, sc, cCol);
+        storeC(c17, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c27, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+    }
+
+    private static void tile2Vx6(int kc, float alpha, float[] sa, int aIndx, int aStride, float[] sb,
+        int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        FloatVector c10 = FloatVector.zero(SSPECIES);
+        FloatVector c01 = FloatVector.zero(SSPECIES);
+        FloatVector c11 = FloatVector.zero(SSPECIES);
+        FloatVector c02 = FloatVector.zero(SSPECIES);
+        FloatVector c12 = FloatVector.zero(SSPECIES);
+        FloatVector c03 = FloatVector.zero(SSPECIES);
+        FloatVector c13 = FloatVector.zero(SSPECIES);
+        FloatVector c04 = FloatVector.zero(SSPECIES);
+        FloatVector c14 = FloatVector.zero(SSPECIES);
+        FloatVector c05 = FloatVector.zero(SSPECIES);
+        FloatVector c15 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
+            FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            FloatVector b1 = FloatVector.broadcast(SSPECIES, sb[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            FloatVector b2 = FloatVector.broadcast(SSPECIES, sb[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            FloatVector b3 = FloatVector.broadcast(SSPECIES, sb[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            FloatVector b4 = FloatVector.broadcast(SSPECIES, sb[bIndx + 4]);
+            c04 = a0.fma(b4, c04);
+            c14 = a1.fma(b4, c14);
+            FloatVector b5 = FloatVector.broadcast(SSPECIES, sb[bIndx + 5]);
+            c05 = a0.fma(b5, c05);
+            c15 = a1.fma(b5, c15);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, sc, cCol);
+        storeC(c10, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, sc, cCol);
+        storeC(c11, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, sc, cCol);
+        storeC(c12, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, sc, cCol);
+        storeC(c13, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c04, alphaVec, beta, sc, cCol);
+        storeC(c14, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c05, alphaVec, beta, sc, cCol);
+        storeC(c15, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+    }
+
+    private static void tile4Vx4(int kc, float alpha, float[] sa, int aIndx, int aStride, float[] sb,
+        int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        FloatVector c10 = FloatVector.zero(SSPECIES);
+        FloatVector c20 = FloatVector.zero(SSPECIES);
+        FloatVector c30 = FloatVector.zero(SSPECIES);
+        FloatVector c01 = FloatVector.zero(SSPECIES);
+        FloatVector c11 = FloatVector.zero(SSPECIES);
+        FloatVector c21 = FloatVector.zero(SSPECIES);
+        FloatVector c31 = FloatVector.zero(SSPECIES);
+        FloatVector c02 = FloatVector.zero(SSPECIES);
+        FloatVector c12 = FloatVector.zero(SSPECIES);
+        FloatVector c22 = FloatVector.zero(SSPECIES);
+        FloatVector c32 = FloatVector.zero(SSPECIES);
+        FloatVector c03 = FloatVector.zero(SSPECIES);
+        FloatVector c13 = FloatVector.zero(SSPECIES);
+        FloatVector c23 = FloatVector.zero(SSPECIES);
+        FloatVector c33 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
+            FloatVector a2 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH2);
+            FloatVector a3 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH3);
+            FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            c20 = a2.fma(b0, c20);
+            c30 = a3.fma(b0, c30);
+            FloatVector b1 = FloatVector.broadcast(SSPECIES, sb[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            c21 = a2.fma(b1, c21);
+            c31 = a3.fma(b1, c31);
+            FloatVector b2 = FloatVector.broadcast(SSPECIES, sb[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            c22 = a2.fma(b2, c22);
+            c32 = a3.fma(b2, c32);
+            FloatVector b3 = FloatVector.broadcast(SSPECIES, sb[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            c23 = a2.fma(b3, c23);
+            c33 = a3.fma(b3, c33);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, sc, cCol);
+        storeC(c10, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c20, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        storeC(c30, alphaVec, beta, sc, cCol + VECTOR_LENGTH3);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, sc, cCol);
+        storeC(c11, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c21, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        storeC(c31, alphaVec, beta, sc, cCol + VECTOR_LENGTH3);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, sc, cCol);
+        storeC(c12, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c22, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        storeC(c32, alphaVec, beta, sc, cCol + VECTOR_LENGTH3);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, sc, cCol);
+        storeC(c13, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c23, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        storeC(c33, alphaVec, beta, sc, cCol + VECTOR_LENGTH3);
+    }
+
+    private static void tile2Vx4(int kc, float alpha, float[] sa, int aIndx, int aStride, float[] sb,
+        int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        FloatVector c10 = FloatVector.zero(SSPECIES);
+        FloatVector c01 = FloatVector.zero(SSPECIES);
+        FloatVector c11 = FloatVector.zero(SSPECIES);
+        FloatVector c02 = FloatVector.zero(SSPECIES);
+        FloatVector c12 = FloatVector.zero(SSPECIES);
+        FloatVector c03 = FloatVector.zero(SSPECIES);
+        FloatVector c13 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
+            FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            FloatVector b1 = FloatVector.broadcast(SSPECIES, sb[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            c11 = a1.fma(b1, c11);
+            FloatVector b2 = FloatVector.broadcast(SSPECIES, sb[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            c12 = a1.fma(b2, c12);
+            FloatVector b3 = FloatVector.broadcast(SSPECIES, sb[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            c13 = a1.fma(b3, c13);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, sc, cCol);
+        storeC(c10, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, sc, cCol);
+        storeC(c11, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, sc, cCol);
+        storeC(c12, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, sc, cCol);
+        storeC(c13, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+    }
+
+    private static void tile1Vx4(int kc, float alpha, float[] sa, int aIndx, int aStride, float[] sb,
+        int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        FloatVector c01 = FloatVector.zero(SSPECIES);
+        FloatVector c02 = FloatVector.zero(SSPECIES);
+        FloatVector c03 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bIndx]);
+            c00 = a0.fma(b0, c00);
+            FloatVector b1 = FloatVector.broadcast(SSPECIES, sb[bIndx + 1]);
+            c01 = a0.fma(b1, c01);
+            FloatVector b2 = FloatVector.broadcast(SSPECIES, sb[bIndx + 2]);
+            c02 = a0.fma(b2, c02);
+            FloatVector b3 = FloatVector.broadcast(SSPECIES, sb[bIndx + 3]);
+            c03 = a0.fma(b3, c03);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, sc, cCol);
+        cCol += ldc;
+        storeC(c01, alphaVec, beta, sc, cCol);
+        cCol += ldc;
+        storeC(c02, alphaVec, beta, sc, cCol);
+        cCol += ldc;
+        storeC(c03, alphaVec, beta, sc, cCol);
+    }
+
+    private static void tile4Vx1(int kc, float alpha, float[] sa, int aIndx, int aStride, float[] sb,
+        int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        FloatVector c10 = FloatVector.zero(SSPECIES);
+        FloatVector c20 = FloatVector.zero(SSPECIES);
+        FloatVector c30 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
+            FloatVector a2 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH2);
+            FloatVector a3 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH3);
+            FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            c20 = a2.fma(b0, c20);
+            c30 = a3.fma(b0, c30);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, sc, cCol);
+        storeC(c10, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+        storeC(c20, alphaVec, beta, sc, cCol + VECTOR_LENGTH2);
+        storeC(c30, alphaVec, beta, sc, cCol + VECTOR_LENGTH3);
+    }
+
+    private static void tile2Vx1(int kc, float alpha, float[] sa, int aIndx, int aStride, float[] sb,
+        int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        FloatVector c10 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
+            FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bIndx]);
+            c00 = a0.fma(b0, c00);
+            c10 = a1.fma(b0, c10);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, sc, cCol);
+        storeC(c10, alphaVec, beta, sc, cCol + VECTOR_LENGTH);
+    }
+
+    private static void tile1Vx1(int kc, float alpha, float[] sa, int aIndx, int aStride, float[] sb,
+        int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bIndx]);
+            c00 = a0.fma(b0, c00);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
         FloatVector alphaVec = FloatVector.broadcast(SSPECIES, alpha);
-        int countJ = nc / SGEMM_UNROLL_N;
-        int cCol = csCol;
-        for (; countJ > 0; countJ--) {
-            int cRow = csRow;
-            int aIndx = 0;
-            int countI = mc / SGEMM_UNROLL_M;
-            for (; countI > 0; countI--) {
-                FloatVector c00 = FloatVector.zero(SSPECIES);
-                FloatVector c10 = FloatVector.zero(SSPECIES);
-                FloatVector c20 = FloatVector.zero(SSPECIES);
-                FloatVector c30 = FloatVector.zero(SSPECIES);
-                FloatVector c01 = FloatVector.zero(SSPECIES);
-                FloatVector c11 = FloatVector.zero(SSPECIES);
-                FloatVector c21 = FloatVector.zero(SSPECIES);
-                FloatVector c31 = FloatVector.zero(SSPECIES);
-                FloatVector c02 = FloatVector.zero(SSPECIES);
-                FloatVector c12 = FloatVector.zero(SSPECIES);
-                FloatVector c22 = FloatVector.zero(SSPECIES);
-                FloatVector c32 = FloatVector.zero(SSPECIES);
-                FloatVector c03 = FloatVector.zero(SSPECIES);
-                FloatVector c13 = FloatVector.zero(SSPECIES);
-                FloatVector c23 = FloatVector.zero(SSPECIES);
-                FloatVector c33 = FloatVector.zero(SSPECIES);
-                int bIndx = (nc / SGEMM_UNROLL_N - countJ) * SGEMM_UNROLL_N * kc;
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx]);
-
-                    FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
-                    FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
-                    FloatVector a2 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH2);
-                    FloatVector a3 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH3);
-
-                    c00 = a0.fma(b0, c00);
-                    c10 = a1.fma(b0, c10);
-                    c20 = a2.fma(b0, c20);
-                    c30 = a3.fma(b0, c30);
-
-                    FloatVector b1 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 1]);
-                    c01 = a0.fma(b1, c01);
-                    c11 = a1.fma(b1, c11);
-                    c21 = a2.fma(b1, c21);
-                    c31 = a3.fma(b1, c31);
-
-                    FloatVector b2 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 2]);
-                    c02 = a0.fma(b2, c02);
-                    c12 = a1.fma(b2, c12);
-                    c22 = a2.fma(b2, c22);
-                    c32 = a3.fma(b2, c32);
-
-                    FloatVector b3 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 3]);
-                    c03 = a0.fma(b3, c03);
-                    c13 = a1.fma(b3, c13);
-                    c23 = a2.fma(b3, c23);
-                    c33 = a3.fma(b3, c33);
-                    aIndx += SGEMM_UNROLL_M;
-                    bIndx += SGEMM_UNROLL_N;
+        int cCol = cIndx;
+        storeC(c00, alphaVec, beta, sc, cCol);
+    }
+
+    /**
+     * Tile of the last chunk of a block, rows < VECTOR_LENGTH wide. Each step loads a full vector from the packed
+     * chunk, so its lanes at or past rows hold the next step's elements; they only reach accumulator lanes that are
+     * masked out when the tile is stored. Masked stores are not intrinsified on every JDK, so the accumulators go
+     * through the tile buffer and the first rows lanes of each column are copied to c. Steps whose load would run
+     * past the end of a are added by maskStore.
+     */
+    private static void maskTile(int rows, int cols, int kc, float alpha, float[] sa, int aIndx, int aStride,
+        float[] sb, int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc, float[] tile) {
+        int room = sa.length - VECTOR_LENGTH - aIndx;
+        int steps = room < 0 ? 0 : Math.min(kc, room / aStride + 1);
+        if (cols == 4) {
+            tileMaskx4(steps, sa, aIndx, aStride, sb, bIndx, bStride, tile);
+        } else {
+            tileMaskx1(steps, sa, aIndx, aStride, sb, bIndx, bStride, tile);
+        }
+        maskStore(rows, cols, kc - steps, alpha, sa, aIndx + steps * aStride, aStride, sb, bIndx + steps * bStride,
+            bStride, beta, sc, cIndx, ldc, tile);
+    }
+
+    private static void maskStore(int rows, int cols, int kc, float alpha, float[] sa, int aIndx, int aStride,
+        float[] sb, int bIndx, int bStride, float beta, float[] sc, int cIndx, int ldc, float[] tile) {
+        for (int countL = kc; countL > 0; countL--) {
+            for (int col = 0; col < cols; col++) {
+                float b0 = sb[bIndx + col];
+                for (int row = 0; row < rows; row++) {
+                    tile[col * VECTOR_LENGTH + row] += sa[aIndx + row] * b0;
                 }
-                FloatVector cOri00 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + cCol * ldc);
-                FloatVector cOri10 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + cCol * ldc);
-                FloatVector cOri20 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH2
-                    + cCol * ldc);
-                FloatVector cOri30 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH3
-                    + cCol * ldc);
-
-                cOri00 = alphaVec.fma(c00, cOri00);
-                cOri10 = alphaVec.fma(c10, cOri10);
-                cOri20 = alphaVec.fma(c20, cOri20);
-                cOri30 = alphaVec.fma(c30, cOri30);
-
-                cOri00.intoArray(sc, cOffset + cRow + cCol * ldc);
-                cOri10.intoArray(sc, cOffset + cRow + VECTOR_LENGTH + cCol * ldc);
-                cOri20.intoArray(sc, cOffset + cRow + VECTOR_LENGTH2 + cCol * ldc);
-                cOri30.intoArray(sc, cOffset + cRow + VECTOR_LENGTH3 + cCol * ldc);
-
-                FloatVector cOri01 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 1) * ldc);
-                FloatVector cOri11 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 1) * ldc);
-                FloatVector cOri21 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH2
-                    + (cCol + 1) * ldc);
-                FloatVector cOri31 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH3
-                    + (cCol + 1) * ldc);
-
-                cOri01 = alphaVec.fma(c01, cOri01);
-                cOri11 = alphaVec.fma(c11, cOri11);
-                cOri21 = alphaVec.fma(c21, cOri21);
-                cOri31 = alphaVec.fma(c31, cOri31);
-
-                cOri01.intoArray(sc, cOffset + cRow + (cCol + 1) * ldc);
-                cOri11.intoArray(sc, cOffset + cRow + VECTOR_LENGTH + (cCol + 1) * ldc);
-                cOri21.intoArray(sc, cOffset + cRow + VECTOR_LENGTH2 + (cCol + 1) * ldc);
-                cOri31.intoArray(sc, cOffset + cRow + VECTOR_LENGTH3 + (cCol + 1) * ldc);
-
-                FloatVector cOri02 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 2) * ldc);
-                FloatVector cOri12 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 2) * ldc);
-                FloatVector cOri22 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH2
-                    + (cCol + 2) * ldc);
-                FloatVector cOri32 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH3
-                    + (cCol + 2) * ldc);
-
-                cOri02 = alphaVec.fma(c02, cOri02);
-                cOri12 = alphaVec.fma(c12, cOri12);
-                cOri22 = alphaVec.fma(c22, cOri22);
-                cOri32 = alphaVec.fma(c32, cOri32);
-
-                cOri02.intoArray(sc, cOffset + cRow + (cCol + 2) * ldc);
-                cOri12.intoArray(sc, cOffset + cRow + VECTOR_LENGTH + (cCol + 2) * ldc);
-                cOri22.intoArray(sc, cOffset + cRow + VECTOR_LENGTH2 + (cCol + 2) * ldc);
-                cOri32.intoArray(sc, cOffset + cRow + VECTOR_LENGTH3 + (cCol + 2) * ldc);
-
-                FloatVector cOri03 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 3) * ldc);
-                FloatVector cOri13 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 3) * ldc);
-                FloatVector cOri23 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH2
-                    + (cCol + 3) * ldc);
-                FloatVector cOri33 = FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH3
-                    + (cCol + 3) * ldc);
-
-                cOri03 = alphaVec.fma(c03, cOri03);
-                cOri13 = alphaVec.fma(c13, cOri13);
-                cOri23 = alphaVec.fma(c23, cOri23);
-                cOri33 = alphaVec.fma(c33, cOri33);
-
-                cOri03.intoArray(sc, cOffset + cRow + (cCol + 3) * ldc);
-                cOri13.intoArray(sc, cOffset + cRow + VECTOR_LENGTH + (cCol + 3) * ldc);
-                cOri23.intoArray(sc, cOffset + cRow + VECTOR_LENGTH2 + (cCol + 3) * ldc);
-                cOri33.intoArray(sc, cOffset + cRow + VECTOR_LENGTH3 + (cCol + 3) * ldc);
-
-                cRow += SGEMM_UNROLL_M;
             }
-            countI = mc % SGEMM_UNROLL_M;
-            if (countI >= VECTOR_LENGTH2) {
-                int bIndx = (nc / SGEMM_UNROLL_N - countJ) * SGEMM_UNROLL_N * kc;
-                FloatVector c00 = FloatVector.zero(SSPECIES);
-                FloatVector c10 = FloatVector.zero(SSPECIES);
-                FloatVector c01 = FloatVector.zero(SSPECIES);
-                FloatVector c11 = FloatVector.zero(SSPECIES);
-                FloatVector c02 = FloatVector.zero(SSPECIES);
-                FloatVector c12 = FloatVector.zero(SSPECIES);
-                FloatVector c03 = FloatVector.zero(SSPECIES);
-                FloatVector c13 = FloatVector.zero(SSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
-                    FloatVector a1 = FloatVector.fromArray(SSPECIES, sa, aIndx + VECTOR_LENGTH);
-
-                    FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx]);
-                    FloatVector b1 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 1]);
-                    FloatVector b2 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 2]);
-                    FloatVector b3 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 3]);
-
-                    c00 = a0.fma(b0, c00);
-                    c10 = a1.fma(b0, c10);
-                    c01 = a0.fma(b1, c01);
-                    c11 = a1.fma(b1, c11);
-
-                    c02 = a0.fma(b2, c02);
-                    c12 = a1.fma(b2, c12);
-                    c03 = a0.fma(b3, c03);
-                    c13 = a1.fma(b3, c13);
-
-                    aIndx += VECTOR_LENGTH2;
-                    bIndx += SGEMM_UNROLL_N;
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        for (int col = 0; col < cols; col++) {
+            int cCol = cIndx + col * ldc;
+            int tCol = col * VECTOR_LENGTH;
+            if (BlasUtils.isZero(beta)) {
+                for (int row = 0; row < rows; row++) {
+                    sc[cCol + row] = alpha * tile[tCol + row];
                 }
-                alphaVec.fma(c00, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + cCol * ldc)).intoArray(sc,
-                    cOffset + cRow + cCol * ldc);
-                alphaVec.fma(c10, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + cCol * ldc)).intoArray(sc, cOffset + cRow + VECTOR_LENGTH + cCol * ldc);
-
-                alphaVec.fma(c01, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 1) * ldc)).intoArray(sc,
-                    cOffset + cRow + (cCol + 1) * ldc);
-                alphaVec.fma(c11, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 1) * ldc)).intoArray(sc, cOffset + cRow + VECTOR_LENGTH + (cCol + 1) * ldc);
-
-                alphaVec.fma(c02, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 2) * ldc)).intoArray(sc,
-                    cOffset + cRow + (cCol + 2) * ldc);
-                alphaVec.fma(c12, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 2) * ldc)).intoArray(sc, cOffset + cRow + VECTOR_LENGTH + (cCol + 2) * ldc);
-
-                alphaVec.fma(c03, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 3) * ldc)).intoArray(sc,
-                    cOffset + cRow + (cCol + 3) * ldc);
-                alphaVec.fma(c13, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + VECTOR_LENGTH
-                    + (cCol + 3) * ldc)).intoArray(sc, cOffset + cRow + VECTOR_LENGTH + (cCol + 3) * ldc);
-
-                cRow += VECTOR_LENGTH2;
-                countI -= VECTOR_LENGTH2;
-            }
-            if (countI >= VECTOR_LENGTH) {
-                int bIndx = (nc / SGEMM_UNROLL_N - countJ) * SGEMM_UNROLL_N * kc;
-                FloatVector c00 = FloatVector.zero(SSPECIES);
-                FloatVector c01 = FloatVector.zero(SSPECIES);
-                FloatVector c02 = FloatVector.zero(SSPECIES);
-                FloatVector c03 = FloatVector.zero(SSPECIES);
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
-
-                    FloatVector b0 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx]);
-                    FloatVector b1 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 1]);
-                    FloatVector b2 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 2]);
-                    FloatVector b3 = FloatVector.broadcast(SSPECIES, sb[bOffset + bIndx + 3]);
-
-                    c00 = a0.fma(b0, c00);
-                    c01 = a0.fma(b1, c01);
-                    c02 = a0.fma(b2, c02);
-                    c03 = a0.fma(b3, c03);
-
-                    aIndx += VECTOR_LENGTH;
-                    bIndx += SGEMM_UNROLL_N;
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    sc[cCol + row] = alpha * tile[tCol + row] + beta * sc[cCol + row];
                 }
-                alphaVec.fma(c00, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + cCol * ldc)).intoArray(sc,
-                    cOffset + cRow + cCol * ldc);
-                alphaVec.fma(c01, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 1) * ldc)).intoArray(sc,
-                    cOffset + cRow + (cCol + 1) * ldc);
-                alphaVec.fma(c02, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 2) * ldc)).intoArray(sc,
-                    cOffset + cRow + (cCol + 2) * ldc);
-                alphaVec.fma(c03, FloatVector.fromArray(SSPECIES, sc, cOffset + cRow + (cCol + 3) * ldc)).intoArray(sc,
-                    cOffset + cRow + (cCol + 3) * ldc);
-
-                cRow += VECTOR_LENGTH;
-                countI -= VECTOR_LENGTH;
             }
-            while (countI > 0) {
-                int bIndx = (nc / SGEMM_UNROLL_N - countJ) * SGEMM_UNROLL_N * kc;
-                float[] cTmp = new float[SGEMM_UNROLL_N];
-                int countL = kc;
-                for (; countL > 0; countL--) {
-                    cTmp[0] += sa[aIndx] * sb[bOffset + bIndx];
-                    cTmp[1] += sa[aIndx] * sb[bOffset + bIndx + 1];
-                    cTmp[2] += sa[aIndx] * sb[bOffset + bIndx + 2];
-                    cTmp[3] += sa[aIndx] * sb[bOffset + bIndx + 3];
-                    aIndx += 1;
-                    bIndx += SGEMM_UNROLL_N;
-                }
-                sc[cOffset + cRow + cCol * ldc] += alpha * cTmp[0];
-                sc[cOffset + cRow + (cCol + 1) * ldc] += alpha * cTmp[1];
-                sc[cOffset + cRow + (cCol + 2) * ldc] += alpha * cTmp[2];
-                sc[cOffset + cRow + (cCol + 3) * ldc] += alpha * cTmp[3];
+        }
+    }
 
-                cRow += 1;
-                countI -= 1;
-            }
-            cCol += SGEMM_UNROLL_N;
+    private static void tileMaskx4(int kc, float[] sa, int aIndx, int aStride, float[] sb, int bIndx, int bStride,
+        float[] tile) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        FloatVector c01 = FloatVector.zero(SSPECIES);
+        FloatVector c02 = FloatVector.zero(SSPECIES);
+        FloatVector c03 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            c00 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx]), c00);
+            c01 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + 1]), c01);
+            c02 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + 2]), c02);
+            c03 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + 3]), c03);
+            aIndx += aStride;
+            bIndx += bStride;
+        }
+        c00.intoArray(tile, 0);
+        c01.intoArray(tile, VECTOR_LENGTH);
+        c02.intoArray(tile, VECTOR_LENGTH2);
+        c03.intoArray(tile, VECTOR_LENGTH3);
+    }
+
+    private static void tileMaskx1(int kc, float[] sa, int aIndx, int aStride, float[] sb, int bIndx, int bStride,
+        float[] tile) {
+        FloatVector c00 = FloatVector.zero(SSPECIES);
+        for (int countL = kc; countL > 0; countL--) {
+            FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+            c00 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx]), c00);
+            aIndx += aStride;
+            bIndx += bStride;
         }
+        c00.intoArray(tile, 0);
     }
 
     /**
@@ -416,23 +812,12 @@ public class SblasLevel3 {
     protected static void onCopy(int sizeM, int sizeN, float[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
         float[] dst, int dstOffset) {
         int col = 0;
-        int colPackSize = SGEMM_UNROLL_N;
         int dstIndex = 0;
-        for (; col < sizeN - sizeN % colPackSize; col += colPackSize) {
-            int row = 0;
-            for (; row < sizeM; row += 1) {
-                dst[dstOffset + dstIndex] = src[(srcRow + row) + (srcCol + col) * srcLd + srcOffset];
-                dst[dstOffset + dstIndex + 1] = src[(srcRow + row) + (srcCol + (col + 1)) * srcLd + srcOffset];
-                dst[dstOffset + dstIndex + 2] = src[(srcRow + row) + (srcCol + (col + 2)) * srcLd + srcOffset];
-                dst[dstOffset + dstIndex + 3] = src[(srcRow + row) + (srcCol + (col + 3)) * srcLd + srcOffset];
-                dstIndex += colPackSize;
-            }
-        }
-        for (; col < sizeN; col += 1) {
-            int row = 0;
-            for (; row < sizeM; row += 1) {
-                dst[dstOffset + dstIndex] = src[(srcRow + row) + (srcCol + col) * srcLd + srcOffset];
-                dstIndex += 1;
+        for (int colPackSize : N_PACK_SIZES) {
+            for (; col + colPackSize <= sizeN; col += colPackSize) {
+                transposeCopy(sizeM, colPackSize, src, srcOffset + srcRow + (srcCol + col) * srcLd, srcLd, dst,
+                    dstOffset + dstIndex);
+                dstIndex += sizeM * colPackSize;
             }
         }
     }
@@ -442,19 +827,134 @@ public class SblasLevel3 {
      */
     protected static void itCopy(int sizeM, int sizeN, float[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
         float[] dst, int dstOffset) {
-        int row = 0;
         int dstIndex = 0;
-        int[] vectorLengthList = {VECTOR_LENGTH4, VECTOR_LENGTH2, VECTOR_LENGTH, 1};
-        for (int vectorLen : vectorLengthList) {
-            while (row + vectorLen <= sizeM) {
-                int col = 0;
-                for (; col < sizeN; col++) {
-                    System.arraycopy(src, srcOffset + (srcRow + row) + (srcCol + col) * srcLd, dst,
-                        dstOffset + dstIndex, vectorLen);
-                    dstIndex += vectorLen;
+        for (int row = 0; row < sizeM; ) {
+            int vectorLen = packChunk(M_PACK_SIZES, sizeM - row);
+            for (int col = 0; col < sizeN; col++) {
+                System.arraycopy(src, srcOffset + (srcRow + row) + (srcCol + col) * srcLd, dst, dstOffset + dstIndex,
+                    vectorLen);
+                dstIndex += vectorLen;
+            }
+            row += vectorLen;
+        }
+    }
+
+    /**
+     * Size of the next chunk when rows rows are left to pack or walk: the largest of packSizes that fits, else all
+     * of them. N_PACK_SIZES ends with 1, while the rows left after the M_PACK_SIZES chunks, fewer than
+     * VECTOR_LENGTH, form one last chunk, so that the kernel keeps them in vectors.
+     */
+    protected static int packChunk(int[] packSizes, int rows) {
+        for (int packSize : packSizes) {
+            if (packSize <= rows) {
+                return packSize;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Transposing copy of a rows x cols block, dst[dstIndx + row * cols + col] = src[srcIndx + row + col * srcLd]:
+     * the cols columns of src are interleaved row by row, which is how the packs lay out operands that are read
+     * across their leading dimension. Groups of 8 or 4 columns are loaded as vectors and transposed in registers
+     * 8 (or 4) rows at a time, the remaining rows and columns are copied element by element.
+     */
+    protected static void transposeCopy(int rows, int cols, float[] src, int srcIndx, int srcLd, float[] dst,
+        int dstIndx) {
+        int col = 0;
+        if (TRANSPOSE8) {
+            int rowsBound = ArrayUtil.loopBound(rows, 8);
+            for (; col + 8 <= cols; col += 8) {
+                for (int row = 0; row < rowsBound; row += 8) {
+                    transpose8x8(src, srcIndx + row + col * srcLd, srcLd, dst, dstIndx + row * cols + col, cols);
                 }
-                row += vectorLen;
+                transposeTail(rowsBound, rows, col, col + 8, cols, src, srcIndx, srcLd, dst, dstIndx);
+            }
+        }
+        if (TRANSPOSE4) {
+            int rowsBound = ArrayUtil.loopBound(rows, 4);
+            for (; col + 4 <= cols; col += 4) {
+                for (int row = 0; row < rowsBound; row += 4) {
+                    transpose4x4(src, srcIndx + row + col * srcLd, srcLd, dst, dstIndx + row * cols + col, cols);
+                }
+                transposeTail(rowsBound, rows, col, col + 4, cols, src, srcIndx, srcLd, dst, dstIndx);
+            }
+        }
+        transposeTail(0, rows, col, cols, cols, src, srcIndx, srcLd, dst, dstIndx);
+    }
+
+    private static void transposeTail(int rowStart, int rowEnd, int colStart, int colEnd, int cols, float[] src,
+        int srcIndx, int srcLd, float[] dst, int dstIndx) {
+        for (int row = rowStart; row < rowEnd; row++) {
+            for (int col = colStart; col < colEnd; col++) {
+                dst[dstIndx + row * cols + col] = src[srcIndx + row + col * srcLd];
             }
         }
     }
+
+    /**
+     * Transpose the 8 x 8 block in three rounds: round b swaps the off-diagonal b x b sub-blocks of every 2b x 2b
+     * diagonal block, by rotating one vector of each pair b lanes and blending it with the other.
+     */
+    private static void transpose8x8(float[] src, int srcIndx, int srcLd, float[] dst, int dstIndx, int dstLd) {
+        FloatVector c0 = FloatVector.fromArray(T8SPECIES, src, srcIndx);
+        FloatVector c1 = FloatVector.fromArray(T8SPECIES, src, srcIndx + srcLd);
+        FloatVector c2 = FloatVector.fromArray(T8SPECIES, src, srcIndx + 2 * srcLd);
+        FloatVector c3 = FloatVector.fromArray(T8SPECIES, src, srcIndx + 3 * srcLd);
+        FloatVector c4 = FloatVector.fromArray(T8SPECIES, src, srcIndx + 4 * srcLd);
+        FloatVector c5 = FloatVector.fromArray(T8SPECIES, src, srcIndx + 5 * srcLd);
+        FloatVector c6 = FloatVector.fromArray(T8SPECIES, src, srcIndx + 6 * srcLd);
+        FloatVector c7 = FloatVector.fromArray(T8SPECIES, src, srcIndx + 7 * srcLd);
+        FloatVector u0 = c0.blend(c4.rearrange(T8_ROT4), T8_MASK4);
+        FloatVector u4 = c0.rearrange(T8_ROT4).blend(c4, T8_MASK4);
+        FloatVector u1 = c1.blend(c5.rearrange(T8_ROT4), T8_MASK4);
+        FloatVector u5 = c1.rearrange(T8_ROT4).blend(c5, T8_MASK4);
+        FloatVector u2 = c2.blend(c6.rearrange(T8_ROT4), T8_MASK4);
+        FloatVector u6 = c2.rearrange(T8_ROT4).blend(c6, T8_MASK4);
+        FloatVector u3 = c3.blend(c7.rearrange(T8_ROT4), T8_MASK4);
+        FloatVector u7 = c3.rearrange(T8_ROT4).blend(c7, T8_MASK4);
+        FloatVector v0 = u0.blend(u2.rearrange(T8_ROT6), T8_MASK2);
+        FloatVector v2 = u0.rearrange(T8_ROT2).blend(u2, T8_MASK2);
+        FloatVector v1 = u1.blend(u3.rearrange(T8_ROT6), T8_MASK2);
+        FloatVector v3 = u1.rearrange(T8_ROT2).blend(u3, T8_MASK2);
+        FloatVector v4 = u4.blend(u6.rearrange(T8_ROT6), T8_MASK2);
+        FloatVector v6 = u4.rearrange(T8_ROT2).blend(u6, T8_MASK2);
+        FloatVector v5 = u5.blend(u7.rearrange(T8_ROT6), T8_MASK2);
+        FloatVector v7 = u5.rearrange(T8_ROT2).blend(u7, T8_MASK2);
+        FloatVector r0 = v0.blend(v1.rearrange(T8_ROT7), T8_MASK1);
+        FloatVector r1 = v0.rearrange(T8_ROT1).blend(v1, T8_MASK1);
+        FloatVector r2 = v2.blend(v3.rearrange(T8_ROT7), T8_MASK1);
+        FloatVector r3 = v2.rearrange(T8_ROT1).blend(v3, T8_MASK1);
+        FloatVector r4 = v4.blend(v5.rearrange(T8_ROT7), T8_MASK1);
+        FloatVector r5 = v4.rearrange(T8_ROT1).blend(v5, T8_MASK1);
+        FloatVector r6 = v6.blend(v7.rearrange(T8_ROT7), T8_MASK1);
+        FloatVector r7 = v6.rearrange(T8_ROT1).blend(v7, T8_MASK1);
+        r0.intoArray(dst, dstIndx);
+        r1.intoArray(dst, dstIndx + dstLd);
+        r2.intoArray(dst, dstIndx + 2 * dstLd);
+        r3.intoArray(dst, dstIndx + 3 * dstLd);
+        r4.intoArray(dst, dstIndx + 4 * dstLd);
+        r5.intoArray(dst, dstIndx + 5 * dstLd);
+        r6.intoArray(dst, dstIndx + 6 * dstLd);
+        r7.intoArray(dst, dstIndx + 7 * dstLd);
+    }
+
+    private static void transpose4x4(float[] src, int srcIndx, int srcLd, float[] dst, int dstIndx, int dstLd) {
+        FloatVector c0 = FloatVector.fromArray(T4SPECIES, src, srcIndx);
+        FloatVector c1 = FloatVector.fromArray(T4SPECIES, src, srcIndx + srcLd);
+        FloatVector c2 = FloatVector.fromArray(T4SPECIES, src, srcIndx + 2 * srcLd);
+        FloatVector c3 = FloatVector.fromArray(T4SPECIES, src, srcIndx + 3 * srcLd);
+        FloatVector v0 = c0.blend(c2.rearrange(T4_ROT2), T4_MASK2);
+        FloatVector v2 = c0.rearrange(T4_ROT2).blend(c2, T4_MASK2);
+        FloatVector v1 = c1.blend(c3.rearrange(T4_ROT2), T4_MASK2);
+        FloatVector v3 = c1.rearrange(T4_ROT2).blend(c3, T4_MASK2);
+        FloatVector r0 = v0.blend(v1.rearrange(T4_ROT3), T4_MASK1);
+        FloatVector r1 = v0.rearrange(T4_ROT1).blend(v1, T4_MASK1);
+        FloatVector r2 = v2.blend(v3.rearrange(T4_ROT3), T4_MASK1);
+        FloatVector r3 = v2.rearrange(T4_ROT1).blend(v3, T4_MASK1);
+        r0.intoArray(dst, dstIndx);
+        r1.intoArray(dst, dstIndx + dstLd);
+        r2.intoArray(dst, dstIndx + 2 * dstLd);
+        r3.intoArray(dst, dstIndx + 3 * dstLd);
+    }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas3.singleprecision;
+
+import com.huawei.vectorblas.blas3.doubleprecision.DblasLevel3;
+import com.huawei.vectorblas.blas3.doubleprecision.Dgemm;
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.Lsame;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * GEMM on float operands with double accumulation, for long k where float sums lose too many digits. The
+ * operands are widened to double in blocks, as the two halves of each float vector, the block products are
+ * computed and added up by the DGEMM packing, blocking and kernels into a double panel of C, and every
+ * panel is rounded to float once when it is stored. Only blocks are widened, so the operands are read in float.
+ */
+public class Sdgemm {
+    private static final int SDGEMM_BLOCK_K = 512;
+    private static final int SDGEMM_BLOCK_M = 512;
+    private static final int SDGEMM_BLOCK_N = 512;
+    private static final int SDGEMM_PANEL_M = 4096; // rows of C kept in double while a widened B block is reused.
+    private static final VectorSpecies<Float> FSPECIES = FloatVector.SPECIES_MAX;
+    private static final VectorSpecies<Double> DSPECIES = VectorSpecies.of(double.class, FSPECIES.vectorShape());
+    private static final VectorSpecies<Float> FHALF_SPECIES = VectorSpecies.of(float.class,
+        VectorShape.forBitSize(DSPECIES.vectorBitSize() / 2));
+
+    /**
+     * C := alpha * op(A) * op(B) + beta * C with float A, B and C, every product and sum in double.
+     */
+    public static void sdgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a,
+        int aOffset, int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter("SDGEMM", 1, transaFlag || Lsame.lsame(transa, "T"));
+        BlasUtils.checkParameter("SDGEMM", 2, transbFlag || Lsame.lsame(transb, "T"));
+        BlasUtils.checkParameter("SDGEMM", 3, m >= 0);
+        BlasUtils.checkParameter("SDGEMM", 4, n >= 0);
+        BlasUtils.checkParameter("SDGEMM", 5, k >= 0);
+        BlasUtils.checkParameter("SDGEMM", 8, lda >= Math.max(1, (transaFlag ? m : k)));
+        BlasUtils.checkParameter("SDGEMM", 10, ldb >= Math.max(1, (transbFlag ? k : n)));
+        BlasUtils.checkParameter("SDGEMM", 13, ldc >= Math.max(1, m));
+        if (m == 0 || n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+        if (k == 0 || BlasUtils.isZero(alpha)) {
+            for (int col = 0; col < n; col++) {
+                for (int row = 0; row < m; row++) {
+                    int cIndex = cOffset + row + col * ldc;
+                    c[cIndex] = BlasUtils.isZero(beta) ? 0.0f : beta * c[cIndex];
+                }
+            }
+            return;
+        }
+        BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda, a.length);
+        BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb, b.length);
+        sdgemmBlocked(transaFlag, transbFlag, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset,
+            ldc);
+    }
+
+    /**
+     * C is computed in panels of up to SDGEMM_PANEL_M rows. For every block of a panel the block products of all
+     * k blocks are added up by DGEMM in a double panel, which is then stored into C once. Each widened block of B
+     * serves the whole panel. The widened blocks of A and B and the panel share the thread's double block buffer.
+     */
+    private static void sdgemmBlocked(boolean transaFlag, boolean transbFlag, int m, int n, int k, float alpha,
+        float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        int panelMax = Math.min(SDGEMM_PANEL_M, m);
+        int mcMax = Math.min(SDGEMM_BLOCK_M, m);
+        int ncMax = Math.min(SDGEMM_BLOCK_N, n);
+        int kcMax = Math.min(SDGEMM_BLOCK_K, k);
+        int blockBOffset = mcMax * kcMax;
+        int panelOffset = blockBOffset + kcMax * ncMax;
+        double[] block = BlasWorkspace.doubleWide(panelOffset + panelMax * ncMax);
+        GemmBlocking blocking = DblasLevel3.getBlocking();
+        for (int ps = 0; ps < m; ps += panelMax) {
+            int pc = Math.min(panelMax, m - ps);
+            for (int ns = 0; ns < n; ns += ncMax) {
+                int nc = Math.min(ncMax, n - ns);
+                for (int ks = 0; ks < k; ks += kcMax) {
+                    int kc = Math.min(kcMax, k - ks);
+                    int ldBlockB = transbFlag ? kc : nc;
+                    widen(ldBlockB, transbFlag ? nc : kc, b, bOffset + (transbFlag ? ks + ns * ldb : ns + ks * ldb),
+                        ldb, block, blockBOffset);
+                    for (int ms = ps; ms < ps + pc; ms += mcMax) {
+                        int mc = Math.min(mcMax, ps + pc - ms);
+                        int ldBlockA = transaFlag ? mc : kc;
+                        widen(ldBlockA, transaFlag ? kc : mc, a,
+                            aOffset + (transaFlag ? ms + ks * lda : ks + ms * lda), lda, block, 0);
+                        Dgemm.dgemmChecked(transaFlag, transbFlag, mc, nc, kc, 1.0d, block, 0, ldBlockA, block,
+                            blockBOffset, ldBlockB, ks == 0 ? 0.0d : 1.0d, block, panelOffset + ms - ps, pc, blocking,
+                            null, null, null);
+                    }
+                }
+                storeTile(pc, nc, block, panelOffset, alpha, beta, c, cOffset + ps + ns * ldc, ldc);
+            }
+        }
+    }
+
+    /**
+     * Widen the rows x cols column-major block of src at srcIndex into a dense double block of dst at dstOffset.
+     */
+    private static void widen(int rows, int cols, float[] src, int srcIndex, int srcLd, double[] dst, int dstOffset) {
+        int rowLoopBound = FSPECIES.loopBound(rows);
+        for (int col = 0; col < cols; col++) {
+            int srcCol = srcIndex + col * srcLd;
+            int dstCol = dstOffset + col * rows;
+            int row = 0;
+            for (; row < rowLoopBound; row += FSPECIES.length()) {
+                FloatVector fv = FloatVector.fromArray(FSPECIES, src, srcCol + row);
+                ((DoubleVector) fv.convertShape(VectorOperators.F2D, DSPECIES, 0)).intoArray(dst, dstCol + row);
+                ((DoubleVector) fv.convertShape(VectorOperators.F2D, DSPECIES, 1))
+                    .intoArray(dst, dstCol + row + DSPECIES.length());
+            }
+            for (; row < rows; row++) {
+                dst[dstCol + row] = src[srcCol + row];
+            }
+        }
+    }
+
+    /**
+     * C := alpha * tile + beta * C for the dense mc x nc double tile, rounded to float after the double sum.
+     */
+    private static void storeTile(int mc, int nc, double[] tile, int tileOffset, float alpha, float beta, float[] c,
+        int cIndex, int ldc) {
+        int rowLoopBound = DSPECIES.loopBound(mc);
+        boolean betaZero = BlasUtils.isZero(beta);
+        for (int col = 0; col < nc; col++) {
+            int cCol = cIndex + col * ldc;
+            int tileCol = tileOffset + col * mc;
+            int row = 0;
+            for (; row < rowLoopBound; row += DSPECIES.length()) {
+                DoubleVector sum = DoubleVector.fromArray(DSPECIES, tile, tileCol + row).mul(alpha);
+                if (!betaZero) {
+                    sum = ((DoubleVector) FloatVector.fromArray(FHALF_SPECIES, c, cCol + row)
+                        .convertShape(VectorOperators.F2D, DSPECIES, 0)).mul(beta).add(sum);
+                }
+                ((FloatVector) sum.convertShape(VectorOperators.D2F, FHALF_SPECIES, 0)).intoArray(c, cCol + row);
+            }
+            for (; row < mc; row++) {
+                double sum = alpha * tile[tileCol + row];
+                c[cCol + row] = (float) (betaZero ? sum : sum + (double) beta * c[cCol + row]);
+            }
+        }
+    }
+}
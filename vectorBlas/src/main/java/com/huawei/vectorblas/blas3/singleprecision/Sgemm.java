@@ -22,20 +22,36 @@
 
 package com.huawei.vectorblas.blas3.singleprecision;
 
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_P;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_Q;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_R;
+import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.M_PACK_SIZES;
+import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.N_PACK_SIZES;
+import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_UNROLL_M;
 import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_UNROLL_N;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.VECTOR_LENGTH;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.VECTOR_LENGTH2;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.VECTOR_LENGTH4;
+import static com.huawei.vectorblas.utils.ArrayUtil.ceilDiv;
+import static com.huawei.vectorblas.utils.ArrayUtil.roundUp;
 
+import com.huawei.vectorblas.blas1.singleprecision.Saxpy;
+import com.huawei.vectorblas.utils.BlasParallel;
 import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.GemmEpilogue;
+import com.huawei.vectorblas.utils.HalfPrecision;
 import com.huawei.vectorblas.utils.Lsame;
+import com.huawei.vectorblas.utils.PackedMatrix;
 
 public class Sgemm {
     public static void sgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a, int aOffset,
         int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        sgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc, null, 0, 0);
+    }
+
+    /**
+     * SGEMM with a caller supplied packing workspace, in the LAPACK lwork style: with lwork = -1 only the
+     * required workspace size is returned in work[workOffset]. A null work uses the thread-local workspace.
+     */
+    public static void sgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc, float[] work,
+        int workOffset, int lwork) {
         BlasUtils.checkParameter("SGEMM", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
         BlasUtils.checkParameter("SGEMM", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
         boolean transaFlag = Lsame.lsame(transa, "N");
@@ -46,73 +62,540 @@ public class Sgemm {
         BlasUtils.checkParameter("SGEMM", 8, lda >= Math.max(1, (transaFlag ? m : k)));
         BlasUtils.checkParameter("SGEMM", 10, ldb >= Math.max(1, (transbFlag ? k : n)));
         BlasUtils.checkParameter("SGEMM", 13, ldc >= Math.max(1, m));
+        GemmBlocking blocking = SblasLevel3.getBlocking();
+        if (work != null) {
+            int workSize = workSize(m, n, k, blocking);
+            BlasUtils.checkParameter("SGEMM", 15, lwork == -1 || lwork >= workSize);
+            if (lwork == -1) {
+                BlasUtils.checkBlasArray("work", workOffset, 0, work.length);
+                work[workOffset] = workSize;
+                return;
+            }
+            BlasUtils.checkBlasArray("work", workOffset, workSize - 1, work.length);
+        }
 
         if (m == 0 || n == 0) {
             return;
         }
-        if (Float.compare(beta, 1.0f) != 0) {
+        if (k > 0 && !BlasUtils.isZero(alpha) && SgemmSmall.isSmall(transaFlag, transbFlag, m, n, k)) {
+            BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda,
+                a.length);
+            BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb,
+                b.length);
             BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
-            SblasLevel3.betaMulC(m, n, beta, c, cOffset, ldc);
+            SgemmSmall.sgemmSmall(transaFlag, transbFlag, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c,
+                cOffset, ldc);
+            return;
         }
         if (BlasUtils.isZero(alpha) || k == 0) {
+            if (Float.compare(beta, 1.0f) != 0) {
+                BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+                SblasLevel3.betaMulC(m, n, beta, c, cOffset, ldc);
+            }
             return;
         }
         BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda, a.length);
         BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb, b.length);
         BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
-        sgemmVector(transa, transb, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, c, cOffset, ldc);
-    }
-
-    private static void sgemmVector(String transa, String transb, int sizeM, int sizeN, int sizeK, float[] sa,
-        int aOffset, int lda, float alpha, float[] sb, int bOffset, int ldb, float[] sc, int cOffset, int ldc) {
-        int mc = Math.min(SGEMM_P, sizeM);
-        int nc = Math.min(SGEMM_R, sizeN);
-        int kc = Math.min(SGEMM_Q, sizeK);
-        float[] packa = new float[kc * mc];
-        float[] packb = new float[kc * nc];
-        for (int ns = 0; ns < sizeN; ns += nc) {
-            nc = Math.min(nc, sizeN - ns);
-            for (int ks = 0; ks < sizeK; ks += kc) {
-                kc = Math.min(kc, sizeK - ks);
-                if (Lsame.lsame(transb, "N")) {
-                    SblasLevel3.onCopy(kc, nc, sb, ks, ns, bOffset, ldb, packb, 0); // packing matrix b
+        int kc = Math.min(blocking.getQ(), k);
+        int packaSize = kc * Math.min(blocking.getP(), m);
+        int packbSize = kc * Math.min(blocking.getR(), n);
+        float[] packb = work != null ? work : BlasWorkspace.floatPackB(packbSize);
+        int packbOffset = work != null ? workOffset + packaSize : 0;
+        if (work == null && BlasParallel.isSplitK(m, n, k)) {
+            sgemmSplitK(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, blocking, null);
+        } else if (BlasParallel.isLevel3Parallel(m, n, k)) {
+            sgemmParallel(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, packb, packbOffset, blocking, null, null, null);
+        } else {
+            float[] packa = work != null ? work : BlasWorkspace.floatPackA(packaSize);
+            int packaOffset = work != null ? workOffset : 0;
+            sgemmVector(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, packa, packaOffset, packb, packbOffset, blocking, null, null, null);
+        }
+    }
+
+    /**
+     * Pack op(A) (identifier "A", m x k) or op(B) (identifier "B", k x n) once, for repeated sgemmCompute calls
+     * against the same operand. The unused one of m and n is ignored.
+     */
+    public static PackedMatrix sgemmPack(String identifier, String trans, int m, int n, int k, float[] src,
+        int srcOffset, int ld) {
+        BlasUtils.checkParameter("SGEMM_PACK", 1, Lsame.lsame(identifier, "A") || Lsame.lsame(identifier, "B"));
+        BlasUtils.checkParameter("SGEMM_PACK", 2, Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T"));
+        boolean left = Lsame.lsame(identifier, "A");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        BlasUtils.checkParameter("SGEMM_PACK", 3, m >= 0);
+        BlasUtils.checkParameter("SGEMM_PACK", 4, n >= 0);
+        BlasUtils.checkParameter("SGEMM_PACK", 5, k >= 0);
+        int rows = left ? m : k;
+        int cols = left ? k : n;
+        BlasUtils.checkParameter("SGEMM_PACK", 8, ld >= Math.max(1, (transFlag ? rows : cols)));
+        BlasUtils.checkParameter("SGEMM_PACK", left ? 5 : 4, (long) rows * cols <= Integer.MAX_VALUE);
+        GemmBlocking blocking = SblasLevel3.getBlocking();
+        float[] data = new float[rows * cols];
+        if (rows == 0 || cols == 0) {
+            return new PackedMatrix(left, rows, cols, blocking, data);
+        }
+        BlasUtils.checkBlasArray("src", srcOffset, ((transFlag ? rows : cols) - 1) + ((transFlag ? cols : rows) - 1)
+            * ld, src.length);
+        if (left) {
+            for (int ks = 0; ks < cols; ks += blocking.getQ()) {
+                int kc = Math.min(blocking.getQ(), cols - ks);
+                for (int ms = 0; ms < rows; ms += blocking.getP()) {
+                    int mc = Math.min(blocking.getP(), rows - ms);
+                    if (transFlag) {
+                        SblasLevel3.itCopy(mc, kc, src, ms, ks, srcOffset, ld, data, ks * rows + ms * kc);
+                    } else {
+                        inCopy(kc, mc, src, ks, ms, srcOffset, ld, data, ks * rows + ms * kc);
+                    }
+                }
+            }
+        } else {
+            for (int ns = 0; ns < cols; ns += blocking.getR()) {
+                int nc = Math.min(blocking.getR(), cols - ns);
+                for (int ks = 0; ks < rows; ks += blocking.getQ()) {
+                    int kc = Math.min(blocking.getQ(), rows - ks);
+                    if (transFlag) {
+                        SblasLevel3.onCopy(kc, nc, src, ks, ns, srcOffset, ld, data, ns * rows + ks * nc);
+                    } else {
+                        otCopy(nc, kc, src, ns, ks, srcOffset, ld, data, ns * rows + ks * nc);
+                    }
+                }
+            }
+        }
+        return new PackedMatrix(left, rows, cols, blocking, data);
+    }
+
+    /**
+     * C = alpha * op(A) * B + beta * C with B packed by sgemmPack("B", ...), so only A is packed per call.
+     */
+    public static void sgemmCompute(String transa, int m, float alpha, float[] a, int aOffset, int lda,
+        PackedMatrix b, float beta, float[] c, int cOffset, int ldc) {
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 2, m >= 0);
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 6, !b.isLeft() && b.getFloatData() != null);
+        int n = b.getCols();
+        int k = b.getRows();
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 5, lda >= Math.max(1, (transaFlag ? m : k)));
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 9, ldc >= Math.max(1, m));
+        if (m > 0 && n > 0 && k > 0 && !BlasUtils.isZero(alpha)) {
+            BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda,
+                a.length);
+        }
+        sgemmChecked(transaFlag, true, m, n, k, alpha, a, aOffset, lda, null, 0, 1, beta, c, cOffset, ldc,
+            b.getBlocking(), null, b, null);
+    }
+
+    /**
+     * C = alpha * A * op(B) + beta * C with A packed by sgemmPack("A", ...), so only B is packed per call.
+     */
+    public static void sgemmCompute(PackedMatrix a, String transb, int n, float alpha, float[] b, int bOffset,
+        int ldb, float beta, float[] c, int cOffset, int ldc) {
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 1, a.isLeft() && a.getFloatData() != null);
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 3, n >= 0);
+        int m = a.getRows();
+        int k = a.getCols();
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 6, ldb >= Math.max(1, (transbFlag ? k : n)));
+        BlasUtils.checkParameter("SGEMM_COMPUTE", 9, ldc >= Math.max(1, m));
+        if (m > 0 && n > 0 && k > 0 && !BlasUtils.isZero(alpha)) {
+            BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb,
+                b.length);
+        }
+        sgemmChecked(true, transbFlag, m, n, k, alpha, null, 0, 1, b, bOffset, ldb, beta, c, cOffset, ldc,
+            a.getBlocking(), a, null, null);
+    }
+
+    /**
+     * SGEMM followed by an epilogue on every element of C: C = act(alpha * op(A) * op(B) + beta * C + bias).
+     * The bias and the activation are applied by the kernel to each register tile right after it is stored,
+     * and with beta = 0 C is not read. A ROW bias has m entries, a COLUMN bias has n entries.
+     */
+    public static void sgemmEpilogue(String transa, String transb, int m, int n, int k, float alpha, float[] a,
+        int aOffset, int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc,
+        GemmEpilogue epilogue) {
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 3, m >= 0);
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 4, n >= 0);
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 5, k >= 0);
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 8, lda >= Math.max(1, (transaFlag ? m : k)));
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 10, ldb >= Math.max(1, (transbFlag ? k : n)));
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 13, ldc >= Math.max(1, m));
+        BlasUtils.checkParameter("SGEMM_EPILOGUE", 14, epilogue != null
+            && (epilogue.getBias() == GemmEpilogue.Bias.NONE || epilogue.getFloatData() != null));
+        if (m == 0 || n == 0) {
+            return;
+        }
+        if (k > 0 && !BlasUtils.isZero(alpha)) {
+            BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda,
+                a.length);
+            BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb,
+                b.length);
+        }
+        if (epilogue.getBias() != GemmEpilogue.Bias.NONE) {
+            BlasUtils.checkBlasArray("bias", epilogue.getOffset(), (epilogue.getBias() == GemmEpilogue.Bias.ROW ? m
+                : n) - 1, epilogue.getFloatData().length);
+        }
+        sgemmChecked(transaFlag, transbFlag, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc,
+            SblasLevel3.getBlocking(), null, null, epilogue);
+    }
+
+    /**
+     * SGEMM with A and B stored in the half precision format, see HalfPrecision. Every block is widened to float
+     * right before it is packed, the kernels and the accumulation into C stay in float.
+     */
+    public static void sgemm(String transa, String transb, int m, int n, int k, float alpha, HalfPrecision format,
+        short[] a, int aOffset, int lda, short[] b, int bOffset, int ldb, float beta, float[] c, int cOffset,
+        int ldc) {
+        sgemmHalf(transa, transb, m, n, k, alpha, format, a, aOffset, lda, b, null, bOffset, ldb, beta, c, cOffset,
+            ldc);
+    }
+
+    /**
+     * SGEMM with A stored in the half precision format and B in float, for half precision weights applied to
+     * float activations.
+     */
+    public static void sgemm(String transa, String transb, int m, int n, int k, float alpha, HalfPrecision format,
+        short[] a, int aOffset, int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset,
+        int ldc) {
+        sgemmHalf(transa, transb, m, n, k, alpha, format, a, aOffset, lda, null, b, bOffset, ldb, beta, c, cOffset,
+            ldc);
+    }
+
+    private static void sgemmHalf(String transa, String transb, int m, int n, int k, float alpha,
+        HalfPrecision format, short[] a, int aOffset, int lda, short[] halfB, float[] b, int bOffset, int ldb,
+        float beta, float[] c, int cOffset, int ldc) {
+        BlasUtils.checkParameter("SGEMM_HALF", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        BlasUtils.checkParameter("SGEMM_HALF", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter("SGEMM_HALF", 3, m >= 0);
+        BlasUtils.checkParameter("SGEMM_HALF", 4, n >= 0);
+        BlasUtils.checkParameter("SGEMM_HALF", 5, k >= 0);
+        BlasUtils.checkParameter("SGEMM_HALF", 7, format != null);
+        BlasUtils.checkParameter("SGEMM_HALF", 9, lda >= Math.max(1, (transaFlag ? m : k)));
+        BlasUtils.checkParameter("SGEMM_HALF", 11, ldb >= Math.max(1, (transbFlag ? k : n)));
+        BlasUtils.checkParameter("SGEMM_HALF", 14, ldc >= Math.max(1, m));
+        if (m == 0 || n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+        if (BlasUtils.isZero(alpha) || k == 0) {
+            if (Float.compare(beta, 1.0f) != 0) {
+                SblasLevel3.betaMulC(m, n, beta, c, cOffset, ldc);
+            }
+            return;
+        }
+        BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda, a.length);
+        BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb,
+            halfB != null ? halfB.length : b.length);
+        sgemmHalfVector(transaFlag, transbFlag, m, n, k, alpha, format, a, aOffset, lda, halfB, b, bOffset, ldb, beta,
+            c, cOffset, ldc, SblasLevel3.getBlocking());
+    }
+
+    /**
+     * Driver of the half precision SGEMM over the ns/ks/ms blocking of sgemmVector. A half precision block is
+     * first widened into the thread's float block buffer and then packed from there, B once per (ns, ks) panel
+     * and A per m macro-tile. Above the Level-3 threshold the m macro-tiles run on the workers, each widening
+     * and packing its own block of A.
+     */
+    private static void sgemmHalfVector(boolean transaFlag, boolean transbFlag, int sizeM, int sizeN, int sizeK,
+        float alpha, HalfPrecision format, short[] sa, int aOffset, int lda, short[] halfB, float[] sb, int bOffset,
+        int ldb, float beta, float[] sc, int cOffset, int ldc, GemmBlocking blocking) {
+        int mcMax = Math.min(blocking.getP(), sizeM);
+        if (BlasParallel.isLevel3Parallel(sizeM, sizeN, sizeK)) {
+            mcMax = Math.min(mcMax, roundUp(ceilDiv(sizeM, BlasParallel.getNumThreads()), SGEMM_UNROLL_M));
+        }
+        final int mStep = mcMax;
+        int ncMax = Math.min(blocking.getR(), sizeN);
+        int kcMax = Math.min(blocking.getQ(), sizeK);
+        float[] packb = BlasWorkspace.floatPackB(kcMax * ncMax);
+        for (int ns = 0; ns < sizeN; ns += ncMax) {
+            final int nsStart = ns;
+            final int nc = Math.min(ncMax, sizeN - ns);
+            for (int ks = 0; ks < sizeK; ks += kcMax) {
+                final int ksStart = ks;
+                final int kc = Math.min(kcMax, sizeK - ks);
+                final float kBeta = ks == 0 ? beta : 1.0f;
+                float[] blockB = sb;
+                int blockBOffset = bOffset;
+                int blockBLd = ldb;
+                int blockRow = transbFlag ? ks : ns;
+                int blockCol = transbFlag ? ns : ks;
+                if (halfB != null) {
+                    blockB = BlasWorkspace.floatWide(kc * nc);
+                    format.toFloat(transbFlag ? kc : nc, transbFlag ? nc : kc, halfB, bOffset + blockRow
+                        + blockCol * ldb, ldb, blockB, 0);
+                    blockBOffset = 0;
+                    blockBLd = transbFlag ? kc : nc;
+                    blockRow = 0;
+                    blockCol = 0;
+                }
+                if (transbFlag) {
+                    SblasLevel3.onCopy(kc, nc, blockB, blockRow, blockCol, blockBOffset, blockBLd, packb, 0);
                 } else {
-                    otCopy(nc, kc, sb, ns, ks, bOffset, ldb, packb, 0);
+                    otCopy(nc, kc, blockB, blockRow, blockCol, blockBOffset, blockBLd, packb, 0);
                 }
-                for (int ms = 0; ms < sizeM; ms += mc) {
-                    mc = Math.min(mc, sizeM - ms);
-                    if (Lsame.lsame(transa, "N")) {
-                        SblasLevel3.itCopy(mc, kc, sa, ms, ks, aOffset, lda, packa, 0); // packing matrix a
+                BlasParallel.parallelFor(ceilDiv(sizeM, mStep), tile -> {
+                    int ms = tile * mStep;
+                    int mc = Math.min(mStep, sizeM - ms);
+                    float[] blockA = BlasWorkspace.floatWide(kc * mc);
+                    float[] packa = BlasWorkspace.floatPackA(kc * mc);
+                    if (transaFlag) {
+                        format.toFloat(mc, kc, sa, aOffset + ms + ksStart * lda, lda, blockA, 0);
+                        SblasLevel3.itCopy(mc, kc, blockA, 0, 0, 0, mc, packa, 0);
                     } else {
-                        inCopy(kc, mc, sa, ks, ms, aOffset, lda, packa, 0);
+                        format.toFloat(kc, mc, sa, aOffset + ksStart + ms * lda, lda, blockA, 0);
+                        inCopy(kc, mc, blockA, 0, 0, 0, kc, packa, 0);
                     }
-                    SblasLevel3.kernelOperation16x4(mc, nc, kc, alpha, packa, packb, 0, sc, ldc, cOffset, ms, ns);
+                    SblasLevel3.kernelOperation(mc, nc, kc, alpha, packa, 0, packb, 0, kBeta, sc, ldc, cOffset, ms,
+                        nsStart, null);
+                });
+            }
+        }
+    }
+
+    /**
+     * GEMM on validated parameters, used by the compute, batched and epilogue routines. The array bounds of a
+     * and b are checked by the caller, a pre-packed operand replaces the corresponding array.
+     */
+    static void sgemmChecked(boolean transaFlag, boolean transbFlag, int m, int n, int k, float alpha, float[] a,
+        int aOffset, int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc,
+        GemmBlocking blocking, PackedMatrix packedA, PackedMatrix packedB, GemmEpilogue epilogue) {
+        if (m == 0 || n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+        if (packedA == null && packedB == null && k > 0 && !BlasUtils.isZero(alpha)
+            && SgemmSmall.isSmall(transaFlag, transbFlag, m, n, k)) {
+            SgemmSmall.sgemmSmall(transaFlag, transbFlag, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c,
+                cOffset, ldc);
+            if (epilogue != null) {
+                SblasLevel3.epilogueTile(m, n, c, cOffset, ldc, epilogue, 0, 0);
+            }
+            return;
+        }
+        if (BlasUtils.isZero(alpha) || k == 0) {
+            if (Float.compare(beta, 1.0f) != 0) {
+                SblasLevel3.betaMulC(m, n, beta, c, cOffset, ldc);
+            }
+            if (epilogue != null) {
+                SblasLevel3.epilogueTile(m, n, c, cOffset, ldc, epilogue, 0, 0);
+            }
+            return;
+        }
+        if (packedA == null && packedB == null && BlasParallel.isSplitK(m, n, k)) {
+            sgemmSplitK(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, blocking, epilogue);
+            return;
+        }
+        int kc = Math.min(blocking.getQ(), k);
+        float[] packb = packedB != null ? null : BlasWorkspace.floatPackB(kc * Math.min(blocking.getR(), n));
+        if (BlasParallel.isLevel3Parallel(m, n, k)) {
+            sgemmParallel(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, packb, 0, blocking, packedA, packedB, epilogue);
+        } else {
+            float[] packa = packedA != null ? null : BlasWorkspace.floatPackA(kc * Math.min(blocking.getP(), m));
+            sgemmVector(transaFlag, transbFlag, m, n, k, a, aOffset, lda, alpha, b, bOffset, ldb, beta, c, cOffset,
+                ldc, packa, 0, packb, 0, blocking, packedA, packedB, epilogue);
+        }
+    }
+
+    /**
+     * Size of the packing workspace: one p x q block of a followed by one q x r panel of b.
+     */
+    private static int workSize(int m, int n, int k, GemmBlocking blocking) {
+        int kc = Math.min(blocking.getQ(), k);
+        return Math.max(1, kc * Math.min(blocking.getP(), m) + kc * Math.min(blocking.getR(), n));
+    }
+
+    /**
+     * Serial driver: the first k block of every C tile is stored with beta, the later ones add to it, and the
+     * epilogue runs with the last k block.
+     */
+    static void sgemmVector(boolean transaFlag, boolean transbFlag, int sizeM, int sizeN, int sizeK, float[] sa,
+        int aOffset, int lda, float alpha, float[] sb, int bOffset, int ldb, float beta, float[] sc, int cOffset,
+        int ldc, float[] packa, int packaOffset, float[] packb, int packbOffset, GemmBlocking blocking,
+        PackedMatrix packedA, PackedMatrix packedB, GemmEpilogue epilogue) {
+        int mcMax = Math.min(blocking.getP(), sizeM);
+        int ncMax = Math.min(blocking.getR(), sizeN);
+        int kcMax = Math.min(blocking.getQ(), sizeK);
+        for (int ns = 0; ns < sizeN; ns += ncMax) {
+            int nc = Math.min(ncMax, sizeN - ns);
+            for (int ks = 0; ks < sizeK; ks += kcMax) {
+                int kc = Math.min(kcMax, sizeK - ks);
+                float kBeta = ks == 0 ? beta : 1.0f;
+                GemmEpilogue kEpilogue = ks + kc == sizeK ? epilogue : null;
+                float[] panelB = packb;
+                int panelBOffset = packbOffset;
+                if (packedB != null) {
+                    panelB = packedB.getFloatData();
+                    panelBOffset = ns * sizeK + ks * nc;
+                } else if (transbFlag) {
+                    SblasLevel3.onCopy(kc, nc, sb, ks, ns, bOffset, ldb, packb, packbOffset); // packing matrix b
+                } else {
+                    otCopy(nc, kc, sb, ns, ks, bOffset, ldb, packb, packbOffset);
+                }
+                for (int ms = 0; ms < sizeM; ms += mcMax) {
+                    int mc = Math.min(mcMax, sizeM - ms);
+                    float[] blockA = packa;
+                    int blockAOffset = packaOffset;
+                    if (packedA != null) {
+                        blockA = packedA.getFloatData();
+                        blockAOffset = ks * sizeM + ms * kc;
+                    } else if (transaFlag) {
+                        SblasLevel3.itCopy(mc, kc, sa, ms, ks, aOffset, lda, packa, packaOffset); // packing matrix a
+                    } else {
+                        inCopy(kc, mc, sa, ks, ms, aOffset, lda, packa, packaOffset);
+                    }
+                    SblasLevel3.kernelOperation(mc, nc, kc, alpha, blockA, blockAOffset, panelB, panelBOffset, kBeta,
+                        sc, ldc, cOffset, ms, ns, kEpilogue);
                 }
             }
         }
     }
 
+    /**
+     * Multi-threaded driver over the same ns/ks/ms blocking as sgemmVector. For every (ns, ks) panel the
+     * workers first pack slices of B into the shared packb, then each worker packs its own m macro-tile of A
+     * and runs the kernel on it. When there are fewer m tiles than workers, the panel columns are split as well.
+     * A pre-packed operand skips its packing step, a packed A keeps the m tiles it was packed with.
+     */
+    private static void sgemmParallel(boolean transaFlag, boolean transbFlag, int sizeM, int sizeN, int sizeK,
+        float[] sa, int aOffset, int lda, float alpha, float[] sb, int bOffset, int ldb, float beta, float[] sc,
+        int cOffset, int ldc, float[] packb, int packbOffset, GemmBlocking blocking, PackedMatrix packedA,
+        PackedMatrix packedB, GemmEpilogue epilogue) {
+        int threads = BlasParallel.getNumThreads();
+        int mcMax = packedA != null ? Math.min(blocking.getP(), sizeM)
+            : Math.min(blocking.getP(), roundUp(ceilDiv(sizeM, threads), SGEMM_UNROLL_M));
+        int mTiles = ceilDiv(sizeM, mcMax);
+        int ncMax = Math.min(blocking.getR(), sizeN);
+        int kcMax = Math.min(blocking.getQ(), sizeK);
+        for (int ns = 0; ns < sizeN; ns += ncMax) {
+            final int nsStart = ns;
+            final int nc = Math.min(ncMax, sizeN - ns);
+            int nParts = Math.max(1, Math.min(threads / mTiles, nc / SGEMM_UNROLL_N));
+            final int nStep = roundUp(ceilDiv(nc, nParts), SGEMM_UNROLL_N);
+            final int nTasks = ceilDiv(nc, nStep);
+            final int packStep = roundUp(ceilDiv(nc, Math.min(threads, ceilDiv(nc, SGEMM_UNROLL_N))), SGEMM_UNROLL_N);
+            for (int ks = 0; ks < sizeK; ks += kcMax) {
+                final int ksStart = ks;
+                final int kc = Math.min(kcMax, sizeK - ks);
+                final float kBeta = ks == 0 ? beta : 1.0f;
+                final GemmEpilogue kEpilogue = ks + kc == sizeK ? epilogue : null;
+                final float[] panelB = packedB != null ? packedB.getFloatData() : packb;
+                final int panelBOffset = packedB != null ? ns * sizeK + ks * nc : packbOffset;
+                if (packedB == null) {
+                    BlasParallel.parallelFor(ceilDiv(nc, packStep), part -> {
+                        int js = part * packStep;
+                        int jc = Math.min(packStep, nc - js);
+                        if (transbFlag) {
+                            SblasLevel3.onCopy(kc, jc, sb, ksStart, nsStart + js, bOffset, ldb, packb,
+                                packbOffset + js * kc);
+                        } else {
+                            otCopy(jc, kc, sb, nsStart + js, ksStart, bOffset, ldb, packb, packbOffset + js * kc);
+                        }
+                    });
+                }
+                BlasParallel.parallelFor(mTiles * nTasks, task -> {
+                    int ms = (task / nTasks) * mcMax;
+                    int mc = Math.min(mcMax, sizeM - ms);
+                    int js = (task % nTasks) * nStep;
+                    int jc = Math.min(nStep, nc - js);
+                    float[] blockA;
+                    int blockAOffset = 0;
+                    if (packedA != null) {
+                        blockA = packedA.getFloatData();
+                        blockAOffset = ksStart * sizeM + ms * kc;
+                    } else {
+                        blockA = BlasWorkspace.floatPackA(kc * mc);
+                        if (transaFlag) {
+                            SblasLevel3.itCopy(mc, kc, sa, ms, ksStart, aOffset, lda, blockA, 0);
+                        } else {
+                            inCopy(kc, mc, sa, ksStart, ms, aOffset, lda, blockA, 0);
+                        }
+                    }
+                    SblasLevel3.kernelOperation(mc, jc, kc, alpha, blockA, blockAOffset, panelB, panelBOffset + js * kc,
+                        kBeta, sc, ldc, cOffset, ms, nsStart + js, kEpilogue);
+                });
+            }
+        }
+    }
+
+    /**
+     * Split-K driver for problems where k dominates m x n. k is cut into slices of whole k blocks and every
+     * slice runs the serial driver on its own worker: the first slice stores into c with beta, the others into
+     * m x n partial buffers with beta = 0. The partials are then added into c in a fixed pairwise tree
+     * (slice s takes s + 1, s + 2 takes s + 3, then s takes s + 2, ...), split over the columns of c.
+     */
+    private static void sgemmSplitK(boolean transaFlag, boolean transbFlag, int sizeM, int sizeN, int sizeK,
+        float[] sa, int aOffset, int lda, float alpha, float[] sb, int bOffset, int ldb, float beta, float[] sc,
+        int cOffset, int ldc, GemmBlocking blocking, GemmEpilogue epilogue) {
+        int kcMax = Math.min(blocking.getQ(), sizeK);
+        int slices = BlasParallel.splitKSlices(sizeM, sizeN, sizeK, kcMax);
+        int kStep = roundUp(ceilDiv(sizeK, slices), kcMax);
+        int sliceCount = ceilDiv(sizeK, kStep);
+        int sliceSize = sizeM * sizeN;
+        float[] partial = BlasWorkspace.floatSplitK((sliceCount - 1) * sliceSize);
+        BlasParallel.parallelFor(sliceCount, slice -> {
+            int ks = slice * kStep;
+            int kc = Math.min(kStep, sizeK - ks);
+            int sliceAOffset = aOffset + (transaFlag ? ks * lda : ks);
+            int sliceBOffset = bOffset + (transbFlag ? ks : ks * ldb);
+            float[] packa = BlasWorkspace.floatPackA(Math.min(kcMax, kc) * Math.min(blocking.getP(), sizeM));
+            float[] packb = BlasWorkspace.floatPackB(Math.min(kcMax, kc) * Math.min(blocking.getR(), sizeN));
+            if (slice == 0) {
+                sgemmVector(transaFlag, transbFlag, sizeM, sizeN, kc, sa, sliceAOffset, lda, alpha, sb, sliceBOffset,
+                    ldb, beta, sc, cOffset, ldc, packa, 0, packb, 0, blocking, null, null, null);
+            } else {
+                sgemmVector(transaFlag, transbFlag, sizeM, sizeN, kc, sa, sliceAOffset, lda, alpha, sb, sliceBOffset,
+                    ldb, 0.0f, partial, (slice - 1) * sliceSize, sizeM, packa, 0, packb, 0, blocking, null, null, null);
+            }
+        });
+        int threads = BlasParallel.getNumThreads();
+        int colStep = ceilDiv(sizeN, Math.min(threads, sizeN));
+        BlasParallel.parallelFor(ceilDiv(sizeN, colStep), part -> {
+            int colEnd = Math.min(sizeN, (part + 1) * colStep);
+            for (int col = part * colStep; col < colEnd; col++) {
+                for (int stride = 1; stride < sliceCount; stride *= 2) {
+                    for (int slice = 0; slice + stride < sliceCount; slice += 2 * stride) {
+                        int src = (slice + stride - 1) * sliceSize + col * sizeM;
+                        if (slice == 0) {
+                            Saxpy.saxpy(sizeM, 1.0f, partial, src, 1, sc, cOffset + col * ldc, 1);
+                        } else {
+                            Saxpy.saxpy(sizeM, 1.0f, partial, src, 1, partial, (slice - 1) * sliceSize + col * sizeM,
+                                1);
+                        }
+                    }
+                }
+                if (epilogue != null) {
+                    SblasLevel3.epilogueTile(sizeM, 1, sc, cOffset + col * ldc, ldc, epilogue, 0, col);
+                }
+            }
+        });
+    }
+
     /**
      * otCopy method is used for transpose packing matrix in the right.
      */
-    private static void otCopy(int sizeM, int sizeN, float[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
+    protected static void otCopy(int sizeM, int sizeN, float[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
         float[] dst, int dstOffset) {
         int row = 0;
-        int colPackSize = SGEMM_UNROLL_N;
         int dstIndex = 0;
-        for (; row < sizeM - sizeM % colPackSize; row += colPackSize) {
-            int col = 0;
-            for (; col < sizeN; col += 1) {
-                System.arraycopy(src, (srcRow + row) + (srcCol + col) * srcLd + srcOffset, dst,
-                    dstOffset + dstIndex, SGEMM_UNROLL_N);
-                dstIndex += colPackSize;
-            }
-        }
-        for (; row < sizeM; row += 1) {
-            int col = 0;
-            for (; col < sizeN; col += 1) {
-                dst[dstOffset + dstIndex] = src[(srcRow + row) + (srcCol + col) * srcLd + srcOffset];
-                dstIndex += 1;
+        for (int colPackSize : N_PACK_SIZES) {
+            for (; row + colPackSize <= sizeM; row += colPackSize) {
+                for (int col = 0; col < sizeN; col++) {
+                    System.arraycopy(src, (srcRow + row) + (srcCol + col) * srcLd + srcOffset, dst,
+                        dstOffset + dstIndex, colPackSize);
+                    dstIndex += colPackSize;
+                }
             }
         }
     }
@@ -120,23 +603,15 @@ public class Sgemm {
     /**
      * inCopy is used for normally packing matrix in the left.
      */
-    private static void inCopy(int sizeM, int sizeN, float[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
+    protected static void inCopy(int sizeM, int sizeN, float[] src, int srcRow, int srcCol, int srcOffset, int srcLd,
         float[] dst, int dstOffset) {
-        int col = 0;
         int dstIndex = 0;
-        int[] vectorLengthList = {VECTOR_LENGTH4, VECTOR_LENGTH2, VECTOR_LENGTH, 1};
-        for (int vectorLen : vectorLengthList) {
-            while (col + vectorLen <= sizeN) {
-                int row = 0;
-                for (; row < sizeM; row++) {
-                    for (int count = 0; count < vectorLen; count++) {
-                        dst[dstOffset + dstIndex + count] = src[srcOffset + (srcRow + row) + (srcCol + (col + count))
-                            * srcLd];
-                    }
-                    dstIndex += vectorLen;
-                }
-                col += vectorLen;
-            }
+        for (int col = 0; col < sizeN; ) {
+            int vectorLen = SblasLevel3.packChunk(M_PACK_SIZES, sizeN - col);
+            SblasLevel3.transposeCopy(sizeM, vectorLen, src, srcOffset + srcRow + (srcCol + col) * srcLd, srcLd, dst,
+                dstOffset + dstIndex);
+            dstIndex += sizeM * vectorLen;
+            col += vectorLen;
         }
     }
 }
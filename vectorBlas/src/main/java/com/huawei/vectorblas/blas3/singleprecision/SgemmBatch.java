@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.singleprecision;
+
+import static com.huawei.vectorblas.utils.ArrayUtil.ceilDiv;
+
+import com.huawei.vectorblas.utils.BlasParallel;
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * Batched SGEMM. The parameters are validated once per call (per group for sgemmBatch) and every member
+ * runs on the Sgemm blocked loops with the thread-local packing buffers. When the batch has at least as many
+ * members as there are threads, whole members are spread over the pool; otherwise each member may use the
+ * multi-threaded driver itself.
+ */
+public class SgemmBatch {
+    private static final int TASKS_PER_THREAD = 4; // Members are dealt out in chunks, several per thread.
+
+    /**
+     * Member i computes C_i = alpha * op(A_i) * op(B_i) + beta * C_i with A_i starting at aOffset + i * strideA
+     * in a, and likewise for B_i and C_i.
+     */
+    public static void sgemmBatchStrided(String transa, String transb, int m, int n, int k, float alpha, float[] a,
+        int aOffset, int lda, int strideA, float[] b, int bOffset, int ldb, int strideB, float beta, float[] c,
+        int cOffset, int ldc, int strideC, int batchSize) {
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 3, m >= 0);
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 4, n >= 0);
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 5, k >= 0);
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 8, lda >= Math.max(1, (transaFlag ? m : k)));
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 9, strideA >= 0);
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 11, ldb >= Math.max(1, (transbFlag ? k : n)));
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 12, strideB >= 0);
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 15, ldc >= Math.max(1, m));
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 16, strideC >= 0);
+        BlasUtils.checkParameter("SGEMM_BATCH_STRIDED", 17, batchSize >= 0);
+        if (m == 0 || n == 0 || batchSize == 0) {
+            return;
+        }
+        int last = batchSize - 1;
+        BlasUtils.checkBlasArray("c", cOffset, last * strideC + (m - 1) + (n - 1) * ldc, c.length);
+        if (k > 0 && !BlasUtils.isZero(alpha)) {
+            BlasUtils.checkBlasArray("a", aOffset, last * strideA + ((transaFlag ? m : k) - 1)
+                + ((transaFlag ? k : m) - 1) * lda, a.length);
+            BlasUtils.checkBlasArray("b", bOffset, last * strideB + ((transbFlag ? k : n) - 1)
+                + ((transbFlag ? n : k) - 1) * ldb, b.length);
+        }
+        GemmBlocking blocking = SblasLevel3.getBlocking();
+        int threads = BlasParallel.getNumThreads();
+        int step = batchSize >= threads && BlasParallel.isLevel3Parallel((long) m * n * k * batchSize)
+            ? ceilDiv(batchSize, Math.min(batchSize, threads * TASKS_PER_THREAD)) : batchSize;
+        BlasParallel.parallelFor(ceilDiv(batchSize, step), task -> {
+            int end = Math.min(batchSize, (task + 1) * step);
+            for (int i = task * step; i < end; i++) {
+                Sgemm.sgemmChecked(transaFlag, transbFlag, m, n, k, alpha, a, aOffset + i * strideA, lda, b,
+                    bOffset + i * strideB, ldb, beta, c, cOffset + i * strideC, ldc, blocking, null, null, null);
+            }
+        });
+    }
+
+    /**
+     * Grouped batch: group g has groupSize[g] members sharing transa[g], transb[g], m[g], n[g], k[g], alpha[g],
+     * lda[g], ldb[g], beta[g] and ldc[g]. Member j of the whole batch uses a[j], b[j] and c[j] at the offsets
+     * aOffset[j], bOffset[j] and cOffset[j], members of group 0 first.
+     */
+    public static void sgemmBatch(String[] transa, String[] transb, int[] m, int[] n, int[] k, float[] alpha,
+        float[][] a, int[] aOffset, int[] lda, float[][] b, int[] bOffset, int[] ldb, float[] beta, float[][] c,
+        int[] cOffset, int[] ldc, int groupCount, int[] groupSize) {
+        BlasUtils.checkParameter("SGEMM_BATCH", 14, groupCount >= 0 && transa.length >= groupCount
+            && transb.length >= groupCount && m.length >= groupCount && n.length >= groupCount
+            && k.length >= groupCount && alpha.length >= groupCount && lda.length >= groupCount
+            && ldb.length >= groupCount && beta.length >= groupCount && ldc.length >= groupCount);
+        BlasUtils.checkParameter("SGEMM_BATCH", 15, groupSize.length >= groupCount);
+        boolean[] transaFlag = new boolean[groupCount];
+        boolean[] transbFlag = new boolean[groupCount];
+        int[] groupStart = new int[groupCount + 1];
+        long work = 0L;
+        for (int g = 0; g < groupCount; g++) {
+            BlasUtils.checkParameter("SGEMM_BATCH", 1, Lsame.lsame(transa[g], "N") || Lsame.lsame(transa[g], "T"));
+            BlasUtils.checkParameter("SGEMM_BATCH", 2, Lsame.lsame(transb[g], "N") || Lsame.lsame(transb[g], "T"));
+            transaFlag[g] = Lsame.lsame(transa[g], "N");
+            transbFlag[g] = Lsame.lsame(transb[g], "N");
+            BlasUtils.checkParameter("SGEMM_BATCH", 3, m[g] >= 0);
+            BlasUtils.checkParameter("SGEMM_BATCH", 4, n[g] >= 0);
+            BlasUtils.checkParameter("SGEMM_BATCH", 5, k[g] >= 0);
+            BlasUtils.checkParameter("SGEMM_BATCH", 8, lda[g] >= Math.max(1, (transaFlag[g] ? m[g] : k[g])));
+            BlasUtils.checkParameter("SGEMM_BATCH", 10, ldb[g] >= Math.max(1, (transbFlag[g] ? k[g] : n[g])));
+            BlasUtils.checkParameter("SGEMM_BATCH", 13, ldc[g] >= Math.max(1, m[g]));
+            BlasUtils.checkParameter("SGEMM_BATCH", 15, groupSize[g] >= 0);
+            groupStart[g + 1] = groupStart[g] + groupSize[g];
+            work += (long) m[g] * n[g] * k[g] * groupSize[g];
+        }
+        int total = groupStart[groupCount];
+        BlasUtils.checkParameter("SGEMM_BATCH", 7, a.length >= total && aOffset.length >= total);
+        BlasUtils.checkParameter("SGEMM_BATCH", 9, b.length >= total && bOffset.length >= total);
+        BlasUtils.checkParameter("SGEMM_BATCH", 12, c.length >= total && cOffset.length >= total);
+        for (int g = 0; g < groupCount; g++) {
+            if (m[g] == 0 || n[g] == 0) {
+                continue;
+            }
+            boolean readAb = k[g] > 0 && !BlasUtils.isZero(alpha[g]);
+            for (int j = groupStart[g]; j < groupStart[g + 1]; j++) {
+                BlasUtils.checkBlasArray("c", cOffset[j], (m[g] - 1) + (n[g] - 1) * ldc[g], c[j].length);
+                if (readAb) {
+                    BlasUtils.checkBlasArray("a", aOffset[j], ((transaFlag[g] ? m[g] : k[g]) - 1)
+                        + ((transaFlag[g] ? k[g] : m[g]) - 1) * lda[g], a[j].length);
+                    BlasUtils.checkBlasArray("b", bOffset[j], ((transbFlag[g] ? k[g] : n[g]) - 1)
+                        + ((transbFlag[g] ? n[g] : k[g]) - 1) * ldb[g], b[j].length);
+                }
+            }
+        }
+        if (total == 0) {
+            return;
+        }
+        GemmBlocking blocking = SblasLevel3.getBlocking();
+        int threads = BlasParallel.getNumThreads();
+        int step = total >= threads && BlasParallel.isLevel3Parallel(work)
+            ? ceilDiv(total, Math.min(total, threads * TASKS_PER_THREAD)) : total;
+        BlasParallel.parallelFor(ceilDiv(total, step), task -> {
+            int end = Math.min(total, (task + 1) * step);
+            int g = 0;
+            for (int j = task * step; j < end; j++) {
+                while (j >= groupStart[g + 1]) {
+                    g++;
+                }
+                Sgemm.sgemmChecked(transaFlag[g], transbFlag[g], m[g], n[g], k[g], alpha[g], a[j], aOffset[j],
+                    lda[g], b[j], bOffset[j], ldb[g], beta[g], c[j], cOffset[j], ldc[g], blocking, null, null, null);
+            }
+        });
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Packing-free SGEMM for small matrices. The kernels read a and b in place and fold alpha and beta into the
+ * single store of every element of c, so no packing buffer or separate beta pass is involved. With beta = 0,
+ * c is not read. Full vectors use plain loads and stores; the remainder shorter than a vector is read with
+ * masked loads in separate tail methods and stored lane by lane, so that the masked fallback paths never end
+ * up in the profile of the main loops.
+ */
+final class SgemmSmall {
+    private static final VectorSpecies<Float> SSPECIES = FloatVector.SPECIES_MAX;
+    private static final int VECTOR_LENGTH = SSPECIES.length();
+    private static final int SMALL_SIZE = 32; // m, n and k up to this size take the small path.
+
+    private SgemmSmall() {
+    }
+
+    /**
+     * Whether C = alpha * op(A) * op(B) + beta * C takes the small path. A**T * B is left to the packed path:
+     * in place it only vectorizes as dot products, which lose to packing at every small size.
+     */
+    static boolean isSmall(boolean transaFlag, boolean transbFlag, int m, int n, int k) {
+        return (transaFlag || !transbFlag) && m <= SMALL_SIZE && n <= SMALL_SIZE && k <= SMALL_SIZE;
+    }
+
+    /**
+     * C = alpha * op(A) * op(B) + beta * C for validated parameters with m, n, k > 0 and isSmall.
+     * op(A) = A vectorizes over the rows of c and A**T * B**T over the columns of c.
+     */
+    static void sgemmSmall(boolean transaFlag, boolean transbFlag, int m, int n, int k, float alpha, float[] sa,
+        int aOffset, int lda, float[] sb, int bOffset, int ldb, float beta, float[] sc, int cOffset, int ldc) {
+        if (transaFlag) {
+            int bRow = transbFlag ? 1 : ldb; // op(B)(l, j) is sb[bOffset + l * bRow + j * bCol].
+            int bCol = transbFlag ? ldb : 1;
+            int i = 0;
+            for (; i + VECTOR_LENGTH <= m; i += VECTOR_LENGTH) {
+                normalRows(n, k, alpha, sa, aOffset + i, lda, sb, bOffset, bRow, bCol, beta, sc, cOffset + i, ldc);
+            }
+            if (i < m) {
+                normalRowsTail(SSPECIES.indexInRange(i, m), m - i, n, k, alpha, sa, aOffset + i, lda, sb, bOffset,
+                    bRow, bCol, beta, sc, cOffset + i, ldc, new float[4 * VECTOR_LENGTH]);
+            }
+        } else {
+            float[] tmp = new float[4 * VECTOR_LENGTH];
+            int j = 0;
+            for (; j + VECTOR_LENGTH <= n; j += VECTOR_LENGTH) {
+                transBothColumns(m, k, alpha, sa, aOffset, lda, sb, bOffset + j, ldb, beta, sc, cOffset + j * ldc,
+                    ldc, tmp);
+            }
+            if (j < n) {
+                transBothColumnsTail(SSPECIES.indexInRange(j, n), n - j, m, k, alpha, sa, aOffset, lda, sb,
+                    bOffset + j, ldb, beta, sc, cOffset + j * ldc, ldc, tmp);
+            }
+        }
+    }
+
+    /**
+     * One vector of rows of c = alpha * A * op(B) + beta * c.
+     */
+    private static void normalRows(int n, int k, float alpha, float[] sa, int aOffset, int lda, float[] sb,
+        int bOffset, int bRow, int bCol, float beta, float[] sc, int cOffset, int ldc) {
+        int j = 0;
+        for (; j + 4 <= n; j += 4) {
+            FloatVector c0 = FloatVector.zero(SSPECIES);
+            FloatVector c1 = FloatVector.zero(SSPECIES);
+            FloatVector c2 = FloatVector.zero(SSPECIES);
+            FloatVector c3 = FloatVector.zero(SSPECIES);
+            int aIndx = aOffset;
+            int bIndx = bOffset + j * bCol;
+            for (int l = 0; l < k; l++) {
+                FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx);
+                c0 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx]), c0);
+                c1 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + bCol]), c1);
+                c2 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + 2 * bCol]), c2);
+                c3 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + 3 * bCol]), c3);
+                aIndx += lda;
+                bIndx += bRow;
+            }
+            int cIndx = cOffset + j * ldc;
+            store(c0, alpha, beta, sc, cIndx);
+            store(c1, alpha, beta, sc, cIndx + ldc);
+            store(c2, alpha, beta, sc, cIndx + 2 * ldc);
+            store(c3, alpha, beta, sc, cIndx + 3 * ldc);
+        }
+        for (; j < n; j++) {
+            FloatVector c0 = FloatVector.zero(SSPECIES);
+            int aIndx = aOffset;
+            int bIndx = bOffset + j * bCol;
+            for (int l = 0; l < k; l++) {
+                c0 = FloatVector.fromArray(SSPECIES, sa, aIndx).fma(FloatVector.broadcast(SSPECIES, sb[bIndx]), c0);
+                aIndx += lda;
+                bIndx += bRow;
+            }
+            store(c0, alpha, beta, sc, cOffset + j * ldc);
+        }
+    }
+
+    /**
+     * normalRows for the last lanes rows of c, fewer than a vector, selected by mask.
+     */
+    private static void normalRowsTail(VectorMask<Float> mask, int lanes, int n, int k, float alpha, float[] sa,
+        int aOffset, int lda, float[] sb, int bOffset, int bRow, int bCol, float beta, float[] sc, int cOffset,
+        int ldc, float[] tmp) {
+        int j = 0;
+        for (; j + 4 <= n; j += 4) {
+            FloatVector c0 = FloatVector.zero(SSPECIES);
+            FloatVector c1 = FloatVector.zero(SSPECIES);
+            FloatVector c2 = FloatVector.zero(SSPECIES);
+            FloatVector c3 = FloatVector.zero(SSPECIES);
+            int aIndx = aOffset;
+            int bIndx = bOffset + j * bCol;
+            for (int l = 0; l < k; l++) {
+                FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx, mask);
+                c0 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx]), c0);
+                c1 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + bCol]), c1);
+                c2 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + 2 * bCol]), c2);
+                c3 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx + 3 * bCol]), c3);
+                aIndx += lda;
+                bIndx += bRow;
+            }
+            c0.intoArray(tmp, 0);
+            c1.intoArray(tmp, VECTOR_LENGTH);
+            c2.intoArray(tmp, 2 * VECTOR_LENGTH);
+            c3.intoArray(tmp, 3 * VECTOR_LENGTH);
+            storeLanes(tmp, 4, lanes, alpha, beta, sc, cOffset + j * ldc, ldc, 1);
+        }
+        for (; j < n; j++) {
+            FloatVector c0 = FloatVector.zero(SSPECIES);
+            int aIndx = aOffset;
+            int bIndx = bOffset + j * bCol;
+            for (int l = 0; l < k; l++) {
+                FloatVector a0 = FloatVector.fromArray(SSPECIES, sa, aIndx, mask);
+                c0 = a0.fma(FloatVector.broadcast(SSPECIES, sb[bIndx]), c0);
+                aIndx += lda;
+                bIndx += bRow;
+            }
+            c0.intoArray(tmp, 0);
+            storeLanes(tmp, 1, lanes, alpha, beta, sc, cOffset + j * ldc, ldc, 1);
+        }
+    }
+
+    /**
+     * One vector of columns of c = alpha * A**T * B**T + beta * c, vectorized along the rows of b. A vector
+     * accumulates part of a row of c, so the results go through tmp to be stored along the row.
+     */
+    private static void transBothColumns(int m, int k, float alpha, float[] sa, int aOffset, int lda, float[] sb,
+        int bOffset, int ldb, float beta, float[] sc, int cOffset, int ldc, float[] tmp) {
+        int i = 0;
+        for (; i + 4 <= m; i += 4) {
+            FloatVector c0 = FloatVector.zero(SSPECIES);
+            FloatVector c1 = FloatVector.zero(SSPECIES);
+            FloatVector c2 = FloatVector.zero(SSPECIES);
+            FloatVector c3 = FloatVector.zero(SSPECIES);
+            int aIndx = aOffset + i * lda;
+            int bIndx = bOffset;
+            for (int l = 0; l < k; l++) {
+                FloatVector b0 = FloatVector.fromArray(SSPECIES, sb, bIndx);
+                c0 = b0.fma(FloatVector.broadcast(SSPECIES, sa[aIndx + l]), c0);
+                c1 = b0.fma(FloatVector.broadcast(SSPECIES, sa[aIndx + lda + l]), c1);
+                c2 = b0.fma(FloatVector.broadcast(SSPECIES, sa[aIndx + 2 * lda + l]), c2);
+                c3 = b0.fma(FloatVector.broadcast(SSPECIES, sa[aIndx + 3 * lda + l]), c3);
+                bIndx += ldb;
+            }
+            c0.intoArray(tmp, 0);
+            c1.intoArray(tmp, VECTOR_LENGTH);
+            c2.intoArray(tmp, 2 * VECTOR_LENGTH);
+            c3.intoArray(tmp, 3 * VECTOR_LENGTH);
+            storeLanes(tmp, 4, VECTOR_LENGTH, alpha, beta, sc, cOffset + i, 1, ldc);
+        }
+        for (; i < m; i++) {
+            FloatVector c0 = FloatVector.zero(SSPECIES);
+            int aIndx = aOffset + i * lda;
+            int bIndx = bOffset;
+            for (int l = 0; l < k; l++) {
+                c0 = FloatVector.fromArray(SSPECIES, sb, bIndx).fma(FloatVector.broadcast(SSPECIES, sa[aIndx + l]),
+                    c0);
+                bIndx += ldb;
+            }
+            c0.intoArray(tmp, 0);
+            storeLanes(tmp, 1, VECTOR_LENGTH, alpha, beta, sc, cOffset + i, 1, ldc);
+        }
+    }
+
+    /**
+     * transBothColumns for the last lanes columns of c, fewer than a vector, selected by mask.
+     */
+    private static void transBothColumnsTail(VectorMask<Float> mask, int lanes, int m, int k, float alpha,
+        float[] sa, int aOffset, int lda, float[] sb, int bOffset, int ldb, float beta, float[] sc, int cOffset,
+        int ldc, float[] tmp) {
+        for (int i = 0; i < m; i++) {
+            FloatVector c0 = FloatVector.zero(SSPECIES);
+            int aIndx = aOffset + i * lda;
+            int bIndx = bOffset;
+            for (int l = 0; l < k; l++) {
+                FloatVector b0 = FloatVector.fromArray(SSPECIES, sb, bIndx, mask);
+                c0 = b0.fma(FloatVector.broadcast(SSPECIES, sa[aIndx + l]), c0);
+                bIndx += ldb;
+            }
+            c0.intoArray(tmp, 0);
+            storeLanes(tmp, 1, lanes, alpha, beta, sc, cOffset + i, 1, ldc);
+        }
+    }
+
+    private static void store(FloatVector acc, float alpha, float beta, float[] sc, int cIndx) {
+        // Both branches end in a store, so no vector value merges after the branch and C2 keeps it unboxed.
+        if (BlasUtils.isZero(beta)) {
+            acc.mul(alpha).intoArray(sc, cIndx);
+        } else {
+            FloatVector c0 = FloatVector.fromArray(SSPECIES, sc, cIndx);
+            c0.fma(FloatVector.broadcast(SSPECIES, beta), acc.mul(alpha)).intoArray(sc, cIndx);
+        }
+    }
+
+    private static void store(float acc, float alpha, float beta, float[] sc, int cIndx) {
+        sc[cIndx] = BlasUtils.isZero(beta) ? alpha * acc : alpha * acc + beta * sc[cIndx];
+    }
+
+    /**
+     * Store lanes [0, lanes) of the vectors accumulators saved in tmp, one per vector length. Lane t of
+     * vector r goes to sc[cIndx + r * vectorStride + t * laneStride].
+     */
+    private static void storeLanes(float[] tmp, int vectors, int lanes, float alpha, float beta, float[] sc,
+        int cIndx, int vectorStride, int laneStride) {
+        for (int t = 0; t < lanes; t++) {
+            int cIndxT = cIndx + t * laneStride;
+            for (int r = 0; r < vectors; r++) {
+                store(tmp[r * VECTOR_LENGTH + t], alpha, beta, sc, cIndxT + r * vectorStride);
+            }
+        }
+    }
+}
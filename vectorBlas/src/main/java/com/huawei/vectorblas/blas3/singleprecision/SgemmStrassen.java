@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.blas3.singleprecision;
+
+import com.huawei.vectorblas.blas1.singleprecision.Saxpy;
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.Lsame;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Opt-in Strassen-Winograd SGEMM for very large problems. Each level splits op(A), op(B) and C into 2 x 2
+ * quadrants and forms C from 7 quadrant products and 15 quadrant additions instead of 8 products, which saves an
+ * eighth of the multiply-adds per level. A level recurses while the smallest of m, n and k is at least the cutoff,
+ * smaller products go to the blocked SGEMM, and an odd last row, column or k index is added by SGEMM afterwards.
+ * The error bound grows by a constant factor per level compared with SGEMM, so this is not used by sgemm itself.
+ *
+ * <p>Every level keeps three quadrant temporaries in one workspace: X for sums of A quadrants, Y for sums of B
+ * quadrants and Q for products, followed by the temporaries of the next level. The sums are formed in the storage
+ * orientation of A and B, so transposed operands are read contiguously and keep their trans flag.
+ */
+public class SgemmStrassen {
+    private static final String CUTOFF_PROPERTY = "vectorblas.strassen.cutoff";
+    private static final int DEFAULT_CUTOFF = 4096;
+    private static final int MIN_CUTOFF = 64; // below this the quadrant additions cost more than they save.
+    private static final VectorSpecies<Float> SSPECIES = FloatVector.SPECIES_MAX;
+
+    private static volatile int cutoff = Math.max(MIN_CUTOFF, Integer.getInteger(CUTOFF_PROPERTY, DEFAULT_CUTOFF));
+
+    private final String transa;
+    private final String transb;
+    private final boolean transaFlag;
+    private final boolean transbFlag;
+    private final int levelCutoff;
+
+    private SgemmStrassen(String transa, String transb, int levelCutoff) {
+        this.transa = transa;
+        this.transb = transb;
+        this.transaFlag = Lsame.lsame(transa, "N");
+        this.transbFlag = Lsame.lsame(transb, "N");
+        this.levelCutoff = levelCutoff;
+    }
+
+    /**
+     * Set the smallest dimension from which a product is split further, at least 64.
+     */
+    public static void setCutoff(int size) {
+        BlasUtils.checkParameter("SETSTRASSENCUTOFF", 1, size >= MIN_CUTOFF);
+        cutoff = size;
+    }
+
+    public static int getCutoff() {
+        return cutoff;
+    }
+
+    public static void sgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        sgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc, null, 0, 0);
+    }
+
+    /**
+     * Strassen-Winograd SGEMM with a caller supplied workspace for the quadrant temporaries, in the LAPACK lwork
+     * style: with lwork = -1 only the required workspace size is returned in work[workOffset]. A null work uses
+     * the thread-local workspace.
+     */
+    public static void sgemm(String transa, String transb, int m, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc, float[] work,
+        int workOffset, int lwork) {
+        BlasUtils.checkParameter("SGEMM_STRASSEN", 1, Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T"));
+        BlasUtils.checkParameter("SGEMM_STRASSEN", 2, Lsame.lsame(transb, "N") || Lsame.lsame(transb, "T"));
+        boolean transaFlag = Lsame.lsame(transa, "N");
+        boolean transbFlag = Lsame.lsame(transb, "N");
+        BlasUtils.checkParameter("SGEMM_STRASSEN", 3, m >= 0);
+        BlasUtils.checkParameter("SGEMM_STRASSEN", 4, n >= 0);
+        BlasUtils.checkParameter("SGEMM_STRASSEN", 5, k >= 0);
+        BlasUtils.checkParameter("SGEMM_STRASSEN", 8, lda >= Math.max(1, (transaFlag ? m : k)));
+        BlasUtils.checkParameter("SGEMM_STRASSEN", 10, ldb >= Math.max(1, (transbFlag ? k : n)));
+        BlasUtils.checkParameter("SGEMM_STRASSEN", 13, ldc >= Math.max(1, m));
+        int levelCutoff = cutoff;
+        long workSize = workSize(m, n, k, levelCutoff);
+        if (workSize > Integer.MAX_VALUE) { // temporaries do not fit in one array, run SGEMM
+            levelCutoff = Integer.MAX_VALUE;
+            workSize = 0L;
+        }
+        if (work != null) {
+            BlasUtils.checkParameter("SGEMM_STRASSEN", 15, lwork == -1 || lwork >= workSize);
+            if (lwork == -1) {
+                BlasUtils.checkBlasArray("work", workOffset, 0, work.length);
+                work[workOffset] = workSize;
+                return;
+            }
+            if (workSize > 0) {
+                BlasUtils.checkBlasArray("work", workOffset, (int) workSize - 1, work.length);
+            }
+        }
+        if (workSize == 0 || BlasUtils.isZero(alpha)) {
+            Sgemm.sgemm(transa, transb, m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+            return;
+        }
+        BlasUtils.checkBlasArray("a", aOffset, ((transaFlag ? m : k) - 1) + ((transaFlag ? k : m) - 1) * lda, a.length);
+        BlasUtils.checkBlasArray("b", bOffset, ((transbFlag ? k : n) - 1) + ((transbFlag ? n : k) - 1) * ldb, b.length);
+        BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
+        float[] temp = work != null ? work : BlasWorkspace.floatWide((int) workSize);
+        new SgemmStrassen(transa, transb, levelCutoff).multiply(m, n, k, alpha, a, aOffset, lda, b, bOffset, ldb,
+            beta, c, cOffset, ldc, temp, work != null ? workOffset : 0);
+    }
+
+    /**
+     * Workspace for a product whose levels split while the smallest dimension is at least levelCutoff.
+     */
+    private static long workSize(int m, int n, int k, int levelCutoff) {
+        if (Math.min(m, Math.min(n, k)) < levelCutoff) {
+            return 0L;
+        }
+        long mh = m / 2;
+        long nh = n / 2;
+        long kh = k / 2;
+        return mh * kh + kh * nh + mh * nh + workSize(m / 2, n / 2, k / 2, levelCutoff);
+    }
+
+    /**
+     * C := alpha * op(A) * op(B) + beta * C for the m x n x k product, with the temporaries from work[wIndex].
+     */
+    private void multiply(int m, int n, int k, float alpha, float[] a, int aIndex, int lda, float[] b,
+        int bIndex, int ldb, float beta, float[] c, int cIndex, int ldc, float[] work, int wIndex) {
+        if (Math.min(m, Math.min(n, k)) < levelCutoff) {
+            Sgemm.sgemm(transa, transb, m, n, k, alpha, a, aIndex, lda, b, bIndex, ldb, beta, c, cIndex, ldc);
+            return;
+        }
+        int mh = m / 2;
+        int nh = n / 2;
+        int kh = k / 2;
+        winograd(mh, nh, kh, alpha, a, aIndex, lda, b, bIndex, ldb, beta, c, cIndex, ldc, work, wIndex);
+        if (k > 2 * kh) {
+            Sgemm.sgemm(transa, transb, 2 * mh, 2 * nh, 1, alpha, a, aIndex + opIndex(transaFlag, 0, 2 * kh, lda),
+                lda, b, bIndex + opIndex(transbFlag, 2 * kh, 0, ldb), ldb, 1.0f, c, cIndex, ldc);
+        }
+        if (m > 2 * mh) {
+            Sgemm.sgemm(transa, transb, 1, n, k, alpha, a, aIndex + opIndex(transaFlag, 2 * mh, 0, lda), lda, b,
+                bIndex, ldb, beta, c, cIndex + 2 * mh, ldc);
+        }
+        if (n > 2 * nh) {
+            Sgemm.sgemm(transa, transb, 2 * mh, 1, k, alpha, a, aIndex, lda, b,
+                bIndex + opIndex(transbFlag, 0, 2 * nh, ldb), ldb, beta, c, cIndex + 2 * nh * ldc, ldc);
+        }
+    }
+
+    /**
+     * One Strassen-Winograd level on the 2mh x 2nh x 2kh leading part. With the quadrant sums
+     * S1 = A21 + A22, S2 = S1 - A11, S3 = A11 - A21, S4 = A12 - S2 and T1 = B12 - B11, T2 = B22 - T1,
+     * T3 = B22 - B12, T4 = T2 - B21, the products P1 = A11 B11, P2 = A12 B21, P3 = S4 B22, P4 = A22 T4,
+     * P5 = S1 T1, P6 = S2 T2, P7 = S3 T3 and U2 = P1 + P6, U3 = U2 + P7, the quadrants of C are
+     * C11 = P1 + P2, C12 = U2 + P5 + P3, C21 = U3 - P4 and C22 = U3 + P5. C is scaled by beta first and every
+     * term is then added to it scaled by alpha, so only X, Y and Q are needed besides C.
+     */
+    private void winograd(int mh, int nh, int kh, float alpha, float[] a, int aIndex, int lda, float[] b,
+        int bIndex, int ldb, float beta, float[] c, int cIndex, int ldc, float[] work, int wIndex) {
+        int a11 = aIndex;
+        int a12 = aIndex + opIndex(transaFlag, 0, kh, lda);
+        int a21 = aIndex + opIndex(transaFlag, mh, 0, lda);
+        int a22 = aIndex + opIndex(transaFlag, mh, kh, lda);
+        int b11 = bIndex;
+        int b12 = bIndex + opIndex(transbFlag, 0, nh, ldb);
+        int b21 = bIndex + opIndex(transbFlag, kh, 0, ldb);
+        int b22 = bIndex + opIndex(transbFlag, kh, nh, ldb);
+        int c11 = cIndex;
+        int c12 = cIndex + nh * ldc;
+        int c21 = cIndex + mh;
+        int c22 = cIndex + mh + nh * ldc;
+        // The quadrant sums are stored like the quadrants of A and B, as ldx x xCols and ldy x yCols blocks.
+        int ldx = transaFlag ? mh : kh;
+        int xCols = transaFlag ? kh : mh;
+        int ldy = transbFlag ? kh : nh;
+        int yCols = transbFlag ? nh : kh;
+        int xIndex = wIndex;
+        int yIndex = xIndex + mh * kh;
+        int qIndex = yIndex + kh * nh;
+        int next = qIndex + mh * nh;
+
+        if (Float.compare(beta, 1.0f) != 0) {
+            SblasLevel3.betaMulC(2 * mh, 2 * nh, beta, c, cIndex, ldc);
+        }
+        combine(ldx, xCols, a, a21, lda, false, a, a22, lda, work, xIndex, ldx); // S1
+        combine(ldy, yCols, b, b12, ldb, true, b, b11, ldb, work, yIndex, ldy); // T1
+        multiply(mh, nh, kh, 1.0f, work, xIndex, ldx, work, yIndex, ldy, 0.0f, work, qIndex, mh, work, next); // P5
+        accumulate(mh, nh, alpha, work, qIndex, c, c12, c22, ldc);
+        multiply(mh, nh, kh, 1.0f, a, a11, lda, b, b11, ldb, 0.0f, work, qIndex, mh, work, next); // P1
+        accumulate(mh, nh, alpha, work, qIndex, c, c11, ldc);
+        multiply(mh, nh, kh, alpha, a, a12, lda, b, b21, ldb, 1.0f, c, c11, ldc, work, next); // P2
+        combine(ldx, xCols, work, xIndex, ldx, true, a, a11, lda, work, xIndex, ldx); // S2
+        combine(ldy, yCols, b, b22, ldb, true, work, yIndex, ldy, work, yIndex, ldy); // T2
+        multiply(mh, nh, kh, 1.0f, work, xIndex, ldx, work, yIndex, ldy, 1.0f, work, qIndex, mh, work, next); // U2
+        accumulate(mh, nh, alpha, work, qIndex, c, c12, ldc);
+        combine(ldx, xCols, a, a12, lda, true, work, xIndex, ldx, work, xIndex, ldx); // S4
+        multiply(mh, nh, kh, alpha, work, xIndex, ldx, b, b22, ldb, 1.0f, c, c12, ldc, work, next); // P3
+        combine(ldy, yCols, work, yIndex, ldy, true, b, b21, ldb, work, yIndex, ldy); // T4
+        multiply(mh, nh, kh, -alpha, a, a22, lda, work, yIndex, ldy, 1.0f, c, c21, ldc, work, next); // P4
+        combine(ldx, xCols, a, a11, lda, true, a, a21, lda, work, xIndex, ldx); // S3
+        combine(ldy, yCols, b, b22, ldb, true, b, b12, ldb, work, yIndex, ldy); // T3
+        multiply(mh, nh, kh, 1.0f, work, xIndex, ldx, work, yIndex, ldy, 1.0f, work, qIndex, mh, work, next); // U3
+        accumulate(mh, nh, alpha, work, qIndex, c, c21, c22, ldc);
+    }
+
+    /**
+     * Offset of element (row, col) of op(X) from the first element of X.
+     */
+    private static int opIndex(boolean notTrans, int row, int col, int ld) {
+        return notTrans ? row + col * ld : col + row * ld;
+    }
+
+    /**
+     * dst := x + y or x - y for rows x cols blocks; dst may be x or y.
+     */
+    private static void combine(int rows, int cols, float[] x, int xIndex, int ldx, boolean subtract, float[] y,
+        int yIndex, int ldy, float[] dst, int dstIndex, int ldDst) {
+        int rowLoopBound = SSPECIES.loopBound(rows);
+        for (int col = 0; col < cols; col++) {
+            int xCol = xIndex + col * ldx;
+            int yCol = yIndex + col * ldy;
+            int dstCol = dstIndex + col * ldDst;
+            int row = 0;
+            for (; row < rowLoopBound; row += SSPECIES.length()) {
+                FloatVector xv = FloatVector.fromArray(SSPECIES, x, xCol + row);
+                FloatVector yv = FloatVector.fromArray(SSPECIES, y, yCol + row);
+                (subtract ? xv.sub(yv) : xv.add(yv)).intoArray(dst, dstCol + row);
+            }
+            for (; row < rows; row++) {
+                dst[dstCol + row] = subtract ? x[xCol + row] - y[yCol + row] : x[xCol + row] + y[yCol + row];
+            }
+        }
+    }
+
+    /**
+     * C := alpha * Q + C for the dense rows x cols Q.
+     */
+    private static void accumulate(int rows, int cols, float alpha, float[] q, int qIndex, float[] c, int cIndex,
+        int ldc) {
+        for (int col = 0; col < cols; col++) {
+            Saxpy.saxpy(rows, alpha, q, qIndex + col * rows, 1, c, cIndex + col * ldc, 1);
+        }
+    }
+
+    /**
+     * C1 := alpha * Q + C1 and C2 := alpha * Q + C2 for the dense rows x cols Q, reading Q once.
+     */
+    private static void accumulate(int rows, int cols, float alpha, float[] q, int qIndex, float[] c,
+        int firstIndex, int secondIndex, int ldc) {
+        int rowLoopBound = SSPECIES.loopBound(rows);
+        for (int col = 0; col < cols; col++) {
+            int qCol = qIndex + col * rows;
+            int firstCol = firstIndex + col * ldc;
+            int secondCol = secondIndex + col * ldc;
+            int row = 0;
+            for (; row < rowLoopBound; row += SSPECIES.length()) {
+                FloatVector qv = FloatVector.fromArray(SSPECIES, q, qCol + row).mul(alpha);
+                qv.add(FloatVector.fromArray(SSPECIES, c, firstCol + row)).intoArray(c, firstCol + row);
+                qv.add(FloatVector.fromArray(SSPECIES, c, secondCol + row)).intoArray(c, secondCol + row);
+            }
+            for (; row < rows; row++) {
+                float qa = alpha * q[qCol + row];
+                c[firstCol + row] += qa;
+                c[secondCol + row] += qa;
+            }
+        }
+    }
+}
@@ -22,20 +22,27 @@
 
 package com.huawei.vectorblas.blas3.singleprecision;
 
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_P;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_Q;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_R;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.SGEMM_UNROLL_N;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.VECTOR_LENGTH;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.VECTOR_LENGTH2;
-import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.VECTOR_LENGTH4;
+import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.M_PACK_SIZES;
+import static com.huawei.vectorblas.blas3.singleprecision.SblasLevel3.N_PACK_SIZES;
 
 import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.GemmBlocking;
 import com.huawei.vectorblas.utils.Lsame;
 
 public class Ssymm {
     public static void ssymm(String side, String uplo, int m, int n, float alpha, float[] a, int aOffset, int lda,
         float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        ssymm(side, uplo, m, n, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc, null, 0, 0);
+    }
+
+    /**
+     * SSYMM with a caller supplied packing workspace, in the LAPACK lwork style: with lwork = -1 only the
+     * required workspace size is returned in work[workOffset]. A null work uses the thread-local workspace.
+     */
+    public static void ssymm(String side, String uplo, int m, int n, float alpha, float[] a, int aOffset, int lda,
+        float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc, float[] work, int workOffset,
+        int lwork) {
         BlasUtils.checkParameter("SSYMM", 1, Lsame.lsame(side, "L") || Lsame.lsame(side, "R"));
         BlasUtils.checkParameter("SSYMM", 2, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
         boolean sideFlag = Lsame.lsame(side, "L");
@@ -44,6 +51,20 @@ public class Ssymm {
         BlasUtils.checkParameter("SSYMM", 7, lda >= Math.max(1, (sideFlag ? m : n)));
         BlasUtils.checkParameter("SSYMM", 9, ldb >= Math.max(1, m));
         BlasUtils.checkParameter("SSYMM", 12, ldc >= Math.max(1, m));
+        GemmBlocking blocking = SblasLevel3.getBlocking();
+        int kc = Math.min(blocking.getQ(), sideFlag ? m : n);
+        int packaSize = kc * (sideFlag ? Math.min(blocking.getP(), m) : Math.min(blocking.getR(), n));
+        int packbSize = kc * (sideFlag ? Math.min(blocking.getR(), n) : Math.min(blocking.getP(), m));
+        if (work != null) {
+            int workSize = Math.max(1, packaSize + packbSize);
+            BlasUtils.checkParameter("SSYMM", 14, lwork == -1 || lwork >= workSize);
+            if (lwork == -1) {
+                BlasUtils.checkBlasArray("work", workOffset, 0, work.length);
+                work[workOffset] = workSize;
+                return;
+            }
+            BlasUtils.checkBlasArray("work", workOffset, workSize - 1, work.length);
+        }
 
         if (m == 0 || n == 0) {
             return;
@@ -58,39 +79,45 @@ public class Ssymm {
         BlasUtils.checkBlasArray("a", aOffset, ((sideFlag ? m : n) - 1) + ((sideFlag ? m : n) - 1) * lda, a.length);
         BlasUtils.checkBlasArray("b", bOffset, (m - 1) + (n - 1) * ldb, b.length);
         BlasUtils.checkBlasArray("c", cOffset, (m - 1) + (n - 1) * ldc, c.length);
-        ssymmVector(side, uplo, m, n, sideFlag ? m : n, a, aOffset, lda, alpha, b, bOffset, ldb, c, cOffset, ldc);
+        float[] packa = work != null ? work : BlasWorkspace.floatPackA(packaSize);
+        float[] packb = work != null ? work : BlasWorkspace.floatPackB(packbSize);
+        int packaOffset = work != null ? workOffset : 0;
+        int packbOffset = work != null ? workOffset + packaSize : 0;
+        ssymmVector(side, uplo, m, n, sideFlag ? m : n, a, aOffset, lda, alpha, b, bOffset, ldb, c, cOffset, ldc,
+            packa, packaOffset, packb, packbOffset, blocking);
     }
 
     private static void ssymmVector(String side, String uplo, int sizeM, int sizeN, int sizeK, float[] sa, int aOffset,
-        int lda, float alpha, float[] sb, int bOffset, int ldb, float[] sc, int cOffset, int ldc) {
-        int mc = Math.min(SGEMM_P, sizeM);
-        int nc = Math.min(SGEMM_R, sizeN);
-        int kc = Math.min(SGEMM_Q, sizeK);
-        boolean sideFlag = Lsame.lsame(side, "L");
-        float[] packa = new float[kc * (sideFlag ? mc : nc)];
-        float[] packb = new float[kc * (sideFlag ? nc : mc)];
+        int lda, float alpha, float[] sb, int bOffset, int ldb, float[] sc, int cOffset, int ldc, float[] packa,
+        int packaOffset, float[] packb, int packbOffset, GemmBlocking blocking) {
+        int mc = Math.min(blocking.getP(), sizeM);
+        int nc = Math.min(blocking.getR(), sizeN);
+        int kc = Math.min(blocking.getQ(), sizeK);
         for (int ns = 0; ns < sizeN; ns += nc) {
             nc = Math.min(nc, sizeN - ns);
             for (int ks = 0; ks < sizeK; ks += kc) {
                 kc = Math.min(kc, sizeK - ks);
                 if (Lsame.lsame(side, "L")) {
-                    SblasLevel3.onCopy(kc, nc, sb, ks, ns, bOffset, ldb, packb, 0);
+                    SblasLevel3.onCopy(kc, nc, sb, ks, ns, bOffset, ldb, packb, packbOffset);
                 } else if (Lsame.lsame(side, "R") && Lsame.lsame(uplo, "U")) {
-                    outCopy(kc, nc, sa, aOffset, lda, packa, 0, ns, ks);
+                    symmCopy(true, N_PACK_SIZES, kc, nc, sa, aOffset, lda, packa, packaOffset, ns, ks);
                 } else {
-                    oltCopy(kc, nc, sa, aOffset, lda, packa, 0, ns, ks);
+                    symmCopy(false, N_PACK_SIZES, kc, nc, sa, aOffset, lda, packa, packaOffset, ns, ks);
                 }
                 for (int ms = 0; ms < sizeM; ms += mc) {
                     mc = Math.min(mc, sizeM - ms);
                     if (Lsame.lsame(side, "L") && Lsame.lsame(uplo, "U")) {
-                        iutCopy(kc, mc, sa, aOffset, lda, packa, 0, ms, ks);
-                        SblasLevel3.kernelOperation16x4(mc, nc, kc, alpha, packa, packb, 0, sc, ldc, cOffset, ms, ns);
+                        symmCopy(true, M_PACK_SIZES, kc, mc, sa, aOffset, lda, packa, packaOffset, ms, ks);
+                        SblasLevel3.kernelOperation(mc, nc, kc, alpha, packa, packaOffset, packb, packbOffset, sc,
+                            ldc, cOffset, ms, ns);
                     } else if (Lsame.lsame(side, "L") && Lsame.lsame(uplo, "L")) {
-                        iltCopy(kc, mc, sa, aOffset, lda, packa, 0, ms, ks);
-                        SblasLevel3.kernelOperation16x4(mc, nc, kc, alpha, packa, packb, 0, sc, ldc, cOffset, ms, ns);
+                        symmCopy(false, M_PACK_SIZES, kc, mc, sa, aOffset, lda, packa, packaOffset, ms, ks);
+                        SblasLevel3.kernelOperation(mc, nc, kc, alpha, packa, packaOffset, packb, packbOffset, sc,
+                            ldc, cOffset, ms, ns);
                     } else {
-                        SblasLevel3.itCopy(mc, kc, sb, ms, ks, bOffset, ldb, packb, 0);
-                        SblasLevel3.kernelOperation16x4(mc, nc, kc, alpha, packb, packa, 0, sc, ldc, cOffset, ms, ns);
+                        SblasLevel3.itCopy(mc, kc, sb, ms, ks, bOffset, ldb, packb, packbOffset);
+                        SblasLevel3.kernelOperation(mc, nc, kc, alpha, packb, packbOffset, packa, packaOffset, sc,
+                            ldc, cOffset, ms, ns);
                     }
                 }
             }
@@ -98,164 +125,47 @@ public class Ssymm {
     }
 
     /**
-     * oltCopy method is used for packing lower matrix in the right.
+     * Pack sizeN rows from posX and sizeM columns from posY of the symmetric matrix src, of which only the upper
+     * or lower triangle is stored, in the row chunks of packSizes (the layout of itCopy). Element (row, col) is
+     * read from the stored triangle: the columns left of a chunk's diagonal part are a plain column copy for
+     * lower and a transposing copy for upper, the columns right of it the other way round, and only the columns
+     * crossing the diagonal are copied element by element.
      */
-    private static void oltCopy(int sizeM, int sizeN, float[] src, int srcOffset, int srcLd, float[] dst,
-        int dstOffset, int posX, int posY) {
-        int dstIndex = 0;
+    private static void symmCopy(boolean upper, int[] packSizes, int sizeM, int sizeN, float[] src, int srcOffset,
+        int srcLd, float[] dst, int dstOffset, int posX, int posY) {
+        int dstIndex = dstOffset;
         int countJ = sizeN;
-        int[] vectorLenthList = {SGEMM_UNROLL_N, 1};
-        for (int vectorLen : vectorLenthList) {
-            while (countJ - vectorLen >= 0) {
-                int delta = posX - posY;
-                int[] offset = new int[vectorLen];
+        while (countJ > 0) {
+            int vectorLen = SblasLevel3.packChunk(packSizes, countJ);
+            int below = Math.max(0, Math.min(sizeM, posX - posY)); // columns with all chunk rows below the diagonal
+            int above = Math.max(below, Math.min(sizeM, posX + vectorLen - 1 - posY)); // columns with none
+            symmSegment(upper, 0, below, vectorLen, src, srcOffset, srcLd, dst, dstIndex, posX, posY);
+            for (int countI = below; countI < above; countI++) {
+                int col = posY + countI;
                 for (int index = 0; index < vectorLen; index++) {
-                    if (delta > -index) {
-                        offset[index] = posX + index + posY * srcLd;
-                    } else {
-                        offset[index] = posY + (posX + index) * srcLd;
-                    }
-                }
-
-                int countI = sizeM;
-                for (; countI > 0; countI--) {
-                    // read and write data
-                    for (int index = 0; index < vectorLen; index++) {
-                        dst[dstOffset + dstIndex] = src[srcOffset + offset[index]];
-                        dstIndex += 1;
-                        if (delta > -index) {
-                            offset[index] += srcLd;
-                        } else {
-                            offset[index]++;
-                        }
-                    }
-                    delta--;
-                }
-                posX += vectorLen;
-                countJ -= vectorLen;
-            }
-        }
-    }
-
-    /**
-     * outCopy method is used for packing upper matrix in the right.
-     */
-    private static void outCopy(int sizeM, int sizeN, float[] src, int srcOffset, int srcLd, float[] dst,
-        int dstOffset, int posX, int posY) {
-        int dstIndex = 0;
-        int countJ = sizeN;
-        int[] vectorLenthList = {SGEMM_UNROLL_N, 1};
-        for (int vectorLen : vectorLenthList) {
-            while (countJ - vectorLen >= 0) {
-                int delta = posX - posY;
-                int[] offset = new int[vectorLen];
-                for (int index = 0; index < vectorLen; index++) {
-                    if (delta > -index) {
-                        offset[index] = posY + (posX + index) * srcLd;
-                    } else {
-                        offset[index] = posX + index + posY * srcLd;
-                    }
-                }
-
-                int countI = sizeM;
-                for (; countI > 0; countI--) {
-                    // read and write data
-                    for (int index = 0; index < vectorLen; index++) {
-                        dst[dstOffset + dstIndex] = src[srcOffset + offset[index]];
-                        dstIndex += 1;
-                        if (delta > -index) {
-                            offset[index]++;
-                        } else {
-                            offset[index] += srcLd;
-                        }
-                    }
-                    delta--;
+                    int row = posX + index;
+                    boolean direct = (row > col) != upper;
+                    dst[dstIndex + countI * vectorLen + index] = direct ? src[srcOffset + row + col * srcLd]
+                        : src[srcOffset + col + row * srcLd];
                 }
-
-                posX += vectorLen;
-                countJ -= vectorLen;
             }
+            symmSegment(!upper, above, sizeM, vectorLen, src, srcOffset, srcLd, dst, dstIndex, posX, posY);
+            dstIndex += sizeM * vectorLen;
+            posX += vectorLen;
+            countJ -= vectorLen;
         }
     }
 
-    /**
-     * iltCopy method is used for packing lower matrix in the left.
-     */
-    private static void iltCopy(int sizeM, int sizeN, float[] src, int srcOffset, int srcLd, float[] dst,
-        int dstOffset, int posX, int posY) {
-        int dstIndex = 0;
-        int countJ = sizeN;
-        int[] vectorLengthList = {VECTOR_LENGTH4, VECTOR_LENGTH2, VECTOR_LENGTH, 1};
-        for (int vectorLen : vectorLengthList) {
-            while (countJ - vectorLen >= 0) {
-                int delta = posX - posY;
-                int[] offset = new int[vectorLen];
-                for (int index = 0; index < vectorLen; index++) {
-                    if (delta > -index) {
-                        offset[index] = posX + index + posY * srcLd;
-                    } else {
-                        offset[index] = posY + (posX + index) * srcLd;
-                    }
-                }
-
-                int countI = sizeM;
-                for (; countI > 0; countI--) {
-                    // read and write data
-                    for (int index = 0; index < vectorLen; index++) {
-                        dst[dstOffset + dstIndex] = src[srcOffset + offset[index]];
-                        dstIndex += 1;
-                        if (delta > -index) {
-                            offset[index] += srcLd;
-                        } else {
-                            offset[index]++;
-                        }
-                    }
-                    delta--;
-                }
-
-                posX += vectorLen;
-                countJ -= vectorLen;
-            }
+    private static void symmSegment(boolean transposed, int start, int end, int vectorLen, float[] src,
+        int srcOffset, int srcLd, float[] dst, int dstIndex, int posX, int posY) {
+        if (transposed) {
+            SblasLevel3.transposeCopy(end - start, vectorLen, src, srcOffset + posY + start + posX * srcLd, srcLd, dst,
+                dstIndex + start * vectorLen);
+            return;
         }
-    }
-
-    /**
-     * iutCopy method is used for packing upper matrix in the left.
-     */
-    private static void iutCopy(int sizeM, int sizeN, float[] src, int srcOffset, int srcLd, float[] dst,
-        int dstOffset, int posX, int posY) {
-        int dstIndex = 0;
-        int countJ = sizeN;
-        int[] vectorLengthList = {VECTOR_LENGTH4, VECTOR_LENGTH2, VECTOR_LENGTH, 1};
-        for (int vectorLen : vectorLengthList) {
-            while (countJ - vectorLen >= 0) {
-                int delta = posX - posY;
-                int[] offset = new int[vectorLen];
-                for (int index = 0; index < vectorLen; index++) {
-                    if (delta > -index) {
-                        offset[index] = posY + (posX + index) * srcLd;
-                    } else {
-                        offset[index] = posX + index + posY * srcLd;
-                    }
-                }
-
-                int countI = sizeM;
-                for (; countI > 0; countI--) {
-                    // read and write data
-                    for (int index = 0; index < vectorLen; index++) {
-                        dst[dstOffset + dstIndex] = src[srcOffset + offset[index]];
-                        dstIndex += 1;
-                        if (delta > -index) {
-                            offset[index]++;
-                        } else {
-                            offset[index] += srcLd;
-                        }
-                    }
-                    delta--;
-                }
-                posX += vectorLen;
-                countJ -= vectorLen;
-            }
+        for (int countI = start; countI < end; countI++) {
+            System.arraycopy(src, srcOffset + posX + (posY + countI) * srcLd, dst, dstIndex + countI * vectorLen,
+                vectorLen);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.singleprecision;
+
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.GemmBlocking;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * SSYR2K, C := alpha * A * B**T + alpha * B * A**T + beta * C or C := alpha * A**T * B + alpha * B**T * A + beta * C
+ * for an n x n symmetric C, of which only the upper or lower triangle is referenced. Every k block runs the two
+ * products as SSYRK panels, the first with a on the left and b on the right, the second the other way round, so
+ * both accumulate into the triangle of c through the same packing buffers.
+ */
+public class Ssyr2k {
+    public static void ssyr2k(String uplo, String trans, int n, int k, float alpha, float[] a, int aOffset,
+        int lda, float[] b, int bOffset, int ldb, float beta, float[] c, int cOffset, int ldc) {
+        BlasUtils.checkParameter("SSYR2K", 1, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("SSYR2K", 2,
+            Lsame.lsame(trans, "N") || Lsame.lsame(trans, "T") || Lsame.lsame(trans, "C"));
+        boolean upper = Lsame.lsame(uplo, "U");
+        boolean transFlag = Lsame.lsame(trans, "N");
+        BlasUtils.checkParameter("SSYR2K", 3, n >= 0);
+        BlasUtils.checkParameter("SSYR2K", 4, k >= 0);
+        BlasUtils.checkParameter("SSYR2K", 7, lda >= Math.max(1, (transFlag ? n : k)));
+        BlasUtils.checkParameter("SSYR2K", 9, ldb >= Math.max(1, (transFlag ? n : k)));
+        BlasUtils.checkParameter("SSYR2K", 12, ldc >= Math.max(1, n));
+
+        boolean noProduct = BlasUtils.isZero(alpha) || k == 0;
+        if (n == 0 || (noProduct && Float.compare(beta, 1.0f) == 0)) {
+            return;
+        }
+        BlasUtils.checkBlasArray("c", cOffset, (n - 1) + (n - 1) * ldc, c.length);
+        if (Float.compare(beta, 1.0f) != 0) {
+            Ssyrk.betaMulTriangle(upper, n, beta, c, cOffset, ldc);
+        }
+        if (noProduct) {
+            return;
+        }
+        BlasUtils.checkBlasArray("a", aOffset, ((transFlag ? n : k) - 1) + ((transFlag ? k : n) - 1) * lda, a.length);
+        BlasUtils.checkBlasArray("b", bOffset, ((transFlag ? n : k) - 1) + ((transFlag ? k : n) - 1) * ldb, b.length);
+        GemmBlocking blocking = SblasLevel3.getBlocking();
+        int mcMax = Math.min(blocking.getP(), n);
+        int ncMax = Math.min(blocking.getR(), n);
+        int kcMax = Math.min(blocking.getQ(), k);
+        float[] packa = BlasWorkspace.floatPackA(kcMax * mcMax);
+        float[] packb = BlasWorkspace.floatPackB(kcMax * ncMax);
+        for (int ns = 0; ns < n; ns += ncMax) {
+            int nc = Math.min(ncMax, n - ns);
+            for (int ks = 0; ks < k; ks += kcMax) {
+                int kc = Math.min(kcMax, k - ks);
+                Ssyrk.syrkPanel(upper, transFlag, n, ns, nc, ks, kc, alpha, a, aOffset, lda, b, bOffset, ldb, c,
+                    cOffset, ldc, packa, packb, mcMax);
+                Ssyrk.syrkPanel(upper, transFlag, n, ns, nc, ks, kc, alpha, b, bOffset, ldb, a, aOffset, lda, c,
+                    cOffset, ldc, packa, packb, mcMax);
+            }
+        }
+    }
+}
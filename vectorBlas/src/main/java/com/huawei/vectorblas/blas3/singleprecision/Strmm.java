@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.singleprecision;
+
+import com.huawei.vectorblas.blas1.singleprecision.Saxpy;
+import com.huawei.vectorblas.blas3.singleprecision.Strsm.TriangularOperand;
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * STRMM, B := alpha * op(A) * B or B := alpha * B * op(A) for a triangular A, in place. B is walked in blocks of
+ * TRMM_BLOCK rows (side L) or columns (side R), in the order in which the rows or columns a block reads besides
+ * its own are not yet overwritten. Every block is multiplied in place by the packed diagonal block of op(A), then
+ * SGEMM adds the product of the nonzero off-diagonal part of op(A) with the rest of B, so the zero triangle of A
+ * is never multiplied.
+ */
+public class Strmm {
+    private static final int TRMM_BLOCK = 128;
+    private static final int TRMM_PANEL = 128; // columns of B multiplied together by a diagonal block on side L
+
+    public static void strmm(String side, String uplo, String transa, String diag, int m, int n, float alpha,
+        float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb) {
+        BlasUtils.checkParameter("STRMM", 1, Lsame.lsame(side, "L") || Lsame.lsame(side, "R"));
+        BlasUtils.checkParameter("STRMM", 2, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("STRMM", 3,
+            Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T") || Lsame.lsame(transa, "C"));
+        BlasUtils.checkParameter("STRMM", 4, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        boolean sideFlag = Lsame.lsame(side, "L");
+        BlasUtils.checkParameter("STRMM", 5, m >= 0);
+        BlasUtils.checkParameter("STRMM", 6, n >= 0);
+        BlasUtils.checkParameter("STRMM", 9, lda >= Math.max(1, (sideFlag ? m : n)));
+        BlasUtils.checkParameter("STRMM", 11, ldb >= Math.max(1, m));
+
+        if (m == 0 || n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("b", bOffset, (m - 1) + (n - 1) * ldb, b.length);
+        if (BlasUtils.isZero(alpha)) {
+            SblasLevel3.betaMulC(m, n, 0.0f, b, bOffset, ldb);
+            return;
+        }
+        int sizeA = sideFlag ? m : n;
+        BlasUtils.checkBlasArray("a", aOffset, (sizeA - 1) + (sizeA - 1) * lda, a.length);
+        TriangularOperand op = new TriangularOperand(a, aOffset, lda, !Lsame.lsame(transa, "N"),
+            Lsame.lsame(diag, "U"));
+        boolean lower = Lsame.lsame(uplo, "L") != op.trans;
+        if (sideFlag) {
+            multiplyLeft(lower, m, n, alpha, op, b, bOffset, ldb);
+        } else {
+            multiplyRight(lower, m, n, alpha, op, b, bOffset, ldb);
+        }
+    }
+
+    /**
+     * B := alpha * op(A) * B by blocks of rows, top down for an upper op(A) and bottom up for a lower one.
+     */
+    private static void multiplyLeft(boolean lower, int m, int n, float alpha, TriangularOperand op, float[] sb,
+        int bOffset, int ldb) {
+        int blocks = (m + TRMM_BLOCK - 1) / TRMM_BLOCK;
+        for (int count = 0; count < blocks; count++) {
+            int ks = (lower ? blocks - 1 - count : count) * TRMM_BLOCK;
+            int kb = Math.min(TRMM_BLOCK, m - ks);
+            float[] tri = op.packDiagonal(lower, ks, kb, false, alpha);
+            for (int cs = 0; cs < n; cs += TRMM_PANEL) {
+                multiplyLeftPanel(lower, kb, Math.min(TRMM_PANEL, n - cs), tri, sb, bOffset + ks + cs * ldb, ldb);
+            }
+            int rs = lower ? 0 : ks + kb;
+            int rows = lower ? ks : m - rs;
+            if (rows > 0) {
+                Sgemm.sgemm(op.trans ? "T" : "N", "N", kb, n, rows, alpha, op.sa, op.offset(ks, rs), op.lda, sb,
+                    bOffset + rs, ldb, 1.0f, sb, bOffset + ks, ldb);
+            }
+        }
+    }
+
+    /**
+     * Multiply the kb x nb panel of B at bIndx by the packed diagonal block tri in place. The panel is transposed
+     * into the thread's packed B buffer, and its rows are updated in the order in which the rows they read are
+     * still unchanged, each by axpys over whole rows.
+     */
+    private static void multiplyLeftPanel(boolean lower, int kb, int nb, float[] tri, float[] sb, int bIndx,
+        int ldb) {
+        float[] panel = BlasWorkspace.floatPackB(kb * nb);
+        SblasLevel3.transposeCopy(kb, nb, sb, bIndx, ldb, panel, 0);
+        for (int step = 0; step < kb; step++) {
+            int k = lower ? kb - 1 - step : step;
+            SblasLevel3.betaMulC(nb, 1, tri[k + k * kb], panel, k * nb, nb);
+            int start = lower ? 0 : k + 1;
+            int end = lower ? k : kb;
+            for (int j = start; j < end; j++) {
+                Saxpy.saxpy(nb, tri[k + j * kb], panel, j * nb, 1, panel, k * nb, 1);
+            }
+        }
+        for (int col = 0; col < nb; col++) {
+            for (int k = 0; k < kb; k++) {
+                sb[bIndx + k + col * ldb] = panel[k * nb + col];
+            }
+        }
+    }
+
+    /**
+     * B := alpha * B * op(A) by blocks of columns, right to left for an upper op(A) and left to right for a lower
+     * one. The columns of a block are contiguous, so the diagonal block is applied by axpys over whole columns.
+     */
+    private static void multiplyRight(boolean lower, int m, int n, float alpha, TriangularOperand op, float[] sb,
+        int bOffset, int ldb) {
+        int blocks = (n + TRMM_BLOCK - 1) / TRMM_BLOCK;
+        for (int count = 0; count < blocks; count++) {
+            int ks = (lower ? count : blocks - 1 - count) * TRMM_BLOCK;
+            int kb = Math.min(TRMM_BLOCK, n - ks);
+            float[] tri = op.packDiagonal(lower, ks, kb, false, alpha);
+            for (int step = 0; step < kb; step++) {
+                int j = lower ? step : kb - 1 - step;
+                int bCol = bOffset + (ks + j) * ldb;
+                SblasLevel3.betaMulC(m, 1, tri[j + j * kb], sb, bCol, ldb);
+                int start = lower ? j + 1 : 0;
+                int end = lower ? kb : j;
+                for (int i = start; i < end; i++) {
+                    Saxpy.saxpy(m, tri[i + j * kb], sb, bOffset + (ks + i) * ldb, 1, sb, bCol, 1);
+                }
+            }
+            int cs = lower ? ks + kb : 0;
+            int cols = lower ? n - cs : ks;
+            if (cols > 0) {
+                Sgemm.sgemm("N", op.trans ? "T" : "N", m, kb, cols, alpha, sb, bOffset + cs * ldb, ldb, op.sa,
+                    op.offset(cs, ks), op.lda, 1.0f, sb, bOffset + ks * ldb, ldb);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.blas3.singleprecision;
+
+import com.huawei.vectorblas.blas1.singleprecision.Saxpy;
+import com.huawei.vectorblas.utils.BlasUtils;
+import com.huawei.vectorblas.utils.BlasWorkspace;
+import com.huawei.vectorblas.utils.Lsame;
+
+/**
+ * STRSM, B := alpha * inv(op(A)) * B or B := alpha * B * inv(op(A)) for a triangular A. The solve is blocked by
+ * TRSM_BLOCK rows (side L) or columns (side R) of B: every diagonal block of op(A) is packed with its reciprocal
+ * diagonal and solved with vector axpy updates over rows (side L, on a transposed panel of B) or columns (side R)
+ * of B, and the rest of B is updated by SGEMM with the solved block. All
+ * uplo and transa combinations reduce to a lower op(A), solved first block first, or an upper op(A), solved
+ * last block first for side L and first block first for side R.
+ */
+public class Strsm {
+    private static final int TRSM_BLOCK = 128;
+    private static final int TRSM_PANEL = 128; // columns of B solved together by a diagonal block on side L
+
+    public static void strsm(String side, String uplo, String transa, String diag, int m, int n, float alpha,
+        float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb) {
+        BlasUtils.checkParameter("STRSM", 1, Lsame.lsame(side, "L") || Lsame.lsame(side, "R"));
+        BlasUtils.checkParameter("STRSM", 2, Lsame.lsame(uplo, "U") || Lsame.lsame(uplo, "L"));
+        BlasUtils.checkParameter("STRSM", 3,
+            Lsame.lsame(transa, "N") || Lsame.lsame(transa, "T") || Lsame.lsame(transa, "C"));
+        BlasUtils.checkParameter("STRSM", 4, Lsame.lsame(diag, "U") || Lsame.lsame(diag, "N"));
+        boolean sideFlag = Lsame.lsame(side, "L");
+        BlasUtils.checkParameter("STRSM", 5, m >= 0);
+        BlasUtils.checkParameter("STRSM", 6, n >= 0);
+        BlasUtils.checkParameter("STRSM", 9, lda >= Math.max(1, (sideFlag ? m : n)));
+        BlasUtils.checkParameter("STRSM", 11, ldb >= Math.max(1, m));
+
+        if (m == 0 || n == 0) {
+            return;
+        }
+        BlasUtils.checkBlasArray("b", bOffset, (m - 1) + (n - 1) * ldb, b.length);
+        if (Float.compare(alpha, 1.0f) != 0) {
+            SblasLevel3.betaMulC(m, n, alpha, b, bOffset, ldb);
+        }
+        if (BlasUtils.isZero(alpha)) {
+            return;
+        }
+        int sizeA = sideFlag ? m : n;
+        BlasUtils.checkBlasArray("a", aOffset, (sizeA - 1) + (sizeA - 1) * lda, a.length);
+        TriangularOperand op = new TriangularOperand(a, aOffset, lda, !Lsame.lsame(transa, "N"),
+            Lsame.lsame(diag, "U"));
+        boolean lower = Lsame.lsame(uplo, "L") != op.trans;
+        if (sideFlag) {
+            solveLeft(lower, m, n, op, b, bOffset, ldb);
+        } else {
+            solveRight(lower, m, n, op, b, bOffset, ldb);
+        }
+    }
+
+    /**
+     * Solve op(A) * X = B by blocks of rows: forward for a lower op(A), backward for an upper one. After each
+     * diagonal block, the rows of B still to be solved drop the contribution of the solved rows.
+     */
+    private static void solveLeft(boolean lower, int m, int n, TriangularOperand op, float[] sb, int bOffset,
+        int ldb) {
+        int blocks = (m + TRSM_BLOCK - 1) / TRSM_BLOCK;
+        for (int count = 0; count < blocks; count++) {
+            int ks = (lower ? count : blocks - 1 - count) * TRSM_BLOCK;
+            int kb = Math.min(TRSM_BLOCK, m - ks);
+            float[] tri = op.packDiagonal(lower, ks, kb, true, 1.0f);
+            for (int cs = 0; cs < n; cs += TRSM_PANEL) {
+                solveLeftPanel(lower, kb, Math.min(TRSM_PANEL, n - cs), tri, sb, bOffset + ks + cs * ldb, ldb);
+            }
+            int rs = lower ? ks + kb : 0;
+            int rows = lower ? m - rs : ks;
+            if (rows > 0) {
+                Sgemm.sgemm(op.trans ? "T" : "N", "N", rows, n, kb, -1.0f, op.sa, op.offset(rs, ks), op.lda, sb,
+                    bOffset + ks, ldb, 1.0f, sb, bOffset + rs, ldb);
+            }
+        }
+    }
+
+    /**
+     * Solve the kb x nb panel of B at bIndx with the packed diagonal block tri. The panel is transposed into the
+     * thread's packed B buffer, so that every step of the substitution is an axpy over a whole row of the panel.
+     */
+    private static void solveLeftPanel(boolean lower, int kb, int nb, float[] tri, float[] sb, int bIndx, int ldb) {
+        float[] panel = BlasWorkspace.floatPackB(kb * nb);
+        SblasLevel3.transposeCopy(kb, nb, sb, bIndx, ldb, panel, 0);
+        for (int step = 0; step < kb; step++) {
+            int k = lower ? step : kb - 1 - step;
+            SblasLevel3.betaMulC(nb, 1, tri[k + k * kb], panel, k * nb, nb);
+            int start = lower ? k + 1 : 0;
+            int end = lower ? kb : k;
+            for (int i = start; i < end; i++) {
+                Saxpy.saxpy(nb, -tri[i + k * kb], panel, k * nb, 1, panel, i * nb, 1);
+            }
+        }
+        for (int col = 0; col < nb; col++) {
+            for (int k = 0; k < kb; k++) {
+                sb[bIndx + k + col * ldb] = panel[k * nb + col];
+            }
+        }
+    }
+
+    /**
+     * Solve X * op(A) = B by blocks of columns: forward for an upper op(A), backward for a lower one. Column j of
+     * a block drops the solved columns of the block before it is scaled, then the columns of B still to be
+     * solved drop the contribution of the whole block.
+     */
+    private static void solveRight(boolean lower, int m, int n, TriangularOperand op, float[] sb, int bOffset,
+        int ldb) {
+        int blocks = (n + TRSM_BLOCK - 1) / TRSM_BLOCK;
+        for (int count = 0; count < blocks; count++) {
+            int ks = (lower ? blocks - 1 - count : count) * TRSM_BLOCK;
+            int kb = Math.min(TRSM_BLOCK, n - ks);
+            float[] tri = op.packDiagonal(lower, ks, kb, true, 1.0f);
+            for (int step = 0; step < kb; step++) {
+                int j = lower ? kb - 1 - step : step;
+                int bCol = bOffset + (ks + j) * ldb;
+                int start = lower ? j + 1 : 0;
+                int end = lower ? kb : j;
+                for (int i = start; i < end; i++) {
+                    Saxpy.saxpy(m, -tri[i + j * kb], sb, bOffset + (ks + i) * ldb, 1, sb, bCol, 1);
+                }
+                SblasLevel3.betaMulC(m, 1, tri[j + j * kb], sb, bCol, ldb);
+            }
+            int cs = lower ? 0 : ks + kb;
+            int cols = lower ? ks : n - cs;
+            if (cols > 0) {
+                Sgemm.sgemm("N", op.trans ? "T" : "N", m, cols, kb, -1.0f, sb, bOffset + ks * ldb, ldb, op.sa,
+                    op.offset(ks, cs), op.lda, 1.0f, sb, bOffset + cs * ldb, ldb);
+            }
+        }
+    }
+
+    /**
+     * op(A) of a triangular solve or multiply: element (row, col) of op(A) and the packing of its diagonal blocks.
+     */
+    static final class TriangularOperand {
+        final float[] sa;
+        final int aOffset;
+        final int lda;
+        final boolean trans;
+        final boolean unit;
+
+        TriangularOperand(float[] sa, int aOffset, int lda, boolean trans, boolean unit) {
+            this.sa = sa;
+            this.aOffset = aOffset;
+            this.lda = lda;
+            this.trans = trans;
+            this.unit = unit;
+        }
+
+        /**
+         * Offset in sa of element (row, col) of op(A), which is the start of the block of op(A) there.
+         */
+        int offset(int row, int col) {
+            return trans ? aOffset + col + row * lda : aOffset + row + col * lda;
+        }
+
+        /**
+         * Pack the kb x kb diagonal block of op(A) at (ks, ks) column by column, scaled by scale, with the
+         * reciprocal of its diagonal on the diagonal when reciprocal is set; a unit diagonal packs as 1 or scale.
+         * Only the lower or upper triangle is written. The buffer is the thread's packed A buffer, so it is packed
+         * again for every block: SGEMM reuses it.
+         */
+        float[] packDiagonal(boolean lower, int ks, int kb, boolean reciprocal, float scale) {
+            float[] tri = BlasWorkspace.floatPackA(kb * kb);
+            for (int col = 0; col < kb; col++) {
+                int start = lower ? col + 1 : 0;
+                int end = lower ? kb : col;
+                for (int row = start; row < end; row++) {
+                    tri[row + col * kb] = scale * sa[offset(ks + row, ks + col)];
+                }
+                float diagonal = unit ? 1.0f : sa[offset(ks + col, ks + col)];
+                tri[col + col * kb] = reciprocal ? 1.0f / diagonal : scale * diagonal;
+            }
+            return tri;
+        }
+    }
+}
@@ -29,6 +29,14 @@ public class ArrayUtil {
         return roundDown(length, size);
     }
 
+    public static int ceilDiv(int length, int size) {
+        return (length + size - 1) / size;
+    }
+
+    public static int roundUp(int length, int size) {
+        return ceilDiv(length, size) * size;
+    }
+
     private static int roundDown(int length, int size) {
         if ((size & (size - 1)) == 0) {
             // Size is zero or a power of two, so we got this.
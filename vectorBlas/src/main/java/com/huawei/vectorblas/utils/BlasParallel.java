@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+public final class BlasParallel {
+    private static final String THREADS_PROPERTY = "vectorblas.threads";
+    private static final String LEVEL3_THRESHOLD_PROPERTY = "vectorblas.level3.threshold";
+    private static final String SPLIT_K_DETERMINISTIC_PROPERTY = "vectorblas.splitk.deterministic";
+    private static final String LEVEL2_THRESHOLD_PROPERTY = "vectorblas.level2.threshold";
+    private static final long DEFAULT_LEVEL3_THRESHOLD = 128L * 128L * 128L; // m * n * k below this stays serial.
+    private static final long DEFAULT_LEVEL2_THRESHOLD = 1L << 20; // elements of A read, below this stays serial.
+    private static final int SPLIT_K_RATIO = 8; // k / max(m, n) from which k is split instead of m and n.
+    private static final long SPLIT_K_MAX_PARTIAL = 1L << 22; // elements of all partial C buffers together.
+    private static final int SPLIT_K_DETERMINISTIC_SLICES = 16;
+
+    private static volatile int numThreads = Math.max(1,
+        Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    private static volatile long level3Threshold = Long.getLong(LEVEL3_THRESHOLD_PROPERTY, DEFAULT_LEVEL3_THRESHOLD);
+    private static volatile boolean deterministicSplitK = Boolean.getBoolean(SPLIT_K_DETERMINISTIC_PROPERTY);
+    private static volatile long level2Threshold = Long.getLong(LEVEL2_THRESHOLD_PROPERTY, DEFAULT_LEVEL2_THRESHOLD);
+    private static volatile ForkJoinPool pool;
+
+    private BlasParallel() {
+    }
+
+    /**
+     * Set the number of worker threads used by the multi-threaded routines, 1 disables threading. Calls already
+     * running keep the pool they started on, which is not shut down: its idle workers exit by themselves.
+     */
+    public static synchronized void setNumThreads(int threads) {
+        BlasUtils.checkParameter("SETNUMTHREADS", 1, threads >= 1);
+        if (threads != numThreads) {
+            numThreads = threads;
+            pool = null;
+        }
+    }
+
+    public static int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Set the work size (m * n * k multiply-adds) from which Level-3 routines run multi-threaded.
+     */
+    public static void setLevel3Threshold(long threshold) {
+        BlasUtils.checkParameter("SETLEVEL3THRESHOLD", 1, threshold >= 0);
+        level3Threshold = threshold;
+    }
+
+    public static long getLevel3Threshold() {
+        return level3Threshold;
+    }
+
+    /**
+     * Whether a Level-3 call with the given sizes should use the parallel driver. Calls issued from one
+     * of our own workers always stay serial so that nested calls do not oversubscribe the pool.
+     */
+    public static boolean isLevel3Parallel(int m, int n, int k) {
+        return isLevel3Parallel((long) m * n * k);
+    }
+
+    /**
+     * Same as isLevel3Parallel(m, n, k) for a total work of work multiply-adds, for example a whole batch.
+     */
+    public static boolean isLevel3Parallel(long work) {
+        return numThreads > 1 && work >= level3Threshold && !inWorker();
+    }
+
+    /**
+     * Set the number of matrix elements read from which Level-2 routines run multi-threaded.
+     */
+    public static void setLevel2Threshold(long threshold) {
+        BlasUtils.checkParameter("SETLEVEL2THRESHOLD", 1, threshold >= 0);
+        level2Threshold = threshold;
+    }
+
+    public static long getLevel2Threshold() {
+        return level2Threshold;
+    }
+
+    /**
+     * Whether a Level-2 call that reads the given number of matrix elements should be split across the workers.
+     * These routines are bound by memory bandwidth, which one core cannot saturate on large machines.
+     */
+    public static boolean isLevel2Parallel(long elements) {
+        return numThreads > 1 && elements >= level2Threshold && !inWorker();
+    }
+
+    /**
+     * Length of the pieces a Level-2 routine splits len rows or columns into, one per worker, rounded up to a
+     * multiple of unit so that the unrolled kernels run on whole pieces.
+     */
+    public static int level2Chunk(int len, int unit) {
+        return ArrayUtil.roundUp(ArrayUtil.ceilDiv(len, numThreads), unit);
+    }
+
+    /**
+     * Make the k slicing of split-K GEMM independent of the thread count, so that its results are bitwise
+     * identical for any number of threads. Otherwise k is split into one slice per thread.
+     */
+    public static void setDeterministicSplitK(boolean deterministic) {
+        deterministicSplitK = deterministic;
+    }
+
+    public static boolean isDeterministicSplitK() {
+        return deterministicSplitK;
+    }
+
+    /**
+     * Whether a GEMM above the Level-3 threshold should split k instead of m and n: k dominates and m x n is
+     * small enough for the partial results to be kept. In deterministic mode this does not depend on the
+     * thread count, so a single thread runs the same slices one after the other.
+     */
+    public static boolean isSplitK(int m, int n, int k) {
+        if (k < (long) SPLIT_K_RATIO * Math.max(m, n) || 2L * m * n > SPLIT_K_MAX_PARTIAL) {
+            return false;
+        }
+        return deterministicSplitK ? (long) m * n * k >= level3Threshold : isLevel3Parallel(m, n, k);
+    }
+
+    /**
+     * Number of k slices of a split-K GEMM whose k loop runs in blocks of kBlock, at least 1.
+     */
+    public static int splitKSlices(int m, int n, int k, int kBlock) {
+        long slices = deterministicSplitK ? SPLIT_K_DETERMINISTIC_SLICES : numThreads;
+        slices = Math.min(slices, SPLIT_K_MAX_PARTIAL / ((long) m * n) + 1);
+        return (int) Math.max(1, Math.min(slices, ArrayUtil.ceilDiv(k, kBlock)));
+    }
+
+    /**
+     * Run task.accept(index) for every index in [0, taskCount) on the shared pool and wait for all of them.
+     */
+    public static void parallelFor(int taskCount, IntConsumer task) {
+        if (taskCount == 1 || inWorker()) {
+            for (int index = 0; index < taskCount; index++) {
+                task.accept(index);
+            }
+            return;
+        }
+        ForkJoinPool current = getPool();
+        current.invoke(new RangeAction(0, taskCount, task));
+    }
+
+    /**
+     * Whether the calling thread is a worker of any of our pools, including one replaced by setNumThreads.
+     */
+    private static boolean inWorker() {
+        return Thread.currentThread() instanceof WorkerThread;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(numThreads, WorkerThread::new, null, false);
+        }
+        return pool;
+    }
+
+    private static final class WorkerThread extends ForkJoinWorkerThread {
+        WorkerThread(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final transient IntConsumer task;
+
+        RangeAction(int start, int end, IntConsumer task) {
+            this.start = start;
+            this.end = end;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                task.accept(start);
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new RangeAction(start, mid, task), new RangeAction(mid, end, task));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.utils;
+
+import java.util.function.IntFunction;
+
+/**
+ * Thread-local working buffers, mostly for packing in the Level-3 routines. Each buffer is kept per thread and only
+ * grows, so steady-state calls of the same shape do not allocate. A request larger than the retain limit (system
+ * property vectorblas.workspace.limit, in elements) gets a new array that is not kept. Call release() to drop the
+ * buffers held by the current thread.
+ */
+public final class BlasWorkspace {
+    private static final ThreadLocal<BlasWorkspace> LOCAL = ThreadLocal.withInitial(BlasWorkspace::new);
+    private static final int DEFAULT_RETAIN_LIMIT = 1 << 22; // q * r of the largest tuner candidates.
+    private static final int RETAIN_LIMIT = Integer.getInteger("vectorblas.workspace.limit", DEFAULT_RETAIN_LIMIT);
+
+    private static final int DOUBLE_PACK_A = 0;
+    private static final int DOUBLE_PACK_B = 1;
+    private static final int FLOAT_PACK_A = 2;
+    private static final int FLOAT_PACK_B = 3;
+    private static final int DOUBLE_SPLIT_K = 4;
+    private static final int FLOAT_SPLIT_K = 5;
+    private static final int DOUBLE_TILE = 6;
+    private static final int FLOAT_TILE = 7;
+    private static final int FLOAT_WIDE = 8;
+    private static final int DOUBLE_WIDE = 9;
+    private static final int INT_SUMS = 10;
+    private static final int BYTE_PACK_B = 11;
+    private static final int SLOTS = 12;
+
+    private final Object[] buffers = new Object[SLOTS];
+    private final int[] lengths = new int[SLOTS];
+
+    private BlasWorkspace() {
+    }
+
+    public static double[] doublePackA(int size) {
+        return buffer(DOUBLE_PACK_A, size, double[]::new);
+    }
+
+    public static double[] doublePackB(int size) {
+        return buffer(DOUBLE_PACK_B, size, double[]::new);
+    }
+
+    public static float[] floatPackA(int size) {
+        return buffer(FLOAT_PACK_A, size, float[]::new);
+    }
+
+    public static float[] floatPackB(int size) {
+        return buffer(FLOAT_PACK_B, size, float[]::new);
+    }
+
+    /**
+     * Partial C buffers of split-K GEMM and partial y vectors of parallel SYMV, held by the calling thread.
+     */
+    public static double[] doubleSplitK(int size) {
+        return buffer(DOUBLE_SPLIT_K, size, double[]::new);
+    }
+
+    public static float[] floatSplitK(int size) {
+        return buffer(FLOAT_SPLIT_K, size, float[]::new);
+    }
+
+    /**
+     * Register tile buffer through which the GEMM kernels store the edge tiles narrower than a vector.
+     */
+    public static double[] doubleTile(int size) {
+        return buffer(DOUBLE_TILE, size, double[]::new);
+    }
+
+    public static float[] floatTile(int size) {
+        return buffer(FLOAT_TILE, size, float[]::new);
+    }
+
+    /**
+     * Float copy of a half precision block, widened before it is packed, or the Strassen SGEMM temporaries.
+     */
+    public static float[] floatWide(int size) {
+        return buffer(FLOAT_WIDE, size, float[]::new);
+    }
+
+    /**
+     * Double copy of a float block and double accumulator tile of the mixed precision GEMM, or the Strassen DGEMM
+     * temporaries.
+     */
+    public static double[] doubleWide(int size) {
+        return buffer(DOUBLE_WIDE, size, double[]::new);
+    }
+
+    /**
+     * int32 sums of the int8 routines, kept until they are scaled into the output vector or matrix.
+     */
+    public static int[] intSums(int size) {
+        return buffer(INT_SUMS, size, int[]::new);
+    }
+
+    /**
+     * Packed int8 blocks of B of the int8 GEMM.
+     */
+    public static byte[] bytePackB(int size) {
+        return buffer(BYTE_PACK_B, size, byte[]::new);
+    }
+
+    public static void release() {
+        LOCAL.remove();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T buffer(int slot, int size, IntFunction<T> allocator) {
+        BlasWorkspace workspace = LOCAL.get();
+        if (workspace.buffers[slot] == null || workspace.lengths[slot] < size) {
+            if (size > RETAIN_LIMIT) {
+                return allocator.apply(size);
+            }
+            workspace.buffers[slot] = allocator.apply(size);
+            workspace.lengths[slot] = size;
+        }
+        return (T) workspace.buffers[slot];
+    }
+}
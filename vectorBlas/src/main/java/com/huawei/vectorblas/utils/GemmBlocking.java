@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.utils;
+
+/**
+ * Cache blocking sizes of the Level-3 routines: p for the m direction, q for the k direction and r for
+ * the n direction. Instances are immutable so that a routine reads one consistent profile per call.
+ */
+public final class GemmBlocking {
+    private final int p;
+    private final int q;
+    private final int r;
+
+    public GemmBlocking(int p, int q, int r) {
+        BlasUtils.checkParameter("GEMMBLOCKING", 1, p >= 1);
+        BlasUtils.checkParameter("GEMMBLOCKING", 2, q >= 1);
+        BlasUtils.checkParameter("GEMMBLOCKING", 3, r >= 1);
+        this.p = p;
+        this.q = q;
+        this.r = r;
+    }
+
+    public int getP() {
+        return p;
+    }
+
+    public int getQ() {
+        return q;
+    }
+
+    public int getR() {
+        return r;
+    }
+
+    @Override
+    public String toString() {
+        return "GemmBlocking{p=" + p + ", q=" + q + ", r=" + r + "}";
+    }
+}
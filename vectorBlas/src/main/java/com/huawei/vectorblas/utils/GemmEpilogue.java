@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.utils;
+
+/**
+ * Epilogue of dgemmEpilogue / sgemmEpilogue: C = act(alpha * op(A) * op(B) + beta * C + bias), where bias
+ * holds one value per row (Bias.ROW, m values) or per column (Bias.COLUMN, n values) of C starting at offset.
+ */
+public final class GemmEpilogue {
+    /**
+     * Shape of the bias added to C.
+     */
+    public enum Bias {
+        NONE, ROW, COLUMN
+    }
+
+    /**
+     * Elementwise activation applied last. GELU uses the tanh approximation
+     * 0.5 * x * (1 + tanh(sqrt(2 / pi) * (x + 0.044715 * x^3))).
+     */
+    public enum Activation {
+        NONE, RELU, GELU
+    }
+
+    private final Bias bias;
+    private final double[] doubleData;
+    private final float[] floatData;
+    private final int offset;
+    private final Activation activation;
+
+    public GemmEpilogue(Activation activation) {
+        this(Bias.NONE, null, null, 0, activation);
+    }
+
+    public GemmEpilogue(Bias bias, double[] data, int offset, Activation activation) {
+        this(bias, data, null, offset, activation);
+    }
+
+    public GemmEpilogue(Bias bias, float[] data, int offset, Activation activation) {
+        this(bias, null, data, offset, activation);
+    }
+
+    private GemmEpilogue(Bias bias, double[] doubleData, float[] floatData, int offset, Activation activation) {
+        BlasUtils.checkParameter("GEMMEPILOGUE", 1, bias != null);
+        BlasUtils.checkParameter("GEMMEPILOGUE", 2, bias == Bias.NONE || doubleData != null || floatData != null);
+        BlasUtils.checkParameter("GEMMEPILOGUE", 3, offset >= 0);
+        BlasUtils.checkParameter("GEMMEPILOGUE", 4, activation != null);
+        this.bias = bias;
+        this.doubleData = doubleData;
+        this.floatData = floatData;
+        this.offset = offset;
+        this.activation = activation;
+    }
+
+    public Bias getBias() {
+        return bias;
+    }
+
+    public double[] getDoubleData() {
+        return doubleData;
+    }
+
+    public float[] getFloatData() {
+        return floatData;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public Activation getActivation() {
+        return activation;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.utils;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 16-bit storage formats of the half precision SGEMM and SGEMV overloads, kept in short arrays: IEEE 754 binary16
+ * (FP16) and bfloat16 (BF16, the upper half of a float). The routines widen a cache-sized block at a time to
+ * float right before the float kernels use it, so all arithmetic is done in float.
+ */
+public enum HalfPrecision {
+    FP16, BF16;
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_MAX;
+    private static final VectorSpecies<Short> SHORT_SPECIES = VectorSpecies.of(short.class,
+        VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+    private static final VectorSpecies<Integer> INT_SPECIES = VectorSpecies.of(int.class, SPECIES.vectorShape());
+    private static final int FP16_SHIFT = 13; // mantissa bits of float minus those of FP16
+    private static final int FP16_EXPONENT = 0x0f800000; // FP16 exponent field after the shift
+    private static final int FP16_BIAS = 112 << 23; // float exponent bias minus FP16 exponent bias
+    private static final int FP16_SUBNORMAL = 113 << 23; // 2^-14, the smallest normal FP16
+    private static final int FP16_OVERFLOW = 143 << 23; // 2^16, from where a float rounds to FP16 infinity
+    private static final float FP16_ROUND_SUBNORMAL = 0.5f; // adding it rounds to a multiple of 2^-24
+
+    public float toFloat(short bits) {
+        if (this == BF16) {
+            return Float.intBitsToFloat(bits << 16);
+        }
+        int magnitude = (bits & 0x7fff) << FP16_SHIFT;
+        int exponent = magnitude & FP16_EXPONENT;
+        magnitude += FP16_BIAS;
+        if (exponent == FP16_EXPONENT) {
+            magnitude += FP16_BIAS;
+        } else if (exponent == 0) {
+            magnitude = Float.floatToRawIntBits(Float.intBitsToFloat(magnitude + (1 << 23))
+                - Float.intBitsToFloat(FP16_SUBNORMAL));
+        }
+        return Float.intBitsToFloat(magnitude | ((bits & 0x8000) << 16));
+    }
+
+    /**
+     * Round value to the nearest representable value of this format, ties to even; NaN stays NaN.
+     */
+    public short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        if (this == BF16) {
+            if ((bits & 0x7fffffff) > 0x7f800000) {
+                return (short) ((bits >>> 16) | 0x40);
+            }
+            return (short) ((bits + 0x7fff + ((bits >>> 16) & 1)) >>> 16);
+        }
+        int sign = (bits >>> 16) & 0x8000;
+        int magnitude = bits & 0x7fffffff;
+        int half;
+        if (magnitude >= FP16_OVERFLOW) {
+            half = magnitude > 0x7f800000 ? 0x7e00 : 0x7c00;
+        } else if (magnitude < FP16_SUBNORMAL) {
+            half = Float.floatToRawIntBits(Float.intBitsToFloat(magnitude) + FP16_ROUND_SUBNORMAL)
+                - Float.floatToRawIntBits(FP16_ROUND_SUBNORMAL);
+        } else {
+            half = (magnitude - FP16_BIAS + 0xfff + ((magnitude >>> FP16_SHIFT) & 1)) >>> FP16_SHIFT;
+        }
+        return (short) (sign | half);
+    }
+
+    private FloatVector load(short[] src, int index) {
+        IntVector bits = (IntVector) ShortVector.fromArray(SHORT_SPECIES, src, index)
+            .convertShape(VectorOperators.S2I, INT_SPECIES, 0);
+        return this == BF16 ? bits.lanewise(VectorOperators.LSHL, 16).reinterpretAsFloats() : fp16ToFloat(bits);
+    }
+
+    private static FloatVector fp16ToFloat(IntVector bits) {
+        IntVector magnitude = bits.and(0x7fff).lanewise(VectorOperators.LSHL, FP16_SHIFT);
+        IntVector exponent = magnitude.and(FP16_EXPONENT);
+        magnitude = magnitude.add(FP16_BIAS);
+        magnitude = magnitude.add(FP16_BIAS, exponent.eq(FP16_EXPONENT));
+        VectorMask<Integer> subnormal = exponent.eq(0);
+        if (subnormal.anyTrue()) {
+            FloatVector small = magnitude.add(1 << 23).reinterpretAsFloats()
+                .sub(Float.intBitsToFloat(FP16_SUBNORMAL));
+            magnitude = magnitude.blend(small.reinterpretAsInts(), subnormal);
+        }
+        return magnitude.or(bits.and(0x8000).lanewise(VectorOperators.LSHL, 16)).reinterpretAsFloats();
+    }
+
+    /**
+     * Widen the rows x cols column-major block of src at srcOffset (leading dimension srcLd) into a dense
+     * column-major float block of dst at dstOffset, with leading dimension rows.
+     */
+    public void toFloat(int rows, int cols, short[] src, int srcOffset, int srcLd, float[] dst, int dstOffset) {
+        int rowLoopBound = SPECIES.loopBound(rows);
+        for (int col = 0; col < cols; col++) {
+            int srcIndex = srcOffset + col * srcLd;
+            int dstIndex = dstOffset + col * rows;
+            int row = 0;
+            for (; row < rowLoopBound; row += SPECIES.length()) {
+                load(src, srcIndex + row).intoArray(dst, dstIndex + row);
+            }
+            for (; row < rows; row++) {
+                dst[dstIndex + row] = toFloat(src[srcIndex + row]);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.huawei.vectorblas.utils;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Widening of int8 values to int32 lanes for the int8 routines. From 256 bits on, a load takes a quarter vector of
+ * bytes and widens it with one B2I cast. Narrower shapes have no byte vector of a quarter width, and casts that
+ * change the lane count are not compiled to vector instructions, so there a load takes a whole vector of bytes and
+ * each of its four parts shuffles its bytes to the top byte of the int lanes and sign-extends them with a shift.
+ */
+public final class Int8Widening {
+    public static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_MAX;
+    public static final VectorSpecies<Byte> BYTE_SPECIES = VectorSpecies.of(byte.class,
+        INT_SPECIES.vectorBitSize() >= 256 ? VectorShape.forBitSize(INT_SPECIES.vectorBitSize() / 4)
+            : INT_SPECIES.vectorShape());
+    public static final int LENGTH = BYTE_SPECIES.length(); // int8 values per load
+    public static final int PARTS = LENGTH / INT_SPECIES.length(); // int vectors per load, 1 or 4
+    private static final VectorShuffle<Byte> PART0 = partShuffle(0);
+    private static final VectorShuffle<Byte> PART1 = partShuffle(1);
+    private static final VectorShuffle<Byte> PART2 = partShuffle(2);
+    private static final VectorShuffle<Byte> PART3 = partShuffle(3);
+
+    private Int8Widening() {
+    }
+
+    /**
+     * Int lanes of the values part * INT_SPECIES.length() ... of a load of BYTE_SPECIES, part < PARTS. Callers pass
+     * the part as a constant, so that the choice of the shuffle is folded when the vector code is compiled.
+     */
+    public static IntVector widen(ByteVector bytes, int part) {
+        if (PARTS == 1) {
+            return (IntVector) bytes.convertShape(VectorOperators.B2I, INT_SPECIES, 0);
+        }
+        VectorShuffle<Byte> shuffle = part == 0 ? PART0 : part == 1 ? PART1 : part == 2 ? PART2 : PART3;
+        return bytes.rearrange(shuffle).reinterpretAsInts().lanewise(VectorOperators.ASHR, 24);
+    }
+
+    /**
+     * Moves value part * INT_SPECIES.length() + i to all bytes of int lane i, of which the shift keeps the top one.
+     */
+    private static VectorShuffle<Byte> partShuffle(int part) {
+        return VectorShuffle.fromOp(BYTE_SPECIES, index -> (part * INT_SPECIES.length() + index / 4) % LENGTH);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.utils;
+
+/**
+ * A GEMM operand packed once by dgemmPack / sgemmPack: op(A) (m x k) when isLeft(), op(B) (k x n) otherwise.
+ * The data holds the packed blocks of every (k, m) or (n, k) block pair in the order the blocked loops visit
+ * them, laid out for the blocking and register tile that were current when it was packed.
+ */
+public final class PackedMatrix {
+    private final boolean left;
+    private final int rows;
+    private final int cols;
+    private final GemmBlocking blocking;
+    private final double[] doubleData;
+    private final float[] floatData;
+
+    public PackedMatrix(boolean left, int rows, int cols, GemmBlocking blocking, double[] data) {
+        this(left, rows, cols, blocking, data, null);
+    }
+
+    public PackedMatrix(boolean left, int rows, int cols, GemmBlocking blocking, float[] data) {
+        this(left, rows, cols, blocking, null, data);
+    }
+
+    private PackedMatrix(boolean left, int rows, int cols, GemmBlocking blocking, double[] doubleData,
+        float[] floatData) {
+        BlasUtils.checkParameter("PACKEDMATRIX", 2, rows >= 0);
+        BlasUtils.checkParameter("PACKEDMATRIX", 3, cols >= 0);
+        BlasUtils.checkParameter("PACKEDMATRIX", 4, blocking != null);
+        int length = doubleData != null ? doubleData.length : floatData != null ? floatData.length : -1;
+        BlasUtils.checkParameter("PACKEDMATRIX", 5, length >= (long) rows * cols);
+        this.left = left;
+        this.rows = rows;
+        this.cols = cols;
+        this.blocking = blocking;
+        this.doubleData = doubleData;
+        this.floatData = floatData;
+    }
+
+    public boolean isLeft() {
+        return left;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public GemmBlocking getBlocking() {
+        return blocking;
+    }
+
+    public double[] getDoubleData() {
+        return doubleData;
+    }
+
+    public float[] getFloatData() {
+        return floatData;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2023. Huawei Technologies Co., Ltd.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.huawei.vectorblas.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import jdk.incubator.vector.DoubleVector;
+
+/**
+ * Persists tuned blocking profiles in a properties file, by default ~/.vectorblas/tuning.properties
+ * (system property vectorblas.tuning.file). A stored profile is only used on a machine with the same
+ * architecture, vector width, processor count and register tile (vectorblas.gemm.tile) as the one that
+ * produced it.
+ */
+public final class TuningProfile {
+    private static final Logger LOG = LoggerFactory.getLogger(TuningProfile.class);
+    private static final String FILE_PROPERTY = "vectorblas.tuning.file";
+    private static final String AUTOTUNE_PROPERTY = "vectorblas.autotune";
+    private static final String TILE_PROPERTY = "vectorblas.gemm.tile";
+    private static final String SIGNATURE_KEY = "signature";
+
+    private TuningProfile() {
+    }
+
+    /**
+     * Whether routines without a stored profile should calibrate themselves on first use.
+     */
+    public static boolean isAutotuneEnabled() {
+        return Boolean.getBoolean(AUTOTUNE_PROPERTY);
+    }
+
+    public static Path getFile() {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null) {
+            return Paths.get(file);
+        }
+        return Paths.get(System.getProperty("user.home"), ".vectorblas", "tuning.properties");
+    }
+
+    /**
+     * Load the blocking stored for routine (for example "dgemm"), or null if there is none for this machine.
+     * Non-positive sizes are rejected; p is rounded up to a multiple of unrollM as in the tuners and r to a
+     * multiple of unrollN, the register tile of the routine's kernel.
+     */
+    public static synchronized GemmBlocking load(String routine, int unrollM, int unrollN) {
+        Properties props = read();
+        if (!signature().equals(props.getProperty(SIGNATURE_KEY))) {
+            return null;
+        }
+        try {
+            String p = props.getProperty(routine + ".p");
+            String q = props.getProperty(routine + ".q");
+            String r = props.getProperty(routine + ".r");
+            if (p == null || q == null || r == null) {
+                return null;
+            }
+            GemmBlocking stored = new GemmBlocking(Integer.parseInt(p.trim()), Integer.parseInt(q.trim()),
+                Integer.parseInt(r.trim()));
+            return new GemmBlocking(ArrayUtil.roundUp(stored.getP(), unrollM), stored.getQ(),
+                ArrayUtil.roundUp(stored.getR(), unrollN));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Ignoring invalid {} profile in {}: {}", routine, getFile(), e.getMessage());
+            return null;
+        }
+    }
+
+    public static synchronized void store(String routine, GemmBlocking blocking) {
+        Properties props = read();
+        if (!signature().equals(props.getProperty(SIGNATURE_KEY))) {
+            props.clear();
+            props.setProperty(SIGNATURE_KEY, signature());
+        }
+        props.setProperty(routine + ".p", Integer.toString(blocking.getP()));
+        props.setProperty(routine + ".q", Integer.toString(blocking.getQ()));
+        props.setProperty(routine + ".r", Integer.toString(blocking.getR()));
+        Path file = getFile();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                props.store(out, "vectorBlas tuning profile");
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to store tuning profile {}: {}", file, e.toString());
+        }
+    }
+
+    private static Properties read() {
+        Properties props = new Properties();
+        Path file = getFile();
+        if (Files.isReadable(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+            } catch (IOException e) {
+                LOG.warn("Unable to read tuning profile {}: {}", file, e.toString());
+            }
+        }
+        return props;
+    }
+
+    private static String signature() {
+        return System.getProperty("os.arch") + "/" + DoubleVector.SPECIES_MAX.vectorBitSize() + "bit/"
+            + Runtime.getRuntime().availableProcessors() + "cpu/" + System.getProperty(TILE_PROPERTY, "default")
+            + "tile";
+    }
+}